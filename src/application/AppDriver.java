@@ -1,11 +1,16 @@
 package application;
 
+import java.io.IOException;
+
+import controller.InventoryService;
 import controller.ToyManager;
+import server.ToyServer;
 
 /**
- * The entry point for the Toy Store application. This class initializes the
- * ToyManager, which is responsible for loading toy data, managing user
- * interactions, and launching the main menu.
+ * The entry point for the Toy Store application. This class loads the
+ * inventory into an InventoryService and hands it to the ToyManager, which
+ * manages user interactions through the main menu. Started with `--server`,
+ * it serves the inventory over HTTP instead of showing the menu.
  * 
  * 
  * @author Justin, Fatema, Manveet
@@ -14,13 +19,53 @@ import controller.ToyManager;
 public class AppDriver {
 
 	/**
-	 * The main method to start the application. Initializes an instance of
-	 * ToyManager, which handles loading data from file, managing inventory, and
-	 * facilitating user interactions through the main menu.
+	 * The main method to start the application. Loads the inventory from file and
+	 * starts the console menu over it, or the HTTP server when the first argument
+	 * is `--server`.
 	 *
-	 * @param args Command line arguments (not used).
+	 * @param args Command line arguments: `--server [port]` to serve the
+	 *             inventory over HTTP, on port 8080 unless another is given.
 	 */
 	public static void main(String[] args) {
-		new ToyManager(); // Initialize ToyManager to load data and start the application
+		InventoryService service = new InventoryService();
+		service.load(); // Load the inventory from the data files
+
+		if (args.length > 0 && args[0].equals("--server")) {
+			startServer(service, args.length > 1 ? args[1] : null);
+		} else {
+			new ToyManager(service).launchApp(); // Start the main application menu
+		}
+	}
+
+	/**
+	 * Starts the HTTP server over the inventory. The server runs until the
+	 * process is stopped, at which point requests in progress are allowed to
+	 * finish and the inventory is saved.
+	 *
+	 * @param service The loaded inventory.
+	 * @param port    The port argument, or null for the default port.
+	 */
+	private static void startServer(InventoryService service, String port) {
+		ToyServer server;
+		try {
+			server = new ToyServer(service, port == null ? ToyServer.DEFAULT_PORT : Integer.parseInt(port));
+		} catch (NumberFormatException e) {
+			System.out.println("Invalid port: " + port);
+			return;
+		} catch (IOException e) {
+			System.out.println("Error starting server: " + e.getMessage());
+			return;
+		}
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			server.stop(2);
+			try {
+				service.close();
+			} catch (IOException e) {
+				System.out.println("Error saving inventory: " + e.getMessage());
+			}
+		}));
+		server.start();
+		System.out.println("Toy Store server listening on port " + server.getPort());
 	}
 }
@@ -0,0 +1,111 @@
+package controller;
+
+import model.Toy;
+
+/**
+ * One inventory change as seen by a {@link ChangeListener}. The counts and price
+ * are those of the toy at the moment the change was published.
+ *
+ * Events are reused: each subscription copies changes out of the feed into one
+ * event object, so a listener must copy any value it keeps beyond the call.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class ChangeEvent {
+
+	private long sequence; // Position of the change in the feed
+	private ChangeType type; // What changed
+	private Toy toy; // The toy that changed
+	private long serial; // Serial number of the toy
+	private int stockCount; // Units on hand after the change
+	private int availableCount; // Units available to sell after the change
+	private long priceCents; // Price after the change, in cents
+
+	/**
+	 * Gets the position of the change in the feed. Sequences start at zero and
+	 * have no gaps, so a consumer can resume from the one after the last it saw.
+	 *
+	 * @return the sequence number.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Gets the kind of change.
+	 *
+	 * @return the change type.
+	 */
+	public ChangeType getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the toy that changed. Its current state may be newer than this event.
+	 *
+	 * @return the toy.
+	 */
+	public Toy getToy() {
+		return toy;
+	}
+
+	/**
+	 * Gets the serial number of the toy that changed.
+	 *
+	 * @return the serial number as a long.
+	 */
+	public long getSerial() {
+		return serial;
+	}
+
+	/**
+	 * Gets the serial number of the toy that changed, as text.
+	 *
+	 * @return the 10-digit serial number.
+	 */
+	public String getSn() {
+		return Toy.formatSerial(serial);
+	}
+
+	/**
+	 * Gets the units on hand after the change, including held units.
+	 *
+	 * @return the stock count.
+	 */
+	public int getStockCount() {
+		return stockCount;
+	}
+
+	/**
+	 * Gets the units available to sell after the change.
+	 *
+	 * @return the available count.
+	 */
+	public int getAvailableCount() {
+		return availableCount;
+	}
+
+	/**
+	 * Gets the price after the change.
+	 *
+	 * @return the price in cents.
+	 */
+	public long getPriceCents() {
+		return priceCents;
+	}
+
+	/**
+	 * Fills the event with a change copied out of the feed.
+	 */
+	void set(long sequence, ChangeType type, Toy toy, long serial, int stockCount, int availableCount,
+			long priceCents) {
+		this.sequence = sequence;
+		this.type = type;
+		this.toy = toy;
+		this.serial = serial;
+		this.stockCount = stockCount;
+		this.availableCount = availableCount;
+		this.priceCents = priceCents;
+	}
+}
@@ -0,0 +1,259 @@
+package controller;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import model.Toy;
+
+/**
+ * In-process stream of inventory changes, published through a pre-allocated
+ * ring buffer. Every change gets the next sequence number; subscribers read the
+ * ring on their own threads, from any sequence still held in it, and receive
+ * changes in batches.
+ *
+ * Each slot of the ring is spread over parallel arrays, so publishing writes a
+ * few primitives into memory allocated up front: a producer claims a sequence
+ * with one atomic increment, fills the slot and publishes it by storing the
+ * sequence with release semantics. Producers never wait for consumers. A
+ * consumer that falls a whole ring behind has its oldest changes overwritten;
+ * it detects this when the slot's sequence moves past the one it expected and
+ * is told which changes it missed.
+ *
+ * A slot is read like a seqlock: the consumer copies the fields between two
+ * reads of the slot's sequence and discards the copy if the sequence changed.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class ChangeFeed {
+
+	public static final int DEFAULT_CAPACITY = 1 << 16; // Changes kept for subscribers
+	private static final int MAX_BATCH = 1024; // Longest batch before endOfBatch is forced
+	private static final long MAX_IDLE_NANOS = 1_000_000; // Longest park of an idle subscriber
+	private static final long WRITING = -1; // Slot sequence while a producer fills the slot
+	private static final ChangeType[] TYPES = ChangeType.values();
+	private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+	private final int mask; // Capacity - 1; the capacity is a power of two
+	private final AtomicLong cursor = new AtomicLong(); // Next sequence to claim
+	private final long[] sequences; // Sequence published in each slot, or WRITING
+	private final byte[] types; // Change type ordinal of each slot
+	private final Toy[] toys; // Toy of each slot
+	private final long[] serials; // Serial number of each slot's toy
+	private final int[] stockCounts; // Stock on hand after each change
+	private final int[] availableCounts; // Available count after each change
+	private final long[] prices; // Price in cents after each change
+
+	/**
+	 * Creates a feed holding the last {@link #DEFAULT_CAPACITY} changes.
+	 */
+	public ChangeFeed() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a feed holding the last `capacity` changes.
+	 *
+	 * @param capacity The ring size; must be a power of two.
+	 * @throws IllegalArgumentException if the capacity is not a power of two.
+	 */
+	public ChangeFeed(int capacity) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two.");
+		}
+		this.mask = capacity - 1;
+		this.sequences = new long[capacity];
+		Arrays.fill(sequences, WRITING); // No slot holds a sequence yet
+		this.types = new byte[capacity];
+		this.toys = new Toy[capacity];
+		this.serials = new long[capacity];
+		this.stockCounts = new int[capacity];
+		this.availableCounts = new int[capacity];
+		this.prices = new long[capacity];
+	}
+
+	/**
+	 * Publishes a change to a toy, capturing its current counts and price. Never
+	 * blocks and allocates nothing.
+	 *
+	 * @param type The kind of change.
+	 * @param toy  The toy that changed.
+	 */
+	public void publish(ChangeType type, Toy toy) {
+		long sequence = cursor.getAndIncrement();
+		int slot = (int) sequence & mask;
+
+		SEQUENCES.setOpaque(sequences, slot, WRITING);
+		VarHandle.storeStoreFence(); // Readers must see WRITING before any new field
+		types[slot] = (byte) type.ordinal();
+		toys[slot] = toy;
+		serials[slot] = toy.getSerial();
+		stockCounts[slot] = toy.getStockCount();
+		availableCounts[slot] = toy.getAvailableCount();
+		prices[slot] = toy.getPriceCents();
+		SEQUENCES.setRelease(sequences, slot, sequence);
+	}
+
+	/**
+	 * Gets the sequence the next change will be published with. Subscribing from
+	 * it receives only changes made from now on.
+	 *
+	 * @return the next sequence.
+	 */
+	public long getCursor() {
+		return cursor.get();
+	}
+
+	/**
+	 * Gets the number of changes the ring holds.
+	 *
+	 * @return the capacity.
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Starts delivering changes to a listener on a new daemon thread, beginning
+	 * at the given sequence. If that change has already been overwritten, the
+	 * listener is told which changes it missed and delivery starts at the oldest
+	 * change still held.
+	 *
+	 * @param fromSequence The first sequence to deliver, e.g. {@link #getCursor()}
+	 *                     or one past the last sequence a consumer processed.
+	 * @param listener     Receives the changes.
+	 * @return The subscription, which stops delivery when closed.
+	 */
+	public Subscription subscribe(long fromSequence, ChangeListener listener) {
+		Subscription subscription = new Subscription(Math.max(0, fromSequence), listener);
+		Thread thread = new Thread(subscription::run, "change-feed-" + fromSequence);
+		thread.setDaemon(true);
+		thread.start();
+		return subscription;
+	}
+
+	/**
+	 * A listener reading the feed on its own thread.
+	 */
+	public class Subscription implements Closeable {
+
+		private final ChangeListener listener; // Receives the changes
+		private final ChangeEvent event = new ChangeEvent(); // Reused for the changes delivered
+		private final ChangeEvent lookahead = new ChangeEvent(); // Alternates with event while reading ahead
+		private volatile long next; // Next sequence to deliver
+		private volatile boolean closed; // Set to stop the thread
+
+		private Subscription(long next, ChangeListener listener) {
+			this.next = next;
+			this.listener = listener;
+		}
+
+		/**
+		 * Gets the next sequence this subscription will deliver, which a consumer
+		 * can store to resume from later.
+		 *
+		 * @return the next sequence.
+		 */
+		public long getNextSequence() {
+			return next;
+		}
+
+		/**
+		 * Stops delivering changes. A batch in progress is finished first.
+		 */
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+		/**
+		 * Delivers batches until closed, parking with a growing back-off while
+		 * nothing new is published.
+		 */
+		private void run() {
+			long idleNanos = 1_000;
+			while (!closed) {
+				try {
+					if (deliverBatch()) {
+						idleNanos = 1_000;
+					} else {
+						LockSupport.parkNanos(idleNanos);
+						idleNanos = Math.min(idleNanos * 2, MAX_IDLE_NANOS);
+					}
+				} catch (RuntimeException e) {
+					System.out.println("\nError in change listener: " + e.getMessage());
+				}
+			}
+		}
+
+		/**
+		 * Delivers the changes published since the last batch.
+		 *
+		 * @return true if anything was delivered or skipped.
+		 */
+		private boolean deliverBatch() {
+			long sequence = next;
+			long oldest = cursor.get() - (mask + 1);
+			if (sequence < oldest) {
+				skip(sequence, oldest);
+				return true;
+			}
+
+			// Read one change ahead so the listener knows where the batch ends
+			ChangeEvent current = event;
+			ChangeEvent ahead = lookahead;
+			int delivered = 0;
+			boolean ready = read(sequence, current);
+			while (ready) {
+				sequence++;
+				delivered++;
+				ready = delivered < MAX_BATCH && read(sequence, ahead);
+				next = sequence; // A change whose listener call throws is not delivered again
+				listener.onChange(current, !ready);
+
+				ChangeEvent swap = current;
+				current = ahead;
+				ahead = swap;
+			}
+			return delivered > 0;
+		}
+
+		/**
+		 * Copies one published change into an event. A change that was
+		 * overwritten is not copied; the next batch then finds the subscription
+		 * behind the oldest change held and skips ahead.
+		 *
+		 * @return false if the change is not published yet or was overwritten.
+		 */
+		private boolean read(long sequence, ChangeEvent into) {
+			int slot = (int) sequence & mask;
+			if ((long) SEQUENCES.getAcquire(sequences, slot) != sequence) {
+				return false;
+			}
+			ChangeType type = TYPES[types[slot]];
+			Toy toy = toys[slot];
+			long serial = serials[slot];
+			int stockCount = stockCounts[slot];
+			int availableCount = availableCounts[slot];
+			long priceCents = prices[slot];
+			VarHandle.loadLoadFence(); // Read the fields before checking they were not overwritten
+			if ((long) SEQUENCES.getOpaque(sequences, slot) != sequence) {
+				return false;
+			}
+			into.set(sequence, type, toy, serial, stockCount, availableCount, priceCents);
+			return true;
+		}
+
+		/**
+		 * Reports overwritten changes and moves past them.
+		 */
+		private void skip(long from, long to) {
+			listener.onMissed(from, to);
+			next = to;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package controller;
+
+/**
+ * Receives inventory changes from a {@link ChangeFeed} subscription. Calls are
+ * made on the subscription's own thread, one at a time and in sequence order.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public interface ChangeListener {
+
+	/**
+	 * Handles one change. Changes are delivered in batches of everything
+	 * published since the previous batch; `endOfBatch` marks the last change of
+	 * a batch, which is the place to flush work buffered across the batch.
+	 *
+	 * @param event      The change; reused after the call returns.
+	 * @param endOfBatch true if no further change is ready yet.
+	 */
+	void onChange(ChangeEvent event, boolean endOfBatch);
+
+	/**
+	 * Handles changes that were overwritten in the feed before this subscriber
+	 * read them, because it fell a whole ring behind the producers. A listener
+	 * that keeps a copy of the inventory should reload it. Does nothing by
+	 * default.
+	 *
+	 * @param fromSequence The first missed sequence.
+	 * @param toSequence   The sequence after the last missed one.
+	 */
+	default void onMissed(long fromSequence, long toSequence) {
+	}
+}
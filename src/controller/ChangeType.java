@@ -0,0 +1,20 @@
+package controller;
+
+/**
+ * Kinds of inventory change published on the {@link ChangeFeed}.
+ *
+ * ADDED and REMOVED are published under the inventory's write lock, so they
+ * arrive in the order they happened. STOCK changes are published by lock-free
+ * purchases and may arrive just after the REMOVED of the same toy; a consumer
+ * applies STOCK and PRICE only to a toy it knows, i.e. whose ADDED (or initial
+ * load) it has seen and that it holds as the same Toy object.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public enum ChangeType {
+	ADDED, // A toy was added
+	REMOVED, // A toy was removed, by hand or because its stock ran out
+	STOCK, // A toy's stock on hand or held units changed
+	PRICE; // A toy's price changed
+}
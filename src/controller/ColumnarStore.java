@@ -0,0 +1,316 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.StringDictionary;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Optional struct-of-arrays copy of the inventory, kept in each
+ * {@link InventorySnapshot}. Each toy's row is spread over parallel primitive
+ * columns (price in cents, appropriate age, type ordinal, and dictionary ids
+ * for name and brand), so filter scans run over contiguous memory instead of
+ * following one pointer per toy. The Toy of a row is only read once the row
+ * matches, to hand it back for display. Stock
+ * counts are not copied: purchases change them without publishing a new
+ * snapshot, so they are only read from the Toy itself.
+ *
+ * The store is immutable like the rest of the snapshot. Every column is cut
+ * into chunks of 256 rows; a change copies the chunk it touches in each column
+ * and the short arrays of chunks, and shares every other chunk with the store
+ * it was made from. Removed rows are marked with a negative type and skipped
+ * until the snapshot is rebuilt without them.
+ *
+ * Names are encoded in a dictionary that belongs to the store and is shared
+ * only with the stores made from it, so it holds only names added since the
+ * store was last built. Rebuilding the snapshot starts a new dictionary, which
+ * drops the names of removed and renamed toys.
+ *
+ * The store is enabled with -Dtoystore.columnar=true, and snapshots then
+ * answer type searches and gift suggestions by scanning it.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class ColumnarStore {
+
+	public static final boolean ENABLED = Boolean.getBoolean("toystore.columnar"); // Set to keep the store
+	public static final ColumnarStore EMPTY = new ColumnarStore(0, new long[0][], new int[0][], new byte[0][],
+			new int[0][], new int[0][], new StringDictionary());
+	private static final int BITS = 8; // log2 of the rows per chunk
+	private static final int CHUNK = 1 << BITS; // Rows per chunk
+	private static final int MASK = CHUNK - 1;
+	private static final byte REMOVED = -1; // Type column value of a removed row
+
+	private final int size; // Number of rows, including removed ones
+	private final long[][] prices; // Price in cents, by chunk
+	private final int[][] ages; // Appropriate age, by chunk
+	private final byte[][] types; // Type ordinal, or REMOVED, by chunk
+	private final int[][] nameIds; // Name id in the store's dictionary, by chunk
+	private final int[][] brandIds; // Brand id in the shared attribute dictionary, by chunk
+	private final StringDictionary names; // Encodes the name column
+
+	private ColumnarStore(int size, long[][] prices, int[][] ages, byte[][] types, int[][] nameIds,
+			int[][] brandIds, StringDictionary names) {
+		this.size = size;
+		this.prices = prices;
+		this.ages = ages;
+		this.types = types;
+		this.nameIds = nameIds;
+		this.brandIds = brandIds;
+		this.names = names;
+	}
+
+	/**
+	 * Builds the store over a list of toys, each toy's row being its position
+	 * in the list.
+	 *
+	 * @param toys The toys in row order.
+	 * @return the store.
+	 */
+	public static ColumnarStore of(List<Toy> toys) {
+		int chunks = (toys.size() + MASK) / CHUNK;
+		long[][] prices = new long[chunks][];
+		int[][] ages = new int[chunks][];
+		byte[][] types = new byte[chunks][];
+		int[][] nameIds = new int[chunks][];
+		int[][] brandIds = new int[chunks][];
+		StringDictionary names = new StringDictionary();
+		for (int c = 0; c < chunks; c++) {
+			int length = Math.min(CHUNK, toys.size() - c * CHUNK);
+			prices[c] = new long[length];
+			ages[c] = new int[length];
+			types[c] = new byte[length];
+			nameIds[c] = new int[length];
+			brandIds[c] = new int[length];
+			for (int i = 0; i < length; i++) {
+				Toy toy = toys.get(c * CHUNK + i);
+				prices[c][i] = toy.getPriceCents();
+				ages[c][i] = toy.getAgeAppropriate();
+				types[c][i] = (byte) toy.getType().ordinal();
+				nameIds[c][i] = names.encode(toy.getName());
+				brandIds[c][i] = toy.getBrandId();
+			}
+		}
+		return new ColumnarStore(toys.size(), prices, ages, types, nameIds, brandIds, names);
+	}
+
+	/**
+	 * Gets the number of rows, including removed ones.
+	 *
+	 * @return the number of rows.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Makes a store with a toy added in the next row.
+	 *
+	 * @param toy The toy.
+	 * @return the new store; this one is unchanged.
+	 */
+	public ColumnarStore with(Toy toy) {
+		int c = size >>> BITS;
+		StringDictionary names = size == 0 ? new StringDictionary() : this.names; // Never grow EMPTY's dictionary
+		if ((size & MASK) == 0) {
+			// The last chunk is full: start a new one
+			return new ColumnarStore(size + 1, appendChunk(prices, new long[] { toy.getPriceCents() }),
+					appendChunk(ages, new int[] { toy.getAgeAppropriate() }),
+					appendChunk(types, new byte[] { (byte) toy.getType().ordinal() }),
+					appendChunk(nameIds, new int[] { names.encode(toy.getName()) }),
+					appendChunk(brandIds, new int[] { toy.getBrandId() }), names);
+		}
+
+		int i = size & MASK;
+		long[][] newPrices = prices.clone();
+		newPrices[c] = Arrays.copyOf(prices[c], i + 1);
+		newPrices[c][i] = toy.getPriceCents();
+		int[][] newAges = ages.clone();
+		newAges[c] = Arrays.copyOf(ages[c], i + 1);
+		newAges[c][i] = toy.getAgeAppropriate();
+		byte[][] newTypes = types.clone();
+		newTypes[c] = Arrays.copyOf(types[c], i + 1);
+		newTypes[c][i] = (byte) toy.getType().ordinal();
+		int[][] newNameIds = nameIds.clone();
+		newNameIds[c] = Arrays.copyOf(nameIds[c], i + 1);
+		newNameIds[c][i] = names.encode(toy.getName());
+		int[][] newBrandIds = brandIds.clone();
+		newBrandIds[c] = Arrays.copyOf(brandIds[c], i + 1);
+		newBrandIds[c][i] = toy.getBrandId();
+		return new ColumnarStore(size + 1, newPrices, newAges, newTypes, newNameIds, newBrandIds, names);
+	}
+
+	/**
+	 * Makes a store with a row marked removed.
+	 *
+	 * @param row The row of the removed toy.
+	 * @return the new store; this one is unchanged.
+	 */
+	public ColumnarStore without(int row) {
+		byte[][] newTypes = types.clone();
+		newTypes[row >>> BITS] = types[row >>> BITS].clone();
+		newTypes[row >>> BITS][row & MASK] = REMOVED;
+		return new ColumnarStore(size, prices, ages, newTypes, nameIds, brandIds, names);
+	}
+
+	/**
+	 * Makes a store with a new price in a row.
+	 *
+	 * @param row        The toy's row.
+	 * @param priceCents The new price in cents.
+	 * @return the new store; this one is unchanged.
+	 */
+	public ColumnarStore withPrice(int row, long priceCents) {
+		long[][] newPrices = prices.clone();
+		newPrices[row >>> BITS] = prices[row >>> BITS].clone();
+		newPrices[row >>> BITS][row & MASK] = priceCents;
+		return new ColumnarStore(size, newPrices, ages, types, nameIds, brandIds, names);
+	}
+
+	/**
+	 * Finds the toys matching every given criterion by scanning the columns.
+	 *
+	 * @param minAge        The minimum appropriate age (can be null if not
+	 *                      specified).
+	 * @param maxPriceCents The maximum price in cents (can be null if not
+	 *                      specified).
+	 * @param toyType       The toy type (can be null if not specified).
+	 * @param rows          The toy in each row, null for removed toys.
+	 * @return The matching toys, cheapest first by the prices in the store;
+	 *         equal prices stay in inventory order.
+	 */
+	public List<Toy> filter(Integer minAge, Long maxPriceCents, ToyType toyType, PersistentVector<Toy> rows) {
+		int ageBound = minAge == null ? Integer.MIN_VALUE : minAge;
+		long priceBound = maxPriceCents == null ? Long.MAX_VALUE : maxPriceCents;
+		int typeLow = toyType == null ? 0 : toyType.ordinal();
+		int typeHigh = toyType == null ? Byte.MAX_VALUE : toyType.ordinal();
+
+		int[] matchedRows = new int[CHUNK]; // Row of each match
+		long[] matchedPrices = new long[CHUNK]; // Price of each match
+		int count = 0;
+		for (int c = 0; c < types.length; c++) {
+			byte[] type = types[c];
+			int[] age = ages[c];
+			long[] price = prices[c];
+			for (int i = 0; i < type.length; i++) {
+				if (type[i] >= typeLow && type[i] <= typeHigh && age[i] >= ageBound && price[i] <= priceBound) {
+					if (count == matchedRows.length) {
+						matchedRows = Arrays.copyOf(matchedRows, count * 2);
+						matchedPrices = Arrays.copyOf(matchedPrices, count * 2);
+					}
+					matchedRows[count] = c * CHUNK + i;
+					matchedPrices[count++] = price[i];
+				}
+			}
+		}
+
+		sortByPrice(matchedRows, matchedPrices, count);
+		List<Toy> results = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			results.add(rows.get(matchedRows[i]));
+		}
+		return results;
+	}
+
+	/**
+	 * Sorts the first count matches by price with a bottom-up merge sort on the
+	 * primitive arrays. The sort is stable, so rows at equal prices stay in
+	 * inventory order.
+	 */
+	private static void sortByPrice(int[] rows, long[] prices, int count) {
+		int[] rowBuffer = new int[count];
+		long[] priceBuffer = new long[count];
+		for (int width = 1; width < count; width *= 2) {
+			for (int low = 0; low < count; low += 2 * width) {
+				int mid = Math.min(low + width, count);
+				int high = Math.min(low + 2 * width, count);
+				int left = low;
+				int right = mid;
+				for (int k = low; k < high; k++) {
+					if (right == high || (left < mid && prices[left] <= prices[right])) {
+						rowBuffer[k] = rows[left];
+						priceBuffer[k] = prices[left++];
+					} else {
+						rowBuffer[k] = rows[right];
+						priceBuffer[k] = prices[right++];
+					}
+				}
+			}
+			System.arraycopy(rowBuffer, 0, rows, 0, count);
+			System.arraycopy(priceBuffer, 0, prices, 0, count);
+		}
+	}
+
+	/**
+	 * Finds the toys of one type by scanning the type column.
+	 *
+	 * @param toyType The toy type.
+	 * @param rows    The toy in each row, null for removed toys.
+	 * @return The toys of this type in inventory order.
+	 */
+	public List<Toy> byType(ToyType toyType, PersistentVector<Toy> rows) {
+		byte wanted = (byte) toyType.ordinal();
+		List<Toy> results = new ArrayList<>();
+		for (int c = 0; c < types.length; c++) {
+			byte[] type = types[c];
+			for (int i = 0; i < type.length; i++) {
+				if (type[i] == wanted) {
+					results.add(rows.get(c * CHUNK + i));
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Gets the name stored in a row.
+	 *
+	 * @param row The row.
+	 * @return the toy's name.
+	 */
+	public String getName(int row) {
+		return names.decode(nameIds[row >>> BITS][row & MASK]);
+	}
+
+	/**
+	 * Gets the brand stored in a row.
+	 *
+	 * @param row The row.
+	 * @return the toy's brand.
+	 */
+	public String getBrand(int row) {
+		return StringDictionary.shared().decode(brandIds[row >>> BITS][row & MASK]);
+	}
+
+	/**
+	 * Gets the price stored in a row.
+	 *
+	 * @param row The row.
+	 * @return the price in cents.
+	 */
+	public long getPriceCents(int row) {
+		return prices[row >>> BITS][row & MASK];
+	}
+
+	private static long[][] appendChunk(long[][] chunks, long[] chunk) {
+		long[][] updated = Arrays.copyOf(chunks, chunks.length + 1);
+		updated[chunks.length] = chunk;
+		return updated;
+	}
+
+	private static int[][] appendChunk(int[][] chunks, int[] chunk) {
+		int[][] updated = Arrays.copyOf(chunks, chunks.length + 1);
+		updated[chunks.length] = chunk;
+		return updated;
+	}
+
+	private static byte[][] appendChunk(byte[][] chunks, byte[] chunk) {
+		byte[][] updated = Arrays.copyOf(chunks, chunks.length + 1);
+		updated[chunks.length] = chunk;
+		return updated;
+	}
+}
@@ -0,0 +1,63 @@
+package controller;
+
+import java.util.Collections;
+import java.util.List;
+
+import model.Toy;
+
+/**
+ * A set of distinct toys chosen together as one gift within a budget, with
+ * their total price and combined value score.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class GiftBundle {
+
+	public static final GiftBundle EMPTY = new GiftBundle(Collections.emptyList(), 0, 0);
+
+	private final List<Toy> toys; // The toys chosen, highest value first
+	private final long totalCents; // Sum of their prices when chosen
+	private final double value; // Sum of their value scores
+
+	/**
+	 * Creates a bundle.
+	 *
+	 * @param toys       The toys chosen.
+	 * @param totalCents The sum of their prices in cents.
+	 * @param value      The sum of their value scores.
+	 */
+	GiftBundle(List<Toy> toys, long totalCents, double value) {
+		this.toys = Collections.unmodifiableList(toys);
+		this.totalCents = totalCents;
+		this.value = value;
+	}
+
+	/**
+	 * Gets the toys chosen.
+	 *
+	 * @return an unmodifiable list of the toys, highest value first; empty if
+	 *         nothing fits the budget.
+	 */
+	public List<Toy> getToys() {
+		return toys;
+	}
+
+	/**
+	 * Gets the total price of the bundle in cents.
+	 *
+	 * @return the total price.
+	 */
+	public long getTotalCents() {
+		return totalCents;
+	}
+
+	/**
+	 * Gets the combined value score of the bundle.
+	 *
+	 * @return the value.
+	 */
+	public double getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,295 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Chooses several gifts at once: the set of distinct, in-stock toys whose
+ * total price fits a budget and whose combined value is highest, optionally
+ * with at most one toy of each type. A toy's value is its {@link GiftRanker}
+ * score for age fit, stock and the preferred brand and type; price headroom
+ * is left out, since the budget applies to the bundle rather than to each toy.
+ *
+ * The catalog is first cut down to the toys that can be in a best bundle. A
+ * toy is dropped when there are other toys of its type, no dearer and worth at
+ * least as much, for every place a bundle has: whichever of them a bundle
+ * leaves out can take the toy's place without costing more or being worth
+ * less. A bundle has one place per type when only one toy per type is allowed,
+ * and otherwise as many as the cheapest toys that fit the budget together.
+ *
+ * The candidates are then packed by a knapsack over whole-cent prices, one
+ * group per type when only one toy per type is allowed and one group per toy
+ * otherwise. It takes O(candidates &times; budget in cents) steps, which stays
+ * small for everyday budgets. When that would pass {@value #MAX_CELLS} steps,
+ * prices are rounded up and the budget down to a coarser unit, so the bundle
+ * found still fits the budget but may leave a little value unused.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class GiftBundler {
+
+	private static final long MAX_CELLS = 1L << 24; // Most candidate-by-budget steps the knapsack may take
+	private static final ToyType[] TYPES = ToyType.values(); // Type of each candidate group, by ordinal
+
+	private final GiftRanker scorer; // Scores each toy's value; its limit is unused
+	private final boolean onePerType; // Whether a bundle may hold only one toy of each type
+
+	/**
+	 * Creates a bundler.
+	 *
+	 * @param weights        The weight of each criterion of a toy's value.
+	 * @param preferredBrand The preferred brand, matched ignoring case (can be
+	 *                       null if not specified).
+	 * @param preferredType  The preferred toy type (can be null if not
+	 *                       specified).
+	 * @param onePerType     Whether a bundle may hold only one toy of each type.
+	 */
+	public GiftBundler(GiftWeights weights, String preferredBrand, ToyType preferredType, boolean onePerType) {
+		this.scorer = new GiftRanker(1, weights, preferredBrand, preferredType);
+		this.onePerType = onePerType;
+	}
+
+	/**
+	 * Finds the most valuable bundle of toys from a gift index that fits a
+	 * budget.
+	 *
+	 * @param index       The gift index.
+	 * @param rows        The toy in each row, null for removed toys.
+	 * @param minAge      The minimum appropriate age (can be null if not
+	 *                    specified).
+	 * @param budgetCents The most the bundle may cost, in cents.
+	 * @param toyType     The toy type (can be null if not specified).
+	 * @return the bundle; empty if no toy with any value fits the budget.
+	 */
+	GiftBundle bundle(GiftIndex index, PersistentVector<Toy> rows, Integer minAge, long budgetCents,
+			ToyType toyType) {
+		if (budgetCents < 0) {
+			return GiftBundle.EMPTY;
+		}
+		Candidates candidates = new Candidates(minAge);
+		index.visit(minAge, budgetCents, toyType, rows, candidates);
+
+		// Price and value every candidate at its current price
+		List<Toy> items = new ArrayList<>();
+		List<int[]> groups = new ArrayList<>();
+		int places = onePerType ? 1 : Math.max(1, candidates.mostToysWithin(budgetCents));
+		for (int type = 0; type < TYPES.length; type++) {
+			List<Toy> pruned = candidates.of(type, minAge, budgetCents, places);
+			int first = items.size();
+			items.addAll(pruned);
+			if (onePerType) {
+				if (!pruned.isEmpty()) {
+					groups.add(range(first, items.size()));
+				}
+			} else {
+				for (int i = first; i < items.size(); i++) {
+					groups.add(range(i, i + 1));
+				}
+			}
+		}
+		if (items.isEmpty()) {
+			return GiftBundle.EMPTY;
+		}
+
+		long[] prices = new long[items.size()];
+		double[] values = new double[items.size()];
+		long sum = 0;
+		for (int i = 0; i < prices.length; i++) {
+			prices[i] = items.get(i).getPriceCents();
+			values[i] = scorer.score(items.get(i), prices[i], minAge, null);
+			sum += prices[i];
+		}
+		boolean[] chosen = pack(prices, values, groups, Math.min(budgetCents, sum));
+
+		List<Toy> toys = new ArrayList<>();
+		long total = 0;
+		double value = 0;
+		Integer[] order = new Integer[items.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(i -> -values[i]));
+		for (int i : order) {
+			if (chosen[i]) {
+				toys.add(items.get(i));
+				total += prices[i];
+				value += values[i];
+			}
+		}
+		return new GiftBundle(toys, total, value);
+	}
+
+	/**
+	 * Solves the grouped knapsack: at most one item per group, total price at
+	 * most the capacity, greatest total value. best[c] holds the greatest value
+	 * of the groups so far within c units, and each group records which of its
+	 * items, if any, it added at each capacity so the choice can be traced back.
+	 * The record takes a byte per capacity, or an int for a group too long to
+	 * number its items in a byte.
+	 */
+	private static boolean[] pack(long[] prices, double[] values, List<int[]> groups, long capacity) {
+		long unit = Math.max(1, ((capacity + 1) * prices.length + MAX_CELLS - 1) / MAX_CELLS);
+		int units = (int) (capacity / unit);
+		int[] costs = new int[prices.length];
+		for (int i = 0; i < costs.length; i++) {
+			costs[i] = (int) Math.min(units + 1L, (prices[i] + unit - 1) / unit); // Rounded up: never over budget
+		}
+
+		double[] best = new double[units + 1];
+		double[] next = new double[units + 1];
+		byte[][] choices = new byte[groups.size()][];
+		int[][] wideChoices = new int[groups.size()][]; // Choices of groups of more than Byte.MAX_VALUE items
+		for (int g = 0; g < groups.size(); g++) {
+			int[] group = groups.get(g);
+			boolean wide = group.length > Byte.MAX_VALUE;
+			byte[] choice = wide ? null : new byte[units + 1];
+			int[] wideChoice = wide ? new int[units + 1] : null;
+			if (wide) {
+				Arrays.fill(wideChoice, -1);
+			} else {
+				Arrays.fill(choice, (byte) -1);
+			}
+			System.arraycopy(best, 0, next, 0, best.length);
+			for (int k = 0; k < group.length; k++) {
+				int cost = costs[group[k]];
+				double value = values[group[k]];
+				for (int c = cost; c <= units; c++) {
+					double candidate = best[c - cost] + value;
+					if (candidate > next[c]) {
+						next[c] = candidate;
+						if (wide) {
+							wideChoice[c] = k;
+						} else {
+							choice[c] = (byte) k;
+						}
+					}
+				}
+			}
+			choices[g] = choice;
+			wideChoices[g] = wideChoice;
+			double[] swap = best;
+			best = next;
+			next = swap;
+		}
+
+		// Trace the choices back from the full budget
+		boolean[] chosen = new boolean[prices.length];
+		int c = units;
+		for (int g = groups.size() - 1; g >= 0; g--) {
+			int k = choices[g] != null ? choices[g][c] : wideChoices[g][c];
+			if (k >= 0) {
+				int item = groups.get(g)[k];
+				chosen[item] = true;
+				c -= costs[item];
+			}
+		}
+		return chosen;
+	}
+
+	/**
+	 * Makes the array of item indexes from `from` up to `to`.
+	 */
+	private static int[] range(int from, int to) {
+		int[] indexes = new int[to - from];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = from + i;
+		}
+		return indexes;
+	}
+
+	/**
+	 * The matching toys of each type that are in stock and worth something.
+	 */
+	private final class Candidates implements GiftIndex.MatchSink {
+		private final Integer minAge; // Requested age, null if not specified
+		private final List<List<Toy>> byType = new ArrayList<>(); // Matches of each type, by ordinal
+
+		private Candidates(Integer minAge) {
+			this.minAge = minAge;
+			for (int type = 0; type < TYPES.length; type++) {
+				byType.add(new ArrayList<>());
+			}
+		}
+
+		@Override
+		public void add(Toy toy, long priceCents) {
+			if (toy.getAvailableCount() <= 0) {
+				return;
+			}
+			if (scorer.score(toy, priceCents, minAge, null) <= 0) {
+				return; // Adds nothing to any bundle
+			}
+			byType.get(toy.getType().ordinal()).add(toy);
+		}
+
+		/**
+		 * Counts the most toys a bundle can hold: how many of the cheapest
+		 * matches, at their current prices, fit the budget together.
+		 */
+		private int mostToysWithin(long budgetCents) {
+			List<Long> prices = new ArrayList<>();
+			for (List<Toy> toys : byType) {
+				for (Toy toy : toys) {
+					prices.add(toy.getPriceCents());
+				}
+			}
+			Collections.sort(prices);
+			int count = 0;
+			long total = 0;
+			for (long price : prices) {
+				total += price;
+				if (total > budgetCents) {
+					break;
+				}
+				count++;
+			}
+			return count;
+		}
+
+		/**
+		 * Gets the candidates of one type that are still in stock and within the
+		 * budget at their current price, dropping every toy with at least `places`
+		 * others that cost no more and are worth at least as much.
+		 */
+		private List<Toy> of(int type, Integer minAge, long budgetCents, int places) {
+			List<Toy> toys = new ArrayList<>();
+			for (Toy toy : byType.get(type)) {
+				if (toy.getAvailableCount() > 0 && toy.getPriceCents() <= budgetCents) {
+					toys.add(toy);
+				}
+			}
+
+			// Cheapest first, then most valuable, so every toy that can replace one comes before it
+			double[] values = new double[toys.size()];
+			Integer[] order = new Integer[toys.size()];
+			for (int i = 0; i < order.length; i++) {
+				values[i] = scorer.score(toys.get(i), toys.get(i).getPriceCents(), minAge, null);
+				order[i] = i;
+			}
+			Arrays.sort(order, Comparator.<Integer>comparingLong(i -> toys.get(i).getPriceCents())
+					.thenComparingDouble(i -> -values[i]));
+
+			// Keep a toy unless the `places` most valuable toys before it are all worth as much
+			PriorityQueue<Double> best = new PriorityQueue<>(); // Values of the most valuable toys so far
+			List<Toy> kept = new ArrayList<>();
+			for (int i : order) {
+				if (best.size() < places || values[i] > best.peek()) {
+					kept.add(toys.get(i));
+					if (best.size() == places) {
+						best.poll();
+					}
+					best.add(values[i]);
+				}
+			}
+			return kept;
+		}
+	}
+}
@@ -0,0 +1,511 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Composite index for gift suggestions. Toys are grouped by type, then bucketed
+ * by appropriate age, and each bucket keeps its toys sorted by price. Any
+ * combination of the optional criteria (minimum age, maximum price, toy type)
+ * is answered with range lookups: the type selects the groups, a tail of the
+ * age buckets covers the minimum age, and a binary search bounds each bucket's
+ * price range.
+ *
+ * The index is immutable and identifies toys by their row in an
+ * {@link InventorySnapshot}. A bucket is split into chunks of at most 64
+ * rows, so adding or moving a toy copies one short chunk and
+ * the bucket's array of chunks, and shares the rest with the previous index.
+ * Removed toys stay in their chunk with an empty row, and are skipped.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class GiftIndex {
+
+	public static final GiftIndex EMPTY = new GiftIndex(new Group[ToyType.values().length]);
+	private static final int CHUNK = 64; // Most rows per chunk before it splits
+	private static final Group NO_GROUP = new Group(new int[0], new Bucket[0]);
+
+	private final Group[] groups; // Group of each toy type, by ordinal; null if none yet
+
+	private GiftIndex(Group[] groups) {
+		this.groups = groups;
+	}
+
+	/**
+	 * Builds the index over a list of toys, each toy's row being its position
+	 * in the list. Each toy's price is read once, so a price changed while the
+	 * index is built is indexed at either its old or its new value.
+	 *
+	 * @param toys The toys in row order.
+	 * @return the index.
+	 */
+	public static GiftIndex of(List<Toy> toys) {
+		List<NavigableMap<Integer, List<Integer>>> rowsByAge = new ArrayList<>();
+		for (int type = 0; type < ToyType.values().length; type++) {
+			rowsByAge.add(new TreeMap<>());
+		}
+		long[] prices = new long[toys.size()];
+		for (int row = 0; row < toys.size(); row++) {
+			Toy toy = toys.get(row);
+			prices[row] = toy.getPriceCents();
+			rowsByAge.get(toy.getType().ordinal()).computeIfAbsent(toy.getAgeAppropriate(), age -> new ArrayList<>())
+					.add(row);
+		}
+
+		Group[] groups = new Group[rowsByAge.size()];
+		for (int type = 0; type < groups.length; type++) {
+			NavigableMap<Integer, List<Integer>> ages = rowsByAge.get(type);
+			if (ages.isEmpty()) {
+				continue;
+			}
+			int[] keys = new int[ages.size()];
+			Bucket[] buckets = new Bucket[ages.size()];
+			int a = 0;
+			for (Map.Entry<Integer, List<Integer>> entry : ages.entrySet()) {
+				List<Integer> rows = entry.getValue();
+				rows.sort(Comparator.comparingLong(row -> prices[row])); // Stable for equal prices
+				keys[a] = entry.getKey();
+				buckets[a++] = Bucket.of(rows, prices);
+			}
+			groups[type] = new Group(keys, buckets);
+		}
+		return new GiftIndex(groups);
+	}
+
+	/**
+	 * Makes an index with a toy added at its current price, after every toy in
+	 * its bucket with a lower or equal price.
+	 *
+	 * @param row The toy's row.
+	 * @param toy The toy.
+	 * @return the new index; this one is unchanged.
+	 */
+	public GiftIndex with(int row, Toy toy) {
+		int type = toy.getType().ordinal();
+		Group group = groups[type] == null ? NO_GROUP : groups[type];
+		Group[] updated = groups.clone();
+		updated[type] = group.with(row, toy.getAgeAppropriate(), toy.getPriceCents());
+		return new GiftIndex(updated);
+	}
+
+	/**
+	 * Makes an index without a toy, e.g. before adding it again at a new price.
+	 *
+	 * @param row        The toy's row.
+	 * @param toy        The toy.
+	 * @param priceCents The price the toy was indexed at.
+	 * @return the new index, or this one if the toy is not indexed at that
+	 *         price.
+	 */
+	public GiftIndex without(int row, Toy toy, long priceCents) {
+		int type = toy.getType().ordinal();
+		if (groups[type] == null) {
+			return this;
+		}
+		Group group = groups[type].without(row, toy.getAgeAppropriate(), priceCents);
+		if (group == groups[type]) {
+			return this;
+		}
+		Group[] updated = groups.clone();
+		updated[type] = group;
+		return new GiftIndex(updated);
+	}
+
+	/**
+	 * Finds the toys matching every given criterion.
+	 *
+	 * @param minAge        The minimum appropriate age (can be null if not
+	 *                      specified).
+	 * @param maxPriceCents The maximum price in cents (can be null if not
+	 *                      specified).
+	 * @param toyType       The toy type (can be null if not specified).
+	 * @param rows          The toy in each row, null for removed toys.
+	 * @return The matching toys, cheapest first by the prices they were indexed
+	 *         at.
+	 */
+	public List<Toy> query(Integer minAge, Long maxPriceCents, ToyType toyType, PersistentVector<Toy> rows) {
+		Matches matches = new Matches();
+		for (ToyType type : ToyType.values()) {
+			Group group = groups[type.ordinal()];
+			if (group == null || toyType != null && type != toyType) {
+				continue;
+			}
+			int first = minAge == null ? 0 : group.firstAtLeast(minAge);
+			for (int a = first; a < group.ages.length; a++) {
+				group.buckets[a].collect(maxPriceCents, rows, matches);
+				matches.endRun();
+			}
+		}
+		return matches.merge();
+	}
+
+	/**
+	 * Hands every toy matching the criteria to a sink, in no particular order,
+	 * without collecting or sorting them. Used by rankings that keep only the
+	 * best few matches.
+	 *
+	 * @param minAge        The minimum appropriate age (can be null if not
+	 *                      specified).
+	 * @param maxPriceCents The maximum price in cents (can be null if not
+	 *                      specified).
+	 * @param toyType       The toy type (can be null if not specified).
+	 * @param rows          The toy in each row, null for removed toys.
+	 * @param sink          Receives each matching toy with its indexed price.
+	 */
+	public void visit(Integer minAge, Long maxPriceCents, ToyType toyType, PersistentVector<Toy> rows,
+			MatchSink sink) {
+		for (ToyType type : ToyType.values()) {
+			Group group = groups[type.ordinal()];
+			if (group == null || toyType != null && type != toyType) {
+				continue;
+			}
+			int first = minAge == null ? 0 : group.firstAtLeast(minAge);
+			for (int a = first; a < group.ages.length; a++) {
+				group.buckets[a].collect(maxPriceCents, rows, sink);
+			}
+		}
+	}
+
+	/**
+	 * Receives the toys found by {@link GiftIndex#visit}.
+	 */
+	interface MatchSink {
+
+		/**
+		 * Accepts one matching toy.
+		 *
+		 * @param toy        The toy.
+		 * @param priceCents The price the toy was indexed at.
+		 */
+		void add(Toy toy, long priceCents);
+	}
+
+	/**
+	 * The age buckets of one toy type, sorted by age.
+	 */
+	private static final class Group {
+		private final int[] ages; // Appropriate age of each bucket, ascending
+		private final Bucket[] buckets; // Bucket of each age
+
+		private Group(int[] ages, Bucket[] buckets) {
+			this.ages = ages;
+			this.buckets = buckets;
+		}
+
+		private Group with(int row, int age, long price) {
+			int position = Arrays.binarySearch(ages, age);
+			if (position >= 0) {
+				Bucket[] updated = buckets.clone();
+				updated[position] = buckets[position].with(row, price);
+				return new Group(ages, updated);
+			}
+
+			// First toy of this age: insert a new bucket
+			position = -position - 1;
+			int[] newAges = new int[ages.length + 1];
+			Bucket[] newBuckets = new Bucket[buckets.length + 1];
+			System.arraycopy(ages, 0, newAges, 0, position);
+			System.arraycopy(buckets, 0, newBuckets, 0, position);
+			newAges[position] = age;
+			newBuckets[position] = Bucket.EMPTY.with(row, price);
+			System.arraycopy(ages, position, newAges, position + 1, ages.length - position);
+			System.arraycopy(buckets, position, newBuckets, position + 1, buckets.length - position);
+			return new Group(newAges, newBuckets);
+		}
+
+		private Group without(int row, int age, long price) {
+			int position = Arrays.binarySearch(ages, age);
+			if (position < 0) {
+				return this;
+			}
+			Bucket bucket = buckets[position].without(row, price);
+			if (bucket == buckets[position]) {
+				return this;
+			}
+			Bucket[] updated = buckets.clone();
+			updated[position] = bucket;
+			return new Group(ages, updated);
+		}
+
+		/**
+		 * Finds the first bucket for the given age or older.
+		 */
+		private int firstAtLeast(int age) {
+			int position = Arrays.binarySearch(ages, age);
+			return position >= 0 ? position : -position - 1;
+		}
+	}
+
+	/**
+	 * Rows of one type and age, sorted by price, in chunks ordered by price.
+	 * Rows with equal prices stay in the order they were added.
+	 */
+	private static final class Bucket {
+		private static final Bucket EMPTY = new Bucket(new Chunk[0]);
+
+		private final Chunk[] chunks;
+
+		private Bucket(Chunk[] chunks) {
+			this.chunks = chunks;
+		}
+
+		/**
+		 * Cuts rows already sorted by price into full chunks.
+		 */
+		private static Bucket of(List<Integer> sorted, long[] prices) {
+			Chunk[] chunks = new Chunk[(sorted.size() + CHUNK - 1) / CHUNK];
+			for (int c = 0; c < chunks.length; c++) {
+				int from = c * CHUNK;
+				int length = Math.min(CHUNK, sorted.size() - from);
+				int[] rows = new int[length];
+				long[] chunkPrices = new long[length];
+				for (int i = 0; i < length; i++) {
+					rows[i] = sorted.get(from + i);
+					chunkPrices[i] = prices[rows[i]];
+				}
+				chunks[c] = new Chunk(rows, chunkPrices);
+			}
+			return new Bucket(chunks);
+		}
+
+		private Bucket with(int row, long price) {
+			if (chunks.length == 0) {
+				return new Bucket(new Chunk[] { new Chunk(new int[] { row }, new long[] { price }) });
+			}
+			int c = Math.max(0, lastStartingAtOrBelow(price));
+			Chunk chunk = chunks[c].with(row, price);
+			if (chunk.rows.length <= CHUNK) {
+				Chunk[] updated = chunks.clone();
+				updated[c] = chunk;
+				return new Bucket(updated);
+			}
+
+			// Split the full chunk in two
+			int half = chunk.rows.length / 2;
+			Chunk[] updated = new Chunk[chunks.length + 1];
+			System.arraycopy(chunks, 0, updated, 0, c);
+			updated[c] = chunk.slice(0, half);
+			updated[c + 1] = chunk.slice(half, chunk.rows.length);
+			System.arraycopy(chunks, c + 1, updated, c + 2, chunks.length - c - 1);
+			return new Bucket(updated);
+		}
+
+		private Bucket without(int row, long price) {
+			// Equal prices may run back over several chunks
+			for (int c = lastStartingAtOrBelow(price); c >= 0; c--) {
+				Chunk chunk = chunks[c];
+				int position = chunk.find(row, price);
+				if (position >= 0) {
+					if (chunk.rows.length == 1) {
+						Chunk[] updated = new Chunk[chunks.length - 1];
+						System.arraycopy(chunks, 0, updated, 0, c);
+						System.arraycopy(chunks, c + 1, updated, c, updated.length - c);
+						return new Bucket(updated);
+					}
+					Chunk[] updated = chunks.clone();
+					updated[c] = chunk.without(position);
+					return new Bucket(updated);
+				}
+				if (chunk.prices[0] < price) {
+					break;
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Appends the toys priced at or below the limit, skipping removed rows.
+		 */
+		private void collect(Long maxPriceCents, PersistentVector<Toy> rows, MatchSink sink) {
+			for (Chunk chunk : chunks) {
+				int end = chunk.rows.length;
+				if (maxPriceCents != null) {
+					if (chunk.prices[0] > maxPriceCents) {
+						return;
+					}
+					end = chunk.upperBound(maxPriceCents);
+				}
+				for (int i = 0; i < end; i++) {
+					Toy toy = rows.get(chunk.rows[i]);
+					if (toy != null) {
+						sink.add(toy, chunk.prices[i]);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Finds the last chunk whose lowest price is at or below the given price.
+		 *
+		 * @return the chunk's index, or -1 if every chunk starts above it.
+		 */
+		private int lastStartingAtOrBelow(long price) {
+			int low = 0;
+			int high = chunks.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (chunks[middle].prices[0] <= price) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low - 1;
+		}
+	}
+
+	/**
+	 * A short run of rows sorted by price, with the price each row was indexed
+	 * at.
+	 */
+	private static final class Chunk {
+		private final int[] rows;
+		private final long[] prices;
+
+		private Chunk(int[] rows, long[] prices) {
+			this.rows = rows;
+			this.prices = prices;
+		}
+
+		/**
+		 * Copies the chunk with a row inserted after every lower or equal price.
+		 */
+		private Chunk with(int row, long price) {
+			int position = upperBound(price);
+			int[] newRows = new int[rows.length + 1];
+			long[] newPrices = new long[prices.length + 1];
+			System.arraycopy(rows, 0, newRows, 0, position);
+			System.arraycopy(prices, 0, newPrices, 0, position);
+			newRows[position] = row;
+			newPrices[position] = price;
+			System.arraycopy(rows, position, newRows, position + 1, rows.length - position);
+			System.arraycopy(prices, position, newPrices, position + 1, prices.length - position);
+			return new Chunk(newRows, newPrices);
+		}
+
+		private Chunk without(int position) {
+			int[] newRows = new int[rows.length - 1];
+			long[] newPrices = new long[prices.length - 1];
+			System.arraycopy(rows, 0, newRows, 0, position);
+			System.arraycopy(prices, 0, newPrices, 0, position);
+			System.arraycopy(rows, position + 1, newRows, position, newRows.length - position);
+			System.arraycopy(prices, position + 1, newPrices, position, newPrices.length - position);
+			return new Chunk(newRows, newPrices);
+		}
+
+		private Chunk slice(int from, int to) {
+			return new Chunk(Arrays.copyOfRange(rows, from, to), Arrays.copyOfRange(prices, from, to));
+		}
+
+		/**
+		 * Finds a row among the rows with the given price.
+		 *
+		 * @return its position, or -1 if it is not in this chunk.
+		 */
+		private int find(int row, long price) {
+			for (int i = upperBound(price) - 1; i >= 0 && prices[i] == price; i--) {
+				if (rows[i] == row) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Finds the number of rows priced at or below the given price.
+		 */
+		private int upperBound(long price) {
+			int low = 0;
+			int high = prices.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (prices[middle] <= price) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+	}
+
+	/**
+	 * Toys found by a query, with the price each was indexed at, as one run
+	 * sorted by price per bucket.
+	 */
+	private static final class Matches implements MatchSink {
+		private Toy[] toys = new Toy[16];
+		private long[] prices = new long[16];
+		private int size;
+		private int[] runStarts = new int[8]; // Start of each run, then the end of the last
+		private int runs;
+
+		@Override
+		public void add(Toy toy, long price) {
+			if (size == toys.length) {
+				toys = Arrays.copyOf(toys, size * 2);
+				prices = Arrays.copyOf(prices, size * 2);
+			}
+			toys[size] = toy;
+			prices[size++] = price;
+		}
+
+		/**
+		 * Closes the run of the bucket just collected, unless it found nothing.
+		 */
+		private void endRun() {
+			if (size == runStarts[runs]) {
+				return;
+			}
+			if (runs + 2 > runStarts.length) {
+				runStarts = Arrays.copyOf(runStarts, runStarts.length * 2);
+			}
+			runStarts[++runs] = size;
+		}
+
+		/**
+		 * Merges the runs pairwise until one is left. Ties keep the earlier run
+		 * first, so equal prices stay in type, age and insertion order.
+		 */
+		private List<Toy> merge() {
+			Toy[] toysOut = runs > 1 ? new Toy[size] : null;
+			long[] pricesOut = runs > 1 ? new long[size] : null;
+			while (runs > 1) {
+				int merged = 0;
+				for (int run = 0; run < runs; run += 2) {
+					int from = runStarts[run];
+					int middle = runStarts[Math.min(run + 1, runs)];
+					int to = runStarts[Math.min(run + 2, runs)];
+					int left = from;
+					int right = middle;
+					for (int out = from; out < to; out++) {
+						boolean takeRight = left == middle || right < to && prices[right] < prices[left];
+						int source = takeRight ? right++ : left++;
+						toysOut[out] = toys[source];
+						pricesOut[out] = prices[source];
+					}
+					runStarts[merged++] = from;
+				}
+				runStarts[merged] = size;
+				runs = merged;
+
+				Toy[] swapToys = toys;
+				toys = toysOut;
+				toysOut = swapToys;
+				long[] swapPrices = prices;
+				prices = pricesOut;
+				pricesOut = swapPrices;
+			}
+			return new ArrayList<>(Arrays.asList(toys).subList(0, size));
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package controller;
+
+import java.util.List;
+
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Ranks gift suggestions and keeps only the best few. Each toy passing the
+ * filters gets a score from these criteria, each worth 0 to 1 times its
+ * {@link GiftWeights weight}:
+ *
+ * <ul>
+ * <li>age fit: 1 for a toy meant for exactly the requested age, falling as
+ * the toy's appropriate age moves above it;</li>
+ * <li>price headroom: the share of the budget left after buying the toy;</li>
+ * <li>stock: grows with the units available, reaching 1/2 at
+ * {@value #STOCK_HALF} units;</li>
+ * <li>brand and type: 1 if the toy has the preferred brand or type.</li>
+ * </ul>
+ *
+ * Criteria without a requested value, such as the age fit when no age was
+ * given, score 0 for every toy. The matches stream from the gift index into a
+ * bounded min-heap holding the best K so far, so ranking n matches costs
+ * O(n log K) and O(K) memory however large the catalog is. A ranker is
+ * immutable and may be shared between threads.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class GiftRanker {
+
+	public static final int DEFAULT_LIMIT = 10; // Suggestions returned by default
+	public static final GiftRanker DEFAULT = new GiftRanker(DEFAULT_LIMIT, GiftWeights.DEFAULT, null, null);
+	private static final double STOCK_HALF = 10; // Units available that score half the stock weight
+
+	private final int limit; // Suggestions returned, K
+	private final GiftWeights weights; // Weight of each criterion
+	private final String preferredBrand; // Brand that scores the brand weight, null for none
+	private final ToyType preferredType; // Type that scores the type weight, null for none
+
+	/**
+	 * Creates a ranker.
+	 *
+	 * @param limit          The number of suggestions to return; must be
+	 *                       positive.
+	 * @param weights        The weight of each criterion.
+	 * @param preferredBrand The preferred brand, matched ignoring case (can be
+	 *                       null if not specified).
+	 * @param preferredType  The preferred toy type (can be null if not
+	 *                       specified).
+	 * @throws IllegalArgumentException if the limit is not positive.
+	 */
+	public GiftRanker(int limit, GiftWeights weights, String preferredBrand, ToyType preferredType) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Suggestion limit must be positive.");
+		}
+		this.limit = limit;
+		this.weights = weights;
+		this.preferredBrand = preferredBrand;
+		this.preferredType = preferredType;
+	}
+
+	/**
+	 * Gets the number of suggestions returned.
+	 *
+	 * @return the limit.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Ranks the toys of a gift index that match every given criterion.
+	 *
+	 * @param index         The gift index.
+	 * @param rows          The toy in each row, null for removed toys.
+	 * @param minAge        The minimum appropriate age (can be null if not
+	 *                      specified).
+	 * @param maxPriceCents The maximum price in cents (can be null if not
+	 *                      specified).
+	 * @param toyType       The toy type (can be null if not specified).
+	 * @return At most the limit of matching toys, best first. Equal scores list
+	 *         the cheaper toy first.
+	 */
+	List<Toy> rank(GiftIndex index, PersistentVector<Toy> rows, Integer minAge, Long maxPriceCents,
+			ToyType toyType) {
+		Best best = new Best(minAge, maxPriceCents);
+		index.visit(minAge, maxPriceCents, toyType, rows, best);
+		return best.sorted();
+	}
+
+	/**
+	 * Scores one toy for a gift request.
+	 *
+	 * @param toy           The toy.
+	 * @param priceCents    The price to score it at.
+	 * @param minAge        The requested age (can be null if not specified).
+	 * @param maxPriceCents The budget (can be null if not specified).
+	 * @return the score; higher is better.
+	 */
+	double score(Toy toy, long priceCents, Integer minAge, Long maxPriceCents) {
+		double score = 0;
+		if (minAge != null) {
+			score += weights.getAgeFit() / (1 + toy.getAgeAppropriate() - minAge);
+		}
+		if (maxPriceCents != null && maxPriceCents > 0) {
+			score += weights.getPriceHeadroom() * (maxPriceCents - priceCents) / maxPriceCents;
+		}
+		int available = Math.max(0, toy.getAvailableCount());
+		score += weights.getStock() * available / (available + STOCK_HALF);
+		if (preferredBrand != null && preferredBrand.equalsIgnoreCase(toy.getBrand())) {
+			score += weights.getBrand();
+		}
+		if (toy.getType() == preferredType) {
+			score += weights.getType();
+		}
+		return score;
+	}
+
+	/**
+	 * Scores the matches of one ranking at the prices they were indexed at and
+	 * keeps the best.
+	 */
+	private final class Best implements GiftIndex.MatchSink {
+		private final Integer minAge; // Requested age, null if not specified
+		private final Long maxPriceCents; // Budget, null if not specified
+		private final TopToys top = new TopToys(limit);
+
+		private Best(Integer minAge, Long maxPriceCents) {
+			this.minAge = minAge;
+			this.maxPriceCents = maxPriceCents;
+		}
+
+		@Override
+		public void add(Toy toy, long priceCents) {
+			top.offer(toy, score(toy, priceCents, minAge, maxPriceCents), priceCents);
+		}
+
+		private List<Toy> sorted() {
+			return top.sorted();
+		}
+	}
+}
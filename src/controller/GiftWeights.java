@@ -0,0 +1,86 @@
+package controller;
+
+/**
+ * How much each criterion counts when gift suggestions are ranked by
+ * {@link GiftRanker}. Every criterion scores a toy from 0 to 1 and is
+ * multiplied by its weight; a weight of 0 turns the criterion off.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class GiftWeights {
+
+	public static final GiftWeights DEFAULT = new GiftWeights(4, 2, 1, 2, 2); // Age fit counts most
+
+	private final double ageFit; // Weight of closeness to the requested age
+	private final double priceHeadroom; // Weight of the share of the budget left over
+	private final double stock; // Weight of the number of units available
+	private final double brand; // Weight of matching the preferred brand
+	private final double type; // Weight of matching the preferred type
+
+	/**
+	 * Creates a set of weights.
+	 *
+	 * @param ageFit        Weight of closeness to the requested age.
+	 * @param priceHeadroom Weight of the share of the budget left over.
+	 * @param stock         Weight of the number of units available.
+	 * @param brand         Weight of matching the preferred brand.
+	 * @param type          Weight of matching the preferred type.
+	 * @throws IllegalArgumentException if a weight is negative or not a number.
+	 */
+	public GiftWeights(double ageFit, double priceHeadroom, double stock, double brand, double type) {
+		if (!(ageFit >= 0 && priceHeadroom >= 0 && stock >= 0 && brand >= 0 && type >= 0)) {
+			throw new IllegalArgumentException("Gift weights cannot be negative.");
+		}
+		this.ageFit = ageFit;
+		this.priceHeadroom = priceHeadroom;
+		this.stock = stock;
+		this.brand = brand;
+		this.type = type;
+	}
+
+	/**
+	 * Gets the weight of closeness to the requested age.
+	 *
+	 * @return the weight.
+	 */
+	public double getAgeFit() {
+		return ageFit;
+	}
+
+	/**
+	 * Gets the weight of the share of the budget left over.
+	 *
+	 * @return the weight.
+	 */
+	public double getPriceHeadroom() {
+		return priceHeadroom;
+	}
+
+	/**
+	 * Gets the weight of the number of units available.
+	 *
+	 * @return the weight.
+	 */
+	public double getStock() {
+		return stock;
+	}
+
+	/**
+	 * Gets the weight of matching the preferred brand.
+	 *
+	 * @return the weight.
+	 */
+	public double getBrand() {
+		return brand;
+	}
+
+	/**
+	 * Gets the weight of matching the preferred type.
+	 *
+	 * @return the weight.
+	 */
+	public double getType() {
+		return type;
+	}
+}
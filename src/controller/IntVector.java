@@ -0,0 +1,197 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable list of ints with cheap appends, laid out like
+ * {@link PersistentVector} but with primitive leaves, so a long list of row
+ * numbers costs four bytes per entry. Appending copies only the tail and, once
+ * every 32 appends, the path to the new leaf; every other array is shared
+ * with the vector it was made from.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class IntVector {
+
+	private static final int BITS = 5; // log2 of the array width
+	private static final int WIDTH = 1 << BITS; // Ints per leaf, children per inner array
+	private static final int MASK = WIDTH - 1;
+	public static final IntVector EMPTY = new IntVector(0, BITS, new Object[WIDTH], new int[0]);
+
+	private final int size; // Number of ints
+	private final int shift; // Bits consumed above the leaves; 5 for a trie of one level
+	private final Object[] root; // Trie of full int[] leaves
+	private final int[] tail; // The last 1 to 32 ints, not yet in the trie
+
+	private IntVector(int size, int shift, Object[] root, int[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * Builds a vector holding the first `size` values of an array, filling the
+	 * trie bottom-up.
+	 *
+	 * @param values The values; the array is copied, not kept.
+	 * @param size   The number of values to take.
+	 * @return the vector.
+	 */
+	public static IntVector of(int[] values, int size) {
+		if (size == 0) {
+			return EMPTY;
+		}
+		int tailStart = tailOffset(size);
+
+		Object[] nodes = new Object[tailStart / WIDTH]; // Full leaves, then their parents level by level
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = Arrays.copyOfRange(values, i * WIDTH, (i + 1) * WIDTH);
+		}
+		int shift = BITS;
+		while (nodes.length > 1 << shift) {
+			shift += BITS;
+		}
+		for (int level = BITS; level <= shift; level += BITS) {
+			Object[] parents = new Object[(nodes.length + MASK) / WIDTH];
+			for (int i = 0; i < parents.length; i++) {
+				Object[] parent = new Object[WIDTH];
+				System.arraycopy(nodes, i * WIDTH, parent, 0, Math.min(WIDTH, nodes.length - i * WIDTH));
+				parents[i] = parent;
+			}
+			nodes = parents;
+		}
+		Object[] root = nodes.length == 0 ? new Object[WIDTH] : (Object[]) nodes[0];
+		return new IntVector(size, shift, root, Arrays.copyOfRange(values, tailStart, size));
+	}
+
+	/**
+	 * Gets the number of values.
+	 *
+	 * @return the size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the value at an index.
+	 *
+	 * @param index The index, from 0 to size - 1.
+	 * @return the value.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 */
+	public int get(int index) {
+		return leafFor(index)[index & MASK];
+	}
+
+	/**
+	 * Gets the last value.
+	 *
+	 * @return the value at size - 1.
+	 * @throws IndexOutOfBoundsException if the vector is empty.
+	 */
+	public int last() {
+		if (size == 0) {
+			throw new IndexOutOfBoundsException("Vector is empty");
+		}
+		return tail[tail.length - 1];
+	}
+
+	/**
+	 * Passes every value to an action in order, a leaf at a time.
+	 *
+	 * @param action Receives the values.
+	 */
+	public void forEach(IntConsumer action) {
+		int tailStart = tailOffset(size);
+		for (int start = 0; start < tailStart; start += WIDTH) {
+			for (int value : leafFor(start)) {
+				action.accept(value);
+			}
+		}
+		for (int value : tail) {
+			action.accept(value);
+		}
+	}
+
+	/**
+	 * Makes a vector with one more value at the end.
+	 *
+	 * @param value The value to append.
+	 * @return the new vector; this one is unchanged.
+	 */
+	public IntVector append(int value) {
+		if (size - tailOffset(size) < WIDTH) {
+			int[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = value;
+			return new IntVector(size + 1, shift, root, newTail);
+		}
+
+		// The tail is full: push it into the trie, growing a level if the root is full
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > 1 << shift) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new IntVector(size + 1, newShift, newRoot, new int[] { value });
+	}
+
+	/**
+	 * Finds the array holding an index: the tail, or a leaf of the trie.
+	 */
+	private int[] leafFor(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		if (index >= tailOffset(size)) {
+			return tail;
+		}
+		Object node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = ((Object[]) node)[(index >>> level) & MASK];
+		}
+		return (int[]) node;
+	}
+
+	/**
+	 * Copies the path to the next free leaf and links the full tail there.
+	 */
+	private Object[] pushTail(int level, Object[] parent, int[] leaf) {
+		int child = ((size - 1) >>> level) & MASK;
+		Object[] copy = parent.clone();
+		if (level == BITS) {
+			copy[child] = leaf;
+		} else {
+			Object[] below = (Object[]) parent[child];
+			copy[child] = below != null ? pushTail(level - BITS, below, leaf) : newPath(level - BITS, leaf);
+		}
+		return copy;
+	}
+
+	/**
+	 * Wraps a leaf in single-child arrays until it reaches the given level.
+	 */
+	private static Object newPath(int level, int[] leaf) {
+		if (level == 0) {
+			return leaf;
+		}
+		Object[] node = new Object[WIDTH];
+		node[0] = newPath(level - BITS, leaf);
+		return node;
+	}
+
+	/**
+	 * Gets the index of the first value held in the tail.
+	 */
+	private static int tailOffset(int size) {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+}
@@ -0,0 +1,763 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import model.Toy;
+import model.ToyType;
+import persistence.ChangeJournal;
+import persistence.MappedToyLoader;
+import persistence.ToySnapshot;
+
+/**
+ * Headless, thread-safe access to the toy inventory. The service owns the
+ * current inventory snapshot, the change journal and the binary snapshot, and
+ * exposes searches, additions, removals, purchases and gift suggestions as
+ * plain method calls with typed arguments and results. It never prompts or
+ * prints results, so it can be driven by the console menu, a server or a
+ * benchmark alike. Closing the service saves the inventory.
+ *
+ * The toys and every index over them live in an immutable
+ * {@link InventorySnapshot}. Reads take no lock at all: they read the current
+ * snapshot from a volatile field and query it, so they never wait for a write,
+ * never retry and scale with the number of cores. A caller that needs several
+ * queries to agree takes one snapshot with {@link #snapshot()} and queries it
+ * throughout.
+ *
+ * Writes are partitioned by serial number over {@link LockStripes}: a change
+ * to one toy locks only the stripe covering its serial number, so changes to
+ * toys in different stripes run in parallel. The writer makes the next
+ * snapshot, which shares everything it did not change with the current one,
+ * and publishes it with a compare-and-set, making it again from the newer
+ * snapshot if a writer on another stripe published first. It records the
+ * change in the journal before releasing its stripe, so the journal order
+ * always matches the order in which changes to the same toy were applied;
+ * changes to different toys replay the same in either order. Orders lock the stripes of
+ * all their lines, and loading, saving and journal compaction lock every
+ * stripe. Purchases hold their toy's stripe shared while they decrement its
+ * stock atomically, and only lock it exclusively to remove a toy whose stock
+ * they depleted.
+ *
+ * Recording a change in the journal does no I/O on the caller's thread: the
+ * journal's persister thread writes the changes made every few milliseconds
+ * as one append. Methods return once a change is visible, not once it is on
+ * disk; a caller that needs it to survive a crash waits on
+ * {@link #whenDurable()}.
+ *
+ * Every change is also published on a {@link ChangeFeed}, so in-process
+ * consumers such as a reporting export or a website cache can follow the
+ * inventory without reading the journal.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class InventoryService implements Closeable {
+
+	public static final String FILE_PATH = "res/toys.txt"; // Default path to toy data file
+	public static final String SNAPSHOT_PATH = "res/toys.snapshot"; // Default path to binary snapshot file
+
+	private final LockStripes stripes = new LockStripes(LockStripes.DEFAULT_STRIPES); // Writer locks by serial range
+	private final File dataFile; // The `toys.txt` file
+	// Latest published inventory
+	private final AtomicReference<InventorySnapshot> current = new AtomicReference<>(InventorySnapshot.EMPTY);
+	private final LongAdder publishRetries = new LongAdder(); // Snapshots made again after losing a race
+	private final ChangeJournal journal; // Records changes since the last compaction
+	private final ChangeFeed feed = new ChangeFeed(); // Publishes every change to in-process subscribers
+	private final ToySnapshot snapshot; // Binary copy written on save
+
+	/**
+	 * Creates a service over the default data files in `res/`.
+	 */
+	public InventoryService() {
+		this(new File(FILE_PATH), new File(SNAPSHOT_PATH));
+	}
+
+	/**
+	 * Creates a service over the given data files. Nothing is read until
+	 * {@link #load()} is called.
+	 *
+	 * @param dataFile     The `toys.txt` file.
+	 * @param snapshotFile The binary snapshot file.
+	 */
+	public InventoryService(File dataFile, File snapshotFile) {
+		this(dataFile, snapshotFile, ChangeJournal.FLUSH_INTERVAL_MILLIS, ChangeJournal.MAX_PENDING_CHANGES);
+	}
+
+	/**
+	 * Creates a service over the given data files whose journal is flushed at
+	 * the given interval, or sooner once the given number of changes is waiting.
+	 * Nothing is read until {@link #load()} is called.
+	 *
+	 * @param dataFile            The `toys.txt` file.
+	 * @param snapshotFile        The binary snapshot file.
+	 * @param flushIntervalMillis The longest time a change waits to be written.
+	 * @param maxPendingChanges   The number of changes that starts a flush early.
+	 */
+	public InventoryService(File dataFile, File snapshotFile, long flushIntervalMillis, int maxPendingChanges) {
+		this.dataFile = dataFile;
+		this.journal = new ChangeJournal(dataFile, flushIntervalMillis, maxPendingChanges);
+		this.snapshot = new ToySnapshot(snapshotFile);
+	}
+
+	/**
+	 * Loads the inventory from the binary snapshot when it is newer than
+	 * `toys.txt`, and from the `toys.txt` file otherwise. Changes recorded in the
+	 * journal since the file was last written are then replayed on top and a
+	 * new snapshot is built. Lines that cannot be parsed are logged and skipped.
+	 */
+	public void load() {
+		int[] all = stripes.all();
+		long[] stamps = stripes.writeLock(all);
+		try {
+			List<Toy> loaded = null;
+			if (snapshot.isNewerThan(dataFile)) {
+				loaded = loadSnapshot();
+			}
+			if (loaded == null) {
+				loaded = dataFile.exists() ? parseFileData() : createNewFile();
+			}
+
+			List<Toy> replayed = journal.replay(loaded);
+			publish(base -> InventorySnapshot.of(base.getVersion() + 1, replayed));
+		} finally {
+			stripes.unlockWrite(all, stamps);
+		}
+	}
+
+	/**
+	 * Loads the inventory from the binary snapshot.
+	 *
+	 * @return The saved toys, or null if the text file should be used instead.
+	 */
+	private List<Toy> loadSnapshot() {
+		try {
+			return snapshot.read();
+		} catch (IOException e) {
+			System.out.println("Error reading snapshot, loading " + dataFile + " instead: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Parses existing toy data from the memory-mapped data file.
+	 *
+	 * @return The toys in file order.
+	 */
+	private List<Toy> parseFileData() {
+		try {
+			return new MappedToyLoader().load(dataFile);
+		} catch (IOException e) {
+			System.out.println("Error accessing file: " + e.getMessage());
+			return new ArrayList<>();
+		}
+	}
+
+	/**
+	 * Creates an empty data file.
+	 *
+	 * @return An empty inventory.
+	 */
+	private List<Toy> createNewFile() {
+		try {
+			dataFile.createNewFile();
+			System.out.println("Created new file: " + dataFile);
+		} catch (IOException e) {
+			System.out.println("Error creating file: " + e.getMessage());
+		}
+		return new ArrayList<>();
+	}
+
+	/**
+	 * Gets the current snapshot of the inventory. It never changes, so every
+	 * query made against it sees the same toys, while changes made in the
+	 * meantime go into later snapshots.
+	 *
+	 * @return the latest published snapshot.
+	 */
+	public InventorySnapshot snapshot() {
+		return current.get();
+	}
+
+	/**
+	 * Finds the toy with the given serial number.
+	 *
+	 * @param sn The serial number to look up.
+	 * @return The toy, or null if no toy has this serial number.
+	 */
+	public Toy findBySerialNumber(String sn) {
+		return current.get().findBySerialNumber(sn);
+	}
+
+	/**
+	 * Checks if a serial number is unused in the inventory.
+	 *
+	 * @param sn The serial number to check.
+	 * @return true if no toy has this serial number.
+	 */
+	public boolean isSerialNumberUnique(String sn) {
+		return findBySerialNumber(sn) == null;
+	}
+
+	/**
+	 * Searches for toys whose name contains the given text, ignoring case.
+	 *
+	 * @param toyName The name (or partial name) to search for.
+	 * @return The matching toys in inventory order; empty if none match.
+	 */
+	public List<Toy> searchByName(String toyName) {
+		return current.get().searchByName(toyName);
+	}
+
+	/**
+	 * Searches for toys of one type.
+	 *
+	 * @param type The type of toy to search for.
+	 * @return The toys of this type in inventory order; empty if none.
+	 */
+	public List<Toy> searchByType(ToyType type) {
+		return current.get().searchByType(type);
+	}
+
+	/**
+	 * Suggests gifts matching every given criterion.
+	 *
+	 * @param minAge   The minimum appropriate age (can be null if not specified).
+	 * @param maxPrice The maximum price (can be null if not specified).
+	 * @param toyType  The toy type (can be null if not specified).
+	 * @return The matching toys, cheapest first.
+	 */
+	public List<Toy> suggestGifts(Integer minAge, Double maxPrice, ToyType toyType) {
+		return current.get().suggestGifts(minAge, maxPrice, toyType);
+	}
+
+	/**
+	 * Suggests the best few gifts matching every given criterion, ranked by age
+	 * fit, price headroom, stock and the ranker's preferences.
+	 *
+	 * @param minAge   The minimum appropriate age (can be null if not specified).
+	 * @param maxPrice The maximum price (can be null if not specified).
+	 * @param toyType  The toy type (can be null if not specified).
+	 * @param ranker   The ranker, which sets the weights, preferences and limit.
+	 * @return At most the ranker's limit of matching toys, best first.
+	 */
+	public List<Toy> rankGifts(Integer minAge, Double maxPrice, ToyType toyType, GiftRanker ranker) {
+		return current.get().rankGifts(minAge, maxPrice, toyType, ranker);
+	}
+
+	/**
+	 * Finds the most valuable bundle of distinct, in-stock toys matching the
+	 * criteria whose total price fits a budget, e.g. several gifts under $100
+	 * for a six-year-old.
+	 *
+	 * @param minAge  The minimum appropriate age (can be null if not specified).
+	 * @param budget  The most the whole bundle may cost.
+	 * @param toyType The toy type (can be null if not specified).
+	 * @param bundler The bundler, which sets the value weights and whether
+	 *                only one toy per type is allowed.
+	 * @return the bundle; empty if nothing fits the budget.
+	 */
+	public GiftBundle bundleGifts(Integer minAge, double budget, ToyType toyType, GiftBundler bundler) {
+		return current.get().bundleGifts(minAge, budget, toyType, bundler);
+	}
+
+	/**
+	 * Gets the number of toys in the inventory.
+	 *
+	 * @return The number of toys.
+	 */
+	public int size() {
+		return current.get().size();
+	}
+
+	/**
+	 * Gets a copy of the whole inventory.
+	 *
+	 * @return Every toy in inventory order.
+	 */
+	public List<Toy> getToys() {
+		return current.get().getToys();
+	}
+
+	/**
+	 * Adds a new toy to the inventory and journals the addition.
+	 *
+	 * @param toy The toy to add.
+	 * @return true if the toy was added, false if its serial number is taken.
+	 */
+	public boolean addToy(Toy toy) {
+		int stripe = stripes.stripeOf(toy.getSerial());
+		long stamp = stripes.writeLock(stripe);
+		try {
+			if (current.get().find(toy.getSerial()) != null) {
+				return false;
+			}
+			publish(base -> base.withToy(toy));
+			journal.recordAdd(toy);
+			feed.publish(ChangeType.ADDED, toy);
+		} finally {
+			stripes.unlockWrite(stripe, stamp);
+		}
+		compactIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Removes a toy from the inventory and journals the removal.
+	 *
+	 * @param toy The toy to remove.
+	 * @return true if the toy was removed, false if it was no longer in stock.
+	 */
+	public boolean removeToy(Toy toy) {
+		int stripe = stripes.stripeOf(toy.getSerial());
+		long stamp = stripes.writeLock(stripe);
+		try {
+			if (!current.get().contains(toy)) {
+				return false; // Already removed by another caller
+			}
+			publish(base -> base.withoutToy(toy));
+			journal.recordRemove(toy.getSerial());
+			feed.publish(ChangeType.REMOVED, toy);
+		} finally {
+			stripes.unlockWrite(stripe, stamp);
+		}
+		compactIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Removes the toy with the given serial number and journals the removal.
+	 *
+	 * @param sn The serial number of the toy to remove.
+	 * @return The removed toy, or null if no toy has this serial number.
+	 */
+	public Toy removeToy(String sn) {
+		int stripe = stripes.stripeOf(Toy.parseSerial(sn));
+		long stamp = stripes.writeLock(stripe);
+		Toy toy;
+		try {
+			toy = current.get().findBySerialNumber(sn);
+			if (toy == null) {
+				return null;
+			}
+			publish(base -> base.withoutToy(toy));
+			journal.recordRemove(toy.getSerial());
+			feed.publish(ChangeType.REMOVED, toy);
+		} finally {
+			stripes.unlockWrite(stripe, stamp);
+		}
+		compactIfNeeded();
+		return toy;
+	}
+
+	/**
+	 * Sells one unit of a toy. The unit is taken with an atomic compare-and-set
+	 * on the toy's own stock count while its stripe is held shared, so purchases
+	 * run in parallel with each other and with orders, and buyers of the same toy
+	 * can neither lose a decrement nor oversell. Holding the stripe keeps the toy
+	 * from being removed between the check that it is listed and the take. Only
+	 * the purchase that takes the last unit removes the toy, under its stripe's
+	 * exclusive lock, so a depleted toy is removed from the inventory and its
+	 * indexes exactly once.
+	 *
+	 * @param toy The toy being purchased.
+	 * @return PURCHASED if stock remains, SOLD_OUT if this purchase took the last
+	 *         unit, or UNAVAILABLE if nothing could be sold.
+	 */
+	public PurchaseResult purchase(Toy toy) {
+		int stripe = stripes.stripeOf(toy.getSerial());
+		int remaining;
+		long stamp = stripes.readLock(stripe);
+		try {
+			if (!current.get().contains(toy)) {
+				return PurchaseResult.UNAVAILABLE; // Removed by another caller
+			}
+			remaining = toy.takeStock(1);
+			if (remaining > 0) {
+				journal.recordStock(toy);
+				feed.publish(ChangeType.STOCK, toy);
+			}
+		} finally {
+			stripes.unlockRead(stripe, stamp);
+		}
+
+		if (remaining < 0) {
+			return PurchaseResult.UNAVAILABLE; // Another buyer took the last unit
+		}
+		if (remaining > 0) {
+			compactIfNeeded();
+			return PurchaseResult.PURCHASED;
+		}
+
+		// This purchase emptied the stock, so it alone removes the toy
+		return removeDepleted(toy) ? PurchaseResult.SOLD_OUT : PurchaseResult.PURCHASED;
+	}
+
+	/**
+	 * Removes a toy whose stock a sale emptied and journals the removal. Called
+	 * without any lock held, by the one buyer whose sale took the stock to zero.
+	 *
+	 * @return true if the stock was still empty, false if units were put back
+	 *         in the meantime, in which case the new count is journaled.
+	 */
+	private boolean removeDepleted(Toy toy) {
+		int stripe = stripes.stripeOf(toy.getSerial());
+		long stamp = stripes.writeLock(stripe);
+		try {
+			if (toy.getStockCount() > 0) {
+				// A rejected order put units back before the toy could be removed
+				journal.recordStock(toy);
+				feed.publish(ChangeType.STOCK, toy);
+				return false;
+			}
+			if (current.get().contains(toy)) {
+				publish(base -> base.withoutToy(toy));
+				journal.recordRemove(toy.getSerial());
+				feed.publish(ChangeType.REMOVED, toy);
+			}
+		} finally {
+			stripes.unlockWrite(stripe, stamp);
+		}
+		compactIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Places a batched order. The lines are checked and applied as a whole: every
+	 * line is filled, or none is. Lines for the same toy are combined first.
+	 *
+	 * Stock is taken line by line with the same atomic compare-and-set as
+	 * {@link #purchase(Toy)}, holding the stripes of all the lines shared, so
+	 * orders run in parallel with each other and with single purchases. If a
+	 * line cannot be filled, the units already taken are put back before the
+	 * stripes are released; because removals lock their stripe exclusively, no
+	 * toy can be removed while an order still holds units it might return. Toys
+	 * whose stock the order emptied are removed afterwards with their stripes
+	 * locked exclusively.
+	 * The whole order reaches the journal in the same flush, however many lines
+	 * it has.
+	 *
+	 * @param lines The order lines.
+	 * @return The result: placed with its total price, or rejected with the
+	 *         first line that could not be filled.
+	 */
+	public OrderResult placeOrder(List<OrderLine> lines) {
+		// Combine lines for the same toy so each toy's stock is taken once
+		Map<String, Integer> quantities = new LinkedHashMap<>();
+		for (OrderLine line : lines) {
+			if (line.getQuantity() <= 0) {
+				return OrderResult.rejected(line.getSn(), "Quantity must be positive.");
+			}
+			quantities.merge(line.getSn(), line.getQuantity(), Integer::sum);
+		}
+
+		long[] serials = new long[quantities.size()];
+		int line = 0;
+		for (String sn : quantities.keySet()) {
+			serials[line++] = Toy.parseSerial(sn);
+		}
+		int[] held = stripes.stripesOf(serials);
+
+		List<Toy> ordered = new ArrayList<>(quantities.size());
+		List<Toy> depleted = new ArrayList<>();
+		long totalCents = 0;
+		long[] stamps = stripes.readLock(held);
+		try {
+			InventorySnapshot inventory = current.get(); // Steady for these serials while their stripes are held
+			for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+				Toy toy = inventory.findBySerialNumber(entry.getKey());
+				if (toy == null) {
+					rollBack(ordered, quantities);
+					return OrderResult.rejected(entry.getKey(), "No toy with this serial number.");
+				}
+
+				int quantity = entry.getValue();
+				int remaining = toy.takeStock(quantity);
+				if (remaining < 0) {
+					rollBack(ordered, quantities);
+					return OrderResult.rejected(entry.getKey(),
+							"Only " + toy.getAvailableCount() + " left in stock, " + quantity + " ordered.");
+				}
+
+				ordered.add(toy);
+				totalCents += toy.getPriceCents() * quantity;
+				if (remaining == 0) {
+					depleted.add(toy);
+				}
+			}
+		} finally {
+			stripes.unlockRead(held, stamps);
+		}
+
+		if (depleted.isEmpty()) {
+			journal.recordBatch(ordered, depleted);
+			publishAll(ChangeType.STOCK, ordered);
+			compactIfNeeded();
+			return OrderResult.placed(totalCents);
+		}
+
+		// Remove the toys this order emptied, unless their stock was returned since
+		long[] depletedSerials = new long[depleted.size()];
+		for (int i = 0; i < depletedSerials.length; i++) {
+			depletedSerials[i] = depleted.get(i).getSerial();
+		}
+		held = stripes.stripesOf(depletedSerials);
+		stamps = stripes.writeLock(held);
+		try {
+			List<Toy> removed = new ArrayList<>(depleted.size());
+			for (Toy toy : depleted) {
+				if (toy.getStockCount() == 0 && current.get().contains(toy)) {
+					removed.add(toy);
+				}
+			}
+			publish(base -> {
+				for (Toy toy : removed) {
+					base = base.withoutToy(toy);
+				}
+				return base;
+			});
+			ordered.removeAll(removed);
+			journal.recordBatch(ordered, removed);
+			publishAll(ChangeType.STOCK, ordered);
+			publishAll(ChangeType.REMOVED, removed);
+		} finally {
+			stripes.unlockWrite(held, stamps);
+		}
+		compactIfNeeded();
+		return OrderResult.placed(totalCents);
+	}
+
+	/**
+	 * Puts back the units an order took before one of its lines failed and
+	 * publishes the restored counts. Called with the order's stripes held.
+	 */
+	private void rollBack(List<Toy> taken, Map<String, Integer> quantities) {
+		Iterator<Integer> quantity = quantities.values().iterator(); // Lines were taken in map order
+		for (Toy toy : taken) {
+			toy.returnStock(quantity.next());
+			feed.publish(ChangeType.STOCK, toy); // Others may have published the count while taken
+		}
+	}
+
+	/**
+	 * Starts a journal compaction once the journal has grown long enough. Every
+	 * stripe is held shared, which keeps toys from being added or removed until
+	 * the journal has been rotated, so the inventory it compacts matches the
+	 * events it moved aside. Called with no stripe held.
+	 */
+	private void compactIfNeeded() {
+		if (!journal.needsCompaction()) {
+			return;
+		}
+		int[] all = stripes.all();
+		long[] stamps = stripes.readLock(all);
+		try {
+			if (journal.needsCompaction()) {
+				journal.compactIfNeeded(current.get().getToys());
+			}
+		} finally {
+			stripes.unlockRead(all, stamps);
+		}
+	}
+
+	/**
+	 * Publishes the next snapshot, made from the current one by a change. Writers
+	 * on other stripes may publish at the same time, so the snapshot is swapped
+	 * in with a compare-and-set and the change is made again from the newer
+	 * snapshot if another writer got there first. Changes are cheap to redo
+	 * because snapshots share their structure.
+	 */
+	private void publish(UnaryOperator<InventorySnapshot> change) {
+		InventorySnapshot base = current.get();
+		while (!current.compareAndSet(base, change.apply(base))) {
+			publishRetries.increment();
+			base = current.get();
+		}
+	}
+
+	/**
+	 * Publishes the same kind of change for several toys.
+	 */
+	private void publishAll(ChangeType type, List<Toy> changed) {
+		for (Toy toy : changed) {
+			feed.publish(type, toy);
+		}
+	}
+
+	/**
+	 * Changes the price of a toy and journals the change. The toy is moved
+	 * within the price-ordered gift index of a new snapshot under its stripe's
+	 * lock.
+	 *
+	 * @param sn    The serial number of the toy.
+	 * @param price The new price; must not be negative.
+	 * @return The toy, or null if no toy has this serial number.
+	 * @throws IllegalArgumentException if the price is negative.
+	 */
+	public Toy setPrice(String sn, double price) {
+		if (price < 0) {
+			throw new IllegalArgumentException("Price cannot be negative.");
+		}
+		int stripe = stripes.stripeOf(Toy.parseSerial(sn));
+		long stamp = stripes.writeLock(stripe);
+		Toy toy;
+		try {
+			toy = current.get().findBySerialNumber(sn);
+			if (toy == null) {
+				return null;
+			}
+			long oldPriceCents = toy.getPriceCents();
+			toy.setPriceCents(Toy.toCents(price));
+			publish(base -> base.withPrice(toy, oldPriceCents));
+			journal.recordAdd(toy); // Replaying an add replaces the saved toy
+			feed.publish(ChangeType.PRICE, toy);
+		} finally {
+			stripes.unlockWrite(stripe, stamp);
+		}
+		compactIfNeeded();
+		return toy;
+	}
+
+	/**
+	 * Sets the number of units of a toy available to sell, e.g. after a delivery.
+	 * Units held by reservations stay held on top of it. The toy stays listed
+	 * even at zero.
+	 *
+	 * @param sn    The serial number of the toy.
+	 * @param count The new available count; must not be negative.
+	 * @return The toy, or null if no toy has this serial number.
+	 * @throws IllegalArgumentException if the count is negative.
+	 */
+	public Toy setStock(String sn, int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Stock count cannot be negative.");
+		}
+		Toy toy = findBySerialNumber(sn);
+		if (toy != null) {
+			toy.setAvailableCount(count);
+			journal.recordStock(toy);
+			feed.publish(ChangeType.STOCK, toy);
+			compactIfNeeded();
+		}
+		return toy;
+	}
+
+	/**
+	 * Gets the feed on which every change to the inventory is published: toys
+	 * added and removed, stock taken, held, released or set, and price changes.
+	 *
+	 * @return the change feed.
+	 */
+	public ChangeFeed getChangeFeed() {
+		return feed;
+	}
+
+	/**
+	 * Gets how often each writer lock stripe was taken, how often writers had to
+	 * wait for it and for how long.
+	 *
+	 * @return the stripes' counters as they are now.
+	 */
+	public LockMetrics getLockMetrics() {
+		return stripes.getMetrics();
+	}
+
+	/**
+	 * Gets the number of times a writer had to make its snapshot again because a
+	 * writer on another stripe published first.
+	 *
+	 * @return the number of retries so far.
+	 */
+	public long getPublishRetries() {
+		return publishRetries.sum();
+	}
+
+	/**
+	 * Gets a future that completes once every change made so far has been
+	 * written to the journal and forced to disk.
+	 *
+	 * @return the future; it completes exceptionally if the journal cannot be
+	 *         written.
+	 */
+	public CompletableFuture<Void> whenDurable() {
+		return journal.whenDurable();
+	}
+
+	/**
+	 * Holds units of a toy for a reservation. Held units stay in stock, so they
+	 * are saved and journaled as usual, but are excluded from the available count
+	 * that searches, gift suggestions and other buyers see.
+	 *
+	 * @param sn       The serial number of the toy.
+	 * @param quantity The number of units to hold.
+	 * @return The toy, or null if no toy has this serial number or fewer units
+	 *         are available.
+	 */
+	Toy hold(String sn, int quantity) {
+		Toy toy = findBySerialNumber(sn);
+		if (toy == null || !toy.holdStock(quantity)) {
+			return null;
+		}
+		feed.publish(ChangeType.STOCK, toy); // The available count dropped
+		return toy;
+	}
+
+	/**
+	 * Makes held units available again. The stock on hand does not change, so
+	 * nothing is journaled.
+	 *
+	 * @param toy      The toy.
+	 * @param quantity The number of held units to release.
+	 */
+	void releaseHeld(Toy toy, int quantity) {
+		toy.releaseStock(quantity);
+		feed.publish(ChangeType.STOCK, toy);
+	}
+
+	/**
+	 * Sells held units, removing the toy if they were its last.
+	 *
+	 * @param toy      The toy.
+	 * @param quantity The number of held units sold.
+	 */
+	void sellHeld(Toy toy, int quantity) {
+		if (toy.sellHeldStock(quantity) > 0) {
+			journal.recordStock(toy);
+			feed.publish(ChangeType.STOCK, toy);
+			compactIfNeeded();
+		} else {
+			removeDepleted(toy);
+		}
+	}
+
+	/**
+	 * Makes the current inventory durable and shuts the service down. Every
+	 * change has already been recorded in the journal as it happened, so closing
+	 * writes the changes not yet flushed, closes the journal, waits for any
+	 * background compaction of `toys.txt` to finish, and writes the binary
+	 * snapshot used for fast startup.
+	 * The inventory must not be modified afterwards.
+	 *
+	 * @throws IOException if the snapshot cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		int[] all = stripes.all();
+		long[] stamps = stripes.writeLock(all);
+		try {
+			journal.close();
+			snapshot.write(current.get().getToys());
+		} finally {
+			stripes.unlockWrite(all, stamps);
+		}
+	}
+}
@@ -0,0 +1,279 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Immutable, point-in-time version of the inventory and every index over it.
+ * A reader holding a snapshot can run any number of searches and gift
+ * suggestions against it without locks, and they all see the same set of toys
+ * however many changes are made in the meantime.
+ *
+ * Each toy has a row, given in inventory order. The rows, the serial number
+ * lookup and the indexes are persistent structures: a change makes a new
+ * snapshot that copies only the few short arrays on the paths it touched and
+ * shares everything else with the snapshot it was made from, so writers can
+ * publish a new version for every change while readers keep the old one.
+ * Removing a toy empties its row rather than renumbering the rows behind it;
+ * once empty rows outnumber the toys, the next removal rebuilds the snapshot
+ * without them.
+ *
+ * With -Dtoystore.columnar=true a snapshot also keeps a {@link ColumnarStore}
+ * over the same rows, and type searches and gift suggestions scan its columns
+ * instead of using the type partitions and the gift index.
+ *
+ * Snapshots fix which toys are in the inventory and how they are indexed. The
+ * toys themselves are shared, so a toy's stock count, and a price changed
+ * after the snapshot was taken, read as they are now.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class InventorySnapshot {
+
+	public static final InventorySnapshot EMPTY = new InventorySnapshot(0, PersistentVector.empty(),
+			LongHashTrie.empty(), NameIndex.EMPTY, TypePartitions.EMPTY, GiftIndex.EMPTY,
+			ColumnarStore.ENABLED ? ColumnarStore.EMPTY : null, 0);
+	private static final int MIN_REBUILD = 1024; // Do not rebuild for a handful of removals
+
+	private final long version; // Number of changes published before this snapshot
+	private final PersistentVector<Toy> rows; // Toy per row in inventory order, null once removed
+	private final LongHashTrie<Integer> serials; // Serial number to row
+	private final NameIndex names; // Trigram index for name searches
+	private final TypePartitions partitions; // Rows split by type
+	private final GiftIndex gifts; // Type, age and price index for gift suggestions
+	private final ColumnarStore columns; // Column copy of the rows, or null when not enabled
+	private final int removed; // Rows emptied since the snapshot was last built
+
+	private InventorySnapshot(long version, PersistentVector<Toy> rows, LongHashTrie<Integer> serials,
+			NameIndex names, TypePartitions partitions, GiftIndex gifts, ColumnarStore columns, int removed) {
+		this.version = version;
+		this.rows = rows;
+		this.serials = serials;
+		this.names = names;
+		this.partitions = partitions;
+		this.gifts = gifts;
+		this.columns = columns;
+		this.removed = removed;
+	}
+
+	/**
+	 * Builds a snapshot of a list of toys in one pass per index, for a bulk load.
+	 *
+	 * @param version The version number of the snapshot.
+	 * @param toys    The toys in inventory order, with distinct serial numbers.
+	 * @return the snapshot.
+	 */
+	public static InventorySnapshot of(long version, List<Toy> toys) {
+		return of(version, toys, ColumnarStore.ENABLED);
+	}
+
+	/**
+	 * Builds a snapshot of a list of toys, with or without a columnar store.
+	 *
+	 * @param version  The version number of the snapshot.
+	 * @param toys     The toys in inventory order, with distinct serial numbers.
+	 * @param columnar Whether to keep a columnar store and scan it.
+	 * @return the snapshot.
+	 */
+	static InventorySnapshot of(long version, List<Toy> toys, boolean columnar) {
+		long[] keys = new long[toys.size()];
+		Integer[] values = new Integer[toys.size()];
+		for (int row = 0; row < keys.length; row++) {
+			keys[row] = toys.get(row).getSerial();
+			values[row] = row;
+		}
+		return new InventorySnapshot(version, PersistentVector.of(toys), LongHashTrie.of(keys, values, keys.length),
+				NameIndex.of(toys), TypePartitions.of(toys), GiftIndex.of(toys),
+				columnar ? ColumnarStore.of(toys) : null, 0);
+	}
+
+	/**
+	 * Gets the version of this snapshot, which grows by one with every change.
+	 *
+	 * @return the version number.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gets the number of toys in the inventory.
+	 *
+	 * @return The number of toys.
+	 */
+	public int size() {
+		return serials.size();
+	}
+
+	/**
+	 * Finds the toy with the given serial number.
+	 *
+	 * @param sn The serial number to look up.
+	 * @return The toy, or null if no toy has this serial number.
+	 */
+	public Toy findBySerialNumber(String sn) {
+		return find(Toy.parseSerial(sn));
+	}
+
+	/**
+	 * Finds the toy with the given numeric serial number.
+	 *
+	 * @param serial The serial number to look up.
+	 * @return The toy, or null if no toy has this serial number.
+	 */
+	public Toy find(long serial) {
+		Integer row = serials.get(serial);
+		return row == null ? null : rows.get(row);
+	}
+
+	/**
+	 * Checks whether this very toy, not just its serial number, is in the
+	 * inventory.
+	 *
+	 * @param toy The toy.
+	 * @return true if the toy is listed.
+	 */
+	public boolean contains(Toy toy) {
+		return find(toy.getSerial()) == toy;
+	}
+
+	/**
+	 * Searches for toys whose name contains the given text, ignoring case.
+	 *
+	 * @param toyName The name (or partial name) to search for.
+	 * @return The matching toys in inventory order; empty if none match.
+	 */
+	public List<Toy> searchByName(String toyName) {
+		return names.search(toyName, rows);
+	}
+
+	/**
+	 * Searches for toys of one type.
+	 *
+	 * @param type The type of toy to search for.
+	 * @return The toys of this type in inventory order; empty if none.
+	 */
+	public List<Toy> searchByType(ToyType type) {
+		if (columns != null) {
+			return columns.byType(type, rows);
+		}
+		return partitions.get(type, rows);
+	}
+
+	/**
+	 * Suggests gifts matching every given criterion.
+	 *
+	 * @param minAge   The minimum appropriate age (can be null if not specified).
+	 * @param maxPrice The maximum price (can be null if not specified).
+	 * @param toyType  The toy type (can be null if not specified).
+	 * @return The matching toys, cheapest first.
+	 */
+	public List<Toy> suggestGifts(Integer minAge, Double maxPrice, ToyType toyType) {
+		// Compare prices as whole cents from here on
+		Long maxPriceCents = maxPrice == null ? null : Toy.centsAtMost(maxPrice);
+		if (columns != null) {
+			return columns.filter(minAge, maxPriceCents, toyType, rows);
+		}
+		return gifts.query(minAge, maxPriceCents, toyType, rows);
+	}
+
+	/**
+	 * Suggests the best few gifts matching every given criterion, ranked by a
+	 * {@link GiftRanker}.
+	 *
+	 * @param minAge   The minimum appropriate age (can be null if not specified).
+	 * @param maxPrice The maximum price (can be null if not specified).
+	 * @param toyType  The toy type (can be null if not specified).
+	 * @param ranker   The ranker, which sets the weights, preferences and limit.
+	 * @return At most the ranker's limit of matching toys, best first.
+	 */
+	public List<Toy> rankGifts(Integer minAge, Double maxPrice, ToyType toyType, GiftRanker ranker) {
+		Long maxPriceCents = maxPrice == null ? null : Toy.centsAtMost(maxPrice);
+		return ranker.rank(gifts, rows, minAge, maxPriceCents, toyType);
+	}
+
+	/**
+	 * Finds the most valuable bundle of distinct, in-stock toys matching the
+	 * criteria whose total price fits a budget.
+	 *
+	 * @param minAge  The minimum appropriate age (can be null if not specified).
+	 * @param budget  The most the whole bundle may cost.
+	 * @param toyType The toy type (can be null if not specified).
+	 * @param bundler The bundler, which sets the value weights and whether
+	 *                only one toy per type is allowed.
+	 * @return the bundle; empty if nothing fits the budget.
+	 */
+	public GiftBundle bundleGifts(Integer minAge, double budget, ToyType toyType, GiftBundler bundler) {
+		return bundler.bundle(gifts, rows, minAge, Toy.centsAtMost(budget), toyType);
+	}
+
+	/**
+	 * Gets the whole inventory.
+	 *
+	 * @return A new list of every toy in inventory order.
+	 */
+	public List<Toy> getToys() {
+		List<Toy> toys = new ArrayList<>(size());
+		for (int row = 0; row < rows.size(); row++) {
+			Toy toy = rows.get(row);
+			if (toy != null) {
+				toys.add(toy);
+			}
+		}
+		return toys;
+	}
+
+	/**
+	 * Makes the next version with a toy added at the end of the inventory.
+	 *
+	 * @param toy The toy; its serial number must not be in use.
+	 * @return the new snapshot; this one is unchanged.
+	 */
+	InventorySnapshot withToy(Toy toy) {
+		int row = rows.size();
+		return new InventorySnapshot(version + 1, rows.append(toy), serials.put(toy.getSerial(), row),
+				names.with(toy), partitions.with(row, toy), gifts.with(row, toy),
+				columns == null ? null : columns.with(toy), removed);
+	}
+
+	/**
+	 * Makes the next version without a toy.
+	 *
+	 * @param toy The toy; it must be in this snapshot.
+	 * @return the new snapshot; this one is unchanged.
+	 */
+	InventorySnapshot withoutToy(Toy toy) {
+		int row = serials.get(toy.getSerial());
+		InventorySnapshot next = new InventorySnapshot(version + 1, rows.set(row, null),
+				serials.remove(toy.getSerial()), names, partitions, gifts,
+				columns == null ? null : columns.without(row), removed + 1);
+		if (next.removed >= MIN_REBUILD && next.removed > next.size()) {
+			return of(next.version, next.getToys(), columns != null); // Drop the empty rows from every index
+		}
+		return next;
+	}
+
+	/**
+	 * Makes the next version with a toy moved to its new price in the gift
+	 * index, after the price has been changed. A snapshot rebuilt since the
+	 * change already indexed the toy at its new price, so it is left where it
+	 * is rather than indexed twice.
+	 *
+	 * @param toy           The toy; it must be in this snapshot.
+	 * @param oldPriceCents The price the toy was indexed at before the change.
+	 * @return the new snapshot; this one is unchanged.
+	 */
+	InventorySnapshot withPrice(Toy toy, long oldPriceCents) {
+		int row = serials.get(toy.getSerial());
+		GiftIndex moved = gifts.without(row, toy, oldPriceCents);
+		if (moved != gifts) {
+			moved = moved.with(row, toy);
+		}
+		ColumnarStore repriced = columns == null ? null : columns.withPrice(row, toy.getPriceCents());
+		return new InventorySnapshot(version + 1, rows, serials, names, partitions, moved, repriced, removed);
+	}
+}
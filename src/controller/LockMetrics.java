@@ -0,0 +1,115 @@
+package controller;
+
+/**
+ * Contention counters of a set of {@link LockStripes}, copied at one moment.
+ * For each stripe it holds how often the stripe was locked, how many of those
+ * acquisitions had to wait for another holder, and the total time spent
+ * waiting. The counters only grow, so the difference between two copies gives
+ * the figures for the time in between.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class LockMetrics {
+
+	private final long[] acquisitions; // Locks taken on each stripe
+	private final long[] contended; // Locks on each stripe that had to wait
+	private final long[] waitNanos; // Nanoseconds spent waiting for each stripe
+
+	/**
+	 * Creates metrics from per-stripe counters. The arrays are kept, not copied.
+	 *
+	 * @param acquisitions Locks taken on each stripe.
+	 * @param contended    Locks on each stripe that had to wait.
+	 * @param waitNanos    Nanoseconds spent waiting for each stripe.
+	 */
+	LockMetrics(long[] acquisitions, long[] contended, long[] waitNanos) {
+		this.acquisitions = acquisitions;
+		this.contended = contended;
+		this.waitNanos = waitNanos;
+	}
+
+	/**
+	 * Gets the number of stripes.
+	 *
+	 * @return the stripe count.
+	 */
+	public int getStripeCount() {
+		return acquisitions.length;
+	}
+
+	/**
+	 * Gets the number of times a stripe was locked.
+	 *
+	 * @param stripe The stripe.
+	 * @return the number of acquisitions.
+	 */
+	public long getAcquisitions(int stripe) {
+		return acquisitions[stripe];
+	}
+
+	/**
+	 * Gets the number of times locking a stripe had to wait.
+	 *
+	 * @param stripe The stripe.
+	 * @return the number of contended acquisitions.
+	 */
+	public long getContended(int stripe) {
+		return contended[stripe];
+	}
+
+	/**
+	 * Gets the time spent waiting to lock a stripe.
+	 *
+	 * @param stripe The stripe.
+	 * @return the total wait in nanoseconds.
+	 */
+	public long getWaitNanos(int stripe) {
+		return waitNanos[stripe];
+	}
+
+	/**
+	 * Gets the number of times any stripe was locked.
+	 *
+	 * @return the number of acquisitions.
+	 */
+	public long getTotalAcquisitions() {
+		return sum(acquisitions);
+	}
+
+	/**
+	 * Gets the number of times locking any stripe had to wait.
+	 *
+	 * @return the number of contended acquisitions.
+	 */
+	public long getTotalContended() {
+		return sum(contended);
+	}
+
+	/**
+	 * Gets the time spent waiting for all stripes together.
+	 *
+	 * @return the total wait in nanoseconds.
+	 */
+	public long getTotalWaitNanos() {
+		return sum(waitNanos);
+	}
+
+	/**
+	 * Gets the share of acquisitions that had to wait.
+	 *
+	 * @return a fraction from 0 to 1, or 0 if nothing was locked yet.
+	 */
+	public double getContentionRate() {
+		long total = getTotalAcquisitions();
+		return total == 0 ? 0 : (double) getTotalContended() / total;
+	}
+
+	private static long sum(long[] counters) {
+		long total = 0;
+		for (long counter : counters) {
+			total += counter;
+		}
+		return total;
+	}
+}
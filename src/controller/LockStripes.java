@@ -0,0 +1,244 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A fixed set of read-write locks, each guarding one range of serial numbers.
+ * Changes to toys in different ranges take different locks and run in
+ * parallel; changes to the same toy always meet on the same lock. Operations
+ * that span several toys lock each stripe they touch, and operations on the
+ * whole inventory, such as a save, lock every stripe. Stripes are always
+ * locked in ascending order, so two such operations can never deadlock.
+ *
+ * Every acquisition first tries the lock without waiting. If that fails the
+ * acquisition is counted as contended and the time spent waiting is added to
+ * the stripe's total, which {@link #getMetrics()} reports.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class LockStripes {
+
+	public static final int DEFAULT_STRIPES = 64; // Stripes used by the inventory service
+	private static final long SERIAL_RANGE = 10_000_000_000L; // Serial numbers are 10 digits
+
+	private final StampedLock[] locks; // Lock of each stripe
+	private final long width; // Serial numbers covered by each stripe
+	private final LongAdder[] acquisitions; // Locks taken on each stripe
+	private final LongAdder[] contended; // Locks on each stripe that had to wait
+	private final LongAdder[] waitNanos; // Time spent waiting for each stripe
+
+	/**
+	 * Creates the given number of stripes, splitting the serial numbers into
+	 * equal ranges.
+	 *
+	 * @param count The number of stripes; must be positive.
+	 * @throws IllegalArgumentException if the count is not positive.
+	 */
+	public LockStripes(int count) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("Stripe count must be positive.");
+		}
+		this.locks = new StampedLock[count];
+		this.acquisitions = new LongAdder[count];
+		this.contended = new LongAdder[count];
+		this.waitNanos = new LongAdder[count];
+		for (int i = 0; i < count; i++) {
+			locks[i] = new StampedLock();
+			acquisitions[i] = new LongAdder();
+			contended[i] = new LongAdder();
+			waitNanos[i] = new LongAdder();
+		}
+		this.width = (SERIAL_RANGE + count - 1) / count;
+	}
+
+	/**
+	 * Finds the stripe guarding a serial number.
+	 *
+	 * @param serial The serial number.
+	 * @return the stripe's index.
+	 */
+	public int stripeOf(long serial) {
+		return (int) Math.min(Math.max(serial, 0) / width, locks.length - 1);
+	}
+
+	/**
+	 * Finds the stripes guarding several serial numbers.
+	 *
+	 * @param serials The serial numbers.
+	 * @return the distinct stripes, in ascending order.
+	 */
+	public int[] stripesOf(long[] serials) {
+		int[] stripes = new int[serials.length];
+		for (int i = 0; i < serials.length; i++) {
+			stripes[i] = stripeOf(serials[i]);
+		}
+		Arrays.sort(stripes);
+		int distinct = 0;
+		for (int i = 0; i < stripes.length; i++) {
+			if (distinct == 0 || stripes[distinct - 1] != stripes[i]) {
+				stripes[distinct++] = stripes[i];
+			}
+		}
+		return Arrays.copyOf(stripes, distinct);
+	}
+
+	/**
+	 * Gets every stripe, in ascending order, for operations on the whole
+	 * inventory.
+	 *
+	 * @return the index of every stripe.
+	 */
+	public int[] all() {
+		int[] stripes = new int[locks.length];
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = i;
+		}
+		return stripes;
+	}
+
+	/**
+	 * Takes one stripe exclusively.
+	 *
+	 * @param stripe The stripe.
+	 * @return The stamp to unlock it with.
+	 */
+	public long writeLock(int stripe) {
+		StampedLock lock = locks[stripe];
+		long stamp = lock.tryWriteLock();
+		if (stamp == 0) {
+			long start = System.nanoTime();
+			stamp = lock.writeLock();
+			waited(stripe, start);
+		}
+		acquisitions[stripe].increment();
+		return stamp;
+	}
+
+	/**
+	 * Releases a stripe taken with {@link #writeLock(int)}.
+	 *
+	 * @param stripe The stripe.
+	 * @param stamp  The stamp returned when it was taken.
+	 */
+	public void unlockWrite(int stripe, long stamp) {
+		locks[stripe].unlockWrite(stamp);
+	}
+
+	/**
+	 * Takes one stripe shared: other shared holders may take it too, but no
+	 * exclusive holder.
+	 *
+	 * @param stripe The stripe.
+	 * @return The stamp to unlock it with.
+	 */
+	public long readLock(int stripe) {
+		StampedLock lock = locks[stripe];
+		long stamp = lock.tryReadLock();
+		if (stamp == 0) {
+			long start = System.nanoTime();
+			stamp = lock.readLock();
+			waited(stripe, start);
+		}
+		acquisitions[stripe].increment();
+		return stamp;
+	}
+
+	/**
+	 * Releases a stripe taken with {@link #readLock(int)}.
+	 *
+	 * @param stripe The stripe.
+	 * @param stamp  The stamp returned when it was taken.
+	 */
+	public void unlockRead(int stripe, long stamp) {
+		locks[stripe].unlockRead(stamp);
+	}
+
+	/**
+	 * Takes several stripes exclusively, in ascending order.
+	 *
+	 * @param stripes The stripes, distinct and in ascending order.
+	 * @return The stamps to unlock them with, one per stripe.
+	 */
+	public long[] writeLock(int[] stripes) {
+		long[] stamps = new long[stripes.length];
+		for (int i = 0; i < stripes.length; i++) {
+			stamps[i] = writeLock(stripes[i]);
+		}
+		return stamps;
+	}
+
+	/**
+	 * Releases stripes taken with {@link #writeLock(int[])}.
+	 *
+	 * @param stripes The stripes.
+	 * @param stamps  The stamps returned when they were taken.
+	 */
+	public void unlockWrite(int[] stripes, long[] stamps) {
+		for (int i = stripes.length - 1; i >= 0; i--) {
+			unlockWrite(stripes[i], stamps[i]);
+		}
+	}
+
+	/**
+	 * Takes several stripes shared, in ascending order.
+	 *
+	 * @param stripes The stripes, distinct and in ascending order.
+	 * @return The stamps to unlock them with, one per stripe.
+	 */
+	public long[] readLock(int[] stripes) {
+		long[] stamps = new long[stripes.length];
+		for (int i = 0; i < stripes.length; i++) {
+			stamps[i] = readLock(stripes[i]);
+		}
+		return stamps;
+	}
+
+	/**
+	 * Releases stripes taken with {@link #readLock(int[])}.
+	 *
+	 * @param stripes The stripes.
+	 * @param stamps  The stamps returned when they were taken.
+	 */
+	public void unlockRead(int[] stripes, long[] stamps) {
+		for (int i = stripes.length - 1; i >= 0; i--) {
+			unlockRead(stripes[i], stamps[i]);
+		}
+	}
+
+	/**
+	 * Gets the number of stripes.
+	 *
+	 * @return the stripe count.
+	 */
+	public int size() {
+		return locks.length;
+	}
+
+	/**
+	 * Reads the contention counters of every stripe.
+	 *
+	 * @return A copy of the counters as they are now.
+	 */
+	public LockMetrics getMetrics() {
+		long[] taken = new long[locks.length];
+		long[] waits = new long[locks.length];
+		long[] nanos = new long[locks.length];
+		for (int i = 0; i < locks.length; i++) {
+			taken[i] = acquisitions[i].sum();
+			waits[i] = contended[i].sum();
+			nanos[i] = waitNanos[i].sum();
+		}
+		return new LockMetrics(taken, waits, nanos);
+	}
+
+	/**
+	 * Records an acquisition that had to wait.
+	 */
+	private void waited(int stripe, long start) {
+		contended[stripe].increment();
+		waitNanos[stripe].add(System.nanoTime() - start);
+	}
+}
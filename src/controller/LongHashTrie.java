@@ -0,0 +1,348 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Immutable map from primitive long keys to values: a hash array mapped trie
+ * (HAMT). Each node covers five bits of the key's hash and keeps a bitmap of
+ * which of its 32 branches are used, so it stores only those branches, packed
+ * in a short array. Entries sit inline in the node where their hash first
+ * differs from every other key's, and sub-nodes are kept in a separate array,
+ * the compact layout known as CHAMP.
+ *
+ * Putting or removing a key copies the nodes on the path to it and shares
+ * every other node with the map it was made from, so a new version costs a few
+ * short arrays. The hash is a bijective mix of the key, so two distinct keys
+ * never collide completely and no collision lists are needed.
+ *
+ * @param <V> The type of value; values are never null.
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class LongHashTrie<V> {
+
+	private static final int BITS = 5; // Hash bits consumed per level
+	private static final int MASK = (1 << BITS) - 1;
+	private static final Node EMPTY_NODE = new Node(0, 0, new long[0], new Object[0], new Node[0]);
+	private static final LongHashTrie<Object> EMPTY = new LongHashTrie<>(EMPTY_NODE, 0);
+
+	private final Node root;
+	private final int size; // Number of keys
+
+	private LongHashTrie(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Gets the empty map.
+	 *
+	 * @param <V> The type of value.
+	 * @return the empty map.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> LongHashTrie<V> empty() {
+		return (LongHashTrie<V>) EMPTY;
+	}
+
+	/**
+	 * Builds a map from parallel arrays of keys and values in one pass per
+	 * level, which is much cheaper than putting the keys one at a time. A key
+	 * that appears twice keeps its last value.
+	 *
+	 * @param <V>    The type of value.
+	 * @param keys   The keys.
+	 * @param values The value of each key; none may be null.
+	 * @param count  The number of entries to take from the arrays.
+	 * @return the map.
+	 */
+	public static <V> LongHashTrie<V> of(long[] keys, V[] values, int count) {
+		if (count == 0) {
+			return empty();
+		}
+		long[] hashes = new long[count];
+		int[] order = new int[count];
+		for (int i = 0; i < count; i++) {
+			hashes[i] = hash(keys[i]);
+			order[i] = i;
+		}
+		int[] size = new int[1]; // Distinct keys, counted as entries are placed
+		Node root = build(keys, values, hashes, order, new long[count], new int[count], 0, count, 0, size);
+		return new LongHashTrie<>(root, size[0]);
+	}
+
+	/**
+	 * Gets the number of keys.
+	 *
+	 * @return the size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the value of a key.
+	 *
+	 * @param key The key.
+	 * @return The value, or null if the key is not in the map.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		long hash = hash(key);
+		Node node = root;
+		for (int shift = 0;; shift += BITS) {
+			int bit = bit(hash, shift);
+			if ((node.dataMap & bit) != 0) {
+				int index = index(node.dataMap, bit);
+				return node.keys[index] == key ? (V) node.values[index] : null;
+			}
+			if ((node.nodeMap & bit) == 0) {
+				return null;
+			}
+			node = node.nodes[index(node.nodeMap, bit)];
+		}
+	}
+
+	/**
+	 * Makes a map with a key set to a value.
+	 *
+	 * @param key   The key.
+	 * @param value The value; must not be null.
+	 * @return the new map; this one is unchanged.
+	 */
+	public LongHashTrie<V> put(long key, V value) {
+		boolean added = get(key) == null;
+		return new LongHashTrie<>(root.put(key, hash(key), value, 0), added ? size + 1 : size);
+	}
+
+	/**
+	 * Makes a map without a key.
+	 *
+	 * @param key The key.
+	 * @return the new map, or this map if it does not hold the key.
+	 */
+	public LongHashTrie<V> remove(long key) {
+		if (get(key) == null) {
+			return this;
+		}
+		return new LongHashTrie<>(root.remove(key, hash(key), 0), size - 1);
+	}
+
+	/**
+	 * Builds the node for a run of entries whose hashes agree below `shift`.
+	 * The run's hashes and entry numbers are partitioned by branch, keeping the
+	 * original order within each branch, and every branch with more than one
+	 * entry is built recursively.
+	 */
+	private static Node build(long[] keys, Object[] values, long[] hashes, int[] order, long[] hashScratch,
+			int[] orderScratch, int from, int to, int shift, int[] size) {
+		int[] starts = new int[MASK + 2];
+		for (int i = from; i < to; i++) {
+			starts[branch(hashes[i], shift) + 1]++;
+		}
+		// Past the last level, entries sharing a branch share every hash bit and
+		// so are one repeated key
+		boolean lastLevel = shift + BITS >= Long.SIZE;
+		int dataMap = 0;
+		int nodeMap = 0;
+		for (int branch = 0; branch <= MASK; branch++) {
+			int count = starts[branch + 1];
+			if (count == 1 || count > 1 && lastLevel) {
+				dataMap |= 1 << branch;
+			} else if (count > 1) {
+				nodeMap |= 1 << branch;
+			}
+			starts[branch + 1] += starts[branch];
+		}
+		int[] next = Arrays.copyOf(starts, MASK + 1);
+		for (int i = from; i < to; i++) {
+			int target = from + next[branch(hashes[i], shift)]++;
+			hashScratch[target] = hashes[i];
+			orderScratch[target] = order[i];
+		}
+		System.arraycopy(hashScratch, from, hashes, from, to - from);
+		System.arraycopy(orderScratch, from, order, from, to - from);
+
+		long[] nodeKeys = new long[Integer.bitCount(dataMap)];
+		Object[] nodeValues = new Object[nodeKeys.length];
+		Node[] children = new Node[Integer.bitCount(nodeMap)];
+		int entry = 0;
+		int child = 0;
+		for (int branch = 0; branch <= MASK; branch++) {
+			int start = from + starts[branch];
+			int end = from + starts[branch + 1];
+			if (end - start == 1 || end > start && lastLevel) {
+				nodeKeys[entry] = keys[order[end - 1]]; // The last of a repeated key wins
+				nodeValues[entry++] = values[order[end - 1]];
+				size[0]++;
+			} else if (end > start) {
+				children[child++] = build(keys, values, hashes, order, hashScratch, orderScratch, start, end,
+						shift + BITS, size);
+			}
+		}
+		return new Node(dataMap, nodeMap, nodeKeys, nodeValues, children);
+	}
+
+	/**
+	 * Mixes a key into a hash with the finaliser of MurmurHash3, which is a
+	 * bijection: distinct keys always get distinct hashes.
+	 */
+	private static long hash(long key) {
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Gets the bitmap bit of the branch a hash takes at a level.
+	 */
+	private static int bit(long hash, int shift) {
+		return 1 << branch(hash, shift);
+	}
+
+	/**
+	 * Gets the branch a hash takes at a level.
+	 */
+	private static int branch(long hash, int shift) {
+		return (int) (hash >>> shift) & MASK;
+	}
+
+	/**
+	 * Gets the position of a branch among the branches set in a bitmap.
+	 */
+	private static int index(int bitmap, int bit) {
+		return Integer.bitCount(bitmap & (bit - 1));
+	}
+
+	/**
+	 * One level of the trie. Entries and sub-nodes are each ordered by branch.
+	 */
+	private static final class Node {
+		private final int dataMap; // Branches holding an inline entry
+		private final int nodeMap; // Branches holding a sub-node
+		private final long[] keys; // Inline keys
+		private final Object[] values; // Inline values, parallel to keys
+		private final Node[] nodes; // Sub-nodes
+
+		private Node(int dataMap, int nodeMap, long[] keys, Object[] values, Node[] nodes) {
+			this.dataMap = dataMap;
+			this.nodeMap = nodeMap;
+			this.keys = keys;
+			this.values = values;
+			this.nodes = nodes;
+		}
+
+		private Node put(long key, long hash, Object value, int shift) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = index(dataMap, bit);
+				if (keys[index] == key) {
+					Object[] newValues = values.clone();
+					newValues[index] = value;
+					return new Node(dataMap, nodeMap, keys, newValues, nodes);
+				}
+				// Two keys share this branch: move both into a new sub-node
+				Node merged = merge(keys[index], LongHashTrie.hash(keys[index]), values[index], key, hash, value,
+						shift + BITS);
+				int position = index(nodeMap, bit);
+				return new Node(dataMap ^ bit, nodeMap | bit, removeKey(keys, index), removeValue(values, index),
+						insertNode(nodes, position, merged));
+			}
+			if ((nodeMap & bit) != 0) {
+				int position = index(nodeMap, bit);
+				Node[] newNodes = nodes.clone();
+				newNodes[position] = nodes[position].put(key, hash, value, shift + BITS);
+				return new Node(dataMap, nodeMap, keys, values, newNodes);
+			}
+			int index = index(dataMap, bit);
+			return new Node(dataMap | bit, nodeMap, insertKey(keys, index, key), insertValue(values, index, value),
+					nodes);
+		}
+
+		private Node remove(long key, long hash, int shift) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = index(dataMap, bit);
+				return new Node(dataMap ^ bit, nodeMap, removeKey(keys, index), removeValue(values, index), nodes);
+			}
+
+			int position = index(nodeMap, bit);
+			Node child = nodes[position].remove(key, hash, shift + BITS);
+			if (child.nodeMap == 0 && child.keys.length == 1) {
+				// A sub-node left with one entry is folded back into this node
+				int index = index(dataMap, bit);
+				return new Node(dataMap | bit, nodeMap ^ bit, insertKey(keys, index, child.keys[0]),
+						insertValue(values, index, child.values[0]), removeNode(nodes, position));
+			}
+			Node[] newNodes = nodes.clone();
+			newNodes[position] = child;
+			return new Node(dataMap, nodeMap, keys, values, newNodes);
+		}
+
+		/**
+		 * Makes the smallest node holding two keys whose hashes agree below
+		 * `shift`.
+		 */
+		private static Node merge(long key1, long hash1, Object value1, long key2, long hash2, Object value2,
+				int shift) {
+			int bit1 = bit(hash1, shift);
+			int bit2 = bit(hash2, shift);
+			if (bit1 == bit2) {
+				Node child = merge(key1, hash1, value1, key2, hash2, value2, shift + BITS);
+				return new Node(0, bit1, new long[0], new Object[0], new Node[] { child });
+			}
+			return Integer.compareUnsigned(bit1, bit2) < 0 // Entries are ordered by branch
+					? new Node(bit1 | bit2, 0, new long[] { key1, key2 }, new Object[] { value1, value2 }, new Node[0])
+					: new Node(bit1 | bit2, 0, new long[] { key2, key1 }, new Object[] { value2, value1 }, new Node[0]);
+		}
+
+		private static long[] insertKey(long[] array, int index, long key) {
+			long[] copy = new long[array.length + 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			copy[index] = key;
+			System.arraycopy(array, index, copy, index + 1, array.length - index);
+			return copy;
+		}
+
+		private static Object[] insertValue(Object[] array, int index, Object value) {
+			Object[] copy = new Object[array.length + 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			copy[index] = value;
+			System.arraycopy(array, index, copy, index + 1, array.length - index);
+			return copy;
+		}
+
+		private static Node[] insertNode(Node[] array, int index, Node node) {
+			Node[] copy = new Node[array.length + 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			copy[index] = node;
+			System.arraycopy(array, index, copy, index + 1, array.length - index);
+			return copy;
+		}
+
+		private static long[] removeKey(long[] array, int index) {
+			long[] copy = new long[array.length - 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			System.arraycopy(array, index + 1, copy, index, copy.length - index);
+			return copy;
+		}
+
+		private static Object[] removeValue(Object[] array, int index) {
+			Object[] copy = new Object[array.length - 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			System.arraycopy(array, index + 1, copy, index, copy.length - index);
+			return copy;
+		}
+
+		private static Node[] removeNode(Node[] array, int index) {
+			Node[] copy = new Node[array.length - 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			System.arraycopy(array, index + 1, copy, index, copy.length - index);
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Toy;
+
+/**
+ * Trigram inverted index over toy names for case-insensitive substring search.
+ * Toys are identified by their row in an {@link InventorySnapshot}, and every
+ * three-character sequence of a lowercased name maps to a sorted posting list
+ * of rows. A query intersects the posting lists of its own trigrams and then
+ * confirms each candidate with String.contains, so results are exactly those
+ * of lowercasing every name and calling contains(), in inventory order.
+ * Queries shorter than three characters scan the cached lowercase names
+ * instead.
+ *
+ * The index is immutable. Adding a name appends to a persistent vector of
+ * names and to the persistent posting lists of its trigrams, sharing
+ * everything else with the previous index. Removed toys are not taken out:
+ * their rows are empty in the snapshot and skipped, until the snapshot is
+ * rebuilt without them.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class NameIndex {
+
+	public static final NameIndex EMPTY = new NameIndex(PersistentVector.empty(), LongHashTrie.empty());
+
+	private final PersistentVector<String> names; // Lowercased name per row
+	private final LongHashTrie<IntVector> postings; // Trigram to sorted list of rows
+
+	private NameIndex(PersistentVector<String> names, LongHashTrie<IntVector> postings) {
+		this.names = names;
+		this.postings = postings;
+	}
+
+	/**
+	 * Builds the index over a list of toys, each toy's row being its position
+	 * in the list.
+	 *
+	 * @param toys The toys in row order.
+	 * @return the index.
+	 */
+	public static NameIndex of(List<Toy> toys) {
+		List<String> names = new ArrayList<>(toys.size());
+		Map<Long, Postings> lists = new HashMap<>();
+		for (int row = 0; row < toys.size(); row++) {
+			String name = toys.get(row).getName().toLowerCase();
+			names.add(name);
+			for (int i = 0; i + 3 <= name.length(); i++) {
+				lists.computeIfAbsent(trigram(name, i), key -> new Postings()).addIfLast(row);
+			}
+		}
+
+		long[] keys = new long[lists.size()];
+		IntVector[] values = new IntVector[lists.size()];
+		int count = 0;
+		for (Map.Entry<Long, Postings> entry : lists.entrySet()) {
+			keys[count] = entry.getKey();
+			values[count++] = IntVector.of(entry.getValue().ids, entry.getValue().size);
+		}
+		return new NameIndex(PersistentVector.of(names), LongHashTrie.of(keys, values, count));
+	}
+
+	/**
+	 * Makes an index with one more toy, in the next row.
+	 *
+	 * @param toy The toy to index.
+	 * @return the new index; this one is unchanged.
+	 */
+	public NameIndex with(Toy toy) {
+		int row = names.size();
+		String name = toy.getName().toLowerCase();
+		LongHashTrie<IntVector> updated = postings;
+		for (int i = 0; i + 3 <= name.length(); i++) {
+			long key = trigram(name, i);
+			IntVector list = updated.get(key);
+			if (list == null) {
+				updated = updated.put(key, IntVector.EMPTY.append(row));
+			} else if (list.last() != row) {
+				// Rows only grow, so a repeated trigram in the same name shows up as the last entry
+				updated = updated.put(key, list.append(row));
+			}
+		}
+		return new NameIndex(names.append(name), updated);
+	}
+
+	/**
+	 * Finds the toys whose name contains the query, ignoring case.
+	 *
+	 * @param query The name (or partial name) to search for.
+	 * @param rows  The toy in each row, null for removed toys.
+	 * @return The matching toys in inventory order.
+	 */
+	public List<Toy> search(String query, PersistentVector<Toy> rows) {
+		String needle = query.toLowerCase();
+		List<Toy> results = new ArrayList<>();
+
+		if (needle.length() < 3) {
+			// Too short for trigrams: scan the cached lowercase names
+			for (int row = 0; row < names.size(); row++) {
+				Toy toy = rows.get(row);
+				if (toy != null && names.get(row).contains(needle)) {
+					results.add(toy);
+				}
+			}
+			return results;
+		}
+
+		// Collect the posting list of every trigram in the query, smallest first
+		List<IntVector> lists = new ArrayList<>();
+		for (int i = 0; i + 3 <= needle.length(); i++) {
+			IntVector list = postings.get(trigram(needle, i));
+			if (list == null) {
+				return results; // Some trigram occurs in no name at all
+			}
+			lists.add(list);
+		}
+		lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+		// Walk the smallest list and keep rows present in every other list
+		IntVector smallest = lists.get(0);
+		int[] cursors = new int[lists.size()];
+		candidates: for (int i = 0; i < smallest.size(); i++) {
+			int row = smallest.get(i);
+			Toy toy = rows.get(row);
+			if (toy == null) {
+				continue; // Removed since it was indexed
+			}
+			for (int l = 1; l < lists.size(); l++) {
+				IntVector other = lists.get(l);
+				cursors[l] = seek(other, cursors[l], row);
+				if (cursors[l] == other.size()) {
+					break candidates; // Another list is exhausted, so nothing else can match
+				}
+				if (other.get(cursors[l]) != row) {
+					continue candidates;
+				}
+			}
+			// Trigrams matched; confirm they appear contiguously in the name
+			if (names.get(row).contains(needle)) {
+				results.add(toy);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Finds the first position at or after `from` whose row is not less than
+	 * the target, galloping ahead before a binary search.
+	 */
+	private static int seek(IntVector list, int from, int target) {
+		int step = 1;
+		int low = from;
+		int high = from;
+		while (high < list.size() && list.get(high) < target) {
+			low = high + 1;
+			high += step;
+			step <<= 1;
+		}
+		high = Math.min(high, list.size());
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (list.get(middle) < target) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Packs the three characters starting at the given position into a key.
+	 */
+	private static long trigram(String text, int start) {
+		return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+	}
+
+	/**
+	 * Growable, sorted list of rows for one trigram, used while building.
+	 */
+	private static class Postings {
+		private int[] ids = new int[4];
+		private int size;
+
+		/**
+		 * Appends a row unless it is already the last entry.
+		 */
+		private void addIfLast(int row) {
+			if (size > 0 && ids[size - 1] == row) {
+				return;
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = row;
+		}
+	}
+}
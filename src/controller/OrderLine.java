@@ -0,0 +1,43 @@
+package controller;
+
+/**
+ * One line of a batched order: a toy, identified by serial number, and the
+ * number of units wanted.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class OrderLine {
+
+	private final String sn; // Serial number of the toy ordered
+	private final int quantity; // Units ordered
+
+	/**
+	 * Creates an order line.
+	 *
+	 * @param sn       The serial number of the toy.
+	 * @param quantity The number of units wanted.
+	 */
+	public OrderLine(String sn, int quantity) {
+		this.sn = sn;
+		this.quantity = quantity;
+	}
+
+	/**
+	 * Gets the serial number of the toy ordered.
+	 *
+	 * @return the serial number.
+	 */
+	public String getSn() {
+		return sn;
+	}
+
+	/**
+	 * Gets the number of units ordered.
+	 *
+	 * @return the quantity.
+	 */
+	public int getQuantity() {
+		return quantity;
+	}
+}
@@ -0,0 +1,81 @@
+package controller;
+
+/**
+ * Outcome of a batched order placed through {@link InventoryService}. An order
+ * is either placed in full or rejected as a whole; a rejection names the first
+ * line that could not be filled.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class OrderResult {
+
+	private final boolean placed; // Whether every line was filled
+	private final long totalCents; // Total price of a placed order, in cents
+	private final String rejectedSn; // Serial number of the line that failed, or null
+	private final String reason; // Why the order was rejected, or null
+
+	private OrderResult(boolean placed, long totalCents, String rejectedSn, String reason) {
+		this.placed = placed;
+		this.totalCents = totalCents;
+		this.rejectedSn = rejectedSn;
+		this.reason = reason;
+	}
+
+	/**
+	 * Creates the result of an order that was filled in full.
+	 *
+	 * @param totalCents The total price of the order, in cents.
+	 * @return the result.
+	 */
+	static OrderResult placed(long totalCents) {
+		return new OrderResult(true, totalCents, null, null);
+	}
+
+	/**
+	 * Creates the result of an order that was not applied at all.
+	 *
+	 * @param sn     The serial number of the line that could not be filled.
+	 * @param reason Why the line could not be filled.
+	 * @return the result.
+	 */
+	static OrderResult rejected(String sn, String reason) {
+		return new OrderResult(false, 0, sn, reason);
+	}
+
+	/**
+	 * Checks whether the order was placed.
+	 *
+	 * @return true if every line was filled, false if nothing was sold.
+	 */
+	public boolean isPlaced() {
+		return placed;
+	}
+
+	/**
+	 * Gets the total price of a placed order.
+	 *
+	 * @return the total in cents, or 0 if the order was rejected.
+	 */
+	public long getTotalCents() {
+		return totalCents;
+	}
+
+	/**
+	 * Gets the serial number of the line that caused a rejection.
+	 *
+	 * @return the serial number, or null if the order was placed.
+	 */
+	public String getRejectedSn() {
+		return rejectedSn;
+	}
+
+	/**
+	 * Gets the reason the order was rejected.
+	 *
+	 * @return the reason, or null if the order was placed.
+	 */
+	public String getReason() {
+		return reason;
+	}
+}
@@ -0,0 +1,221 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable list with cheap updates, for inventory snapshots that readers keep
+ * while writers move on. Elements live in a trie of 32-element arrays: reading
+ * an index walks at most a handful of levels, and appending or replacing an
+ * element copies only the arrays on the path to it, so every new version
+ * shares all other arrays with the one it was made from. The last, partly
+ * filled array is kept outside the trie as a tail, so most appends copy just
+ * that one short array.
+ *
+ * @param <T> The type of element.
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class PersistentVector<T> {
+
+	private static final int BITS = 5; // log2 of the array width
+	private static final int WIDTH = 1 << BITS; // Elements or children per array
+	private static final int MASK = WIDTH - 1;
+	private static final PersistentVector<Object> EMPTY = new PersistentVector<>(0, BITS, new Object[WIDTH],
+			new Object[0]);
+
+	private final int size; // Number of elements
+	private final int shift; // Bits consumed above the leaves; 5 for a trie of one level
+	private final Object[] root; // Trie of full leaves
+	private final Object[] tail; // The last 1 to 32 elements, not yet in the trie
+
+	private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * Gets the empty vector.
+	 *
+	 * @param <T> The type of element.
+	 * @return the empty vector.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentVector<T> empty() {
+		return (PersistentVector<T>) EMPTY;
+	}
+
+	/**
+	 * Builds a vector holding the given elements in order. The trie is filled
+	 * bottom-up, which is much cheaper than appending one element at a time.
+	 *
+	 * @param <T>      The type of element.
+	 * @param elements The elements.
+	 * @return the vector.
+	 */
+	public static <T> PersistentVector<T> of(List<T> elements) {
+		int size = elements.size();
+		if (size == 0) {
+			return empty();
+		}
+		Object[] values = elements.toArray();
+		int tailStart = tailOffset(size);
+
+		Object[] nodes = new Object[tailStart / WIDTH]; // Full leaves, then their parents level by level
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = Arrays.copyOfRange(values, i * WIDTH, (i + 1) * WIDTH);
+		}
+		int shift = BITS;
+		while (nodes.length > 1 << shift) {
+			shift += BITS;
+		}
+		for (int level = BITS; level <= shift; level += BITS) {
+			Object[] parents = new Object[(nodes.length + MASK) / WIDTH];
+			for (int i = 0; i < parents.length; i++) {
+				Object[] parent = new Object[WIDTH];
+				System.arraycopy(nodes, i * WIDTH, parent, 0, Math.min(WIDTH, nodes.length - i * WIDTH));
+				parents[i] = parent;
+			}
+			nodes = parents;
+		}
+		Object[] root = nodes.length == 0 ? new Object[WIDTH] : (Object[]) nodes[0];
+		return new PersistentVector<>(size, shift, root, Arrays.copyOfRange(values, tailStart, size));
+	}
+
+	/**
+	 * Gets the number of elements.
+	 *
+	 * @return the size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the element at an index.
+	 *
+	 * @param index The index, from 0 to size - 1.
+	 * @return the element.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		return (T) leafFor(index)[index & MASK];
+	}
+
+	/**
+	 * Makes a vector with one more element at the end.
+	 *
+	 * @param element The element to append.
+	 * @return the new vector; this one is unchanged.
+	 */
+	public PersistentVector<T> append(T element) {
+		if (size - tailOffset(size) < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = element;
+			return new PersistentVector<>(size + 1, shift, root, newTail);
+		}
+
+		// The tail is full: push it into the trie, growing a level if the root is full
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > 1 << shift) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { element });
+	}
+
+	/**
+	 * Makes a vector with the element at one index replaced.
+	 *
+	 * @param index   The index, from 0 to size - 1.
+	 * @param element The new element.
+	 * @return the new vector; this one is unchanged.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 */
+	public PersistentVector<T> set(int index, T element) {
+		checkIndex(index);
+		if (index >= tailOffset(size)) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = element;
+			return new PersistentVector<>(size, shift, root, newTail);
+		}
+		return new PersistentVector<>(size, shift, assoc(shift, root, index, element), tail);
+	}
+
+	/**
+	 * Finds the array holding an index: the tail, or a leaf of the trie.
+	 */
+	private Object[] leafFor(int index) {
+		checkIndex(index);
+		if (index >= tailOffset(size)) {
+			return tail;
+		}
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+	}
+
+	/**
+	 * Copies the path to the next free leaf and links the full tail there.
+	 */
+	private Object[] pushTail(int level, Object[] parent, Object[] leaf) {
+		int child = ((size - 1) >>> level) & MASK;
+		Object[] copy = parent.clone();
+		if (level == BITS) {
+			copy[child] = leaf;
+		} else {
+			Object[] below = (Object[]) parent[child];
+			copy[child] = below != null ? pushTail(level - BITS, below, leaf) : newPath(level - BITS, leaf);
+		}
+		return copy;
+	}
+
+	/**
+	 * Copies the path to an index with the element at the end of it replaced.
+	 */
+	private static Object[] assoc(int level, Object[] node, int index, Object element) {
+		Object[] copy = node.clone();
+		if (level == 0) {
+			copy[index & MASK] = element;
+		} else {
+			int child = (index >>> level) & MASK;
+			copy[child] = assoc(level - BITS, (Object[]) node[child], index, element);
+		}
+		return copy;
+	}
+
+	/**
+	 * Wraps a leaf in single-child arrays until it reaches the given level.
+	 */
+	private static Object[] newPath(int level, Object[] leaf) {
+		if (level == 0) {
+			return leaf;
+		}
+		Object[] node = new Object[WIDTH];
+		node[0] = newPath(level - BITS, leaf);
+		return node;
+	}
+
+	/**
+	 * Gets the index of the first element held in the tail.
+	 */
+	private static int tailOffset(int size) {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+}
@@ -0,0 +1,23 @@
+package controller;
+
+/**
+ * Outcome of buying one unit of a toy through {@link InventoryService}.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public enum PurchaseResult {
+
+	PURCHASED, // A unit was sold and the toy is still in stock
+	SOLD_OUT, // The last unit was sold and the toy was removed from the inventory
+	UNAVAILABLE; // Nothing was sold: no stock was left or the toy is no longer listed
+
+	/**
+	 * Checks whether the purchase went through.
+	 *
+	 * @return true if a unit was sold.
+	 */
+	public boolean isSold() {
+		return this != UNAVAILABLE;
+	}
+}
@@ -0,0 +1,100 @@
+package controller;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import model.Toy;
+
+/**
+ * A hold on units of one toy, made through a {@link ReservationBook}. The held
+ * units are excluded from the toy's available count until the reservation is
+ * confirmed (the units are sold), released, or expires. A reservation ends
+ * exactly once: whichever of confirm, release and expiry comes first wins.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class Reservation {
+
+	/**
+	 * The lifecycle of a reservation.
+	 */
+	public enum State {
+		HELD, CONFIRMED, RELEASED, EXPIRED
+	}
+
+	private final long id; // Identifier handed to the customer
+	private final Toy toy; // The toy whose units are held
+	private final int quantity; // Units held
+	private final long expiresAt; // Wall clock time of expiry, in milliseconds
+	private final AtomicReference<State> state = new AtomicReference<>(State.HELD); // Current state
+
+	/**
+	 * Creates a reservation whose units have already been held.
+	 *
+	 * @param id        The reservation id.
+	 * @param toy       The toy.
+	 * @param quantity  The units held.
+	 * @param expiresAt The wall clock time of expiry, in milliseconds.
+	 */
+	Reservation(long id, Toy toy, int quantity, long expiresAt) {
+		this.id = id;
+		this.toy = toy;
+		this.quantity = quantity;
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Gets the reservation id.
+	 *
+	 * @return the id.
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the toy whose units are held.
+	 *
+	 * @return the toy.
+	 */
+	public Toy getToy() {
+		return toy;
+	}
+
+	/**
+	 * Gets the number of units held.
+	 *
+	 * @return the quantity.
+	 */
+	public int getQuantity() {
+		return quantity;
+	}
+
+	/**
+	 * Gets the time at which the hold expires unless confirmed or released.
+	 *
+	 * @return the wall clock expiry time, in milliseconds.
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * Gets the current state of the reservation.
+	 *
+	 * @return the state.
+	 */
+	public State getState() {
+		return state.get();
+	}
+
+	/**
+	 * Ends the reservation if it is still held.
+	 *
+	 * @param end The state to end in.
+	 * @return true if this call ended it, false if it had already ended.
+	 */
+	boolean end(State end) {
+		return state.compareAndSet(State.HELD, end);
+	}
+}
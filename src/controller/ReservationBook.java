@@ -0,0 +1,185 @@
+package controller;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.Toy;
+
+/**
+ * Stock reservations for online carts. Reserving holds units of a toy for a
+ * limited time: the units stay in stock but are no longer available to
+ * searches, gift suggestions or other buyers. The reservation is then
+ * confirmed, which sells the held units, or released; a reservation that is
+ * neither by its deadline expires and its units become available again.
+ *
+ * Deadlines are kept in a {@link TimingWheel} advanced by a background thread
+ * every {@link #TICK_MILLIS} milliseconds, so holding and expiring a unit cost
+ * O(1) however many reservations are open. Reservations live only in memory;
+ * the saved stock counts include held units, so nothing held is lost if the
+ * application stops.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class ReservationBook implements Closeable {
+
+	public static final long TICK_MILLIS = 100; // Expiry resolution
+
+	private final InventoryService service; // The inventory units are held in
+	private final Map<Long, Reservation> open = new ConcurrentHashMap<>(); // Reservations still held, by id
+	private final AtomicLong nextId = new AtomicLong(1); // Next reservation id
+	private final TimingWheel<Reservation> wheel; // Deadlines of open reservations, guarded by itself
+	private final ScheduledExecutorService ticker; // Advances the wheel
+
+	/**
+	 * Creates a reservation book over an inventory and starts its expiry thread.
+	 *
+	 * @param service The loaded inventory.
+	 */
+	public ReservationBook(InventoryService service) {
+		this.service = service;
+		this.wheel = new TimingWheel<>(System.currentTimeMillis() / TICK_MILLIS);
+		this.ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "reservation-expiry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ticker.scheduleAtFixedRate(this::expireDue, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Holds units of a toy.
+	 *
+	 * @param sn         The serial number of the toy.
+	 * @param quantity   The number of units to hold.
+	 * @param ttlMillis  How long to hold them, in milliseconds.
+	 * @return The reservation, or null if the toy does not exist or has fewer
+	 *         units available.
+	 * @throws IllegalArgumentException if the quantity or time to live is not
+	 *                                  positive.
+	 */
+	public Reservation reserve(String sn, int quantity, long ttlMillis) {
+		if (quantity <= 0 || ttlMillis <= 0) {
+			throw new IllegalArgumentException("Quantity and time to live must be positive.");
+		}
+		Toy toy = service.hold(sn, quantity);
+		if (toy == null) {
+			return null;
+		}
+
+		long expiresAt = System.currentTimeMillis() + ttlMillis;
+		Reservation reservation = new Reservation(nextId.getAndIncrement(), toy, quantity, expiresAt);
+		open.put(reservation.getId(), reservation);
+		synchronized (wheel) {
+			// Round up so a hold never expires early
+			wheel.schedule(reservation, (expiresAt + TICK_MILLIS - 1) / TICK_MILLIS);
+		}
+		return reservation;
+	}
+
+	/**
+	 * Finds an open reservation.
+	 *
+	 * @param id The reservation id.
+	 * @return The reservation, or null if it has ended or never existed.
+	 */
+	public Reservation get(long id) {
+		return open.get(id);
+	}
+
+	/**
+	 * Gets the number of open reservations.
+	 *
+	 * @return the number of reservations still held.
+	 */
+	public int size() {
+		return open.size();
+	}
+
+	/**
+	 * Confirms a reservation, selling its held units. A reservation past its
+	 * deadline expires instead, even if the expiry thread has not reached it.
+	 *
+	 * @param id The reservation id.
+	 * @return true if the units were sold, false if the reservation has ended.
+	 */
+	public boolean confirm(long id) {
+		Reservation reservation = open.get(id);
+		if (reservation == null) {
+			return false;
+		}
+		if (System.currentTimeMillis() >= reservation.getExpiresAt()) {
+			expire(reservation);
+			return false;
+		}
+		if (!reservation.end(Reservation.State.CONFIRMED)) {
+			return false;
+		}
+		open.remove(id);
+		service.sellHeld(reservation.getToy(), reservation.getQuantity());
+		return true;
+	}
+
+	/**
+	 * Releases a reservation, making its units available again.
+	 *
+	 * @param id The reservation id.
+	 * @return true if the units were released, false if the reservation has ended.
+	 */
+	public boolean release(long id) {
+		Reservation reservation = open.get(id);
+		if (reservation == null || !reservation.end(Reservation.State.RELEASED)) {
+			return false;
+		}
+		open.remove(id);
+		service.releaseHeld(reservation.getToy(), reservation.getQuantity());
+		return true;
+	}
+
+	/**
+	 * Expires every reservation whose deadline has passed. Runs on the expiry
+	 * thread; the wheel is only locked while collecting the due reservations.
+	 */
+	private void expireDue() {
+		try {
+			List<Reservation> due = new ArrayList<>();
+			synchronized (wheel) {
+				wheel.advanceTo(System.currentTimeMillis() / TICK_MILLIS, due::add);
+			}
+			for (Reservation reservation : due) {
+				expire(reservation); // Confirmed and released ones are skipped
+			}
+		} catch (RuntimeException e) {
+			System.out.println("\nError expiring reservations: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Ends a reservation as expired and returns its units, unless it has already
+	 * ended.
+	 */
+	private void expire(Reservation reservation) {
+		if (reservation.end(Reservation.State.EXPIRED)) {
+			open.remove(reservation.getId());
+			service.releaseHeld(reservation.getToy(), reservation.getQuantity());
+		}
+	}
+
+	/**
+	 * Stops the expiry thread and releases every open reservation.
+	 */
+	@Override
+	public void close() {
+		ticker.shutdownNow();
+		for (Reservation reservation : open.values()) {
+			release(reservation.getId());
+		}
+	}
+}
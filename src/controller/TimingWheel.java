@@ -0,0 +1,162 @@
+package controller;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for deadlines counted in ticks. Scheduling an item
+ * and expiring it each cost O(1), however many items are pending, so millions
+ * of deadlines can be tracked without scanning them.
+ *
+ * The wheel has four levels of 64 slots. Level 0 holds items due within the
+ * next 64 ticks, one slot per tick; each higher level covers 64 times the span
+ * of the one below it, so the wheel reaches 64^4 ticks ahead. When the lowest
+ * level wraps around, the next slot of the level above is emptied and its items
+ * are rescheduled into the finer levels, the same cascade the Linux kernel's
+ * timer wheel uses. Items further ahead than the wheel reaches wait in the last
+ * level and are cascaded until they are within range.
+ *
+ * Items are not removed when they stop mattering (a reservation confirmed
+ * before its deadline, say); the expiry callback simply ignores them. The wheel
+ * is not thread-safe; its owner serialises access.
+ *
+ * @param <T> The type of item scheduled.
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class TimingWheel<T> {
+
+	private static final int BITS = 6; // log2 of the slots per level
+	private static final int SLOTS = 1 << BITS; // Slots per level
+	private static final int MASK = SLOTS - 1;
+	private static final int LEVELS = 4; // Number of levels
+	private static final long MAX_DELAY = (1L << (BITS * LEVELS)) - 1; // Furthest reach, in ticks
+
+	private final Node<T>[][] slots; // Singly linked list of items in each slot of each level
+	private long currentTick; // Next tick to be processed
+	private int size; // Number of scheduled items
+
+	/**
+	 * An item and the tick it is due at.
+	 */
+	private static final class Node<T> {
+		private final T item;
+		private final long deadline;
+		private Node<T> next;
+
+		private Node(T item, long deadline) {
+			this.item = item;
+			this.deadline = deadline;
+		}
+	}
+
+	/**
+	 * Creates an empty wheel whose clock starts at the given tick.
+	 *
+	 * @param startTick The first tick to be processed.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TimingWheel(long startTick) {
+		this.slots = new Node[LEVELS][SLOTS];
+		this.currentTick = startTick;
+	}
+
+	/**
+	 * Schedules an item to expire at a tick. Items due at or before the current
+	 * tick expire on the next call to {@link #advanceTo(long, Consumer)}.
+	 *
+	 * @param item     The item.
+	 * @param deadline The tick at which the item expires.
+	 */
+	public void schedule(T item, long deadline) {
+		insert(new Node<>(item, deadline));
+		size++;
+	}
+
+	/**
+	 * Gets the number of items scheduled and not yet expired.
+	 *
+	 * @return the number of items.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Processes every tick up to and including the given one, passing each item
+	 * whose deadline has been reached to the callback.
+	 *
+	 * @param tick    The tick to advance to.
+	 * @param expired Receives the expired items, in deadline order.
+	 */
+	public void advanceTo(long tick, Consumer<T> expired) {
+		while (currentTick <= tick) {
+			int index = (int) (currentTick & MASK);
+			if (index == 0) {
+				// Level 0 wrapped: refill it from the next slot of the levels above
+				for (int level = 1; level < LEVELS && cascade(level) == 0; level++) {
+					// Keep cascading while each level wraps as well
+				}
+			}
+
+			Node<T> node = slots[0][index];
+			slots[0][index] = null;
+			while (node != null) {
+				Node<T> next = node.next;
+				node.next = null;
+				if (node.deadline <= currentTick) {
+					size--;
+					expired.accept(node.item);
+				} else {
+					insert(node); // Clamped because it was out of reach when scheduled
+				}
+				node = next;
+			}
+			currentTick++;
+		}
+	}
+
+	/**
+	 * Empties the current slot of one level into the levels below.
+	 *
+	 * @return the index of the slot that was emptied.
+	 */
+	private int cascade(int level) {
+		int index = (int) ((currentTick >>> (BITS * level)) & MASK);
+		Node<T> node = slots[level][index];
+		slots[level][index] = null;
+		while (node != null) {
+			Node<T> next = node.next;
+			node.next = null;
+			insert(node);
+			node = next;
+		}
+		return index;
+	}
+
+	/**
+	 * Links a node into the slot its deadline falls in, relative to the current
+	 * tick.
+	 */
+	private void insert(Node<T> node) {
+		long delay = node.deadline - currentTick;
+		long deadline = node.deadline;
+		int level;
+		if (delay < 0) {
+			level = 0;
+			deadline = currentTick; // Overdue: expire on the next tick processed
+		} else {
+			if (delay > MAX_DELAY) {
+				deadline = currentTick + MAX_DELAY; // Wait in the last level until within reach
+				delay = MAX_DELAY;
+			}
+			level = 0;
+			while (level < LEVELS - 1 && delay >= 1L << (BITS * (level + 1))) {
+				level++;
+			}
+		}
+
+		int index = (int) ((deadline >>> (BITS * level)) & MASK);
+		node.next = slots[level][index];
+		slots[level][index] = node;
+	}
+}
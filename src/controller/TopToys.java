@@ -0,0 +1,137 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Toy;
+
+/**
+ * The best toys offered so far by some score, at most a fixed number of them.
+ * They are kept as a min-heap in parallel arrays whose root is the worst kept
+ * toy, so a better toy replaces the root in O(log K) and offering n toys
+ * costs O(n log K). Equal scores rank the cheaper toy higher. Not
+ * thread-safe; each ranking uses its own.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+final class TopToys {
+
+	private final int limit; // Most toys kept, K
+	private Toy[] toys; // Grown as needed, so a huge limit costs nothing
+	private double[] scores;
+	private long[] prices;
+	private int size;
+
+	/**
+	 * Creates an empty set.
+	 *
+	 * @param limit The most toys to keep; must be positive.
+	 */
+	TopToys(int limit) {
+		this.limit = limit;
+		this.toys = new Toy[Math.min(limit, 16)];
+		this.scores = new double[toys.length];
+		this.prices = new long[toys.length];
+	}
+
+	/**
+	 * Offers a toy, keeping it if it ranks among the best so far.
+	 *
+	 * @param toy        The toy.
+	 * @param score      Its score; higher is better.
+	 * @param priceCents Its price, which breaks ties.
+	 */
+	void offer(Toy toy, double score, long priceCents) {
+		if (size < limit) {
+			if (size == toys.length) {
+				int capacity = (int) Math.min(limit, 2L * size);
+				toys = Arrays.copyOf(toys, capacity);
+				scores = Arrays.copyOf(scores, capacity);
+				prices = Arrays.copyOf(prices, capacity);
+			}
+			toys[size] = toy;
+			scores[size] = score;
+			prices[size] = priceCents;
+			siftUp(size++);
+		} else if (worse(0, score, priceCents)) {
+			toys[0] = toy;
+			scores[0] = score;
+			prices[0] = priceCents;
+			siftDown(0, size);
+		}
+	}
+
+	/**
+	 * Gets the toys kept, in no particular order, without emptying the set.
+	 *
+	 * @return a new list of the toys.
+	 */
+	List<Toy> unordered() {
+		return new ArrayList<>(Arrays.asList(toys).subList(0, size));
+	}
+
+	/**
+	 * Empties the set into a list, best first.
+	 *
+	 * @return a new list of the toys.
+	 */
+	List<Toy> sorted() {
+		// Heap sort: move the worst remaining entry behind the shrinking heap
+		for (int end = size - 1; end > 0; end--) {
+			swap(0, end);
+			siftDown(0, end);
+		}
+		List<Toy> sorted = unordered();
+		size = 0;
+		return sorted;
+	}
+
+	/**
+	 * Checks whether the entry at a position ranks below a score and price.
+	 */
+	private boolean worse(int i, double score, long priceCents) {
+		return scores[i] < score || scores[i] == score && prices[i] > priceCents;
+	}
+
+	private void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!worse(i, scores[parent], prices[parent])) {
+				return;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int i, int end) {
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= end) {
+				return;
+			}
+			if (child + 1 < end && worse(child + 1, scores[child], prices[child])) {
+				child++;
+			}
+			if (!worse(child, scores[i], prices[i])) {
+				return;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		Toy toy = toys[i];
+		toys[i] = toys[j];
+		toys[j] = toy;
+		double score = scores[i];
+		scores[i] = scores[j];
+		scores[j] = score;
+		long price = prices[i];
+		prices[i] = prices[j];
+		prices[j] = price;
+	}
+}
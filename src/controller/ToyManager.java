@@ -10,169 +10,35 @@ import exceptions.NegativeNumberException;
 import exceptions.PlayerCountException;
 
 /**
- * Manages the toy inventory, including loading data from file and displaying
- * the main menu. ToyManager reads the toy data from `toys.txt`, creates Toy
- * objects, and provides a menu interface for user interaction.
+ * Console front end for the toy store. ToyManager runs the menus, prompts for
+ * and validates user input, and displays results; every search and inventory
+ * change is delegated to the {@link InventoryService} it was created with.
  * 
  * @author Justin, Fatema, Manveet
  * @version 2.0
  */
 public class ToyManager {
 
-	private static final String FILE_PATH = "res/toys.txt"; // Path to toy data file
 	private AppMenu menu = new AppMenu(); // Menu for displaying application options
 	private Scanner input = new Scanner(System.in);
-	private ArrayList<Toy> toys = new ArrayList<>(); // List to store all loaded toy objects
+	private final InventoryService service; // The inventory behind the menus
 
 	/**
-	 * Constructor that loads data from the file and launches the application.
-	 * Initializes the application by loading toys from `toys.txt` and starting the
-	 * main menu.
-	 */
-	public ToyManager() {
-		loadData();
-		launchApp(); // Start the main application menu
-	}
-
-	/**
-	 * Loads toy data from the `toys.txt` file. Each line in the file is parsed to
-	 * create a specific Toy object based on the serial number prefix. Logs an error
-	 * if parsing fails for any line.
-	 */
-	private void loadData() {
-		File file = new File(FILE_PATH);
-
-		if (!file.exists()) {
-			createNewFile(file);
-		} else {
-			parseFileData(file);
-		}
-	}
-
-	/**
-	 * Creates a new file if it does not exist.
+	 * Creates the console front end over an inventory service. The service should
+	 * already be loaded; call {@link #launchApp()} to start the main menu.
 	 *
-	 * @param file The file to create.
-	 */
-	private void createNewFile(File file) {
-		try {
-			file.createNewFile();
-			System.out.println("Created new file: " + FILE_PATH);
-		} catch (IOException e) {
-			System.out.println("Error creating file: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Parses existing toy data from file and loads it into the inventory. Each line
-	 * in the file is parsed to create a specific Toy object based on the serial
-	 * number prefix. If an error occurs in parsing, it is logged for review.
-	 *
-	 * @param file The file containing toy data.
-	 */
-	private void parseFileData(File file) {
-		try (Scanner inputFile = new Scanner(file)) {
-			// Process each line of the file
-			while (inputFile.hasNext()) {
-				String curLine = inputFile.nextLine();
-				String[] splittedLine = curLine.split(";"); // Split line by semicolon to get attributes
-				String serialNumber = splittedLine[0];
-				char typeIndicator = serialNumber.charAt(0); // Determine toy type based on first digit
-
-				try {
-					Toy toy = null;
-					switch (typeIndicator) {
-					case '0':
-					case '1': // Figures
-						toy = new Figures(serialNumber, splittedLine[1], splittedLine[2],
-								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
-								Integer.parseInt(splittedLine[5]), splittedLine[6].charAt(0));
-						break;
-					case '2':
-					case '3': // Animals
-						toy = new Animals(serialNumber, splittedLine[1], splittedLine[2],
-								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
-								Integer.parseInt(splittedLine[5]), splittedLine[6], splittedLine[7].charAt(0));
-						break;
-					case '4':
-					case '5':
-					case '6': // Puzzles
-						toy = new Puzzles(serialNumber, splittedLine[1], splittedLine[2],
-								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
-								Integer.parseInt(splittedLine[5]), splittedLine[6].charAt(0));
-						break;
-					case '7':
-					case '8':
-					case '9': // BoardGames
-						String[] playerRange = splittedLine[6].split("-");
-						int minPlayers = Integer.parseInt(playerRange[0]);
-						int maxPlayers = Integer.parseInt(playerRange[1]);
-
-						// Pass `splittedLine[7]` directly as comma-separated designer names
-						toy = new BoardGames(serialNumber, splittedLine[1], splittedLine[2],
-								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
-								Integer.parseInt(splittedLine[5]), minPlayers, maxPlayers, splittedLine[7]);
-						break;
-					default:
-						System.out.println("Unknown toy type: " + curLine);
-					}
-
-					if (toy != null) {
-						toys.add(toy); // Add created toy to list
-					}
-				} catch (Exception e) {
-					System.out.println("Error parsing line: " + curLine + " - " + e.getMessage());
-				}
-			}
-
-		} catch (IOException e) {
-			System.out.println("Error accessing file: " + e.getMessage());
-		}
-	}
-
-	/**
-<<<<<<< HEAD
-	 * This method removes a toy from the inventory based on its serial number.
+	 * @param service The inventory to manage.
 	 */
-	public void removeToy() {
-	    Scanner scanner = new Scanner(System.in); // Initialize scanner for user input
-
-	    System.out.print("Enter the serial number of the toy to remove: ");
-	    String sn = scanner.nextLine(); // Read the serial number from the user
-
-	    // Variable to track whether the toy was found and removed
-	    boolean removed = false;
-
-	    // Iterate through the toys list to find a toy with the matching serial number
-	    for (int i = 0; i < toys.size(); i++) {
-	        Toy toy = toys.get(i); // Get the toy at index i
-
-	        // Check if the toy's serial number matches the user-provided serial number
-	        if (toy.getSn().equals(sn)) {
-	            toys.remove(i); // Remove the toy from the list
-	            removed = true; // Set removed to true as we have found and removed the toy
-	            break; // Exit the loop since the toy has been removed
-	        }
-	    }
-
-	    // Inform the user if the toy was removed successfully or not
-	    if (removed) {
-	        System.out.println("Toy removed successfully.");
-	    } else {
-	        System.out.println("Toy with serial number " + sn + " not found.");
-	    }
+	public ToyManager(InventoryService service) {
+		this.service = service;
 	}
 
-
 	/**
-	 * Launches the main application menu.
-=======
 	 * Launches the main application menu, allowing users to interact with the toy
 	 * inventory. Options include searching for toys, adding or removing toys, gift
 	 * suggestion, and exiting the application.
->>>>>>> Justin
 	 */
-	private void launchApp() {
+	public void launchApp() {
 		menu.printWelcomeMessage();
 		int select;
 		do {
@@ -185,14 +51,8 @@ public class ToyManager {
 			case 2: // Adding a new toy
 				addToy();
 				break;
-<<<<<<< HEAD
-			case 3:
-				removeToy();
-					
-=======
 			case 3: // Removing a toy)
 				removeToy();
->>>>>>> Justin
 				break;
 			case 4: // Gift suggestion
 				suggestGift();
@@ -239,7 +99,7 @@ public class ToyManager {
 				}
 				break;
 			case 3: // Search by Type
-				String toyType = getValidatedToyType();
+				ToyType toyType = getValidatedToyType();
 				filteredResults = searchByType(toyType);
 				// Only display results if matches are found
 				if (!filteredResults.isEmpty()) {
@@ -265,10 +125,9 @@ public class ToyManager {
 	 */
 	private List<Toy> searchBySerialNumber(String serialNumber) {
 		List<Toy> results = new ArrayList<>();
-		for (Toy toy : toys) {
-			if (toy.getSn().equals(serialNumber)) { // Exact serial number match
-				results.add(toy);
-			}
+		Toy toy = service.findBySerialNumber(serialNumber); // Exact serial number match
+		if (toy != null) {
+			results.add(toy);
 		}
 
 		// Notify the user if no matches are found
@@ -286,13 +145,8 @@ public class ToyManager {
 	 *         (case-insensitive). Returns an empty list if no matches are found.
 	 */
 	private List<Toy> searchByName(String toyName) {
-		List<Toy> results = new ArrayList<>();
-		for (Toy toy : toys) {
-			// Allow partial matches and ignore case
-			if (toy.getName().toLowerCase().contains(toyName.toLowerCase())) {
-				results.add(toy);
-			}
-		}
+		// Allow partial matches and ignore case
+		List<Toy> results = service.searchByName(toyName);
 
 		// Notify the user if no matches are found
 		if (results.isEmpty()) {
@@ -304,21 +158,16 @@ public class ToyManager {
 	/**
 	 * Searches for toys by their type.
 	 *
-	 * @param type The type of the toy to search for (e.g., "Puzzle", "Figure").
-	 * @return A list of toys matching the given type (case-insensitive). Returns an
-	 *         empty list if no matches are found.
+	 * @param type The type of the toy to search for (e.g., ToyType.PUZZLE).
+	 * @return A list of toys of the given type. Returns an empty list if no
+	 *         matches are found.
 	 */
-	private List<Toy> searchByType(String type) {
-		List<Toy> results = new ArrayList<>();
-		for (Toy toy : toys) {
-			if (toy.getToyType().equalsIgnoreCase(type)) { // Case-insensitive match
-				results.add(toy);
-			}
-		}
+	private List<Toy> searchByType(ToyType type) {
+		List<Toy> results = service.searchByType(type);
 
 		// Notify the user if no matches are found
 		if (results.isEmpty()) {
-			System.out.println("No toy found with the type: " + type);
+			System.out.println("No toy found with the type: " + type.getLabel());
 		}
 		return results;
 	}
@@ -338,18 +187,14 @@ public class ToyManager {
 			System.out.println("Returning to Search Menu...");
 		} else if (choice > 0 && choice < filteredResults.size()) {
 			Toy selectedToy = filteredResults.get(choice - 1); // Get the selected toy
-			int newCount = selectedToy.getAvailableCount() - 1; // Decrement available count
 
-			if (newCount <= 0) {
-				// Remove toy from the inventory if stock is depleted
-				toys.remove(selectedToy);
+			// Sell one unit; the service removes the toy when its stock is depleted
+			if (service.purchase(selectedToy).isSold()) {
+				System.out.println("\nThe Transaction Successfully Terminated!");
 			} else {
-				// Update the toy's stock count
-				selectedToy.setAvailableCount(newCount);
+				System.out.println("\nSorry, This Toy Is No Longer Available.");
 			}
 
-			System.out.println("\nThe Transaction Successfully Terminated!");
-
 			// Wait for user to press Enter before continuing
 			menu.waitForEnterKey();
 		} else {
@@ -417,8 +262,11 @@ public class ToyManager {
 		// Add the new toy to the inventory and save to file if the toy was created
 		// successfully
 		if (newToy != null) {
-			toys.add(newToy);
-			System.out.println("\nNew Toy Added!");
+			if (service.addToy(newToy)) {
+				System.out.println("\nNew Toy Added!");
+			} else {
+				System.out.println("\nA Toy With This Serial Number Already Exists!");
+			}
 		}
 
 		// Wait for the user to press Enter before returning to the main menu
@@ -437,9 +285,9 @@ public class ToyManager {
 			System.out.print("\nEnter Serial Number: ");
 			sn = input.nextLine().trim();
 
-			if (!sn.matches("\\d+")) {
+			if (!ToyValidator.isDigits(sn)) {
 				System.out.println("\nThe Serial Number Should Only Contain Digits! Try again.");
-			} else if (sn.length() != 10) {
+			} else if (sn.length() != ToyValidator.SERIAL_LENGTH) {
 				System.out.println("\nThe Serial Number's Length MUST Be 10 Digits! Try again.");
 			} else {
 				break; // Serial number format is valid
@@ -455,12 +303,7 @@ public class ToyManager {
 	 * @return true if the serial number is unique, false otherwise.
 	 */
 	private boolean isSerialNumberUnique(String sn) {
-		for (Toy toy : toys) {
-			if (toy.getSn().equals(sn)) {
-				return false; // Serial number is not unique
-			}
-		}
-		return true; // Serial number is unique
+		return service.isSerialNumberUnique(sn);
 	}
 
 	/**
@@ -529,9 +372,9 @@ public class ToyManager {
 	 * type matches one of the predefined types (e.g., "Figure", "Animal", "Puzzle",
 	 * "BoardGame").
 	 *
-	 * @return A validated toy type as a String.
+	 * @return A validated toy type.
 	 */
-	private String getValidatedToyType() {
+	private ToyType getValidatedToyType() {
 		String toyType;
 		List<String> validToyTypes = Arrays.asList("Figure", "Animal", "Puzzle", "BoardGame");
 
@@ -541,7 +384,7 @@ public class ToyManager {
 
 			// Check if the entered type is in the list of valid types
 			if (validToyTypes.contains(toyType)) {
-				return toyType; // Return the valid toy type
+				return ToyType.fromLabel(toyType); // Return the valid toy type
 			} else {
 				System.out.println(
 						"\nInvalid toy type. Please enter one of the following: Figure, Animal, Puzzle, BoardGame.");
@@ -572,7 +415,7 @@ public class ToyManager {
 			classification = Character.toUpperCase(input.next().charAt(0));
 
 			// Validate that the classification is one of 'A', 'D', or 'H'
-			if (classification == 'A' || classification == 'D' || classification == 'H') {
+			if (ToyValidator.isClassification(classification)) {
 				break; // Exit loop if classification is valid
 			} else {
 				System.out.println("\nInvalid Classification. Please Enter 'A', 'D', or 'H'.");
@@ -617,7 +460,7 @@ public class ToyManager {
 			System.out.print("\nEnter Size (S for Small, M for Medium, L for Large): ");
 			size = Character.toUpperCase(input.next().charAt(0));
 
-			if (size == 'S' || size == 'M' || size == 'L') {
+			if (ToyValidator.isSize(size)) {
 				break; // Exit loop if size is valid
 			} else {
 				System.out.println("Invalid size. Please enter 'S', 'M', or 'L'.");
@@ -652,7 +495,7 @@ public class ToyManager {
 			puzzleType = Character.toUpperCase(input.next().charAt(0));
 
 			// Check if puzzle type is valid
-			if (puzzleType == 'M' || puzzleType == 'C' || puzzleType == 'L' || puzzleType == 'T' || puzzleType == 'R') {
+			if (ToyValidator.isPuzzleType(puzzleType)) {
 				break; // Exit loop if valid
 			} else {
 				System.out.println("Invalid puzzle type. Please enter 'M', 'C', 'L', 'T', or 'R'.");
@@ -693,7 +536,7 @@ public class ToyManager {
 				maxPlayers = getValidatedNonNegativeInt();
 
 				// Check if minPlayers <= maxPlayers and both are positive
-				if (minPlayers > 0 && maxPlayers >= minPlayers) {
+				if (ToyValidator.isPlayerRange(minPlayers, maxPlayers)) {
 					break; // Exit loop if player counts are valid
 				} else {
 					// Throw custom exception with an appropriate message
@@ -734,13 +577,7 @@ public class ToyManager {
 		String sn = getValidatedSerialNumber(); // Read a valid serial number input
 
 		// Search for the toy with the specified serial number
-		Toy toyToRemove = null;
-		for (Toy toy : toys) {
-			if (toy.getSn().equals(sn)) {
-				toyToRemove = toy;
-				break;
-			}
-		}
+		Toy toyToRemove = service.findBySerialNumber(sn);
 
 		// If the toy was found, proceed with confirmation
 		if (toyToRemove != null) {
@@ -751,8 +588,11 @@ public class ToyManager {
 			char choice = Character.toUpperCase(input.nextLine().charAt(0)); // Read choice and convert to uppercase
 
 			if (choice == 'Y') {
-				toys.remove(toyToRemove); // Remove the toy from the list
-				System.out.println("\nItem Removed!");
+				if (service.removeToy(toyToRemove)) { // Remove the toy from the inventory
+					System.out.println("\nItem Removed!");
+				} else {
+					System.out.println("\nThis Item Is No Longer in the Inventory.");
+				}
 			} else {
 				System.out.println("\nReturning to Main Menu...");
 			}
@@ -766,17 +606,20 @@ public class ToyManager {
 
 	/**
 	 * Provides a gift suggestion based on optional age, type, and price range
-	 * criteria. The user can input any combination of criteria, or leave 1-2 of
-	 * them empty. Shows a list of suggestions that match the input criteria.
+	 * criteria and an optional preferred brand. The user can input any
+	 * combination of criteria, or leave any of them empty. Shows the best
+	 * matching suggestions, ranked by how well they fit the criteria.
 	 */
 	private void suggestGift() {
 		// Prompt user for each criterion (allowing them to skip any)
 		Integer minAge = getOptionalNonNegativeInt();
 		Double maxPrice = getOptionalPrice();
-		String toyType = getOptionalToyType();
+		ToyType toyType = getOptionalToyType();
+		String brand = getOptionalBrand();
 
-		// Find matching toys based on criteria
-		List<Toy> suggestions = filterToysByCriteria(minAge, maxPrice, toyType);
+		// Rank matching toys and keep the best few
+		GiftRanker ranker = new GiftRanker(GiftRanker.DEFAULT_LIMIT, GiftWeights.DEFAULT, brand, null);
+		List<Toy> suggestions = service.rankGifts(minAge, maxPrice, toyType, ranker);
 
 		// Display results
 		if (suggestions.isEmpty()) {
@@ -875,10 +718,9 @@ public class ToyManager {
 	 * "Animal", "Puzzle", "BoardGame"). If no input is provided, the method returns
 	 * null, indicating no preference.
 	 *
-	 * @return A validated toy type as a String, or null if the user skips the
-	 *         input.
+	 * @return A validated toy type, or null if the user skips the input.
 	 */
-	private String getOptionalToyType() {
+	private ToyType getOptionalToyType() {
 		String toyType;
 		List<String> validToyTypes = Arrays.asList("Figure", "Animal", "Puzzle", "BoardGame");
 
@@ -893,7 +735,7 @@ public class ToyManager {
 
 			// Check if the entered type is in the list of valid types
 			if (validToyTypes.contains(toyType)) {
-				return toyType; // Return the valid toy type
+				return ToyType.fromLabel(toyType); // Return the valid toy type
 			} else {
 				System.out.println(
 						"\nInvalid toy type. Please enter one of the following: Figure, Animal, Puzzle, BoardGame.");
@@ -902,23 +744,15 @@ public class ToyManager {
 	}
 
 	/**
-	 * Filters the toys list based on the specified criteria.
+	 * Prompts the user to enter a preferred brand, allowing them to skip by
+	 * pressing Enter.
 	 *
-	 * @param minAge   The minimum age for the toy (can be null if not specified).
-	 * @param maxPrice The maximum price for the toy (can be null if not specified).
-	 * @param toyType  The toy type to filter by (can be null if not specified).
-	 * @return A list of toys matching the criteria.
+	 * @return The brand, or null if skipped.
 	 */
-	private List<Toy> filterToysByCriteria(Integer minAge, Double maxPrice, String toyType) {
-		List<Toy> filteredToys = new ArrayList<>();
-		for (Toy toy : toys) {
-			if ((minAge == null || toy.getAgeAppropriate() >= minAge)
-					&& (maxPrice == null || toy.getPrice() <= maxPrice)
-					&& (toyType == null || toy.getToyType().equalsIgnoreCase(toyType))) {
-				filteredToys.add(toy);
-			}
-		}
-		return filteredToys;
+	private String getOptionalBrand() {
+		System.out.print("\nEnter preferred brand (or leave blank to skip): ");
+		String brand = input.nextLine().trim();
+		return brand.isEmpty() ? null : brand;
 	}
 
 	/**
@@ -930,7 +764,11 @@ public class ToyManager {
 		System.out.print("\nDo you want to purchase it (Y/N): ");
 		char confirm = Character.toUpperCase(input.next().charAt(0));
 		if (confirm == 'Y') {
-			toys.remove(toy);
+			// Sell one unit; the service removes the toy when its stock is depleted
+			if (!service.purchase(toy).isSold()) {
+				System.out.println("\nSorry, this toy is no longer available.");
+				return;
+			}
 			System.out.println("\nThank you for your purchase!");
 			// Wait for user to press Enter before continuing
 			menu.waitForEnterKey();
@@ -940,16 +778,14 @@ public class ToyManager {
 	}
 
 	/**
-	 * Updates the current list of toys to the `toys.txt` file. This method iterates
-	 * over the `toys` list and writes each toy's data to the file.
+	 * Saves the inventory by closing the service, which flushes the journal and
+	 * writes the binary snapshot.
 	 */
 	private void updateData() {
-		try (PrintWriter writer = new PrintWriter(new FileWriter("res/toys.txt"))) {
-			for (Toy toy : toys) {
-				writer.println(toy.toDataString()); // Convert each toy to a formatted string for file storage
-			}
+		try {
+			service.close();
 		} catch (IOException e) {
-			System.out.println("\nError updating toys to file: " + e.getMessage());
+			System.out.println("\nError writing snapshot: " + e.getMessage());
 		}
 	}
 }
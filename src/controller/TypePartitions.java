@@ -0,0 +1,101 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Splits the inventory into one list per toy type, each kept in inventory
+ * order. A type query reads its partition directly, with no scan over the
+ * other types and no string comparison.
+ *
+ * The partitions are immutable lists of rows in an {@link InventorySnapshot}.
+ * Adding a toy appends its row to one persistent list and shares the others;
+ * removed toys keep their row until the snapshot is rebuilt, and are skipped.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class TypePartitions {
+
+	public static final TypePartitions EMPTY = new TypePartitions(emptyPartitions());
+
+	private final IntVector[] partitions; // Rows of each toy type, by ordinal
+
+	private TypePartitions(IntVector[] partitions) {
+		this.partitions = partitions;
+	}
+
+	/**
+	 * Builds the partitions of a list of toys, each toy's row being its
+	 * position in the list.
+	 *
+	 * @param toys The toys in row order.
+	 * @return the partitions.
+	 */
+	public static TypePartitions of(List<Toy> toys) {
+		int[][] rows = new int[ToyType.values().length][];
+		int[] sizes = new int[rows.length];
+		for (int type = 0; type < rows.length; type++) {
+			rows[type] = new int[16];
+		}
+		for (int row = 0; row < toys.size(); row++) {
+			int type = toys.get(row).getType().ordinal();
+			if (sizes[type] == rows[type].length) {
+				rows[type] = Arrays.copyOf(rows[type], sizes[type] * 2);
+			}
+			rows[type][sizes[type]++] = row;
+		}
+
+		IntVector[] partitions = new IntVector[rows.length];
+		for (int type = 0; type < rows.length; type++) {
+			partitions[type] = IntVector.of(rows[type], sizes[type]);
+		}
+		return new TypePartitions(partitions);
+	}
+
+	/**
+	 * Makes partitions with a toy added to the end of its type's partition.
+	 *
+	 * @param row The toy's row.
+	 * @param toy The toy.
+	 * @return the new partitions; these are unchanged.
+	 */
+	public TypePartitions with(int row, Toy toy) {
+		int type = toy.getType().ordinal();
+		IntVector[] updated = partitions.clone();
+		updated[type] = partitions[type].append(row);
+		return new TypePartitions(updated);
+	}
+
+	/**
+	 * Gets the toys of one type.
+	 *
+	 * @param type The toy type.
+	 * @param rows The toy in each row, null for removed toys.
+	 * @return A new list of the toys of this type in inventory order.
+	 */
+	public List<Toy> get(ToyType type, PersistentVector<Toy> rows) {
+		IntVector partition = partitions[type.ordinal()];
+		List<Toy> toys = new ArrayList<>(partition.size());
+		partition.forEach(row -> {
+			Toy toy = rows.get(row);
+			if (toy != null) {
+				toys.add(toy);
+			}
+		});
+		return toys;
+	}
+
+	/**
+	 * Creates an empty partition for every toy type.
+	 */
+	private static IntVector[] emptyPartitions() {
+		IntVector[] partitions = new IntVector[ToyType.values().length];
+		Arrays.fill(partitions, IntVector.EMPTY);
+		return partitions;
+	}
+}
@@ -3,11 +3,16 @@ package exceptions;
 /**
  * Custom exception thrown when the player count for a board game is invalid.
  * This exception is triggered when the minimum number of players exceeds the maximum.
+ *
+ * Since version 2.0 it is unchecked: it extends IllegalArgumentException instead
+ * of Exception, so the BoardGames constructor can reject an invalid range like any
+ * other invalid argument. Code that catches PlayerCountException still compiles
+ * unchanged, and a handler for IllegalArgumentException now catches it as well.
  * 
  * @author Justin, Fatema, Manveet
  * @version 2.0
  */
-public class PlayerCountException extends Exception {
+public class PlayerCountException extends IllegalArgumentException {
 
     /**
      * Constructs a new PlayerCountException with a specified error message.
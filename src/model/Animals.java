@@ -10,7 +10,7 @@ package model;
  */
 public class Animals extends Toy {
 
-	private String material; // Material of the toy (e.g., "Plastic", "Fabric")
+	private int materialId; // Material of the toy (e.g., "Plastic", "Fabric"), as a dictionary id
 	private char size; // Size of the toy: 'S' for Small, 'M' for Medium, 'L' for Large
 
 	/**
@@ -33,16 +33,12 @@ public class Animals extends Toy {
 		super(sn, name, brand, price, availableCount, ageAppropriate);
 
 		// Validate that the serial number starts with 2 or 3 and is 10 digits
-		if (!sn.matches("^[23]\\d{9}$")) {
-			throw new IllegalArgumentException("Serial number must start with 2 or 3 and be 10 digits long.");
-		}
+		ToyValidator.requireSerialNumber(sn, ToyType.ANIMAL);
 
 		// Validate that size is 'S', 'M', or 'L'
-		if (size != 'S' && size != 'M' && size != 'L') {
-			throw new IllegalArgumentException("Size must be 'S' (Small), 'M' (Medium), or 'L' (Large).");
-		}
+		ToyValidator.requireSize(size);
 
-		this.material = material;
+		this.materialId = StringDictionary.shared().encode(material);
 		this.size = size;
 	}
 
@@ -52,7 +48,16 @@ public class Animals extends Toy {
 	 * @return the material of the toy (e.g., "Plastic", "Fabric").
 	 */
 	public String getMaterial() {
-		return material;
+		return StringDictionary.shared().decode(materialId);
+	}
+
+	/**
+	 * Gets the id of the material in the shared attribute dictionary.
+	 * 
+	 * @return the material id.
+	 */
+	public int getMaterialId() {
+		return materialId;
 	}
 
 	/**
@@ -62,7 +67,7 @@ public class Animals extends Toy {
 	 *                 (e.g., "Plastic", "Fabric").
 	 */
 	public void setMaterial(String material) {
-		this.material = material;
+		this.materialId = StringDictionary.shared().encode(material);
 	}
 
 	/**
@@ -81,9 +86,7 @@ public class Animals extends Toy {
 	 * @throws IllegalArgumentException if size is not 'S', 'M', or 'L'.
 	 */
 	public void setSize(char size) {
-		if (size != 'S' && size != 'M' && size != 'L') {
-			throw new IllegalArgumentException("Size must be 'S' (Small), 'M' (Medium), or 'L' (Large).");
-		}
+		ToyValidator.requireSize(size);
 		this.size = size;
 	}
 
@@ -97,6 +100,16 @@ public class Animals extends Toy {
 		return "Animal";
 	}
 
+	/**
+	 * Returns the toy type as ToyType.ANIMAL.
+	 *
+	 * @return the ToyType constant for Animal toys.
+	 */
+	@Override
+	public ToyType getType() {
+		return ToyType.ANIMAL;
+	}
+
 	/**
 	 * Returns a string formatted for saving the animal toy's data to a file. The
 	 * format is compatible with the `toys.txt` file and includes all relevant
@@ -107,7 +120,7 @@ public class Animals extends Toy {
 	@Override
 	public String toDataString() {
 		return String.join(";", getSn(), getName(), getBrand(), String.valueOf(getPrice()),
-				String.valueOf(getAvailableCount()), String.valueOf(getAgeAppropriate()), material,
+				String.valueOf(getStockCount()), String.valueOf(getAgeAppropriate()), getMaterial(),
 				String.valueOf(size));
 	}
 
@@ -120,7 +133,7 @@ public class Animals extends Toy {
 	 */
 	@Override
 	public String toString() {
-		return super.toString() + String.format(", Material: %s, Size: %s", material, size);
+		return super.toString() + String.format(", Material: %s, Size: %s", getMaterial(), size);
 	}
 
 }
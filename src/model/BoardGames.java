@@ -16,7 +16,7 @@ public class BoardGames extends Toy {
 
 	private int minPlayers; // Minimum number of players
 	private int maxPlayers; // Maximum number of players
-	private String[] designers; // Array of designers for the board game
+	private int[] designerIds; // Designers of the board game, as ids in the shared attribute dictionary
 
 	/**
 	 * Constructs a Board Game with the specified attributes.
@@ -31,17 +31,49 @@ public class BoardGames extends Toy {
 	 * @param minPlayers     Minimum number of players for the game.
 	 * @param maxPlayers     Maximum number of players for the game.
 	 * @param designer       A comma-separated string of designer names.
+	 * @throws IllegalArgumentException if the serial number does not start with
+	 *                                  7, 8, or 9 and have 10 digits.
+	 * @throws PlayerCountException     if a player count is not positive or the
+	 *                                  minimum exceeds the maximum.
 	 */
 	public BoardGames(String sn, String name, String brand, double price, int availableCount, int ageAppropriate,
 			int minPlayers, int maxPlayers, String designer) {
+		// Split the designers by comma and trim any leading/trailing whitespace from
+		// each name
+		this(sn, name, brand, price, availableCount, ageAppropriate, minPlayers, maxPlayers,
+				Arrays.stream(designer.split(",")).map(String::trim).toArray(String[]::new));
+	}
+
+	/**
+	 * Constructs a Board Game whose designer names are already separated, as
+	 * read from a saved record.
+	 *
+	 * @param sn             Unique serial number; must start with 7, 8, or 9 and be
+	 *                       10 digits.
+	 * @param name           Name of the board game.
+	 * @param brand          Brand of the board game.
+	 * @param price          Price of the board game; must be non-negative.
+	 * @param availableCount Stock count for the board game.
+	 * @param ageAppropriate Minimum age appropriate for the board game.
+	 * @param minPlayers     Minimum number of players for the game.
+	 * @param maxPlayers     Maximum number of players for the game.
+	 * @param designers      The designer names.
+	 * @throws IllegalArgumentException if the serial number does not start with
+	 *                                  7, 8, or 9 and have 10 digits.
+	 * @throws PlayerCountException     if a player count is not positive or the
+	 *                                  minimum exceeds the maximum.
+	 */
+	public BoardGames(String sn, String name, String brand, double price, int availableCount, int ageAppropriate,
+			int minPlayers, int maxPlayers, String[] designers) {
 		super(sn, name, brand, price, availableCount, ageAppropriate);
 
+		// Validate the serial number format and the player range
+		ToyValidator.requireSerialNumber(sn, ToyType.BOARD_GAME);
+		ToyValidator.requirePlayerRange(minPlayers, maxPlayers);
+
 		this.minPlayers = minPlayers;
 		this.maxPlayers = maxPlayers;
-
-		// Split the designers by comma and trim any leading/trailing whitespace from
-		// each name
-		this.designers = Arrays.stream(designer.split(",")).map(String::trim).toArray(String[]::new);
+		setDesigners(designers);
 	}
 
 	/**
@@ -68,16 +100,33 @@ public class BoardGames extends Toy {
 	 * @return an array of designer names.
 	 */
 	public String[] getDesigners() {
+		String[] designers = new String[designerIds.length];
+		for (int i = 0; i < designers.length; i++) {
+			designers[i] = StringDictionary.shared().decode(designerIds[i]);
+		}
 		return designers;
 	}
 
+	/**
+	 * Gets the ids of the designers in the shared attribute dictionary.
+	 * 
+	 * @return an array of designer ids, in the same order as getDesigners().
+	 */
+	public int[] getDesignerIds() {
+		return designerIds.clone();
+	}
+
 	/**
 	 * Sets the list of designers for the board game.
 	 *
 	 * @param designers an array of designer names.
 	 */
 	public void setDesigners(String[] designers) {
-		this.designers = designers;
+		int[] ids = new int[designers.length];
+		for (int i = 0; i < designers.length; i++) {
+			ids[i] = StringDictionary.shared().encode(designers[i]);
+		}
+		this.designerIds = ids;
 	}
 
 	/**
@@ -90,6 +139,16 @@ public class BoardGames extends Toy {
 		return "BoardGame";
 	}
 
+	/**
+	 * Returns the toy type as ToyType.BOARD_GAME.
+	 *
+	 * @return the ToyType constant for BoardGame toys.
+	 */
+	@Override
+	public ToyType getType() {
+		return ToyType.BOARD_GAME;
+	}
+
 	/**
 	 * Returns a string formatted for saving the board game toy's data to a file.
 	 * The format is compatible with the `toys.txt` file and includes all relevant
@@ -100,8 +159,8 @@ public class BoardGames extends Toy {
 	@Override
 	public String toDataString() {
 		return String.join(";", getSn(), getName(), getBrand(), String.valueOf(getPrice()),
-				String.valueOf(getAvailableCount()), String.valueOf(getAgeAppropriate()), minPlayers + "-" + maxPlayers,
-				String.join(",", designers));
+				String.valueOf(getStockCount()), String.valueOf(getAgeAppropriate()), minPlayers + "-" + maxPlayers,
+				String.join(",", getDesigners()));
 	}
 
 	/**
@@ -118,6 +177,6 @@ public class BoardGames extends Toy {
 	@Override
 	public String toString() {
 		return super.toString() + String.format(", Players: %d-%d, Designers: %s", minPlayers, maxPlayers,
-				String.join(", ", designers));
+				String.join(", ", getDesigners()));
 	}
 }
@@ -33,14 +33,10 @@ public class Figures extends Toy {
 		super(sn, name, brand, price, availableCount, ageAppropriate);
 
 		// Validate that the serial number starts with 0 or 1 and is 10 digits
-		if (!sn.matches("^[01]\\d{9}$")) {
-			throw new IllegalArgumentException("Serial number must start with 0 or 1 and be 10 digits long.");
-		}
+		ToyValidator.requireSerialNumber(sn, ToyType.FIGURE);
 
 		// Validate that classification is 'A', 'D', or 'H'
-		if (classification != 'A' && classification != 'D' && classification != 'H') {
-			throw new IllegalArgumentException("Classification must be 'A' (Action), 'D' (Doll), or 'H' (Historic).");
-		}
+		ToyValidator.requireClassification(classification);
 
 		this.classification = classification;
 	}
@@ -62,9 +58,7 @@ public class Figures extends Toy {
 	 * @throws IllegalArgumentException if classification is not 'A', 'D', or 'H'.
 	 */
 	public void setClassification(char classification) {
-		if (classification != 'A' && classification != 'D' && classification != 'H') {
-			throw new IllegalArgumentException("Classification must be 'A' (Action), 'D' (Doll), or 'H' (Historic).");
-		}
+		ToyValidator.requireClassification(classification);
 		this.classification = classification;
 	}
 
@@ -78,6 +72,16 @@ public class Figures extends Toy {
 		return "Figure";
 	}
 
+	/**
+	 * Returns the toy type as ToyType.FIGURE.
+	 *
+	 * @return the ToyType constant for Figure toys.
+	 */
+	@Override
+	public ToyType getType() {
+		return ToyType.FIGURE;
+	}
+
 	/**
 	 * Returns a string formatted for saving the figure's data to a file. The format
 	 * is compatible with the `toys.txt` file and includes all relevant details
@@ -88,7 +92,7 @@ public class Figures extends Toy {
 	@Override
 	public String toDataString() {
 		return String.join(";", getSn(), getName(), getBrand(), String.valueOf(getPrice()),
-				String.valueOf(getAvailableCount()), String.valueOf(getAgeAppropriate()),
+				String.valueOf(getStockCount()), String.valueOf(getAgeAppropriate()),
 				String.valueOf(classification));
 	}
 
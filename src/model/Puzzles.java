@@ -36,15 +36,10 @@ public class Puzzles extends Toy {
 		super(sn, name, brand, price, availableCount, ageAppropriate);
 
 		// Validate that the serial number starts with 4, 5, or 6 and is 10 digits
-		if (!sn.matches("^[456]\\d{9}$")) {
-			throw new IllegalArgumentException("Serial number must start with 4, 5, or 6 and be 10 digits long.");
-		}
+		ToyValidator.requireSerialNumber(sn, ToyType.PUZZLE);
 
 		// Validate that puzzle type is 'M', 'C', 'L', 'T', or 'R'
-		if (puzzleType != 'M' && puzzleType != 'C' && puzzleType != 'L' && puzzleType != 'T' && puzzleType != 'R') {
-			throw new IllegalArgumentException(
-					"Puzzle type must be 'M' (Mechanical), 'C' (Cryptic), 'L' (Logic), 'T' (Trivia), or 'R' (Riddle).");
-		}
+		ToyValidator.requirePuzzleType(puzzleType);
 
 		this.puzzleType = puzzleType;
 	}
@@ -66,10 +61,7 @@ public class Puzzles extends Toy {
 	 *                                  'T', or 'R'.
 	 */
 	public void setPuzzleType(char puzzleType) {
-		if (puzzleType != 'M' && puzzleType != 'C' && puzzleType != 'L' && puzzleType != 'T' && puzzleType != 'R') {
-			throw new IllegalArgumentException(
-					"Puzzle type must be 'M' (Mechanical), 'C' (Cryptic), 'L' (Logic), 'T' (Trivia), or 'R' (Riddle).");
-		}
+		ToyValidator.requirePuzzleType(puzzleType);
 		this.puzzleType = puzzleType;
 	}
 
@@ -83,6 +75,16 @@ public class Puzzles extends Toy {
 		return "Puzzle";
 	}
 
+	/**
+	 * Returns the toy type as ToyType.PUZZLE.
+	 *
+	 * @return the ToyType constant for Puzzle toys.
+	 */
+	@Override
+	public ToyType getType() {
+		return ToyType.PUZZLE;
+	}
+
 	/**
 	 * Returns a string formatted for saving the puzzle toy's data to a file. The
 	 * format is compatible with the `toys.txt` file and includes all relevant
@@ -93,7 +95,7 @@ public class Puzzles extends Toy {
 	@Override
 	public String toDataString() {
 		return String.join(";", getSn(), getName(), getBrand(), String.valueOf(getPrice()),
-				String.valueOf(getAvailableCount()), String.valueOf(getAgeAppropriate()), String.valueOf(puzzleType));
+				String.valueOf(getStockCount()), String.valueOf(getAgeAppropriate()), String.valueOf(puzzleType));
 	}
 
 	/**
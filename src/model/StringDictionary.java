@@ -0,0 +1,109 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary that assigns each distinct String a compact integer id. Repeated
+ * attribute values (brands, materials, designers) are stored once, toys hold
+ * the ids instead of their own String copies, and comparing two attributes
+ * becomes an integer comparison.
+ *
+ * Lookups of known values are lock-free; adding a new value is synchronized.
+ * The dictionary shared by all toys is available from {@link #shared()}.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class StringDictionary {
+
+	private static final StringDictionary SHARED = new StringDictionary(); // Used by the Toy classes
+
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>(); // Id of each known value
+	private volatile String[] values = new String[16]; // Value of each id
+	private int size; // Number of ids handed out, guarded by this
+
+	/**
+	 * Gets the dictionary shared by every toy for brands, materials and designer
+	 * names.
+	 *
+	 * @return the shared attribute dictionary.
+	 */
+	public static StringDictionary shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Gets the id of a value, adding the value if it is new.
+	 *
+	 * @param value the value to encode, or null.
+	 * @return the id of the value, or -1 for null.
+	 */
+	public int encode(String value) {
+		if (value == null) {
+			return -1;
+		}
+		Integer id = ids.get(value);
+		return id != null ? id : add(value);
+	}
+
+	/**
+	 * Adds a value that was not found by a lock-free lookup.
+	 */
+	private synchronized int add(String value) {
+		Integer id = ids.get(value);
+		if (id != null) {
+			return id; // Another thread added it first
+		}
+
+		String[] current = values;
+		if (size == current.length) {
+			current = Arrays.copyOf(current, size * 2);
+		}
+		current[size] = value;
+		values = current; // Publish before the id becomes visible
+		ids.put(value, size);
+		return size++;
+	}
+
+	/**
+	 * Gets the canonical instance of a value, adding it if it is new.
+	 *
+	 * @param value the value to deduplicate.
+	 * @return the String stored in the dictionary that equals the value.
+	 */
+	public String intern(String value) {
+		return decode(encode(value));
+	}
+
+	/**
+	 * Gets the id of a value without adding it.
+	 *
+	 * @param value the value to look up.
+	 * @return the id of the value, or -1 if it is not in the dictionary.
+	 */
+	public int lookup(String value) {
+		Integer id = value == null ? null : ids.get(value);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Gets the value of an id.
+	 *
+	 * @param id the id to decode.
+	 * @return the value with this id, or null for -1.
+	 */
+	public String decode(int id) {
+		return id < 0 ? null : values[id];
+	}
+
+	/**
+	 * Gets the number of distinct values in the dictionary.
+	 *
+	 * @return the number of distinct values.
+	 */
+	public int size() {
+		return ids.size();
+	}
+}
@@ -1,5 +1,8 @@
 package model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 /**
  * Abstract superclass representing a general toy. Serves as the base for
  * specific toy types (e.g., Figure, Animal, Puzzle, BoardGame). Contains common
@@ -11,17 +14,29 @@ package model;
  */
 public abstract class Toy {
 
-	private String sn; // Serial Number: unique identifier for each toy
+	private static final VarHandle STOCK; // Atomic access to stock
+
+	static {
+		try {
+			STOCK = MethodHandles.lookup().findVarHandle(Toy.class, "stock", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private long serial; // Serial Number: unique identifier for each toy, as its 10-digit value
 	private String name; // Name of the toy
-	private String brand; // Brand of the toy
-	private double price; // Price of the toy
-	private int availableCount; // Available stock count
+	private int brandId; // Brand of the toy, as an id in the shared attribute dictionary
+	private volatile long priceCents; // Price of the toy, in cents; volatile so lock-free readers see a writer's update
+	// Units in the store (low 32 bits) and units held by reservations (high 32 bits), updated together by CAS
+	private volatile long stock;
 	private int ageAppropriate; // Minimum age appropriate for the toy
 
 	/**
 	 * Constructor for creating a Toy with common attributes.
 	 *
-	 * @param sn             Unique serial number for the toy.
+	 * @param sn             Unique serial number for the toy. Subclasses reject
+	 *                       serial numbers that are not 10 digits.
 	 * @param name           Name of the toy.
 	 * @param brand          Brand name of the toy.
 	 * @param price          Price of the toy, assumed to be validated externally.
@@ -29,21 +44,68 @@ public abstract class Toy {
 	 * @param ageAppropriate Minimum age appropriate for the toy.
 	 */
 	public Toy(String sn, String name, String brand, double price, int availableCount, int ageAppropriate) {
-		this.sn = sn;
+		this.serial = parseSerial(sn);
 		this.name = name;
-		this.brand = brand;
-		this.price = price; // Price is set directly without validation here
-		this.availableCount = availableCount;
+		this.brandId = StringDictionary.shared().encode(brand);
+		this.priceCents = toCents(price); // Price is set directly without validation here
+		this.stock = packStock(availableCount, 0);
 		this.ageAppropriate = ageAppropriate;
 	}
 
+	/**
+	 * Converts a serial number into its numeric value.
+	 *
+	 * @param sn the serial number as entered or stored.
+	 * @return the serial number as a long, or -1 if it is not exactly 10 digits.
+	 */
+	public static long parseSerial(CharSequence sn) {
+		if (sn == null || sn.length() != ToyValidator.SERIAL_LENGTH) {
+			return -1;
+		}
+		long serial = 0;
+		for (int i = 0; i < ToyValidator.SERIAL_LENGTH; i++) {
+			int digit = sn.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			serial = serial * 10 + digit;
+		}
+		return serial;
+	}
+
+	/**
+	 * Formats a numeric serial number as its 10-digit text, keeping leading
+	 * zeros.
+	 *
+	 * @param serial the numeric serial number.
+	 * @return the zero-padded serial number.
+	 */
+	public static String formatSerial(long serial) {
+		char[] digits = new char[ToyValidator.SERIAL_LENGTH];
+		for (int i = digits.length - 1; i >= 0; i--) {
+			digits[i] = (char) ('0' + serial % 10);
+			serial /= 10;
+		}
+		return new String(digits);
+	}
+
 	/**
 	 * Gets the serial number of the toy.
 	 * 
-	 * @return the serial number of the toy as a String.
+	 * @return the serial number of the toy as a 10-digit String.
 	 */
 	public String getSn() {
-		return sn;
+		return formatSerial(serial);
+	}
+
+	/**
+	 * Gets the serial number of the toy as a number, for comparisons and
+	 * indexing without String handling.
+	 *
+	 * @return the serial number of the toy as a long.
+	 */
+	public long getSerial() {
+		return serial;
 	}
 
 	/**
@@ -51,9 +113,11 @@ public abstract class Toy {
 	 * 
 	 * @param sn the serial number to set. This should be a unique identifier for
 	 *           each toy.
+	 * @throws IllegalArgumentException if the serial number is not 10 digits.
 	 */
 	public void setSn(String sn) {
-		this.sn = sn;
+		ToyValidator.requireSerialNumber(sn);
+		this.serial = parseSerial(sn);
 	}
 
 	/**
@@ -81,7 +145,17 @@ public abstract class Toy {
 	 * @return the brand of the toy as a String.
 	 */
 	public String getBrand() {
-		return brand;
+		return StringDictionary.shared().decode(brandId);
+	}
+
+	/**
+	 * Gets the id of the toy's brand in the shared attribute dictionary. Two toys
+	 * have the same brand exactly when their brand ids are equal.
+	 * 
+	 * @return the brand id.
+	 */
+	public int getBrandId() {
+		return brandId;
 	}
 
 	/**
@@ -91,45 +165,216 @@ public abstract class Toy {
 	 *              representing the toy's brand.
 	 */
 	public void setBrand(String brand) {
-		this.brand = brand;
+		this.brandId = StringDictionary.shared().encode(brand);
+	}
+
+	/**
+	 * Converts a price to whole cents, rounding to the nearest cent.
+	 *
+	 * @param price the price in dollars.
+	 * @return the price in cents.
+	 */
+	public static long toCents(double price) {
+		return Math.round(price * 100);
+	}
+
+	/**
+	 * Converts a price limit to the largest whole number of cents whose price is
+	 * still at or below it, so "priceCents &lt;= limit" selects the same toys as
+	 * "getPrice() &lt;= price".
+	 *
+	 * @param price the price limit in dollars.
+	 * @return the limit in cents.
+	 */
+	public static long centsAtMost(double price) {
+		long cents = Math.round(price * 100);
+		return cents / 100.0 <= price ? cents : cents - 1;
 	}
 
 	/**
 	 * Gets the price of the toy.
 	 * 
-	 * @return the price of the toy as a double.
+	 * @return the price of the toy as a double, derived from the exact price in
+	 *         cents.
 	 */
 	public double getPrice() {
-		return price;
+		return priceCents / 100.0;
 	}
 
 	/**
-	 * Sets the price of the toy.
+	 * Gets the exact price of the toy in cents, for comparisons and totals
+	 * without floating-point rounding.
+	 *
+	 * @return the price of the toy in cents.
+	 */
+	public long getPriceCents() {
+		return priceCents;
+	}
+
+	/**
+	 * Sets the price of the toy, rounded to the nearest cent.
 	 * 
 	 * @param price the price to set, assumed to be validated externally.
 	 */
 	public void setPrice(double price) {
-		this.price = price;
+		this.priceCents = toCents(price);
 	}
 
 	/**
-	 * Gets the available stock count of the toy.
+	 * Sets the exact price of the toy in cents.
+	 *
+	 * @param priceCents the price to set in cents, assumed to be validated
+	 *                   externally.
+	 */
+	public void setPriceCents(long priceCents) {
+		this.priceCents = priceCents;
+	}
+
+	/**
+	 * Gets the available stock count of the toy: the units that can still be
+	 * sold, which excludes units held by reservations.
 	 * 
 	 * @return the available stock count as an integer.
 	 */
 	public int getAvailableCount() {
-		return availableCount;
+		long current = stock;
+		return onHand(current) - held(current);
 	}
 
 	/**
-	 * Sets the available stock count of the toy.
+	 * Gets the number of units in the store, including units held by
+	 * reservations. This is the count that is saved, so held units are not lost
+	 * if the application stops before their reservations end.
+	 * 
+	 * @return the stock on hand as an integer.
+	 */
+	public int getStockCount() {
+		return onHand(stock);
+	}
+
+	/**
+	 * Gets the number of units held by reservations.
+	 * 
+	 * @return the held units as an integer.
+	 */
+	public int getHeldCount() {
+		return held(stock);
+	}
+
+	/**
+	 * Sets the available stock count of the toy. Units held by reservations stay
+	 * held on top of it.
 	 * 
 	 * @param availableCount the available stock count to set. This should be a
 	 *                       non-negative integer representing the number of toys in
 	 *                       stock.
 	 */
 	public void setAvailableCount(int availableCount) {
-		this.availableCount = availableCount;
+		long current;
+		do {
+			current = stock;
+		} while (!STOCK.compareAndSet(this, current, packStock(availableCount + held(current), held(current))));
+	}
+
+	/**
+	 * Atomically takes units out of the available stock. The count is updated
+	 * with a compare-and-set loop, so concurrent buyers never lose an update and
+	 * the stock never goes below zero.
+	 *
+	 * @param quantity the number of units to take; must be positive.
+	 * @return the stock on hand after taking the units, or -1 if fewer than
+	 *         `quantity` units were available, in which case nothing is taken.
+	 * @throws IllegalArgumentException if the quantity is not positive.
+	 */
+	public int takeStock(int quantity) {
+		requirePositive(quantity);
+		long current;
+		do {
+			current = stock;
+			if (onHand(current) - held(current) < quantity) {
+				return -1;
+			}
+		} while (!STOCK.compareAndSet(this, current, packStock(onHand(current) - quantity, held(current))));
+		return onHand(current) - quantity;
+	}
+
+	/**
+	 * Atomically puts units back into the available stock, undoing an earlier
+	 * {@link #takeStock(int)} whose order could not be completed.
+	 *
+	 * @param quantity the number of units to return.
+	 */
+	public void returnStock(int quantity) {
+		long current;
+		do {
+			current = stock;
+		} while (!STOCK.compareAndSet(this, current, packStock(onHand(current) + quantity, held(current))));
+	}
+
+	/**
+	 * Atomically holds available units for a reservation. Held units stay in the
+	 * stock on hand but can no longer be taken by other buyers.
+	 *
+	 * @param quantity the number of units to hold; must be positive.
+	 * @return true if the units were held, false if fewer were available.
+	 * @throws IllegalArgumentException if the quantity is not positive.
+	 */
+	public boolean holdStock(int quantity) {
+		requirePositive(quantity);
+		long current;
+		do {
+			current = stock;
+			if (onHand(current) - held(current) < quantity) {
+				return false;
+			}
+		} while (!STOCK.compareAndSet(this, current, packStock(onHand(current), held(current) + quantity)));
+		return true;
+	}
+
+	/**
+	 * Atomically makes held units available again, when their reservation is
+	 * released or expires.
+	 *
+	 * @param quantity the number of held units to release.
+	 */
+	public void releaseStock(int quantity) {
+		long current;
+		do {
+			current = stock;
+		} while (!STOCK.compareAndSet(this, current, packStock(onHand(current), held(current) - quantity)));
+	}
+
+	/**
+	 * Atomically sells held units, when their reservation is confirmed.
+	 *
+	 * @param quantity the number of held units sold.
+	 * @return the stock on hand after the sale.
+	 */
+	public int sellHeldStock(int quantity) {
+		long current;
+		do {
+			current = stock;
+		} while (!STOCK.compareAndSet(this, current,
+				packStock(onHand(current) - quantity, held(current) - quantity)));
+		return onHand(current) - quantity;
+	}
+
+	private static void requirePositive(int quantity) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Quantity must be positive.");
+		}
+	}
+
+	private static long packStock(int onHand, int held) {
+		return ((long) held << 32) | (onHand & 0xFFFFFFFFL);
+	}
+
+	private static int onHand(long stock) {
+		return (int) stock;
+	}
+
+	private static int held(long stock) {
+		return (int) (stock >>> 32);
 	}
 
 	/**
@@ -160,6 +405,14 @@ public abstract class Toy {
 	 */
 	public abstract String getToyType();
 
+	/**
+	 * Abstract method for getting the toy type as an enum constant. Must be
+	 * implemented by subclasses to return the constant matching `getToyType`.
+	 *
+	 * @return the type of the toy (e.g., ToyType.FIGURE).
+	 */
+	public abstract ToyType getType();
+
 	/**
 	 * Abstract method for saving toy data to a file-compatible format. Each
 	 * subclass should implement this method to return a formatted string
@@ -0,0 +1,81 @@
+package model;
+
+/**
+ * Enumerates the four kinds of toy sold by the store. The type of a toy is
+ * encoded in the first digit of its serial number: 0-1 for Figures, 2-3 for
+ * Animals, 4-6 for Puzzles and 7-9 for Board Games.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public enum ToyType {
+
+	FIGURE("Figure", "01"), ANIMAL("Animal", "23"), PUZZLE("Puzzle", "456"), BOARD_GAME("BoardGame", "789");
+
+	private static final ToyType[] BY_PREFIX = new ToyType[10]; // Type of each serial number prefix digit
+
+	static {
+		for (ToyType type : values()) {
+			for (int i = 0; i < type.serialPrefixes.length(); i++) {
+				BY_PREFIX[type.serialPrefixes.charAt(i) - '0'] = type;
+			}
+		}
+	}
+
+	private final String label; // Name shown to users and returned by Toy.getToyType()
+	private final String serialPrefixes; // First digits of this type's serial numbers
+
+	/**
+	 * Creates a toy type with its display label and serial number prefixes.
+	 *
+	 * @param label          the label of the type.
+	 * @param serialPrefixes the first digits of the type's serial numbers.
+	 */
+	ToyType(String label, String serialPrefixes) {
+		this.label = label;
+		this.serialPrefixes = serialPrefixes;
+	}
+
+	/**
+	 * Gets the display label of the toy type.
+	 *
+	 * @return the label (e.g., "Figure", "BoardGame").
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Gets the digits a serial number of this type can start with.
+	 *
+	 * @return the prefix digits (e.g., "01" for Figures).
+	 */
+	public String getSerialPrefixes() {
+		return serialPrefixes;
+	}
+
+	/**
+	 * Determines the toy type from the first digit of a serial number.
+	 *
+	 * @param digit the first character of the serial number.
+	 * @return the matching toy type, or null if the character is not a digit.
+	 */
+	public static ToyType fromSerialPrefix(char digit) {
+		return digit >= '0' && digit <= '9' ? BY_PREFIX[digit - '0'] : null;
+	}
+
+	/**
+	 * Finds the toy type with the given label, ignoring case.
+	 *
+	 * @param label the label to look up (e.g., "Puzzle").
+	 * @return the matching toy type, or null if no type has this label.
+	 */
+	public static ToyType fromLabel(String label) {
+		for (ToyType type : values()) {
+			if (type.label.equalsIgnoreCase(label)) {
+				return type;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,199 @@
+package model;
+
+import exceptions.PlayerCountException;
+
+/**
+ * Central validation rules for toy fields. Every check is a plain character or
+ * range comparison, so validating a toy compiles no regular expressions and
+ * allocates nothing unless the value is rejected. The constructors and setters
+ * of the Toy classes, the file loaders and the console prompts all share these
+ * rules.
+ *
+ * The is methods report whether a value is valid; the require methods throw an
+ * IllegalArgumentException describing the rule when it is not.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class ToyValidator {
+
+	public static final int SERIAL_LENGTH = 10; // Number of digits in a serial number
+
+	private ToyValidator() {
+	}
+
+	/**
+	 * Checks that a value contains only digits.
+	 *
+	 * @param value the value to check.
+	 * @return true if the value is non-empty and every character is a digit 0-9.
+	 */
+	public static boolean isDigits(CharSequence value) {
+		int length = value.length();
+		if (length == 0) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks that a value is a well-formed serial number of any type.
+	 *
+	 * @param sn the serial number to check.
+	 * @return true if the serial number is exactly 10 digits.
+	 */
+	public static boolean isSerialNumber(CharSequence sn) {
+		return sn.length() == SERIAL_LENGTH && isDigits(sn);
+	}
+
+	/**
+	 * Checks that a serial number is well-formed and its first digit belongs to
+	 * the given toy type.
+	 *
+	 * @param sn   the serial number to check.
+	 * @param type the type the serial number should belong to.
+	 * @return true if the serial number is 10 digits with a prefix of this type.
+	 */
+	public static boolean isSerialNumber(CharSequence sn, ToyType type) {
+		return isSerialNumber(sn) && ToyType.fromSerialPrefix(sn.charAt(0)) == type;
+	}
+
+	/**
+	 * Requires a serial number to be exactly 10 digits.
+	 *
+	 * @param sn the serial number to check.
+	 * @throws IllegalArgumentException if the serial number is malformed.
+	 */
+	public static void requireSerialNumber(String sn) {
+		if (!isSerialNumber(sn)) {
+			throw new IllegalArgumentException("Serial number must be 10 digits long.");
+		}
+	}
+
+	/**
+	 * Requires a serial number to be exactly 10 digits and to start with a
+	 * prefix of the given toy type.
+	 *
+	 * @param sn   the serial number to check.
+	 * @param type the type the serial number should belong to.
+	 * @throws IllegalArgumentException if the serial number is malformed or has
+	 *                                  another type's prefix.
+	 */
+	public static void requireSerialNumber(String sn, ToyType type) {
+		if (isSerialNumber(sn, type)) {
+			return;
+		}
+		switch (type) {
+		case FIGURE:
+			throw new IllegalArgumentException("Serial number must start with 0 or 1 and be 10 digits long.");
+		case ANIMAL:
+			throw new IllegalArgumentException("Serial number must start with 2 or 3 and be 10 digits long.");
+		case PUZZLE:
+			throw new IllegalArgumentException("Serial number must start with 4, 5, or 6 and be 10 digits long.");
+		default:
+			throw new IllegalArgumentException("Serial number must start with 7, 8, or 9 and be 10 digits long.");
+		}
+	}
+
+	/**
+	 * Checks a Figure classification.
+	 *
+	 * @param classification the classification to check.
+	 * @return true if the classification is 'A', 'D', or 'H'.
+	 */
+	public static boolean isClassification(char classification) {
+		return classification == 'A' || classification == 'D' || classification == 'H';
+	}
+
+	/**
+	 * Requires a valid Figure classification.
+	 *
+	 * @param classification the classification to check.
+	 * @throws IllegalArgumentException if classification is not 'A', 'D', or 'H'.
+	 */
+	public static void requireClassification(char classification) {
+		if (!isClassification(classification)) {
+			throw new IllegalArgumentException("Classification must be 'A' (Action), 'D' (Doll), or 'H' (Historic).");
+		}
+	}
+
+	/**
+	 * Checks an Animal size.
+	 *
+	 * @param size the size to check.
+	 * @return true if the size is 'S', 'M', or 'L'.
+	 */
+	public static boolean isSize(char size) {
+		return size == 'S' || size == 'M' || size == 'L';
+	}
+
+	/**
+	 * Requires a valid Animal size.
+	 *
+	 * @param size the size to check.
+	 * @throws IllegalArgumentException if size is not 'S', 'M', or 'L'.
+	 */
+	public static void requireSize(char size) {
+		if (!isSize(size)) {
+			throw new IllegalArgumentException("Size must be 'S' (Small), 'M' (Medium), or 'L' (Large).");
+		}
+	}
+
+	/**
+	 * Checks a Puzzle type.
+	 *
+	 * @param puzzleType the puzzle type to check.
+	 * @return true if the puzzle type is 'M', 'C', 'L', 'T', or 'R'.
+	 */
+	public static boolean isPuzzleType(char puzzleType) {
+		return puzzleType == 'M' || puzzleType == 'C' || puzzleType == 'L' || puzzleType == 'T'
+				|| puzzleType == 'R';
+	}
+
+	/**
+	 * Requires a valid Puzzle type.
+	 *
+	 * @param puzzleType the puzzle type to check.
+	 * @throws IllegalArgumentException if the puzzle type is not 'M', 'C', 'L',
+	 *                                  'T', or 'R'.
+	 */
+	public static void requirePuzzleType(char puzzleType) {
+		if (!isPuzzleType(puzzleType)) {
+			throw new IllegalArgumentException(
+					"Puzzle type must be 'M' (Mechanical), 'C' (Cryptic), 'L' (Logic), 'T' (Trivia), or 'R' (Riddle).");
+		}
+	}
+
+	/**
+	 * Checks a Board Game player range.
+	 *
+	 * @param minPlayers the minimum number of players.
+	 * @param maxPlayers the maximum number of players.
+	 * @return true if both counts are positive and the minimum does not exceed
+	 *         the maximum.
+	 */
+	public static boolean isPlayerRange(int minPlayers, int maxPlayers) {
+		return minPlayers > 0 && maxPlayers >= minPlayers;
+	}
+
+	/**
+	 * Requires a valid Board Game player range.
+	 *
+	 * @param minPlayers the minimum number of players.
+	 * @param maxPlayers the maximum number of players.
+	 * @throws PlayerCountException if a count is not positive or the minimum
+	 *                              exceeds the maximum.
+	 */
+	public static void requirePlayerRange(int minPlayers, int maxPlayers) {
+		if (!isPlayerRange(minPlayers, maxPlayers)) {
+			throw new PlayerCountException(
+					"Invalid player count. Minimum players cannot exceed maximum, and both must be positive.");
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import model.StringDictionary;
+
+/**
+ * Reads record fields written by {@link BinaryRecordWriter} straight from a
+ * buffer, without any text parsing. Repeating attributes are resolved to their
+ * canonical instances in the shared attribute dictionary.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class BinaryRecordReader implements RecordReader {
+
+	private final ByteBuffer in; // The snapshot contents
+	private byte[] scratch = new byte[256]; // Reusable buffer for decoding strings
+
+	/**
+	 * Creates a reader over a buffer positioned at the first field to read.
+	 *
+	 * @param in The buffer to read fields from.
+	 */
+	public BinaryRecordReader(ByteBuffer in) {
+		this.in = in;
+	}
+
+	@Override
+	public String readText() {
+		int length = in.getInt();
+		if (length > scratch.length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		in.get(scratch, 0, length);
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String readAttribute() {
+		return StringDictionary.shared().intern(readText());
+	}
+
+	@Override
+	public int readInt() {
+		return in.getInt();
+	}
+
+	@Override
+	public long readCents() {
+		return in.getLong();
+	}
+
+	@Override
+	public char readChar() {
+		return in.getChar();
+	}
+
+	@Override
+	public int readRangeLow() {
+		return in.getInt();
+	}
+
+	@Override
+	public int readRangeHigh() {
+		return in.getInt();
+	}
+
+	@Override
+	public String[] readList() {
+		String[] values = new String[in.getInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = readAttribute();
+		}
+		return values;
+	}
+}
@@ -0,0 +1,63 @@
+package persistence;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes record fields in the fixed-width, big-endian layout of the binary
+ * snapshot. Strings are written as an int byte length followed by UTF-8 bytes;
+ * a range is two ints and a list is an int count followed by its strings.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class BinaryRecordWriter implements RecordWriter {
+
+	private final DataOutputStream out; // The snapshot stream
+
+	/**
+	 * Creates a writer over a data stream.
+	 *
+	 * @param out The stream to write fields to.
+	 */
+	public BinaryRecordWriter(DataOutputStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public void writeText(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	@Override
+	public void writeInt(int value) throws IOException {
+		out.writeInt(value);
+	}
+
+	@Override
+	public void writeCents(long cents) throws IOException {
+		out.writeLong(cents);
+	}
+
+	@Override
+	public void writeChar(char value) throws IOException {
+		out.writeChar(value);
+	}
+
+	@Override
+	public void writeRange(int low, int high) throws IOException {
+		out.writeInt(low);
+		out.writeInt(high);
+	}
+
+	@Override
+	public void writeList(String[] values) throws IOException {
+		out.writeInt(values.length);
+		for (String value : values) {
+			writeText(value);
+		}
+	}
+}
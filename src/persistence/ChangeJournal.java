@@ -0,0 +1,588 @@
+package persistence;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import model.Toy;
+
+/**
+ * Append-only journal of inventory changes kept next to `toys.txt`. Instead of
+ * rewriting the whole data file on every save, each add, remove and stock
+ * change is appended to `toys.journal` as a single line:
+ *
+ * <pre>
+ * A;[data file record of the added toy]
+ * R;[serial number]
+ * S;[serial number];[new available count]
+ * </pre>
+ *
+ * Recording a change does no I/O. It marks the toy dirty, and a background
+ * persister thread writes every dirty toy's latest state as one append every
+ * flush interval, or as soon as enough changes have piled up, and forces it
+ * to disk. Many changes to the same toy between two flushes become a single
+ * event: an add or price change is written as the toy's full record, a
+ * removal as a removal, and stock changes as the count at flush time. Changes
+ * made since the last flush are lost in a crash; a caller that needs them
+ * kept waits on the future returned by {@link #whenDurable()}.
+ *
+ * On startup the journal is replayed over the toys loaded from the data file.
+ * Every event carries an absolute value, so replaying an event twice is
+ * harmless, and events for different toys replay the same in any order. When
+ * the journal grows past its compaction threshold it is rotated
+ * to `toys.journal.compacting` and a background thread rewrites `toys.txt`
+ * from a copy of the inventory (through a temporary file and an atomic rename)
+ * before deleting the rotated journal.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class ChangeJournal {
+
+	public static final long FLUSH_INTERVAL_MILLIS = 50; // Default longest wait before a change is written
+	public static final int MAX_PENDING_CHANGES = 4096; // Default number of changes that start a flush early
+	private static final long MIN_COMPACT_BYTES = 1 << 20; // Never compact a journal smaller than 1 MB
+
+	private final File dataFile; // The base `toys.txt` file
+	private final File journalFile; // The active journal
+	private final File compactingFile; // The rotated journal being folded into the data file
+	private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "journal-compactor");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final ScheduledExecutorService persister = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "journal-persister");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final int maxPendingChanges; // Changes that start a flush before the interval is up
+
+	private Map<Long, Pending> dirty = new LinkedHashMap<>(); // Latest unwritten change per serial number
+	private long recorded; // Changes recorded so far
+	private long durable; // Changes recorded before the last completed flush
+	private boolean flushRequested; // An early flush has been queued and not yet started
+	private final ArrayDeque<Waiter> waiters = new ArrayDeque<>(); // Futures by ascending target
+	private Future<?> compaction; // The running background compaction, if any
+
+	private final Object io = new Object(); // Guards the writer; taken after this, never before
+	private FileOutputStream out; // Appends to the active journal, opened lazily
+	private Writer writer; // Encodes appends to the journal
+	private final TextRecordWriter records = new TextRecordWriter(); // Formats added toys on the persister thread
+	private volatile long journalBytes; // Current size of the active journal, changed under io
+
+	/**
+	 * Creates a journal for the given data file that flushes at the default
+	 * interval. The journal files are placed in the same directory.
+	 *
+	 * @param dataFile The `toys.txt` file the journal belongs to.
+	 */
+	public ChangeJournal(File dataFile) {
+		this(dataFile, FLUSH_INTERVAL_MILLIS, MAX_PENDING_CHANGES);
+	}
+
+	/**
+	 * Creates a journal for the given data file. The journal files are placed in
+	 * the same directory.
+	 *
+	 * @param dataFile            The `toys.txt` file the journal belongs to.
+	 * @param flushIntervalMillis The longest time a change waits to be written.
+	 * @param maxPendingChanges   The number of changes that starts a flush before
+	 *                            the interval is up.
+	 * @throws IllegalArgumentException if either limit is not positive.
+	 */
+	public ChangeJournal(File dataFile, long flushIntervalMillis, int maxPendingChanges) {
+		if (flushIntervalMillis <= 0 || maxPendingChanges <= 0) {
+			throw new IllegalArgumentException("Flush interval and pending change limit must be positive.");
+		}
+		this.dataFile = dataFile;
+		this.journalFile = new File(dataFile.getParentFile(), "toys.journal");
+		this.compactingFile = new File(dataFile.getParentFile(), "toys.journal.compacting");
+		this.journalBytes = journalFile.length();
+		this.maxPendingChanges = maxPendingChanges;
+		persister.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Replays the journal over the toys loaded from the data file. A rotated
+	 * journal left behind by an unfinished compaction is replayed first.
+	 *
+	 * @param toys The toys loaded from the data file, in file order.
+	 * @return The inventory with all journaled changes applied, in order.
+	 */
+	public synchronized List<Toy> replay(List<Toy> toys) {
+		if (!compactingFile.exists() && !journalFile.exists()) {
+			return toys; // Nothing to replay
+		}
+
+		Map<Long, Toy> inventory = new LinkedHashMap<>();
+		for (Toy toy : toys) {
+			inventory.put(toy.getSerial(), toy);
+		}
+
+		MappedToyLoader parser = new MappedToyLoader();
+		replayFile(compactingFile, inventory, parser);
+		replayFile(journalFile, inventory, parser);
+		return new ArrayList<>(inventory.values());
+	}
+
+	/**
+	 * Applies every event of one journal file to the inventory. Every event is
+	 * written with its newline, so a last line without one is a torn write and
+	 * is skipped, even if what is left of it still parses.
+	 */
+	private void replayFile(File file, Map<Long, Toy> inventory, MappedToyLoader parser) {
+		if (!file.exists()) {
+			return;
+		}
+
+		try {
+			String events = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			int lineNumber = 0;
+			int start = 0;
+			for (int end = events.indexOf('\n'); end >= 0; end = events.indexOf('\n', start)) {
+				String event = events.substring(start, end);
+				start = end + 1;
+				lineNumber++;
+				try {
+					applyEvent(event, inventory, parser);
+				} catch (RuntimeException e) {
+					System.out.println("Error replaying " + file.getName() + " line " + lineNumber + ": " + event
+							+ " - " + e.getMessage());
+				}
+			}
+			if (start < events.length()) {
+				System.out.println("Skipping unfinished last line of " + file.getName() + ": "
+						+ events.substring(start));
+			}
+		} catch (IOException e) {
+			System.out.println("Error reading journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Applies a single journal event to the inventory.
+	 */
+	private void applyEvent(String event, Map<Long, Toy> inventory, MappedToyLoader parser) {
+		String body = event.substring(2);
+		switch (event.charAt(0)) {
+		case 'A': // Add, or replace if the toy is already present
+			Toy toy = parser.parseRecord(body);
+			inventory.put(toy.getSerial(), toy);
+			break;
+		case 'R': // Remove
+			inventory.remove(Toy.parseSerial(body));
+			break;
+		case 'S': // Stock change
+			int separator = body.indexOf(';');
+			Toy stocked = inventory.get(Toy.parseSerial(body.substring(0, separator)));
+			if (stocked != null) {
+				stocked.setAvailableCount(Integer.parseInt(body.substring(separator + 1)));
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown journal event.");
+		}
+	}
+
+	/**
+	 * Records that a toy was added to the inventory.
+	 *
+	 * @param toy The toy that was added.
+	 */
+	public synchronized void recordAdd(Toy toy) {
+		mark(toy.getSerial(), new Pending(Pending.ADD, toy));
+	}
+
+	/**
+	 * Records that a toy was removed from the inventory.
+	 *
+	 * @param serial The serial number of the removed toy.
+	 */
+	public synchronized void recordRemove(long serial) {
+		mark(serial, Pending.REMOVED);
+	}
+
+	/**
+	 * Records a change in a toy's stock on hand. The count is read when the
+	 * change is written rather than passed in, so when several buyers decrement
+	 * the same toy concurrently the journal always ends with the latest count,
+	 * whatever order they record in.
+	 *
+	 * @param toy The toy whose stock changed.
+	 */
+	public synchronized void recordStock(Toy toy) {
+		mark(toy.getSerial(), new Pending(Pending.STOCK, toy));
+	}
+
+	/**
+	 * Records the stock changes and removals of one batched order together, so
+	 * the whole batch reaches the journal in the same flush.
+	 *
+	 * @param stocked The toys whose stock changed.
+	 * @param removed The toys removed from the inventory.
+	 */
+	public synchronized void recordBatch(List<Toy> stocked, List<Toy> removed) {
+		for (Toy toy : stocked) {
+			mark(toy.getSerial(), new Pending(Pending.STOCK, toy));
+		}
+		for (Toy toy : removed) {
+			mark(toy.getSerial(), Pending.REMOVED);
+		}
+	}
+
+	/**
+	 * Gets a future that completes once every change recorded so far has been
+	 * written to the journal and forced to disk. If changes are waiting, a flush
+	 * is started now rather than at the end of the interval.
+	 *
+	 * @return the future; it completes exceptionally if the journal cannot be
+	 *         written, or is closed with changes that were never written.
+	 */
+	public synchronized CompletableFuture<Void> whenDurable() {
+		if (durable == recorded) {
+			return CompletableFuture.completedFuture(null);
+		}
+		if (persister.isShutdown()) {
+			return CompletableFuture.failedFuture(new IllegalStateException("Journal is closed."));
+		}
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		waiters.add(new Waiter(recorded, future));
+		requestFlush();
+		return future;
+	}
+
+	/**
+	 * Marks a toy dirty with its latest change. A removal or a full record
+	 * replaces whatever was pending for the serial number, while a stock change
+	 * adds nothing to a pending event, which already writes the count or the
+	 * removal as it is at flush time.
+	 */
+	private void mark(long serial, Pending change) {
+		if (change.kind == Pending.STOCK) {
+			dirty.putIfAbsent(serial, change);
+		} else {
+			dirty.put(serial, change);
+		}
+		if (++recorded - durable >= maxPendingChanges) {
+			requestFlush();
+		}
+	}
+
+	/**
+	 * Queues a flush on the persister thread unless one is already queued.
+	 * Called with this held.
+	 */
+	private void requestFlush() {
+		if (!flushRequested && !persister.isShutdown()) {
+			flushRequested = true;
+			persister.execute(this::flush);
+		}
+	}
+
+	/**
+	 * Writes every dirty toy's latest change as one append, forces it to disk
+	 * and completes the futures it made durable. Runs only on the persister
+	 * thread, so flushes never overlap and complete in order.
+	 */
+	private void flush() {
+		Map<Long, Pending> batch;
+		long target;
+		synchronized (this) {
+			flushRequested = false;
+			batch = dirty;
+			target = recorded;
+			if (!batch.isEmpty()) {
+				dirty = new LinkedHashMap<>();
+			}
+		}
+
+		IOException failure = null;
+		if (!batch.isEmpty()) {
+			StringBuilder events = new StringBuilder(32 * batch.size());
+			for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+				entry.getValue().append(entry.getKey(), events, records);
+			}
+			try {
+				append(events.toString());
+			} catch (IOException e) {
+				System.out.println("\nError writing to journal: " + e.getMessage());
+				failure = e;
+			}
+		}
+
+		synchronized (this) {
+			if (failure != null) {
+				// Keep the changes for the next flush unless newer ones replaced them
+				for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+					dirty.putIfAbsent(entry.getKey(), entry.getValue());
+				}
+			} else {
+				durable = target;
+			}
+			while (!waiters.isEmpty() && (failure != null || waiters.peek().target <= durable)) {
+				Waiter waiter = waiters.poll();
+				if (failure == null) {
+					waiter.future.complete(null);
+				} else {
+					waiter.future.completeExceptionally(failure);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Appends event lines to the journal, flushes them and forces them to disk.
+	 * If the append fails, the writer is dropped along with anything still
+	 * buffered in it, and the part of the events that did reach the file is cut
+	 * off before the next append, so the retry does not follow a torn line.
+	 */
+	private void append(String events) throws IOException {
+		synchronized (io) {
+			if (writer == null) {
+				truncateTornWrite();
+				out = new FileOutputStream(journalFile, true);
+				writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			}
+			try {
+				writer.write(events);
+				writer.flush();
+				out.getChannel().force(false);
+			} catch (IOException e) {
+				try {
+					out.close(); // Not the writer, which would try to flush the rest again
+				} catch (IOException closeFailure) {
+					e.addSuppressed(closeFailure);
+				}
+				writer = null;
+				out = null;
+				throw e;
+			}
+			journalBytes += events.getBytes(StandardCharsets.UTF_8).length;
+		}
+	}
+
+	/**
+	 * Cuts the active journal back to the bytes of completed appends, dropping
+	 * what a failed append left behind. Called with io held.
+	 */
+	private void truncateTornWrite() throws IOException {
+		if (journalFile.isFile() && journalFile.length() > journalBytes) {
+			try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+				channel.truncate(journalBytes);
+				channel.force(false);
+			}
+		}
+	}
+
+	/**
+	 * Starts a background compaction if the journal has grown past half the size
+	 * of the data file (and at least 1 MB) and no compaction is running. The
+	 * inventory list is copied on the calling thread; the data file is rewritten
+	 * on the compactor thread. Changes still waiting to be flushed are written
+	 * to the new journal, on top of the rewritten data file.
+	 *
+	 * @param toys The current inventory.
+	 */
+	public synchronized void compactIfNeeded(List<Toy> toys) {
+		if (!needsCompaction()) {
+			return;
+		}
+
+		try {
+			rotate();
+		} catch (IOException e) {
+			System.out.println("\nError rotating journal: " + e.getMessage());
+			return;
+		}
+
+		List<Toy> snapshot = new ArrayList<>(toys);
+		compaction = compactor.submit(() -> compact(snapshot));
+	}
+
+	/**
+	 * Checks whether the journal has grown past the compaction threshold with no
+	 * compaction running, without needing the inventory list.
+	 *
+	 * @return true if {@link #compactIfNeeded(List)} would start a compaction.
+	 */
+	public synchronized boolean needsCompaction() {
+		if (journalBytes < Math.max(MIN_COMPACT_BYTES, dataFile.length() / 2)) {
+			return false;
+		}
+		return compaction == null || compaction.isDone(); // Let a running compaction finish first
+	}
+
+	/**
+	 * Moves the active journal aside so new events go to a fresh file. If an
+	 * earlier compaction never finished, the active journal is appended to the
+	 * rotated one instead so no events are lost.
+	 */
+	private void rotate() throws IOException {
+		synchronized (io) {
+			closeWriter();
+
+			if (compactingFile.exists()) {
+				Files.write(compactingFile.toPath(), Files.readAllBytes(journalFile.toPath()),
+						StandardOpenOption.APPEND);
+				Files.delete(journalFile.toPath());
+			} else {
+				Files.move(journalFile.toPath(), compactingFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			journalBytes = 0;
+		}
+	}
+
+	/**
+	 * Closes the active journal's writer, if open. Called with io held.
+	 */
+	private void closeWriter() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+			out = null;
+		}
+	}
+
+	/**
+	 * Rewrites the data file from an inventory snapshot and drops the rotated
+	 * journal once the new data file is in place.
+	 */
+	private void compact(List<Toy> snapshot) {
+		File tempFile = new File(dataFile.getParentFile(), dataFile.getName() + ".tmp");
+		try (FileOutputStream out = new FileOutputStream(tempFile);
+				Writer fileWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+			TextRecordWriter compactRecords = new TextRecordWriter(); // Used only on the compactor thread
+			for (Toy toy : snapshot) {
+				compactRecords.write(toy, fileWriter);
+				fileWriter.write(System.lineSeparator());
+			}
+			fileWriter.flush();
+			out.getFD().sync();
+		} catch (IOException e) {
+			System.out.println("\nError compacting journal: " + e.getMessage());
+			return;
+		}
+
+		try {
+			Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			Files.deleteIfExists(compactingFile.toPath());
+		} catch (IOException e) {
+			System.out.println("\nError replacing data file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes every pending change, closes the journal and waits for a running
+	 * compaction to finish. No changes may be recorded afterwards; a durability
+	 * future still waiting then, or asked for later with changes unwritten,
+	 * completes exceptionally.
+	 */
+	public void close() {
+		try {
+			persister.submit(this::flush).get(); // After any flush already running
+		} catch (ExecutionException e) {
+			System.out.println("\nError flushing journal: " + e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			persister.shutdown();
+		}
+		try {
+			persister.awaitTermination(1, TimeUnit.MINUTES); // Runs flushes queued before the shutdown
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			while (!waiters.isEmpty()) {
+				waiters.poll().future.completeExceptionally(new IllegalStateException("Journal is closed."));
+			}
+		}
+
+		synchronized (io) {
+			try {
+				closeWriter();
+			} catch (IOException e) {
+				System.out.println("\nError closing journal: " + e.getMessage());
+			}
+		}
+
+		compactor.shutdown();
+		try {
+			compactor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The latest unwritten change to one toy. Its event is formatted when it is
+	 * written, so it holds the toy's state at flush time.
+	 */
+	private static final class Pending {
+		private static final char ADD = 'A'; // Write the toy's full record
+		private static final char STOCK = 'S'; // Write the toy's stock on hand
+		private static final Pending REMOVED = new Pending('R', null); // Write a removal
+
+		private final char kind; // Event type
+		private final Toy toy; // The toy, null for a removal
+
+		private Pending(char kind, Toy toy) {
+			this.kind = kind;
+			this.toy = toy;
+		}
+
+		/**
+		 * Appends the event line for this change.
+		 */
+		private void append(long serial, StringBuilder events, TextRecordWriter records) {
+			events.append(kind).append(';');
+			if (kind == ADD) {
+				events.append(records.format(toy));
+			} else if (kind == STOCK) {
+				events.append(toy.getSn()).append(';').append(toy.getStockCount());
+			} else {
+				events.append(Toy.formatSerial(serial));
+			}
+			events.append('\n');
+		}
+	}
+
+	/**
+	 * A durability future and the number of changes that must be flushed to
+	 * complete it.
+	 */
+	private static final class Waiter {
+		private final long target; // Changes recorded when the future was asked for
+		private final CompletableFuture<Void> future; // Completed once they are durable
+
+		private Waiter(long target, CompletableFuture<Void> future) {
+			this.target = target;
+			this.future = future;
+		}
+	}
+}
@@ -0,0 +1,682 @@
+package persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import model.*;
+
+/**
+ * Loads the toy inventory from `toys.txt` by memory-mapping the file and
+ * parsing each record straight from the mapped bytes. Numeric fields (price,
+ * available count, appropriate age, player range) are decoded in place without
+ * creating intermediate Strings or split arrays; only the text attributes that
+ * end up stored on the Toy objects are turned into Strings.
+ *
+ * The loader produces the same Figures, Animals, Puzzles and BoardGames
+ * objects as the original Scanner based parser and reports the same per-line
+ * errors, prefixed with the line number. Large files are split into
+ * newline-aligned chunks that are parsed on all cores. Whenever a field is not in the plain form written by
+ * `toDataString()`, the field is decoded and handed to the JDK parser so the
+ * result (or the error message) stays identical.
+ *
+ * Each line is decoded by the {@link ToyCodec} registered for its serial
+ * number prefix, which pulls the fields through this loader's in-place parsers.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class MappedToyLoader {
+
+	private static final int MAX_WINDOW = 1 << 30; // Largest region mapped at once
+	private static final int MAX_FIELDS = 16; // More fields than any toy type uses
+	private static final int CHUNKS_PER_WORKER = 4; // Extra chunks so fast workers can steal work
+	private static final int MIN_CHUNK_SIZE = 1 << 16; // Smallest chunk worth handing to a worker
+	private static final int ATTRIBUTE_CACHE_SIZE = 1 << 10; // Slots in the per-loader attribute cache
+
+	/** Files at least this large are parsed in parallel by load(File). */
+	public static final long PARALLEL_THRESHOLD = 1 << 22;
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+			100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+			100000000000000L, 1000000000000000L };
+
+	private byte[] line = new byte[256]; // Reusable copy of the current line
+	private int lineLength; // Number of valid bytes in `line`
+	private final int[] fieldStart = new int[MAX_FIELDS]; // Start offset of each field in `line`
+	private final int[] fieldEnd = new int[MAX_FIELDS]; // End offset (exclusive) of each field in `line`
+	private int fieldCount; // Number of fields, with trailing empty fields dropped like String.split
+	private int minPlayers; // Lower bound of the last parsed player range
+	private int maxPlayers; // Upper bound of the last parsed player range
+	private int rangeField; // Field already parsed into minPlayers and maxPlayers, or -1
+	private int nextField; // Index of the next field handed to a codec
+	private final RecordReader reader = new LineReader(); // Feeds the current line's fields to codecs
+	private final int[] cacheHash = new int[ATTRIBUTE_CACHE_SIZE]; // Hash of each cached attribute
+	private final byte[][] cacheBytes = new byte[ATTRIBUTE_CACHE_SIZE][]; // UTF-8 bytes of each cached attribute
+	private final String[] cacheValues = new String[ATTRIBUTE_CACHE_SIZE]; // Canonical String of each attribute
+
+	/**
+	 * Loads every toy from the given file, switching to the parallel mode for
+	 * files of at least PARALLEL_THRESHOLD bytes when more than one core is
+	 * available.
+	 *
+	 * @param file The file containing toy data.
+	 * @return A list of the toys in file order.
+	 * @throws IOException if the file cannot be opened or mapped.
+	 */
+	public List<Toy> load(File file) throws IOException {
+		boolean parallel = file.length() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+		return load(file, parallel);
+	}
+
+	/**
+	 * Loads every toy from the given file. Lines that cannot be parsed are logged
+	 * with their line number and skipped. In parallel mode the file is split into
+	 * newline-aligned chunks that are parsed on ForkJoinPool workers and merged
+	 * back in file order, so the result is the same as a serial load.
+	 *
+	 * @param file     The file containing toy data.
+	 * @param parallel true to parse chunks on the common ForkJoinPool.
+	 * @return A list of the toys in file order.
+	 * @throws IOException if the file cannot be opened or mapped.
+	 */
+	public List<Toy> load(File file, boolean parallel) throws IOException {
+		ArrayList<Toy> toys = new ArrayList<>();
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long position = 0;
+			long linesBefore = 0; // Lines in earlier windows, used to number errors
+
+			while (position < size) {
+				int windowSize = (int) Math.min(MAX_WINDOW, size - position);
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+				boolean lastWindow = position + windowSize == size;
+
+				// Only parse up to the last complete line unless this is the end of the file
+				int end = lastWindow ? windowSize : lastNewline(window, windowSize) + 1;
+				if (end <= 0) {
+					throw new IOException("Line longer than " + MAX_WINDOW + " bytes at offset " + position);
+				}
+
+				List<Chunk> chunks = parallel ? parseChunks(window, end) : parseSingle(window, end);
+
+				// Merge chunk results in file order
+				int total = toys.size();
+				for (Chunk chunk : chunks) {
+					total += chunk.toys.size();
+				}
+				toys.ensureCapacity(total);
+				for (Chunk chunk : chunks) {
+					toys.addAll(chunk.toys);
+					chunk.reportErrors(linesBefore);
+					linesBefore += chunk.lines;
+				}
+				position += end;
+			}
+		}
+		return toys;
+	}
+
+	/**
+	 * Parses the region [0, end) of the buffer on the calling thread.
+	 */
+	private List<Chunk> parseSingle(ByteBuffer buffer, int end) {
+		Chunk chunk = new Chunk(0, end);
+		parseRegion(buffer, chunk);
+		return Collections.singletonList(chunk);
+	}
+
+	/**
+	 * Splits the region [0, end) of the buffer into newline-aligned chunks and
+	 * parses them concurrently. Each chunk gets its own loader instance so the
+	 * reusable line buffers are never shared between workers.
+	 */
+	private static List<Chunk> parseChunks(ByteBuffer buffer, int end) {
+		int chunkCount = Math.max(1, ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_WORKER);
+		int chunkSize = Math.max(MIN_CHUNK_SIZE, end / chunkCount + 1);
+
+		List<Chunk> chunks = new ArrayList<>();
+		int chunkStart = 0;
+		while (chunkStart < end) {
+			// Move the nominal boundary forward to just after the next newline
+			int chunkEnd = Math.min(end, chunkStart + chunkSize);
+			while (chunkEnd < end && buffer.get(chunkEnd - 1) != '\n') {
+				chunkEnd++;
+			}
+			chunks.add(new Chunk(chunkStart, chunkEnd));
+			chunkStart = chunkEnd;
+		}
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.size());
+		for (Chunk chunk : chunks) {
+			tasks.add(ForkJoinTask.adapt(() -> new MappedToyLoader().parseRegion(buffer, chunk)));
+		}
+		ForkJoinTask.invokeAll(tasks);
+		return chunks;
+	}
+
+	/**
+	 * Parses every line of a chunk, collecting the resulting toys, the number of
+	 * lines seen and any per-line errors into the chunk.
+	 *
+	 * @param buffer The buffer holding the file bytes.
+	 * @param chunk  The chunk to parse.
+	 */
+	private void parseRegion(ByteBuffer buffer, Chunk chunk) {
+		int lineStart = chunk.start;
+		while (lineStart < chunk.end) {
+			int lineEnd = lineStart;
+			while (lineEnd < chunk.end && buffer.get(lineEnd) != '\n') {
+				lineEnd++;
+			}
+
+			copyLine(buffer, lineStart, lineEnd);
+			if (lineLength > 0) {
+				Toy toy = parseLine(chunk);
+				if (toy != null) {
+					chunk.toys.add(toy); // Add created toy to list
+				}
+			}
+			chunk.lines++;
+			lineStart = lineEnd + 1;
+		}
+	}
+
+	/**
+	 * Finds the offset of the last newline in the buffer.
+	 *
+	 * @param buffer The buffer to scan.
+	 * @param limit  The number of bytes in the buffer.
+	 * @return The offset of the last '\n', or -1 if there is none.
+	 */
+	private static int lastNewline(ByteBuffer buffer, int limit) {
+		for (int i = limit - 1; i >= 0; i--) {
+			if (buffer.get(i) == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Copies one line into the reusable line buffer, dropping a trailing carriage
+	 * return so Windows line endings behave like Scanner.nextLine().
+	 */
+	private void copyLine(ByteBuffer buffer, int lineStart, int lineEnd) {
+		int length = lineEnd - lineStart;
+		if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+			length--;
+		}
+		if (length > line.length) {
+			line = new byte[Math.max(length, line.length * 2)];
+		}
+		for (int i = 0; i < length; i++) {
+			line[i] = buffer.get(lineStart + i);
+		}
+		lineLength = length;
+	}
+
+	/**
+	 * Parses a single record in the `toys.txt` format, as written by
+	 * `toDataString()`.
+	 *
+	 * @param record The record to parse.
+	 * @return The toy described by the record.
+	 * @throws IllegalArgumentException if the record cannot be parsed.
+	 */
+	public Toy parseRecord(String record) {
+		byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+		line = bytes.length > line.length ? bytes : line;
+		System.arraycopy(bytes, 0, line, 0, bytes.length);
+		lineLength = bytes.length;
+
+		try {
+			Toy toy = lineLength > 0 ? decodeLine() : null;
+			if (toy == null) {
+				throw new IllegalArgumentException("Unknown toy type: " + record);
+			}
+			return toy;
+		} catch (IllegalArgumentException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Error parsing record: " + record + " - " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Parses the line currently held in the line buffer into a Toy object. Errors
+	 * are recorded on the chunk and result in null.
+	 *
+	 * @param chunk The chunk the line belongs to.
+	 * @return The parsed toy, or null if the line could not be parsed.
+	 */
+	private Toy parseLine(Chunk chunk) {
+		try {
+			Toy toy = decodeLine();
+			if (toy == null) {
+				chunk.errors.add(new LineError(chunk.lines, lineText(), true, null));
+			}
+			return toy;
+		} catch (Exception e) {
+			chunk.errors.add(new LineError(chunk.lines, lineText(), false, e.getMessage()));
+			return null;
+		}
+	}
+
+	/**
+	 * Decodes the line currently held in the line buffer with the codec
+	 * registered for its serial number prefix.
+	 *
+	 * @return The decoded toy, or null if the prefix matches no toy type.
+	 */
+	private Toy decodeLine() {
+		splitFields();
+		ToyCodec codec = ToyCodecs.forPrefix((char) line[0]); // Determine toy type based on first digit
+		if (codec == null) {
+			return null;
+		}
+		rangeField = -1;
+		if (codec.getType() == ToyType.BOARD_GAME) {
+			parsePlayerRange(6); // The Scanner parser read the range before the price, so its error comes first
+			rangeField = 6;
+		}
+		nextField = 0;
+		return codec.decode(reader);
+	}
+
+	/**
+	 * Records the offsets of the semicolon separated fields of the current line.
+	 * Trailing empty fields are dropped to match String.split(";").
+	 */
+	private void splitFields() {
+		int count = 0;
+		int start = 0;
+		for (int i = 0; i <= lineLength && count < MAX_FIELDS; i++) {
+			if (i == lineLength || line[i] == ';') {
+				fieldStart[count] = start;
+				fieldEnd[count] = i;
+				count++;
+				start = i + 1;
+			}
+		}
+		while (count > 1 && fieldStart[count - 1] == fieldEnd[count - 1]) {
+			count--;
+		}
+		fieldCount = count;
+	}
+
+	/**
+	 * Checks that a field exists, failing the same way an out of range index into
+	 * the split array would.
+	 */
+	private void checkField(int index) {
+		if (index >= fieldCount) {
+			throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + fieldCount);
+		}
+	}
+
+	/**
+	 * Decodes a text field into a String.
+	 */
+	private String text(int index) {
+		checkField(index);
+		return new String(line, fieldStart[index], fieldEnd[index] - fieldStart[index], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes a repeating attribute field into its canonical String.
+	 */
+	private String attribute(int index) {
+		checkField(index);
+		return attribute(fieldStart[index], fieldEnd[index]);
+	}
+
+	/**
+	 * Decodes a repeating attribute (brand, material, designer) held in the given
+	 * range of the line into its canonical String from the shared attribute
+	 * dictionary. A small direct-mapped cache keyed by the attribute's bytes lets
+	 * repeated values skip String creation entirely.
+	 */
+	private String attribute(int start, int end) {
+		int hash = 1;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + line[i];
+		}
+
+		int slot = (hash ^ (hash >>> 16)) & (ATTRIBUTE_CACHE_SIZE - 1);
+		byte[] cached = cacheBytes[slot];
+		if (cached != null && cacheHash[slot] == hash && Arrays.equals(cached, 0, cached.length, line, start, end)) {
+			return cacheValues[slot];
+		}
+
+		String value = StringDictionary.shared().intern(new String(line, start, end - start, StandardCharsets.UTF_8));
+		cacheHash[slot] = hash;
+		cacheBytes[slot] = Arrays.copyOfRange(line, start, end);
+		cacheValues[slot] = value;
+		return value;
+	}
+
+	/**
+	 * Returns the first character of a field, decoding it only when it is not
+	 * plain ASCII.
+	 */
+	private char firstChar(int index) {
+		checkField(index);
+		int start = fieldStart[index];
+		if (start < fieldEnd[index] && line[start] >= 0) {
+			return (char) line[start];
+		}
+		return text(index).charAt(0);
+	}
+
+	/**
+	 * Parses an unsigned decimal integer field in place, falling back to
+	 * Integer.parseInt for anything else.
+	 */
+	private int parseInt(int index) {
+		checkField(index);
+		return parseInt(fieldStart[index], fieldEnd[index]);
+	}
+
+	private int parseInt(int start, int end) {
+		int length = end - start;
+		if (length > 0 && length <= 9) {
+			int value = 0;
+			int i = start;
+			for (; i < end; i++) {
+				int digit = line[i] - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				value = value * 10 + digit;
+			}
+			if (i == end) {
+				return value;
+			}
+		}
+		return Integer.parseInt(new String(line, start, length, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parses a price field in place. Plain "digits[.digits]" values are computed
+	 * from an exact mantissa and power of ten, which rounds identically to
+	 * Double.parseDouble; any other form is delegated to Double.parseDouble.
+	 */
+	private double parseDouble(int index) {
+		checkField(index);
+		int start = fieldStart[index];
+		int end = fieldEnd[index];
+
+		long mantissa = 0;
+		int digits = 0;
+		int scale = -1; // Digits after the decimal point, -1 until the point is seen
+		boolean simple = end > start;
+		for (int i = start; i < end && simple; i++) {
+			byte b = line[i];
+			if (b >= '0' && b <= '9') {
+				mantissa = mantissa * 10 + (b - '0');
+				digits++;
+				if (scale >= 0) {
+					scale++;
+				}
+			} else if (b == '.' && scale < 0) {
+				scale = 0;
+			} else {
+				simple = false;
+			}
+		}
+
+		// Both operands must be exact doubles for the division to be correctly rounded
+		if (simple && digits > 0 && digits <= 15 && scale < POWERS_OF_TEN.length) {
+			return scale <= 0 ? (double) mantissa : (double) mantissa / POWERS_OF_TEN[scale];
+		}
+		return Double.parseDouble(text(index));
+	}
+
+	/**
+	 * Parses a price field straight into cents. Plain "digits[.digits]" values
+	 * with at most two decimals are converted with integer arithmetic only; any
+	 * other form is parsed as a double and rounded to the nearest cent.
+	 */
+	private long parseCents(int index) {
+		checkField(index);
+		int start = fieldStart[index];
+		int end = fieldEnd[index];
+
+		long cents = 0;
+		int digits = 0;
+		int scale = -1; // Digits after the decimal point, -1 until the point is seen
+		for (int i = start; i < end; i++) {
+			byte b = line[i];
+			if (b >= '0' && b <= '9' && scale < 2 && digits < 16) {
+				cents = cents * 10 + (b - '0');
+				digits++;
+				if (scale >= 0) {
+					scale++;
+				}
+			} else if (b == '.' && scale < 0) {
+				scale = 0;
+			} else {
+				return Toy.toCents(parseDouble(index));
+			}
+		}
+
+		if (digits == 0) {
+			return Toy.toCents(parseDouble(index)); // Let the JDK report the error
+		}
+		return scale <= 0 ? cents * 100 : scale == 1 ? cents * 10 : cents;
+	}
+
+	/**
+	 * Parses a "min-max" player range field into minPlayers and maxPlayers,
+	 * falling back to the original split based parsing when either side is empty.
+	 */
+	private void parsePlayerRange(int index) {
+		checkField(index);
+		int start = fieldStart[index];
+		int end = fieldEnd[index];
+		int dash = -1;
+		int secondDash = end;
+		for (int i = start; i < end; i++) {
+			if (line[i] == '-') {
+				if (dash < 0) {
+					dash = i;
+				} else {
+					secondDash = i; // Anything after a second dash is ignored, as with split("-")
+					break;
+				}
+			}
+		}
+
+		if (dash > start && dash < secondDash - 1) {
+			minPlayers = parseInt(start, dash);
+			maxPlayers = parseInt(dash + 1, secondDash);
+			return;
+		}
+
+		String[] playerRange = text(index).split("-");
+		minPlayers = Integer.parseInt(playerRange[0]);
+		if (playerRange.length < 2) {
+			// Thrown explicitly, like checkField, so the JIT never drops the message
+			throw new ArrayIndexOutOfBoundsException("Index 1 out of bounds for length " + playerRange.length);
+		}
+		maxPlayers = Integer.parseInt(playerRange[1]);
+	}
+
+	/**
+	 * Splits a comma separated list field into trimmed canonical values, with
+	 * the same result as split(",") followed by trim() on each value.
+	 */
+	private String[] parseList(int index) {
+		checkField(index);
+		int start = fieldStart[index];
+		int end = fieldEnd[index];
+
+		// Like split, drop trailing empty values, but keep a single empty value for an
+		// empty field
+		int count = 1;
+		if (start < end) {
+			while (end > start && line[end - 1] == ',') {
+				end--;
+			}
+			count = end == start ? 0 : count(start, end) + 1;
+		}
+
+		String[] values = new String[count];
+		int valueStart = start;
+		for (int i = 0; i < count; i++) {
+			int valueEnd = valueStart;
+			while (valueEnd < end && line[valueEnd] != ',') {
+				valueEnd++;
+			}
+			values[i] = trimmedAttribute(valueStart, valueEnd);
+			valueStart = valueEnd + 1;
+		}
+		return values;
+	}
+
+	/**
+	 * Counts the commas in a range of the line.
+	 */
+	private int count(int start, int end) {
+		int commas = 0;
+		for (int i = start; i < end; i++) {
+			if (line[i] == ',') {
+				commas++;
+			}
+		}
+		return commas;
+	}
+
+	/**
+	 * Decodes an attribute with leading and trailing whitespace removed, as
+	 * String.trim() would.
+	 */
+	private String trimmedAttribute(int start, int end) {
+		while (start < end && (line[start] & 0xFF) <= ' ') {
+			start++;
+		}
+		while (end > start && (line[end - 1] & 0xFF) <= ' ') {
+			end--;
+		}
+		return attribute(start, end);
+	}
+
+	/**
+	 * Decodes the whole current line, used only for error messages.
+	 */
+	private String lineText() {
+		return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Hands the fields of the current line to a codec in order, parsing each in
+	 * place.
+	 */
+	private class LineReader implements RecordReader {
+		@Override
+		public String readText() {
+			return text(nextField++);
+		}
+
+		@Override
+		public String readAttribute() {
+			return attribute(nextField++);
+		}
+
+		@Override
+		public int readInt() {
+			return parseInt(nextField++);
+		}
+
+		@Override
+		public long readCents() {
+			return parseCents(nextField++);
+		}
+
+		@Override
+		public char readChar() {
+			return firstChar(nextField++);
+		}
+
+		@Override
+		public int readRangeLow() {
+			int index = nextField++;
+			if (index != rangeField) {
+				parsePlayerRange(index);
+			}
+			return minPlayers;
+		}
+
+		@Override
+		public int readRangeHigh() {
+			return maxPlayers;
+		}
+
+		@Override
+		public String[] readList() {
+			return parseList(nextField++);
+		}
+	}
+
+	/**
+	 * A newline-aligned slice of the mapped file together with what was parsed
+	 * from it. Line numbers inside a chunk are relative to its first line.
+	 */
+	private static class Chunk {
+		private final int start; // Offset of the first byte of the chunk
+		private final int end; // Offset just past the last byte of the chunk
+		private final List<Toy> toys = new ArrayList<>(); // Toys parsed from the chunk, in order
+		private final List<LineError> errors = new ArrayList<>(); // Lines that failed to parse
+		private int lines; // Number of lines in the chunk, including blank ones
+
+		private Chunk(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * Logs the chunk's errors using line numbers of the original file.
+		 *
+		 * @param linesBefore The number of lines preceding this chunk in the file.
+		 */
+		private void reportErrors(long linesBefore) {
+			for (LineError error : errors) {
+				long lineNumber = linesBefore + error.line + 1;
+				if (error.unknownType) {
+					System.out.println("Unknown toy type on line " + lineNumber + ": " + error.text);
+				} else {
+					System.out.println("Error parsing line " + lineNumber + ": " + error.text + " - " + error.message);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A line that could not be turned into a toy, either because its serial
+	 * number prefix matched no toy type or because a field failed to parse.
+	 */
+	private static class LineError {
+		private final int line; // Zero-based line index within the chunk
+		private final String text; // The offending line
+		private final boolean unknownType; // Whether the prefix matched no toy type
+		private final String message; // The parse error, null for an unknown type
+
+		private LineError(int line, String text, boolean unknownType, String message) {
+			this.line = line;
+			this.text = text;
+			this.unknownType = unknownType;
+			this.message = message;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package persistence;
+
+/**
+ * Source of the fields of one toy record, read in the order they were written.
+ * A {@link ToyCodec} pulls its fields through this interface, so the same codec
+ * decodes records from the text data file and from the binary snapshot.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public interface RecordReader {
+
+	/**
+	 * Reads a free-text field, such as a serial number or a name.
+	 *
+	 * @return the field's text.
+	 */
+	String readText();
+
+	/**
+	 * Reads a text field whose values repeat across toys, such as a brand or a
+	 * material. Readers may return a shared canonical instance.
+	 *
+	 * @return the field's text.
+	 */
+	String readAttribute();
+
+	/**
+	 * Reads an integer field.
+	 *
+	 * @return the field's value.
+	 */
+	int readInt();
+
+	/**
+	 * Reads a price field.
+	 *
+	 * @return the price in cents.
+	 */
+	long readCents();
+
+	/**
+	 * Reads a single-character code field.
+	 *
+	 * @return the field's character.
+	 */
+	char readChar();
+
+	/**
+	 * Reads the lower bound of a "low-high" range field. Must be followed by
+	 * {@link #readRangeHigh()}.
+	 *
+	 * @return the lower bound of the range.
+	 */
+	int readRangeLow();
+
+	/**
+	 * Reads the upper bound of the range started by {@link #readRangeLow()}.
+	 *
+	 * @return the upper bound of the range.
+	 */
+	int readRangeHigh();
+
+	/**
+	 * Reads a list of repeating text values, such as designer names.
+	 *
+	 * @return the values in order.
+	 */
+	String[] readList();
+}
@@ -0,0 +1,62 @@
+package persistence;
+
+import java.io.IOException;
+
+/**
+ * Destination for the fields of one toy record. A {@link ToyCodec} writes its
+ * fields through this interface in the same order its decoder reads them.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public interface RecordWriter {
+
+	/**
+	 * Writes a text field.
+	 *
+	 * @param value the text to write.
+	 * @throws IOException if the record cannot be written.
+	 */
+	void writeText(String value) throws IOException;
+
+	/**
+	 * Writes an integer field.
+	 *
+	 * @param value the value to write.
+	 * @throws IOException if the record cannot be written.
+	 */
+	void writeInt(int value) throws IOException;
+
+	/**
+	 * Writes a price field.
+	 *
+	 * @param cents the price in cents.
+	 * @throws IOException if the record cannot be written.
+	 */
+	void writeCents(long cents) throws IOException;
+
+	/**
+	 * Writes a single-character code field.
+	 *
+	 * @param value the character to write.
+	 * @throws IOException if the record cannot be written.
+	 */
+	void writeChar(char value) throws IOException;
+
+	/**
+	 * Writes a "low-high" range field.
+	 *
+	 * @param low  the lower bound.
+	 * @param high the upper bound.
+	 * @throws IOException if the record cannot be written.
+	 */
+	void writeRange(int low, int high) throws IOException;
+
+	/**
+	 * Writes a list of text values.
+	 *
+	 * @param values the values to write.
+	 * @throws IOException if the record cannot be written.
+	 */
+	void writeList(String[] values) throws IOException;
+}
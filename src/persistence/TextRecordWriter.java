@@ -0,0 +1,107 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import model.Toy;
+
+/**
+ * Formats toys as semicolon separated `toys.txt` lines, the same text that
+ * toDataString() produces. Fields are appended to one reusable buffer, so
+ * writing a whole inventory does not build intermediate Strings per field.
+ *
+ * A writer is not thread-safe; each thread that saves records uses its own.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class TextRecordWriter implements RecordWriter {
+
+	private final StringBuilder line = new StringBuilder(128); // The record being formatted
+	private char[] chars = new char[128]; // Reusable copy of the record for Writer output
+	private int fields; // Number of fields written to the current record
+
+	/**
+	 * Formats a toy as a data file line.
+	 *
+	 * @param toy The toy to format.
+	 * @return The toy's record, without a line separator.
+	 */
+	public String format(Toy toy) {
+		try {
+			encode(toy);
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // Appending to a StringBuilder cannot fail
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Writes a toy's record to a character stream, without a line separator.
+	 *
+	 * @param toy The toy to write.
+	 * @param out The stream to write to.
+	 * @throws IOException if the stream cannot be written.
+	 */
+	public void write(Toy toy, Writer out) throws IOException {
+		encode(toy);
+		int length = line.length();
+		if (length > chars.length) {
+			chars = new char[Math.max(length, chars.length * 2)];
+		}
+		line.getChars(0, length, chars, 0);
+		out.write(chars, 0, length);
+	}
+
+	private void encode(Toy toy) throws IOException {
+		line.setLength(0);
+		fields = 0;
+		ToyCodecs.forType(toy.getType()).encode(toy, this);
+	}
+
+	/**
+	 * Starts a new field, separating it from the previous one.
+	 */
+	private StringBuilder field() {
+		if (fields++ > 0) {
+			line.append(';');
+		}
+		return line;
+	}
+
+	@Override
+	public void writeText(String value) {
+		field().append(value);
+	}
+
+	@Override
+	public void writeInt(int value) {
+		field().append(value);
+	}
+
+	@Override
+	public void writeCents(long cents) {
+		field().append(cents / 100.0); // Same text as String.valueOf(getPrice())
+	}
+
+	@Override
+	public void writeChar(char value) {
+		field().append(value);
+	}
+
+	@Override
+	public void writeRange(int low, int high) {
+		field().append(low).append('-').append(high);
+	}
+
+	@Override
+	public void writeList(String[] values) {
+		StringBuilder out = field();
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				out.append(',');
+			}
+			out.append(values[i]);
+		}
+	}
+}
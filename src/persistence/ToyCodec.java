@@ -0,0 +1,104 @@
+package persistence;
+
+import java.io.IOException;
+
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Encoder/decoder pair for one toy type. Every record starts with the fields
+ * shared by all toys (serial number, name, brand, price, available count,
+ * appropriate age); a codec adds the fields of its own type after them.
+ *
+ * Codecs read and write through {@link RecordReader} and {@link RecordWriter},
+ * so one codec serves the text data file, the journal and the binary snapshot.
+ * A new toy type is supported by registering its codec with {@link ToyCodecs}.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public abstract class ToyCodec {
+
+	private final ToyType type; // The toy type this codec handles
+
+	/**
+	 * Creates a codec for one toy type. The codec decodes the records whose
+	 * serial numbers start with one of the type's prefixes.
+	 *
+	 * @param type The toy type the codec handles.
+	 */
+	protected ToyCodec(ToyType type) {
+		this.type = type;
+	}
+
+	/**
+	 * Gets the toy type this codec handles.
+	 *
+	 * @return the toy type.
+	 */
+	public ToyType getType() {
+		return type;
+	}
+
+	/**
+	 * Reads one toy record.
+	 *
+	 * @param in The source of the record's fields.
+	 * @return The decoded toy.
+	 * @throws IllegalArgumentException if a field is invalid for this type.
+	 */
+	public Toy decode(RecordReader in) {
+		String sn = in.readText();
+		String name = in.readText();
+		String brand = in.readAttribute();
+		long priceCents = in.readCents();
+		int availableCount = in.readInt();
+		int ageAppropriate = in.readInt();
+
+		// The price is applied in exact cents once the toy exists
+		Toy toy = decode(sn, name, brand, availableCount, ageAppropriate, in);
+		toy.setPriceCents(priceCents);
+		return toy;
+	}
+
+	/**
+	 * Writes one toy record.
+	 *
+	 * @param toy The toy to write; must be of this codec's type.
+	 * @param out The destination of the record's fields.
+	 * @throws IOException if the record cannot be written.
+	 */
+	public void encode(Toy toy, RecordWriter out) throws IOException {
+		out.writeText(toy.getSn());
+		out.writeText(toy.getName());
+		out.writeText(toy.getBrand());
+		out.writeCents(toy.getPriceCents());
+		out.writeInt(toy.getStockCount()); // Held units are saved as stock
+		out.writeInt(toy.getAgeAppropriate());
+		encodeFields(toy, out);
+	}
+
+	/**
+	 * Reads the type-specific fields and creates the toy. The price is set by
+	 * the caller afterwards, so the toy may be created with a price of zero.
+	 *
+	 * @param sn             The serial number already read.
+	 * @param name           The name already read.
+	 * @param brand          The brand already read.
+	 * @param availableCount The available count already read.
+	 * @param ageAppropriate The appropriate age already read.
+	 * @param in             The source of the remaining fields.
+	 * @return The decoded toy.
+	 */
+	protected abstract Toy decode(String sn, String name, String brand, int availableCount, int ageAppropriate,
+			RecordReader in);
+
+	/**
+	 * Writes the type-specific fields of a toy.
+	 *
+	 * @param toy The toy being written.
+	 * @param out The destination of the fields.
+	 * @throws IOException if the fields cannot be written.
+	 */
+	protected abstract void encodeFields(Toy toy, RecordWriter out) throws IOException;
+}
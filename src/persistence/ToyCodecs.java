@@ -0,0 +1,156 @@
+package persistence;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import model.*;
+
+/**
+ * Registry of toy codecs, looked up by serial number prefix when reading text
+ * records and by toy type when writing. The codecs of the four built-in toy
+ * types are registered when the class loads; further types are added with
+ * {@link #register(ToyCodec)} before any data is loaded.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class ToyCodecs {
+
+	private static final Map<ToyType, ToyCodec> BY_TYPE = new EnumMap<>(ToyType.class); // Codec of each type
+
+	static {
+		register(new FigureCodec());
+		register(new AnimalCodec());
+		register(new PuzzleCodec());
+		register(new BoardGameCodec());
+	}
+
+	private ToyCodecs() {
+	}
+
+	/**
+	 * Registers a codec for its type, and so for the type's serial number
+	 * prefixes, replacing any codec previously registered for it.
+	 *
+	 * @param codec The codec to register.
+	 */
+	public static synchronized void register(ToyCodec codec) {
+		BY_TYPE.put(codec.getType(), codec);
+	}
+
+	/**
+	 * Finds the codec for a serial number prefix. The prefixes of each type are
+	 * those of {@link ToyType#fromSerialPrefix(char)}.
+	 *
+	 * @param prefix The first character of a serial number.
+	 * @return The codec for this prefix, or null if no toy type uses it.
+	 */
+	public static ToyCodec forPrefix(char prefix) {
+		ToyType type = ToyType.fromSerialPrefix(prefix);
+		return type == null ? null : BY_TYPE.get(type);
+	}
+
+	/**
+	 * Finds the codec for a toy type.
+	 *
+	 * @param type The toy type.
+	 * @return The codec registered for this type.
+	 * @throws IllegalArgumentException if no codec is registered for the type.
+	 */
+	public static ToyCodec forType(ToyType type) {
+		ToyCodec codec = BY_TYPE.get(type);
+		if (codec == null) {
+			throw new IllegalArgumentException("No codec registered for toy type " + type.getLabel());
+		}
+		return codec;
+	}
+
+	/**
+	 * Figure records end with the classification code.
+	 */
+	private static class FigureCodec extends ToyCodec {
+		private FigureCodec() {
+			super(ToyType.FIGURE);
+		}
+
+		@Override
+		protected Toy decode(String sn, String name, String brand, int availableCount, int ageAppropriate,
+				RecordReader in) {
+			return new Figures(sn, name, brand, 0, availableCount, ageAppropriate, in.readChar());
+		}
+
+		@Override
+		protected void encodeFields(Toy toy, RecordWriter out) throws IOException {
+			out.writeChar(((Figures) toy).getClassification());
+		}
+	}
+
+	/**
+	 * Animal records end with the material and the size code.
+	 */
+	private static class AnimalCodec extends ToyCodec {
+		private AnimalCodec() {
+			super(ToyType.ANIMAL);
+		}
+
+		@Override
+		protected Toy decode(String sn, String name, String brand, int availableCount, int ageAppropriate,
+				RecordReader in) {
+			return new Animals(sn, name, brand, 0, availableCount, ageAppropriate, in.readAttribute(),
+					in.readChar());
+		}
+
+		@Override
+		protected void encodeFields(Toy toy, RecordWriter out) throws IOException {
+			Animals animal = (Animals) toy;
+			out.writeText(animal.getMaterial());
+			out.writeChar(animal.getSize());
+		}
+	}
+
+	/**
+	 * Puzzle records end with the puzzle type code.
+	 */
+	private static class PuzzleCodec extends ToyCodec {
+		private PuzzleCodec() {
+			super(ToyType.PUZZLE);
+		}
+
+		@Override
+		protected Toy decode(String sn, String name, String brand, int availableCount, int ageAppropriate,
+				RecordReader in) {
+			return new Puzzles(sn, name, brand, 0, availableCount, ageAppropriate, in.readChar());
+		}
+
+		@Override
+		protected void encodeFields(Toy toy, RecordWriter out) throws IOException {
+			out.writeChar(((Puzzles) toy).getPuzzleType());
+		}
+	}
+
+	/**
+	 * Board Game records end with the player range and the designer list.
+	 */
+	private static class BoardGameCodec extends ToyCodec {
+		private BoardGameCodec() {
+			super(ToyType.BOARD_GAME);
+		}
+
+		@Override
+		protected Toy decode(String sn, String name, String brand, int availableCount, int ageAppropriate,
+				RecordReader in) {
+			int minPlayers = in.readRangeLow();
+			int maxPlayers = in.readRangeHigh();
+			return new BoardGames(sn, name, brand, 0, availableCount, ageAppropriate, minPlayers, maxPlayers,
+					in.readList());
+		}
+
+		@Override
+		protected void encodeFields(Toy toy, RecordWriter out) throws IOException {
+			BoardGames game = (BoardGames) toy;
+			out.writeRange(game.getMinPlayers(), game.getMaxPlayers());
+			out.writeList(game.getDesigners());
+		}
+	}
+}
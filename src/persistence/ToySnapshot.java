@@ -0,0 +1,149 @@
+package persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.*;
+
+/**
+ * Compact, versioned binary snapshot of the inventory, written on Save &amp;
+ * Exit and preferred over `toys.txt` at startup when it is newer. The text file
+ * remains the human-editable import/export format.
+ *
+ * <pre>
+ * header:  int magic ("TOYS"), int version, int toy count
+ * toy:     byte type (ToyType ordinal + 1), string sn, string name,
+ *          string brand, long price in cents, int available count,
+ *          int appropriate age, type-specific fields
+ * Figure:  char classification
+ * Animal:  string material, char size
+ * Puzzle:  char puzzle type
+ * Board:   int min players, int max players, int designer count, strings
+ * string:  int byte length followed by UTF-8 bytes
+ * </pre>
+ *
+ * All numbers are fixed width and big-endian, so a snapshot is read straight
+ * into Toy objects without any text parsing. The fields of each record are
+ * written and read by the toy type's {@link ToyCodec}.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class ToySnapshot {
+
+	private static final int MAGIC = 0x544F5953; // "TOYS"
+	private static final int VERSION = 2; // Bumped whenever the record layout changes
+
+	private static final ToyType[] TYPES = ToyType.values(); // Type of each type byte, offset by one
+
+	private final File file; // The snapshot file
+
+	/**
+	 * Creates a snapshot bound to the given file.
+	 *
+	 * @param file The snapshot file to read or write.
+	 */
+	public ToySnapshot(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Checks whether the snapshot exists and was written after the given text
+	 * file, which means it holds the most recent saved inventory.
+	 *
+	 * @param textFile The `toys.txt` file.
+	 * @return true if the snapshot should be loaded instead of the text file.
+	 */
+	public boolean isNewerThan(File textFile) {
+		return file.exists() && (!textFile.exists() || file.lastModified() > textFile.lastModified());
+	}
+
+	/**
+	 * Writes the inventory to the snapshot file. The data goes to a temporary
+	 * file first and is then moved into place, so a crash never leaves a partial
+	 * snapshot behind.
+	 *
+	 * @param toys The toys to save.
+	 * @throws IOException if the snapshot cannot be written.
+	 */
+	public void write(List<Toy> toys) throws IOException {
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+		try (FileOutputStream fileOut = new FileOutputStream(tempFile);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(toys.size());
+
+			BinaryRecordWriter records = new BinaryRecordWriter(out);
+			for (Toy toy : toys) {
+				writeToy(records, out, toy);
+			}
+			out.flush();
+			fileOut.getFD().sync();
+		}
+
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Writes one toy record: the type byte followed by the codec's fields.
+	 */
+	private void writeToy(BinaryRecordWriter out, DataOutputStream stream, Toy toy) throws IOException {
+		stream.writeByte(toy.getType().ordinal() + 1);
+		ToyCodecs.forType(toy.getType()).encode(toy, out);
+	}
+
+	/**
+	 * Reads the inventory from the snapshot file.
+	 *
+	 * @return The toys in saved order.
+	 * @throws IOException if the file cannot be read, or is not a snapshot of the
+	 *                     current version.
+	 */
+	public List<Toy> read() throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (in.remaining() < 12 || in.getInt() != MAGIC) {
+				throw new IOException("Not a toy snapshot: " + file);
+			}
+			int version = in.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported snapshot version " + version + ": " + file);
+			}
+
+			int count = in.getInt();
+			List<Toy> toys = new ArrayList<>(count);
+			BinaryRecordReader records = new BinaryRecordReader(in);
+			for (int i = 0; i < count; i++) {
+				toys.add(readToy(in, records));
+			}
+			return toys;
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt snapshot " + file + ": " + e, e);
+		}
+	}
+
+	/**
+	 * Reads one toy record.
+	 */
+	private Toy readToy(ByteBuffer buffer, BinaryRecordReader in) throws IOException {
+		int type = buffer.get() - 1;
+		if (type < 0 || type >= TYPES.length) {
+			throw new IOException("Unknown toy type " + (type + 1) + " in snapshot " + file);
+		}
+		return ToyCodecs.forType(TYPES[type]).decode(in);
+	}
+}
@@ -0,0 +1,260 @@
+package server;
+
+import java.util.List;
+
+import controller.GiftBundle;
+import controller.LockMetrics;
+import controller.OrderResult;
+import controller.Reservation;
+import model.Animals;
+import model.BoardGames;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+
+/**
+ * Writes toys and simple messages as JSON for the HTTP server. Output is
+ * appended to one StringBuilder per response, so a long search result is
+ * formatted without an intermediate String per toy.
+ *
+ * A toy becomes an object with the fields shared by every toy (serialNumber,
+ * name, brand, price, availableCount, ageAppropriate, type) followed by the
+ * fields of its own type, named after their getters. Prices are written from
+ * whole cents with exactly two decimals, so no floating point rounding shows.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public final class ToyJson {
+
+	private ToyJson() {
+	}
+
+	/**
+	 * Formats one toy as a JSON object.
+	 *
+	 * @param toy The toy to format.
+	 * @return The JSON text.
+	 */
+	public static String toy(Toy toy) {
+		StringBuilder out = new StringBuilder(256);
+		appendToy(out, toy);
+		return out.toString();
+	}
+
+	/**
+	 * Formats a list of toys as a JSON object holding a count and the toys.
+	 *
+	 * @param toys The toys to format, in the order they should appear.
+	 * @return The JSON text.
+	 */
+	public static String toys(List<Toy> toys) {
+		StringBuilder out = new StringBuilder(64 + toys.size() * 192);
+		out.append("{\"count\":").append(toys.size()).append(",\"toys\":[");
+		for (int i = 0; i < toys.size(); i++) {
+			if (i > 0) {
+				out.append(',');
+			}
+			appendToy(out, toys.get(i));
+		}
+		return out.append("]}").toString();
+	}
+
+	/**
+	 * Formats a gift bundle: its total price and its toys, most valuable first.
+	 *
+	 * @param bundle The bundle.
+	 * @return The JSON text.
+	 */
+	public static String bundle(GiftBundle bundle) {
+		List<Toy> toys = bundle.getToys();
+		StringBuilder out = new StringBuilder(64 + toys.size() * 192);
+		out.append("{\"count\":").append(toys.size()).append(",\"total\":");
+		appendCents(out, bundle.getTotalCents());
+		out.append(",\"toys\":[");
+		for (int i = 0; i < toys.size(); i++) {
+			if (i > 0) {
+				out.append(',');
+			}
+			appendToy(out, toys.get(i));
+		}
+		return out.append("]}").toString();
+	}
+
+	/**
+	 * Formats an object with a single string field.
+	 *
+	 * @param name  The field name.
+	 * @param value The field value.
+	 * @return The JSON text.
+	 */
+	public static String field(String name, String value) {
+		StringBuilder out = new StringBuilder(32 + value.length());
+		out.append('{');
+		appendString(out, name);
+		out.append(':');
+		appendString(out, value);
+		return out.append('}').toString();
+	}
+
+	/**
+	 * Formats the result of a batched order: the total of a placed order, or the
+	 * line that caused a rejection and why.
+	 *
+	 * @param result The order result.
+	 * @return The JSON text.
+	 */
+	public static String order(OrderResult result) {
+		StringBuilder out = new StringBuilder(128);
+		if (result.isPlaced()) {
+			out.append("{\"placed\":true,\"total\":");
+			appendCents(out, result.getTotalCents());
+		} else {
+			out.append("{\"placed\":false,\"serialNumber\":");
+			appendString(out, result.getRejectedSn());
+			out.append(",\"error\":");
+			appendString(out, result.getReason());
+		}
+		return out.append('}').toString();
+	}
+
+	/**
+	 * Formats a reservation.
+	 *
+	 * @param reservation The reservation.
+	 * @return The JSON text.
+	 */
+	public static String reservation(Reservation reservation) {
+		StringBuilder out = new StringBuilder(160);
+		out.append("{\"id\":").append(reservation.getId());
+		out.append(",\"serialNumber\":");
+		appendString(out, reservation.getToy().getSn());
+		out.append(",\"quantity\":").append(reservation.getQuantity());
+		out.append(",\"expiresAt\":").append(reservation.getExpiresAt());
+		out.append(",\"state\":");
+		appendString(out, reservation.getState().name());
+		return out.append('}').toString();
+	}
+
+	/**
+	 * Formats the writer lock counters of the inventory, totalled over every
+	 * stripe, with the number of snapshots writers had to make again and the
+	 * version of the current snapshot.
+	 *
+	 * @param locks          The lock counters.
+	 * @param publishRetries The number of snapshots made again.
+	 * @param version        The current snapshot version.
+	 * @return The JSON text.
+	 */
+	public static String metrics(LockMetrics locks, long publishRetries, long version) {
+		StringBuilder out = new StringBuilder(192);
+		out.append("{\"stripes\":").append(locks.getStripeCount());
+		out.append(",\"acquisitions\":").append(locks.getTotalAcquisitions());
+		out.append(",\"contended\":").append(locks.getTotalContended());
+		out.append(",\"waitNanos\":").append(locks.getTotalWaitNanos());
+		out.append(",\"contentionRate\":").append(locks.getContentionRate());
+		out.append(",\"publishRetries\":").append(publishRetries);
+		out.append(",\"version\":").append(version);
+		return out.append('}').toString();
+	}
+
+	/**
+	 * Appends a toy object with its shared and type-specific fields.
+	 */
+	private static void appendToy(StringBuilder out, Toy toy) {
+		out.append("{\"serialNumber\":");
+		appendString(out, toy.getSn());
+		out.append(",\"name\":");
+		appendString(out, toy.getName());
+		out.append(",\"brand\":");
+		appendString(out, toy.getBrand());
+		out.append(",\"price\":");
+		appendCents(out, toy.getPriceCents());
+		out.append(",\"availableCount\":").append(toy.getAvailableCount());
+		out.append(",\"ageAppropriate\":").append(toy.getAgeAppropriate());
+		out.append(",\"type\":");
+		appendString(out, toy.getType().getLabel());
+
+		switch (toy.getType()) {
+		case FIGURE:
+			out.append(",\"classification\":");
+			appendString(out, String.valueOf(((Figures) toy).getClassification()));
+			break;
+		case ANIMAL:
+			Animals animal = (Animals) toy;
+			out.append(",\"material\":");
+			appendString(out, animal.getMaterial());
+			out.append(",\"size\":");
+			appendString(out, String.valueOf(animal.getSize()));
+			break;
+		case PUZZLE:
+			out.append(",\"puzzleType\":");
+			appendString(out, String.valueOf(((Puzzles) toy).getPuzzleType()));
+			break;
+		case BOARD_GAME:
+			BoardGames game = (BoardGames) toy;
+			out.append(",\"minPlayers\":").append(game.getMinPlayers());
+			out.append(",\"maxPlayers\":").append(game.getMaxPlayers());
+			out.append(",\"designers\":[");
+			String[] designers = game.getDesigners();
+			for (int i = 0; i < designers.length; i++) {
+				if (i > 0) {
+					out.append(',');
+				}
+				appendString(out, designers[i]);
+			}
+			out.append(']');
+			break;
+		default:
+			break;
+		}
+		out.append('}');
+	}
+
+	/**
+	 * Appends a price held in whole cents as a number with two decimals.
+	 */
+	private static void appendCents(StringBuilder out, long cents) {
+		if (cents < 0) {
+			out.append('-');
+			cents = -cents;
+		}
+		long fraction = cents % 100;
+		out.append(cents / 100).append('.').append(fraction < 10 ? "0" : "").append(fraction);
+	}
+
+	/**
+	 * Appends a JSON string literal, escaping quotes, backslashes and control
+	 * characters.
+	 */
+	private static void appendString(StringBuilder out, String value) {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				out.append("\\\"");
+				break;
+			case '\\':
+				out.append("\\\\");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.append(String.format("\\u%04x", (int) c));
+				} else {
+					out.append(c);
+				}
+			}
+		}
+		out.append('"');
+	}
+}
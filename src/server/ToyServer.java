@@ -0,0 +1,524 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import controller.GiftBundle;
+import controller.GiftBundler;
+import controller.GiftRanker;
+import controller.GiftWeights;
+import controller.InventoryService;
+import controller.OrderLine;
+import controller.OrderResult;
+import controller.PurchaseResult;
+import controller.Reservation;
+import controller.ReservationBook;
+import model.Toy;
+import model.ToyType;
+import persistence.MappedToyLoader;
+
+/**
+ * Serves the inventory over HTTP with JSON responses, using the JDK's built-in
+ * HttpServer. Every request runs on its own virtual thread when the JVM
+ * provides them (Java 21 and later), so thousands of concurrent requests cost
+ * no more than thousands of small objects; on older JVMs requests run on a
+ * fixed pool of platform threads instead. All state lives in the
+ * {@link InventoryService}, which is safe to call from every request thread.
+ *
+ * Routes:
+ *
+ * <pre>
+ * GET    /toys/{sn}              the toy with this serial number
+ * GET    /toys?name=...          toys whose name contains the text
+ * GET    /toys?type=...          toys of one type (Figure, Animal, Puzzle, BoardGame)
+ * GET    /gifts?age=&amp;maxPrice=&amp;type=  gift suggestions; every parameter is optional
+ * GET    /gifts?...&amp;top=K&amp;brand=&amp;prefer=  the K best suggestions, ranked; brand and
+ *                                preferred type are optional
+ * GET    /bundles?budget=&amp;age=&amp;type=&amp;brand=&amp;prefer=&amp;onePerType=  the most valuable set
+ *                                of toys within the budget; only budget is required
+ * POST   /toys                   adds the toy whose `toys.txt` record is the body
+ * DELETE /toys/{sn}              removes the toy with this serial number
+ * POST   /toys/{sn}/purchase     buys one unit of the toy
+ * POST   /orders                 places a batched order; one "sn;quantity" line per item
+ * POST   /reservations           holds units; the body is "sn;quantity;ttlSeconds"
+ * GET    /reservations/{id}      an open reservation
+ * POST   /reservations/{id}/confirm  sells the held units
+ * DELETE /reservations/{id}      releases the held units
+ * GET    /metrics                writer lock contention and snapshot publishing
+ * </pre>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+public class ToyServer {
+
+	public static final int DEFAULT_PORT = 8080; // Port used when none is given
+	private static final int BACKLOG = 4096; // Connections queued while the dispatcher is busy
+	private static final int FALLBACK_THREADS = 256; // Pool size when virtual threads are unavailable
+
+	static {
+		// Without TCP_NODELAY the separate header and body writes of a response
+		// wait on the client's delayed ACK, adding ~40 ms to most requests
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	private final InventoryService service; // The inventory being served
+	private final HttpServer server; // The JDK HTTP server
+	private final ExecutorService executor; // Runs each request
+	private final ReservationBook reservations; // Cart holds made through the server
+
+	/**
+	 * Creates a server for an inventory, bound to a port on all interfaces. The
+	 * server does not accept requests until {@link #start()} is called.
+	 *
+	 * @param service The loaded inventory to serve.
+	 * @param port    The port to listen on, or 0 to pick a free port.
+	 * @throws IOException if the port cannot be bound.
+	 */
+	public ToyServer(InventoryService service, int port) throws IOException {
+		this.service = service;
+		this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+		this.executor = newRequestExecutor();
+		this.reservations = new ReservationBook(service);
+
+		server.createContext("/toys", this::handleToys);
+		server.createContext("/gifts", this::handleGifts);
+		server.createContext("/orders", this::handleOrders);
+		server.createContext("/reservations", this::handleReservations);
+		server.createContext("/bundles", this::handleBundles);
+		server.createContext("/metrics", this::handleMetrics);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Creates a virtual-thread-per-request executor when the JVM supports it. The
+	 * method is looked up reflectively so the code still runs on Java 11.
+	 */
+	private static ExecutorService newRequestExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger count = new AtomicInteger();
+			ThreadFactory threads = task -> {
+				Thread thread = new Thread(task, "toy-server-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			};
+			return Executors.newFixedThreadPool(FALLBACK_THREADS, threads);
+		}
+	}
+
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Gets the port the server is bound to, which is useful when it was created
+	 * with port 0.
+	 *
+	 * @return the bound port.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops accepting requests, lets requests in progress finish for up to the
+	 * given delay, and releases the request threads and any open reservations.
+	 * The inventory service is left open.
+	 *
+	 * @param delaySeconds The longest time to wait for requests in progress.
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.shutdown();
+		reservations.close();
+	}
+
+	/**
+	 * Handles everything under `/toys`.
+	 */
+	private void handleToys(HttpExchange exchange) throws IOException {
+		try {
+			String path = exchange.getRequestURI().getPath();
+			String method = exchange.getRequestMethod();
+			String[] parts = path.substring(1).split("/");
+
+			if (!"toys".equals(parts[0])) {
+				sendError(exchange, 404, "No such resource: " + path);
+			} else if (parts.length == 1) {
+				if ("GET".equals(method)) {
+					searchToys(exchange);
+				} else if ("POST".equals(method)) {
+					addToy(exchange);
+				} else {
+					sendNotAllowed(exchange, "GET, POST");
+				}
+			} else if (parts.length == 2) {
+				if ("GET".equals(method)) {
+					findToy(exchange, parts[1]);
+				} else if ("DELETE".equals(method)) {
+					removeToy(exchange, parts[1]);
+				} else {
+					sendNotAllowed(exchange, "GET, DELETE");
+				}
+			} else if (parts.length == 3 && "purchase".equals(parts[2])) {
+				if ("POST".equals(method)) {
+					purchase(exchange, parts[1]);
+				} else {
+					sendNotAllowed(exchange, "POST");
+				}
+			} else {
+				sendError(exchange, 404, "No such resource: " + path);
+			}
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendError(exchange, 500, "Internal error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles `GET /gifts`.
+	 */
+	private void handleGifts(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				sendNotAllowed(exchange, "GET");
+				return;
+			}
+
+			Map<String, String> query = parseQuery(exchange.getRequestURI());
+			String age = query.get("age");
+			String maxPrice = query.get("maxPrice");
+			String type = query.get("type");
+			String top = query.get("top");
+			Integer minAge = age == null ? null : Integer.valueOf(age);
+			Double budget = maxPrice == null ? null : Double.valueOf(maxPrice);
+			ToyType toyType = type == null ? null : parseType(type);
+			List<Toy> gifts;
+			if (top == null) {
+				gifts = service.suggestGifts(minAge, budget, toyType);
+			} else {
+				String prefer = query.get("prefer");
+				GiftRanker ranker = new GiftRanker(Integer.parseInt(top), GiftWeights.DEFAULT, query.get("brand"),
+						prefer == null ? null : parseType(prefer));
+				gifts = service.rankGifts(minAge, budget, toyType, ranker);
+			}
+			send(exchange, 200, ToyJson.toys(gifts));
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendError(exchange, 500, "Internal error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles `GET /bundles`.
+	 */
+	private void handleBundles(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				sendNotAllowed(exchange, "GET");
+				return;
+			}
+
+			Map<String, String> query = parseQuery(exchange.getRequestURI());
+			String budget = query.get("budget");
+			if (budget == null) {
+				throw new IllegalArgumentException("A bundle needs a budget, e.g. /bundles?budget=100");
+			}
+			String age = query.get("age");
+			String type = query.get("type");
+			String prefer = query.get("prefer");
+			GiftBundler bundler = new GiftBundler(GiftWeights.DEFAULT, query.get("brand"),
+					prefer == null ? null : parseType(prefer), Boolean.parseBoolean(query.get("onePerType")));
+			GiftBundle bundle = service.bundleGifts(age == null ? null : Integer.valueOf(age),
+					Double.parseDouble(budget), type == null ? null : parseType(type), bundler);
+			send(exchange, 200, ToyJson.bundle(bundle));
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendError(exchange, 500, "Internal error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles `POST /orders`. The body holds one `sn;quantity` line per item;
+	 * the order is placed in full or not at all, and a rejection responds 409.
+	 */
+	private void handleOrders(HttpExchange exchange) throws IOException {
+		try {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				sendNotAllowed(exchange, "POST");
+				return;
+			}
+
+			String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+			List<OrderLine> lines = new ArrayList<>();
+			for (String line : body.split("\n")) {
+				line = line.trim();
+				if (line.isEmpty()) {
+					continue;
+				}
+				int separator = line.indexOf(';');
+				if (separator < 0) {
+					throw new IllegalArgumentException("Order lines are sn;quantity, got: " + line);
+				}
+				lines.add(new OrderLine(line.substring(0, separator).trim(),
+						Integer.parseInt(line.substring(separator + 1).trim())));
+			}
+			if (lines.isEmpty()) {
+				throw new IllegalArgumentException("The order has no lines.");
+			}
+
+			OrderResult result = service.placeOrder(lines);
+			send(exchange, result.isPlaced() ? 200 : 409, ToyJson.order(result));
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendError(exchange, 500, "Internal error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles everything under `/reservations`.
+	 */
+	private void handleReservations(HttpExchange exchange) throws IOException {
+		try {
+			String path = exchange.getRequestURI().getPath();
+			String method = exchange.getRequestMethod();
+			String[] parts = path.substring(1).split("/");
+
+			if (!"reservations".equals(parts[0])) {
+				sendError(exchange, 404, "No such resource: " + path);
+			} else if (parts.length == 1) {
+				if ("POST".equals(method)) {
+					reserve(exchange);
+				} else {
+					sendNotAllowed(exchange, "POST");
+				}
+			} else if (parts.length == 2) {
+				long id = Long.parseLong(parts[1]);
+				if ("GET".equals(method)) {
+					Reservation reservation = reservations.get(id);
+					if (reservation == null) {
+						sendError(exchange, 404, "No open reservation " + id);
+					} else {
+						send(exchange, 200, ToyJson.reservation(reservation));
+					}
+				} else if ("DELETE".equals(method)) {
+					if (reservations.release(id)) {
+						send(exchange, 200, ToyJson.field("result", Reservation.State.RELEASED.name()));
+					} else {
+						sendError(exchange, 404, "No open reservation " + id);
+					}
+				} else {
+					sendNotAllowed(exchange, "GET, DELETE");
+				}
+			} else if (parts.length == 3 && "confirm".equals(parts[2])) {
+				if (!"POST".equals(method)) {
+					sendNotAllowed(exchange, "POST");
+				} else if (reservations.confirm(Long.parseLong(parts[1]))) {
+					send(exchange, 200, ToyJson.field("result", Reservation.State.CONFIRMED.name()));
+				} else {
+					sendError(exchange, 409, "Reservation " + parts[1] + " has ended");
+				}
+			} else {
+				sendError(exchange, 404, "No such resource: " + path);
+			}
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendError(exchange, 500, "Internal error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles `GET /metrics`.
+	 */
+	private void handleMetrics(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				sendNotAllowed(exchange, "GET");
+				return;
+			}
+			send(exchange, 200, ToyJson.metrics(service.getLockMetrics(), service.getPublishRetries(),
+					service.snapshot().getVersion()));
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendError(exchange, 500, "Internal error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles `POST /reservations`, whose body is `sn;quantity;ttlSeconds`.
+	 */
+	private void reserve(HttpExchange exchange) throws IOException {
+		String[] fields = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).trim()
+				.split(";");
+		if (fields.length != 3) {
+			throw new IllegalArgumentException("A reservation is sn;quantity;ttlSeconds");
+		}
+
+		String sn = fields[0].trim();
+		if (service.findBySerialNumber(sn) == null) {
+			sendError(exchange, 404, "No toy with serial number " + sn);
+			return;
+		}
+		Reservation reservation = reservations.reserve(sn, Integer.parseInt(fields[1].trim()),
+				Long.parseLong(fields[2].trim()) * 1000);
+		if (reservation == null) {
+			sendError(exchange, 409, "Not enough units of " + sn + " available");
+		} else {
+			send(exchange, 201, ToyJson.reservation(reservation));
+		}
+	}
+
+	/**
+	 * Handles `GET /toys?name=...` and `GET /toys?type=...`.
+	 */
+	private void searchToys(HttpExchange exchange) throws IOException {
+		Map<String, String> query = parseQuery(exchange.getRequestURI());
+		if (query.containsKey("name")) {
+			send(exchange, 200, ToyJson.toys(service.searchByName(query.get("name"))));
+		} else if (query.containsKey("type")) {
+			send(exchange, 200, ToyJson.toys(service.searchByType(parseType(query.get("type")))));
+		} else {
+			sendError(exchange, 400, "Search by name or type, e.g. /toys?name=bear");
+		}
+	}
+
+	/**
+	 * Handles `GET /toys/{sn}`.
+	 */
+	private void findToy(HttpExchange exchange, String sn) throws IOException {
+		Toy toy = service.findBySerialNumber(sn);
+		if (toy == null) {
+			sendError(exchange, 404, "No toy with serial number " + sn);
+		} else {
+			send(exchange, 200, ToyJson.toy(toy));
+		}
+	}
+
+	/**
+	 * Handles `POST /toys`, whose body is a record in the `toys.txt` format.
+	 */
+	private void addToy(HttpExchange exchange) throws IOException {
+		String record = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).trim();
+		// Parsers reuse their buffers, so each request uses its own
+		Toy toy = new MappedToyLoader().parseRecord(record);
+		if (service.addToy(toy)) {
+			send(exchange, 201, ToyJson.toy(toy));
+		} else {
+			sendError(exchange, 409, "Serial number " + toy.getSn() + " is already in use");
+		}
+	}
+
+	/**
+	 * Handles `DELETE /toys/{sn}`.
+	 */
+	private void removeToy(HttpExchange exchange, String sn) throws IOException {
+		Toy toy = service.removeToy(sn);
+		if (toy == null) {
+			sendError(exchange, 404, "No toy with serial number " + sn);
+		} else {
+			send(exchange, 200, ToyJson.toy(toy));
+		}
+	}
+
+	/**
+	 * Handles `POST /toys/{sn}/purchase`. Responds 409 when the toy sold out
+	 * before this purchase could take a unit.
+	 */
+	private void purchase(HttpExchange exchange, String sn) throws IOException {
+		Toy toy = service.findBySerialNumber(sn);
+		if (toy == null) {
+			sendError(exchange, 404, "No toy with serial number " + sn);
+			return;
+		}
+
+		PurchaseResult result = service.purchase(toy);
+		send(exchange, result.isSold() ? 200 : 409, ToyJson.field("result", result.name()));
+	}
+
+	/**
+	 * Looks up a toy type by its label.
+	 */
+	private static ToyType parseType(String label) {
+		ToyType type = ToyType.fromLabel(label);
+		if (type == null) {
+			throw new IllegalArgumentException("Unknown toy type: " + label);
+		}
+		return type;
+	}
+
+	/**
+	 * Decodes the query string of a request URI into a map of parameters.
+	 */
+	private static Map<String, String> parseQuery(URI uri) {
+		Map<String, String> params = new HashMap<>();
+		String query = uri.getRawQuery();
+		if (query == null || query.isEmpty()) {
+			return params;
+		}
+
+		for (String pair : query.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = equals < 0 ? pair : pair.substring(0, equals);
+			String value = equals < 0 ? "" : pair.substring(equals + 1);
+			params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return params;
+	}
+
+	/**
+	 * Responds 405 with the methods the resource allows.
+	 */
+	private static void sendNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+		exchange.getResponseHeaders().set("Allow", allowed);
+		sendError(exchange, 405, "Method not allowed");
+	}
+
+	/**
+	 * Responds with a JSON error object.
+	 */
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		send(exchange, status, ToyJson.field("error", message == null ? "" : message));
+	}
+
+	/**
+	 * Sends a JSON response with a known length and closes the exchange.
+	 */
+	private static void send(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
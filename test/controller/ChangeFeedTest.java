@@ -0,0 +1,255 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import model.Figures;
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ChangeFeed} class.
+ *
+ * This class tests that subscribers receive changes in sequence order with
+ * their batch boundaries, can start from a past sequence, and are told which
+ * changes they missed when producers overwrite the ring ahead of them, also
+ * with several producers publishing at once.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ChangeFeedTest {
+
+	private static final long TIMEOUT_MILLIS = 10_000; // Longest wait for a subscriber to catch up
+
+	private final Toy toy = new Figures("1000000001", "Action Bear", "Hasbro", 19.99, 5, 6, 'A');
+
+	@Test
+	void testDeliversInOrder() throws InterruptedException {
+		ChangeFeed feed = new ChangeFeed(1024);
+		Recorder recorder = new Recorder();
+		try (ChangeFeed.Subscription subscription = feed.subscribe(feed.getCursor(), recorder)) {
+			for (int i = 0; i < 500; i++) {
+				feed.publish(i % 2 == 0 ? ChangeType.STOCK : ChangeType.PRICE, toy);
+			}
+			recorder.awaitNext(500);
+			assertEquals(500, subscription.getNextSequence(), "The subscription should resume after the last change.");
+		}
+
+		assertEquals(500, recorder.sequences.size(), "Every change should be delivered.");
+		for (int i = 0; i < 500; i++) {
+			assertEquals(i, (long) recorder.sequences.get(i), "Changes should arrive in sequence order.");
+			assertEquals(i % 2 == 0 ? ChangeType.STOCK : ChangeType.PRICE, recorder.types.get(i),
+					"Each change should keep its type.");
+		}
+		assertTrue(recorder.ends.get(499), "The last change delivered should end a batch.");
+		assertEquals(toy.getSerial(), recorder.serial, "The toy's serial number should be captured.");
+	}
+
+	@Test
+	void testBatchEndFlags() throws InterruptedException {
+		ChangeFeed feed = new ChangeFeed(4096);
+		for (int i = 0; i < 3000; i++) {
+			feed.publish(ChangeType.STOCK, toy);
+		}
+		Recorder recorder = new Recorder();
+		try (ChangeFeed.Subscription subscription = feed.subscribe(0, recorder)) {
+			recorder.awaitNext(3000);
+			assertEquals(3000, subscription.getNextSequence(), "The subscription should resume after the last change.");
+		}
+
+		// Everything was published before subscribing, so batches are cut only by their length
+		for (int i = 0; i < 3000; i++) {
+			boolean expected = i == 1023 || i == 2047 || i == 2999;
+			assertEquals(expected, recorder.ends.get(i), "Wrong end of batch flag at sequence " + i);
+		}
+	}
+
+	@Test
+	void testSubscribeFromPastSequence() throws InterruptedException {
+		ChangeFeed feed = new ChangeFeed(64);
+		for (int i = 0; i < 10; i++) {
+			feed.publish(ChangeType.STOCK, toy);
+		}
+
+		Recorder past = new Recorder();
+		Recorder live = new Recorder();
+		try (ChangeFeed.Subscription fromPast = feed.subscribe(5, past);
+				ChangeFeed.Subscription fromNow = feed.subscribe(feed.getCursor(), live)) {
+			feed.publish(ChangeType.REMOVED, toy);
+			past.awaitNext(11);
+			live.awaitNext(11);
+			assertEquals(fromPast.getNextSequence(), fromNow.getNextSequence(), "Both should resume at the cursor.");
+		}
+
+		assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L), past.sequences, "Delivery should start at the sequence given.");
+		assertEquals(List.of(10L), live.sequences, "Subscribing at the cursor should deliver only new changes.");
+		assertEquals(ChangeType.REMOVED, live.types.get(0), "The new change should be delivered.");
+		assertTrue(past.missed.isEmpty(), "Nothing held in the ring should be reported missed.");
+	}
+
+	@Test
+	void testOverrunReportsMissed() throws InterruptedException {
+		ChangeFeed feed = new ChangeFeed(16);
+		for (int i = 0; i < 40; i++) {
+			feed.publish(ChangeType.STOCK, toy);
+		}
+
+		Recorder recorder = new Recorder();
+		try (ChangeFeed.Subscription subscription = feed.subscribe(0, recorder)) {
+			recorder.awaitNext(40);
+			assertEquals(40, subscription.getNextSequence(), "The subscription should resume after the last change.");
+		}
+
+		assertEquals(1, recorder.missed.size(), "One gap should be reported.");
+		assertArrayEquals(new long[] { 0, 24 }, recorder.missed.get(0), "Changes 0 to 23 were overwritten.");
+		assertEquals(24L, (long) recorder.sequences.get(0), "Delivery should resume at the oldest change held.");
+		assertEquals(16, recorder.sequences.size(), "Every change still held should be delivered.");
+	}
+
+	@Test
+	void testSlowSubscriberOverrunWhileReading() throws InterruptedException {
+		ChangeFeed feed = new ChangeFeed(16);
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		Recorder recorder = new Recorder() {
+			@Override
+			public void onChange(ChangeEvent event, boolean endOfBatch) {
+				super.onChange(event, endOfBatch);
+				if (event.getSequence() == 0) {
+					blocked.countDown();
+					await(resume);
+				}
+			}
+		};
+
+		try (ChangeFeed.Subscription subscription = feed.subscribe(0, recorder)) {
+			feed.publish(ChangeType.STOCK, toy);
+			feed.publish(ChangeType.STOCK, toy);
+			await(blocked);
+			for (int i = 0; i < 100; i++) {
+				feed.publish(ChangeType.STOCK, toy); // Overwrites the batch being read
+			}
+			resume.countDown();
+			recorder.awaitNext(102);
+			assertEquals(102, subscription.getNextSequence(), "The subscription should resume after the last change.");
+		}
+
+		recorder.assertCovers(102);
+		assertFalse(recorder.missed.isEmpty(), "The overwritten changes should be reported.");
+	}
+
+	@Test
+	void testConcurrentProducers() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 20_000;
+		ChangeFeed feed = new ChangeFeed(1 << 17);
+		Recorder recorder = new Recorder();
+		try (ChangeFeed.Subscription subscription = feed.subscribe(0, recorder)) {
+			List<Thread> threads = new ArrayList<>();
+			for (int p = 0; p < producers; p++) {
+				Thread thread = new Thread(() -> {
+					for (int i = 0; i < perProducer; i++) {
+						feed.publish(ChangeType.STOCK, toy);
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			recorder.awaitNext(producers * perProducer);
+			assertEquals(producers * perProducer, subscription.getNextSequence(), "The subscription should resume after the last change.");
+		}
+
+		assertTrue(recorder.missed.isEmpty(), "A ring larger than every change should not be overrun.");
+		recorder.assertCovers(producers * perProducer);
+	}
+
+	@Test
+	void testCapacityMustBePowerOfTwo() {
+		assertThrows(IllegalArgumentException.class, () -> new ChangeFeed(100), "100 is not a power of two.");
+		assertEquals(128, new ChangeFeed(128).getCapacity(), "The capacity should be kept.");
+	}
+
+	/**
+	 * Waits on a latch, failing the test if it takes too long.
+	 */
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "Timed out waiting.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			fail("Interrupted while waiting.");
+		}
+	}
+
+	/**
+	 * Listener that records everything it receives. Only the subscription thread
+	 * writes to it; the test reads it after the subscription has caught up.
+	 */
+	private static class Recorder implements ChangeListener {
+		private final List<Long> sequences = new ArrayList<>();
+		private final List<ChangeType> types = new ArrayList<>();
+		private final List<Boolean> ends = new ArrayList<>();
+		private final List<long[]> missed = new ArrayList<>();
+		private long serial;
+		private volatile long seen; // One past the last sequence delivered or missed
+
+		@Override
+		public void onChange(ChangeEvent event, boolean endOfBatch) {
+			sequences.add(event.getSequence());
+			types.add(event.getType());
+			ends.add(endOfBatch);
+			serial = event.getSerial();
+			seen = event.getSequence() + 1;
+		}
+
+		@Override
+		public void onMissed(long fromSequence, long toSequence) {
+			missed.add(new long[] { fromSequence, toSequence });
+			seen = toSequence;
+		}
+
+		/**
+		 * Waits until every sequence before the given one has been delivered or
+		 * reported missed. Reading the volatile field makes the recorded lists
+		 * visible to the test thread.
+		 */
+		void awaitNext(long next) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+			while (seen < next) {
+				assertTrue(System.currentTimeMillis() < deadline, "The subscriber did not catch up.");
+				Thread.sleep(1);
+			}
+		}
+
+		/**
+		 * Checks that every sequence below the given one was delivered once or
+		 * reported missed once, in order.
+		 */
+		void assertCovers(long total) {
+			long expected = 0;
+			int delivered = 0;
+			int gap = 0;
+			while (expected < total) {
+				if (gap < missed.size() && missed.get(gap)[0] == expected) {
+					assertTrue(missed.get(gap)[1] > expected, "A missed range should not be empty.");
+					expected = missed.get(gap++)[1];
+				} else {
+					assertTrue(delivered < sequences.size(), "Sequence " + expected + " was neither delivered nor missed.");
+					assertEquals(expected, (long) sequences.get(delivered++), "Sequences should follow on.");
+					expected++;
+				}
+			}
+			assertEquals(sequences.size(), delivered, "Nothing should be delivered twice.");
+			assertEquals(missed.size(), gap, "Every missed range should follow on.");
+		}
+	}
+}
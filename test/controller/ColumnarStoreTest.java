@@ -0,0 +1,195 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Animals;
+import model.BoardGames;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+import model.ToyType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ColumnarStore} class.
+ *
+ * This class tests that snapshots scanning the columnar store give the same
+ * type searches and gift suggestions as snapshots using the indexes, through
+ * random additions, removals, price changes and rebuilds, that filters list
+ * matches cheapest first with ties in inventory order, and that the store
+ * keeps each row's attributes in its own name dictionary.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ColumnarStoreTest {
+
+	@Test
+	void testRowsKeepAttributes() {
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			toys.add(toy(new Random(i), i));
+		}
+		ColumnarStore store = ColumnarStore.of(toys.subList(0, 300));
+		for (Toy toy : toys.subList(300, 600)) {
+			store = store.with(toy); // Crosses chunk boundaries at 512
+		}
+
+		assertEquals(600, store.size(), "Every toy should have a row.");
+		for (int row = 0; row < toys.size(); row++) {
+			Toy toy = toys.get(row);
+			assertEquals(toy.getName(), store.getName(row), "Row " + row + " should keep its name.");
+			assertEquals(toy.getBrand(), store.getBrand(row), "Row " + row + " should keep its brand.");
+			assertEquals(toy.getPriceCents(), store.getPriceCents(row), "Row " + row + " should keep its price.");
+		}
+
+		ColumnarStore repriced = store.withPrice(256, 1);
+		assertEquals(1, repriced.getPriceCents(256), "The new price should be stored.");
+		assertEquals(toys.get(256).getPriceCents(), store.getPriceCents(256), "The old store should be unchanged.");
+	}
+
+	@Test
+	void testFilterSortsStablyByPrice() {
+		Random random = new Random(7);
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			Toy toy = toy(random, i);
+			toy.setPriceCents(100 * (1 + random.nextInt(20))); // Few prices, so ties are common
+			toys.add(toy);
+		}
+		ColumnarStore store = ColumnarStore.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys);
+
+		for (int round = 0; round < 20; round++) {
+			Integer minAge = random.nextBoolean() ? null : random.nextInt(12);
+			Long maxPriceCents = random.nextBoolean() ? null : 100L * random.nextInt(21);
+			ToyType type = random.nextBoolean() ? null : ToyType.values()[random.nextInt(ToyType.values().length)];
+			List<Toy> expected = new ArrayList<>();
+			for (Toy toy : toys) {
+				if ((minAge == null || toy.getAgeAppropriate() >= minAge)
+						&& (maxPriceCents == null || toy.getPriceCents() <= maxPriceCents)
+						&& (type == null || toy.getType() == type)) {
+					expected.add(toy);
+				}
+			}
+			expected.sort(Comparator.comparingLong(Toy::getPriceCents)); // List.sort is stable
+			assertEquals(expected, store.filter(minAge, maxPriceCents, type, rows),
+					"Round " + round + " should list matches cheapest first, ties in inventory order.");
+		}
+	}
+
+	@Test
+	void testStoresKeepTheirOwnNames() {
+		Random random = new Random(3);
+		List<Toy> toys = List.of(toy(random, 1), toy(random, 2), toy(random, 3), toy(random, 4));
+		ColumnarStore first = ColumnarStore.of(toys.subList(0, 2));
+		ColumnarStore rebuilt = ColumnarStore.of(toys.subList(2, 3));
+		ColumnarStore grown = ColumnarStore.EMPTY.with(toys.get(3));
+
+		assertEquals(toys.get(0).getName(), first.getName(0), "The first store should keep its names.");
+		assertEquals(toys.get(1).getName(), first.getName(1), "The first store should keep its names.");
+		assertEquals(toys.get(2).getName(), rebuilt.getName(0), "A rebuilt store should decode its own names.");
+		assertEquals(toys.get(3).getName(), grown.getName(0), "A store grown from empty should decode its names.");
+		assertEquals(0, ColumnarStore.EMPTY.size(), "The empty store should stay empty.");
+	}
+
+	@Test
+	void testScansMatchIndexes() {
+		Random random = new Random(21);
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 1500; i++) {
+			toys.add(toy(random, i));
+		}
+		InventorySnapshot indexed = InventorySnapshot.of(1, toys, false);
+		InventorySnapshot columnar = InventorySnapshot.of(1, toys, true);
+		List<Toy> live = new ArrayList<>(toys);
+		int next = toys.size();
+
+		for (int step = 0; step < 4000; step++) {
+			int action = random.nextInt(10);
+			if (action < 3) {
+				Toy toy = toy(random, next++);
+				indexed = indexed.withToy(toy);
+				columnar = columnar.withToy(toy);
+				live.add(toy);
+			} else if (action < 7 && !live.isEmpty()) {
+				// Remove more than is added so the snapshots get rebuilt
+				Toy toy = live.remove(random.nextInt(live.size()));
+				indexed = indexed.withoutToy(toy);
+				columnar = columnar.withoutToy(toy);
+			} else if (!live.isEmpty()) {
+				Toy toy = live.get(random.nextInt(live.size()));
+				long oldPrice = toy.getPriceCents();
+				toy.setPriceCents(100 + random.nextInt(5000));
+				indexed = indexed.withPrice(toy, oldPrice);
+				columnar = columnar.withPrice(toy, oldPrice);
+			}
+			if (step % 100 == 0) {
+				assertSameResults(indexed, columnar, random);
+			}
+		}
+		assertSameResults(indexed, columnar, random);
+	}
+
+	/**
+	 * Checks a few random queries against both snapshots.
+	 */
+	private static void assertSameResults(InventorySnapshot indexed, InventorySnapshot columnar, Random random) {
+		assertEquals(indexed.getToys(), columnar.getToys(), "Both snapshots should hold the same toys.");
+		for (ToyType type : ToyType.values()) {
+			assertEquals(indexed.searchByType(type), columnar.searchByType(type), "Type searches should match.");
+		}
+		for (int i = 0; i < 5; i++) {
+			Integer minAge = random.nextBoolean() ? null : random.nextInt(12);
+			Double maxPrice = random.nextBoolean() ? null : random.nextInt(60) + 0.5;
+			ToyType type = random.nextBoolean() ? null : ToyType.values()[random.nextInt(ToyType.values().length)];
+			List<Toy> expected = indexed.suggestGifts(minAge, maxPrice, type);
+			List<Toy> actual = columnar.suggestGifts(minAge, maxPrice, type);
+			// Toys at equal prices may come out in either order
+			assertEquals(sorted(expected), sorted(actual), "Gift suggestions should match.");
+			for (int j = 1; j < actual.size(); j++) {
+				assertTrue(actual.get(j - 1).getPriceCents() <= actual.get(j).getPriceCents(),
+						"Suggestions should be cheapest first.");
+			}
+		}
+	}
+
+	private static List<Toy> sorted(List<Toy> toys) {
+		List<Toy> sorted = new ArrayList<>(toys);
+		sorted.sort(Comparator.comparingLong(Toy::getSerial));
+		return sorted;
+	}
+
+	/**
+	 * Creates a toy of a random type, age and price, with a serial number made
+	 * from its number and a few units out of stock.
+	 */
+	private static Toy toy(Random random, int number) {
+		String digits = String.format("%09d", number);
+		int age = random.nextInt(12);
+		int count = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(5);
+		Toy toy;
+		switch (random.nextInt(4)) {
+		case 0:
+			toy = new Figures("1" + digits, "Figure " + number, "Hasbro", 0, count, age, 'A');
+			break;
+		case 1:
+			toy = new Animals("2" + digits, "Animal " + number, "Mattel", 0, count, age, "Plush", 'M');
+			break;
+		case 2:
+			toy = new Puzzles("4" + digits, "Puzzle " + number, "Ravensburger", 0, count, age, 'T');
+			break;
+		default:
+			toy = new BoardGames("7" + digits, "Game " + number, "Hasbro", 0, count, age, 2, 4, "Ann");
+			break;
+		}
+		toy.setPriceCents(100 + random.nextInt(5000));
+		return toy;
+	}
+}
@@ -0,0 +1,272 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import model.Animals;
+import model.BoardGames;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+import model.ToyType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GiftBundler} class.
+ *
+ * This class compares the bundler's bundles against the best bundle found by
+ * trying every subset of small random catalogs, and by an exact knapsack over
+ * every toy of catalogs with far more toys of a type than the 32 most valuable
+ * and 32 best value ones, including budgets that need more toys of a type
+ * than that or a toy priced between them.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class GiftBundlerTest {
+
+	private static final String[] BRANDS = { "Hasbro", "Mattel", "Lego" };
+	private static final double EPSILON = 1e-9; // Allowed rounding in summed values
+
+	@Test
+	void testSmallCatalogsMatchBruteForce() {
+		Random random = new Random(25);
+		for (int round = 0; round < 300; round++) {
+			List<Toy> toys = new ArrayList<>();
+			int size = 1 + random.nextInt(12);
+			for (int i = 0; i < size; i++) {
+				toys.add(toy(random, i, 50 + random.nextInt(1500), random.nextInt(6)));
+			}
+			checkRandomRequest(random, toys, true, "round " + round);
+		}
+	}
+
+	@Test
+	void testLargeGroupsMatchExactKnapsack() {
+		Random random = new Random(64);
+		for (int round = 0; round < 20; round++) {
+			// Mostly one or two types, so each has far more toys than the candidate heaps hold
+			List<Toy> toys = new ArrayList<>();
+			int size = 150 + random.nextInt(150);
+			for (int i = 0; i < size; i++) {
+				toys.add(toy(random, i, 20 + random.nextInt(400), random.nextInt(40)));
+			}
+			checkRandomRequest(random, toys, false, "round " + round);
+		}
+	}
+
+	@Test
+	void testManyEqualPricesFillTheBudget() {
+		// 100 figures at one price, worth more the more are in stock
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Toy toy = new Figures(String.format("1%09d", i), "Figure " + i, "Hasbro", 0, 1 + i, 6, 'A');
+			toy.setPriceCents(100);
+			toys.add(toy);
+		}
+		GiftBundler bundler = new GiftBundler(GiftWeights.DEFAULT, null, null, false);
+		GiftBundle bundle = bundler.bundle(GiftIndex.of(toys), PersistentVector.of(toys), null, 5000, null);
+		assertEquals(50, bundle.getToys().size(), "The budget buys fifty figures.");
+		assertEquals(toys.subList(50, 100), sortedBySerial(bundle.getToys()), "The fifty best stocked should be chosen.");
+		checkAgainstOptimum(toys, bundler, new GiftRanker(1, GiftWeights.DEFAULT, null, null), null, 5000, null,
+				false, false, "equal prices");
+	}
+
+	@Test
+	void testOnePerTypePicksBestAffordableToy() {
+		// Figures rise in value with price while their value per cent falls, so
+		// the best figure left after the preferred animal is neither among the
+		// most valuable figures nor among the best value ones
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			Toy toy = new Figures(String.format("1%09d", i), "Figure " + i, "Hasbro", 0, 1 + i, 6, 'A');
+			toy.setPriceCents(100 + 5 * i);
+			toys.add(toy);
+		}
+		Toy animal = new Animals("2000000001", "Teddy Bear", "Mattel", 0, 5, 3, "Plush", 'M');
+		animal.setPriceCents(1000);
+		toys.add(animal);
+
+		GiftBundler bundler = new GiftBundler(GiftWeights.DEFAULT, null, ToyType.ANIMAL, true);
+		GiftBundle bundle = bundler.bundle(GiftIndex.of(toys), PersistentVector.of(toys), null, 1600, null);
+		assertEquals(List.of(animal, toys.get(100)), bundle.getToys(),
+				"The animal and the dearest figure within what is left should be chosen.");
+		checkAgainstOptimum(toys, bundler, new GiftRanker(1, GiftWeights.DEFAULT, null, ToyType.ANIMAL), null, 1600,
+				null, true, false, "one per type");
+
+		// Every figure is kept, so the dearest is far down a long group
+		GiftBundle figure = bundler.bundle(GiftIndex.of(toys), PersistentVector.of(toys), null, 1095, ToyType.FIGURE);
+		assertEquals(List.of(toys.get(199)), figure.getToys(), "The dearest figure should be traced back.");
+	}
+
+	@Test
+	void testNothingFits() {
+		List<Toy> toys = List.of(toy(new Random(1), 0, 500, 3));
+		GiftBundler bundler = new GiftBundler(GiftWeights.DEFAULT, null, null, false);
+		assertSame(GiftBundle.EMPTY, bundler.bundle(GiftIndex.of(toys), PersistentVector.of(toys), null, 499, null),
+				"Nothing should fit under the toy's price.");
+		assertSame(GiftBundle.EMPTY, bundler.bundle(GiftIndex.of(toys), PersistentVector.of(toys), null, -1, null),
+				"A negative budget buys nothing.");
+	}
+
+	/**
+	 * Makes a random request against a catalog and checks the bundle in both
+	 * modes against the best bundle there is.
+	 */
+	private static void checkRandomRequest(Random random, List<Toy> toys, boolean bruteForce, String label) {
+		Integer minAge = random.nextBoolean() ? null : random.nextInt(10);
+		long budget = random.nextInt(3000);
+		ToyType type = random.nextInt(4) == 0 ? ToyType.values()[random.nextInt(4)] : null;
+		String brand = random.nextBoolean() ? null : BRANDS[random.nextInt(BRANDS.length)];
+		ToyType preferred = random.nextBoolean() ? null : ToyType.values()[random.nextInt(4)];
+		GiftRanker scorer = new GiftRanker(1, GiftWeights.DEFAULT, brand, preferred);
+		for (boolean onePerType : new boolean[] { false, true }) {
+			GiftBundler bundler = new GiftBundler(GiftWeights.DEFAULT, brand, preferred, onePerType);
+			checkAgainstOptimum(toys, bundler, scorer, minAge, budget, type, onePerType, bruteForce,
+					label + (onePerType ? ", one per type" : ""));
+		}
+	}
+
+	/**
+	 * Checks that a bundle is valid and as valuable as the best bundle.
+	 */
+	private static void checkAgainstOptimum(List<Toy> toys, GiftBundler bundler, GiftRanker scorer, Integer minAge,
+			long budget, ToyType type, boolean onePerType, boolean bruteForce, String label) {
+		GiftBundle bundle = bundler.bundle(GiftIndex.of(toys), PersistentVector.of(toys), minAge, budget, type);
+
+		// Only eligible toys with some value can help a bundle
+		List<Toy> eligible = new ArrayList<>();
+		List<Double> values = new ArrayList<>();
+		for (Toy toy : toys) {
+			double value = scorer.score(toy, toy.getPriceCents(), minAge, null);
+			if ((type == null || toy.getType() == type) && (minAge == null || toy.getAgeAppropriate() >= minAge)
+					&& toy.getAvailableCount() > 0 && toy.getPriceCents() <= budget && value > 0) {
+				eligible.add(toy);
+				values.add(value);
+			}
+		}
+
+		Set<Toy> chosen = Collections.newSetFromMap(new IdentityHashMap<>());
+		boolean[] typeUsed = new boolean[ToyType.values().length];
+		long total = 0;
+		double value = 0;
+		for (Toy toy : bundle.getToys()) {
+			int position = eligible.indexOf(toy);
+			assertTrue(position >= 0, label + ": the bundle holds a toy that does not match.");
+			assertTrue(chosen.add(toy), label + ": the bundle holds a toy twice.");
+			assertFalse(onePerType && typeUsed[toy.getType().ordinal()], label + ": two toys of one type.");
+			typeUsed[toy.getType().ordinal()] = true;
+			total += toy.getPriceCents();
+			value += values.get(position);
+		}
+		assertTrue(total <= budget, label + ": the bundle is over budget.");
+		assertEquals(total, bundle.getTotalCents(), label + ": wrong total.");
+		assertEquals(value, bundle.getValue(), EPSILON, label + ": wrong value.");
+
+		double best = bruteForce ? bruteForce(eligible, values, budget, onePerType)
+				: knapsack(eligible, values, budget, onePerType);
+		assertEquals(best, bundle.getValue(), EPSILON, label + ": the bundle is not the most valuable.");
+	}
+
+	/**
+	 * Finds the greatest value of any allowed subset by trying them all.
+	 */
+	private static double bruteForce(List<Toy> toys, List<Double> values, long budget, boolean onePerType) {
+		double best = 0;
+		subsets: for (int mask = 1; mask < 1 << toys.size(); mask++) {
+			long total = 0;
+			double value = 0;
+			int types = 0;
+			for (int i = 0; i < toys.size(); i++) {
+				if ((mask & 1 << i) != 0) {
+					int bit = 1 << toys.get(i).getType().ordinal();
+					if (onePerType && (types & bit) != 0) {
+						continue subsets;
+					}
+					types |= bit;
+					total += toys.get(i).getPriceCents();
+					value += values.get(i);
+				}
+			}
+			if (total <= budget) {
+				best = Math.max(best, value);
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the greatest value of any allowed subset with an exact knapsack over
+	 * every toy, at whole-cent prices.
+	 */
+	private static double knapsack(List<Toy> toys, List<Double> values, long budget, boolean onePerType) {
+		int capacity = (int) budget;
+		double[] best = new double[capacity + 1];
+		List<List<Integer>> groups = new ArrayList<>();
+		if (onePerType) {
+			for (ToyType type : ToyType.values()) {
+				List<Integer> group = new ArrayList<>();
+				for (int i = 0; i < toys.size(); i++) {
+					if (toys.get(i).getType() == type) {
+						group.add(i);
+					}
+				}
+				groups.add(group);
+			}
+		} else {
+			for (int i = 0; i < toys.size(); i++) {
+				groups.add(List.of(i));
+			}
+		}
+		for (List<Integer> group : groups) {
+			double[] next = best.clone();
+			for (int i : group) {
+				int cost = (int) toys.get(i).getPriceCents();
+				for (int c = cost; c <= capacity; c++) {
+					next[c] = Math.max(next[c], best[c - cost] + values.get(i));
+				}
+			}
+			best = next;
+		}
+		return best[capacity];
+	}
+
+	private static List<Toy> sortedBySerial(List<Toy> toys) {
+		List<Toy> sorted = new ArrayList<>(toys);
+		sorted.sort((a, b) -> Long.compare(a.getSerial(), b.getSerial()));
+		return sorted;
+	}
+
+	/**
+	 * Creates a toy of a random type, age and brand.
+	 */
+	private static Toy toy(Random random, int number, long priceCents, int count) {
+		String digits = String.format("%09d", number);
+		String brand = BRANDS[random.nextInt(BRANDS.length)];
+		int age = random.nextInt(12);
+		Toy toy;
+		switch (random.nextInt(8)) {
+		case 0:
+			toy = new Animals("2" + digits, "Animal " + number, brand, 0, count, age, "Plush", 'M');
+			break;
+		case 1:
+			toy = new Puzzles("4" + digits, "Puzzle " + number, brand, 0, count, age, 'T');
+			break;
+		case 2:
+			toy = new BoardGames("7" + digits, "Game " + number, brand, 0, count, age, 2, 4, "Ann");
+			break;
+		default:
+			toy = new Figures("1" + digits, "Figure " + number, brand, 0, count, age, 'A');
+			break;
+		}
+		toy.setPriceCents(priceCents);
+		return toy;
+	}
+}
@@ -0,0 +1,194 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Animals;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+import model.ToyType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GiftIndex} class.
+ *
+ * This class tests buckets of many toys at one price, which split into chunks
+ * that all start at that price, removing and re-adding toys there, skipping
+ * removed rows but not toys with no units available, and random
+ * changes against a plain list sorted the way the index promises: by price,
+ * then type, age and the order toys were indexed in.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class GiftIndexTest {
+
+	@Test
+	void testEqualPricesSplitChunks() {
+		List<Toy> toys = new ArrayList<>();
+		GiftIndex index = GiftIndex.EMPTY;
+		PersistentVector<Toy> rows = PersistentVector.empty();
+		for (int row = 0; row < 500; row++) {
+			Toy toy = figure(row, 6, 1000, 5);
+			toys.add(toy);
+			index = index.with(row, toy);
+			rows = rows.append(toy);
+		}
+		assertEquals(toys, index.query(null, null, null, rows), "Equal prices should keep the order added.");
+		assertEquals(toys, GiftIndex.of(toys).query(null, null, null, rows), "A bulk build should too.");
+
+		// Remove every third toy, from the back so equal prices run over several chunks
+		List<Toy> expected = new ArrayList<>(toys);
+		for (int row = 498; row >= 0; row -= 3) {
+			GiftIndex removed = index.without(row, toys.get(row), 1000);
+			assertNotSame(index, removed, "An indexed toy should be removed.");
+			index = removed;
+			expected.remove(toys.get(row));
+		}
+		assertSame(index, index.without(0, toys.get(0), 999), "A toy not indexed at a price should be left.");
+		assertSame(index, index.without(0, toys.get(0), 1000), "A toy removed already should be left.");
+		assertEquals(expected, index.query(null, null, null, rows), "The other toys should keep their order.");
+
+		// A toy added again at the same price goes after every other one
+		index = index.with(0, toys.get(0));
+		expected.add(toys.get(0));
+		assertEquals(expected, index.query(null, 1000L, null, rows), "It should be added last.");
+		assertTrue(index.query(null, 999L, null, rows).isEmpty(), "Nothing should cost less.");
+
+		for (Toy toy : expected) {
+			index = index.without((int) (toy.getSerial() - 1_000_000_000L), toy, 1000);
+		}
+		assertTrue(index.query(null, null, null, rows).isEmpty(), "Removing every toy should empty the index.");
+		assertTrue(index.query(null, null, ToyType.FIGURE, rows).isEmpty(), "The figure group should be empty.");
+	}
+
+	@Test
+	void testSkipsRemovedToysOnly() {
+		List<Toy> toys = List.of(figure(0, 6, 500, 5), figure(1, 6, 400, 0), figure(2, 6, 300, 5));
+		GiftIndex index = GiftIndex.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys).set(2, null);
+		assertEquals(List.of(toys.get(1), toys.get(0)), index.query(null, null, null, rows),
+				"Removed rows should be skipped, but not toys with no units available.");
+	}
+
+	@Test
+	void testRandomChangesMatchModel() {
+		Random random = new Random(64);
+		List<Toy> toys = new ArrayList<>();
+		for (int row = 0; row < 2000; row++) {
+			toys.add(toy(random, row));
+		}
+		List<Entry> model = new ArrayList<>();
+		for (int row = 0; row < toys.size(); row++) {
+			model.add(new Entry(row, toys.get(row), toys.get(row).getPriceCents(), row));
+		}
+		GiftIndex index = GiftIndex.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys);
+		long sequence = toys.size(); // Order in which toys were indexed
+
+		for (int step = 0; step < 20_000; step++) {
+			int action = random.nextInt(3);
+			if (action == 0) {
+				int row = rows.size();
+				Toy toy = toy(random, row);
+				index = index.with(row, toy);
+				rows = rows.append(toy);
+				model.add(new Entry(row, toy, toy.getPriceCents(), sequence++));
+			} else if (!model.isEmpty()) {
+				Entry entry = model.remove(random.nextInt(model.size()));
+				index = index.without(entry.row, entry.toy, entry.priceCents);
+				if (action == 1) {
+					// Move it to a new price; prices are few so many are equal
+					entry.toy.setPriceCents(100 * (1 + random.nextInt(20)));
+					index = index.with(entry.row, entry.toy);
+					model.add(new Entry(entry.row, entry.toy, entry.toy.getPriceCents(), sequence++));
+				}
+			}
+			if (step % 250 == 0) {
+				assertMatches(model, index, rows, random);
+			}
+		}
+		assertMatches(model, index, rows, random);
+	}
+
+	/**
+	 * Checks a few random queries against the model.
+	 */
+	private static void assertMatches(List<Entry> model, GiftIndex index, PersistentVector<Toy> rows,
+			Random random) {
+		List<Entry> sorted = new ArrayList<>(model);
+		sorted.sort(Comparator.<Entry>comparingLong(entry -> entry.priceCents)
+				.thenComparingInt(entry -> entry.toy.getType().ordinal())
+				.thenComparingInt(entry -> entry.toy.getAgeAppropriate())
+				.thenComparingLong(entry -> entry.sequence));
+		for (int i = 0; i < 6; i++) {
+			Integer minAge = random.nextBoolean() ? null : random.nextInt(10);
+			Long maxPriceCents = random.nextBoolean() ? null : 100L * random.nextInt(22);
+			ToyType type = random.nextBoolean() ? null : ToyType.values()[random.nextInt(3)];
+			List<Toy> expected = new ArrayList<>();
+			for (Entry entry : sorted) {
+				Toy toy = entry.toy;
+				if ((minAge == null || toy.getAgeAppropriate() >= minAge)
+						&& (maxPriceCents == null || entry.priceCents <= maxPriceCents)
+						&& (type == null || toy.getType() == type)) {
+					expected.add(toy);
+				}
+			}
+			assertEquals(expected, index.query(minAge, maxPriceCents, type, rows),
+					"Wrong matches for age " + minAge + ", price " + maxPriceCents + ", type " + type);
+		}
+	}
+
+	private static Toy figure(int row, int age, long priceCents, int count) {
+		Toy toy = new Figures(String.format("1%09d", row), "Figure " + row, "Hasbro", 0, count, age, 'A');
+		toy.setPriceCents(priceCents);
+		return toy;
+	}
+
+	/**
+	 * Creates a toy of one of three types with a random age, price and count.
+	 */
+	private static Toy toy(Random random, int row) {
+		String digits = String.format("%09d", row);
+		int age = random.nextInt(8);
+		int count = random.nextInt(8) == 0 ? 0 : 3;
+		Toy toy;
+		switch (random.nextInt(3)) {
+		case 0:
+			toy = new Figures("1" + digits, "Figure", "Hasbro", 0, count, age, 'A');
+			break;
+		case 1:
+			toy = new Animals("2" + digits, "Animal", "Mattel", 0, count, age, "Plush", 'M');
+			break;
+		default:
+			toy = new Puzzles("4" + digits, "Puzzle", "Ravensburger", 0, count, age, 'T');
+			break;
+		}
+		toy.setPriceCents(100 * (1 + random.nextInt(20)));
+		return toy;
+	}
+
+	/**
+	 * A toy in the model, with the price it is indexed at and when it was
+	 * indexed.
+	 */
+	private static final class Entry {
+		private final int row;
+		private final Toy toy;
+		private final long priceCents;
+		private final long sequence;
+
+		private Entry(int row, Toy toy, long priceCents, long sequence) {
+			this.row = row;
+			this.toy = toy;
+			this.priceCents = priceCents;
+			this.sequence = sequence;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Animals;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+import model.ToyType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GiftRanker} and {@link GiftWeights} classes.
+ *
+ * This class tests random rankings against a full sort of every match by
+ * score, the suggestion limit, how each weight orders the suggestions, the
+ * preferred brand and type boosts, and rejecting a bad limit or weight.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class GiftRankerTest {
+
+	private static final String[] BRANDS = { "Hasbro", "Mattel", "Lego" };
+
+	@Test
+	void testRandomRankingsMatchFullSort() {
+		Random random = new Random(24);
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 800; i++) {
+			toys.add(toy(random, i, 100 + i, random.nextInt(30))); // Distinct prices, so no ties
+		}
+		GiftIndex index = GiftIndex.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys);
+
+		for (int round = 0; round < 100; round++) {
+			Integer minAge = random.nextBoolean() ? null : random.nextInt(10);
+			Long maxPriceCents = random.nextBoolean() ? null : 100L + random.nextInt(900);
+			ToyType type = random.nextInt(3) == 0 ? ToyType.values()[random.nextInt(3)] : null;
+			String brand = random.nextBoolean() ? null : BRANDS[random.nextInt(BRANDS.length)];
+			ToyType preferred = random.nextBoolean() ? null : ToyType.values()[random.nextInt(4)];
+			GiftWeights weights = new GiftWeights(random.nextInt(5), random.nextInt(5), random.nextInt(5),
+					random.nextInt(5), random.nextInt(5));
+			GiftRanker ranker = new GiftRanker(1 + random.nextInt(30), weights, brand, preferred);
+
+			List<Toy> expected = new ArrayList<>(index.query(minAge, maxPriceCents, type, rows));
+			expected.sort(Comparator.<Toy>comparingDouble(
+					toy -> -ranker.score(toy, toy.getPriceCents(), minAge, maxPriceCents))
+					.thenComparingLong(Toy::getPriceCents));
+			expected = expected.subList(0, Math.min(ranker.getLimit(), expected.size()));
+			assertEquals(expected, ranker.rank(index, rows, minAge, maxPriceCents, type),
+					"Round " + round + " should give the best " + ranker.getLimit() + " matches.");
+		}
+	}
+
+	@Test
+	void testLimit() {
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			toys.add(figure(i, "Hasbro", 100 * (i + 1), 6, 1));
+		}
+		GiftIndex index = GiftIndex.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys);
+		GiftWeights headroom = new GiftWeights(0, 1, 0, 0, 0);
+
+		assertEquals(List.of(toys.get(0), toys.get(1)),
+				new GiftRanker(2, headroom, null, null).rank(index, rows, null, 1000L, null),
+				"Only the two cheapest should be suggested.");
+		assertEquals(toys, new GiftRanker(50, headroom, null, null).rank(index, rows, null, 1000L, null),
+				"A limit above the matches should return them all.");
+		assertThrows(IllegalArgumentException.class, () -> new GiftRanker(0, headroom, null, null),
+				"A limit of zero should be rejected.");
+	}
+
+	@Test
+	void testEachWeightOrdersSuggestions() {
+		Toy young = figure(0, "Hasbro", 300, 4, 1);
+		Toy stocked = figure(1, "Hasbro", 200, 7, 40);
+		Toy cheap = figure(2, "Hasbro", 100, 9, 5);
+		List<Toy> toys = List.of(young, stocked, cheap);
+		GiftIndex index = GiftIndex.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys);
+
+		assertEquals(List.of(young, stocked, cheap), rank(index, rows, new GiftWeights(1, 0, 0, 0, 0)),
+				"Age fit should rank the toy meant for the requested age first.");
+		assertEquals(List.of(cheap, stocked, young), rank(index, rows, new GiftWeights(0, 1, 0, 0, 0)),
+				"Price headroom should rank the cheapest first.");
+		assertEquals(List.of(stocked, cheap, young), rank(index, rows, new GiftWeights(0, 0, 1, 0, 0)),
+				"Stock should rank the best stocked first.");
+		assertEquals(List.of(cheap, stocked, young), rank(index, rows, new GiftWeights(0, 0, 0, 0, 0)),
+				"With every weight off, equal scores should list the cheaper toy first.");
+		assertEquals(List.of(young, stocked, cheap), rank(index, rows, new GiftWeights(10, 1, 1, 0, 0)),
+				"The heaviest weight should decide.");
+	}
+
+	@Test
+	void testBrandAndTypeBoosts() {
+		Toy figure = figure(0, "Hasbro", 100, 6, 5);
+		Toy branded = figure(1, "Mattel", 200, 6, 5);
+		Toy animal = new Animals("2000000002", "Teddy Bear", "Lego", 0, 5, 6, "Plush", 'M');
+		animal.setPriceCents(300);
+		List<Toy> toys = List.of(figure, branded, animal);
+		GiftIndex index = GiftIndex.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys);
+
+		assertEquals(List.of(branded, figure, animal),
+				new GiftRanker(3, GiftWeights.DEFAULT, "mattel", null).rank(index, rows, 6, 1000L, null),
+				"The preferred brand should be boosted, ignoring case.");
+		assertEquals(List.of(animal, figure, branded),
+				new GiftRanker(3, GiftWeights.DEFAULT, null, ToyType.ANIMAL).rank(index, rows, 6, 1000L, null),
+				"The preferred type should be boosted.");
+		assertEquals(List.of(figure, branded, animal),
+				new GiftRanker(3, new GiftWeights(4, 2, 1, 0, 0), "Mattel", ToyType.ANIMAL).rank(index, rows, 6,
+						1000L, null),
+				"Boosts with no weight should change nothing.");
+	}
+
+	@Test
+	void testBadWeightsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new GiftWeights(1, -1, 1, 1, 1),
+				"A negative weight should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> new GiftWeights(1, 1, Double.NaN, 1, 1),
+				"A weight that is not a number should be rejected.");
+	}
+
+	/**
+	 * Ranks every toy for a four-year-old with a $10 budget.
+	 */
+	private static List<Toy> rank(GiftIndex index, PersistentVector<Toy> rows, GiftWeights weights) {
+		return new GiftRanker(10, weights, null, null).rank(index, rows, 4, 1000L, null);
+	}
+
+	private static Toy figure(int number, String brand, long priceCents, int age, int count) {
+		Toy toy = new Figures(String.format("1%09d", number), "Figure " + number, brand, 0, count, age, 'A');
+		toy.setPriceCents(priceCents);
+		return toy;
+	}
+
+	/**
+	 * Creates a toy of one of three types with a random brand and age.
+	 */
+	private static Toy toy(Random random, int number, long priceCents, int count) {
+		String digits = String.format("%09d", number);
+		String brand = BRANDS[random.nextInt(BRANDS.length)];
+		int age = random.nextInt(12);
+		Toy toy;
+		switch (random.nextInt(3)) {
+		case 0:
+			toy = new Animals("2" + digits, "Animal " + number, brand, 0, count, age, "Plush", 'M');
+			break;
+		case 1:
+			toy = new Puzzles("4" + digits, "Puzzle " + number, brand, 0, count, age, 'T');
+			break;
+		default:
+			toy = new Figures("1" + digits, "Figure " + number, brand, 0, count, age, 'A');
+			break;
+		}
+		toy.setPriceCents(priceCents);
+		return toy;
+	}
+}
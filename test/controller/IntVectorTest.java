@@ -0,0 +1,100 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link IntVector} class.
+ *
+ * This class tests vectors of primitive ints at the sizes where the tail fills
+ * and the trie grows a level, whether built in bulk or one value at a time,
+ * that forEach and last agree with get, and random appends against a list.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class IntVectorTest {
+
+	@Test
+	void testAppendAcrossBoundaries() {
+		List<IntVector> versions = new ArrayList<>();
+		IntVector vector = IntVector.EMPTY;
+		for (int size : PersistentVectorTest.BOUNDARIES) {
+			while (vector.size() < size) {
+				vector = vector.append(vector.size() * 3);
+			}
+			versions.add(vector);
+		}
+
+		// Every version should still hold exactly its own values
+		for (int v = 0; v < versions.size(); v++) {
+			assertValues(PersistentVectorTest.BOUNDARIES[v], versions.get(v));
+		}
+	}
+
+	@Test
+	void testBulkBuildAcrossBoundaries() {
+		int[] values = new int[33000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 3;
+		}
+		for (int size : PersistentVectorTest.BOUNDARIES) {
+			IntVector vector = IntVector.of(values, size);
+			assertValues(size, vector);
+			assertValues(size + 1, vector.append(size * 3)); // Appending after a bulk build
+		}
+	}
+
+	@Test
+	void testEmpty() {
+		assertEquals(0, IntVector.EMPTY.size(), "The empty vector has no values.");
+		assertThrows(IndexOutOfBoundsException.class, () -> IntVector.EMPTY.last(), "There is no last value.");
+		assertThrows(IndexOutOfBoundsException.class, () -> IntVector.EMPTY.get(0), "There is no first value.");
+		assertSame(IntVector.EMPTY, IntVector.of(new int[4], 0), "Building nothing should give the empty vector.");
+	}
+
+	@Test
+	void testRandomAppendsMatchList() {
+		Random random = new Random(1024);
+		List<Integer> model = new ArrayList<>();
+		IntVector vector = IntVector.EMPTY;
+		for (int step = 0; step < 40_000; step++) {
+			int value = random.nextInt();
+			model.add(value);
+			vector = vector.append(value);
+			if (step % 997 == 0) {
+				assertEquals(model, toList(vector), "The vector should match the list at step " + step);
+			}
+		}
+		assertEquals(model, toList(vector), "The vector should match the list.");
+	}
+
+	/**
+	 * Checks that a vector holds 0, 3, 6, ... in order, by get, forEach and last.
+	 */
+	private static void assertValues(int size, IntVector vector) {
+		assertEquals(size, vector.size(), "Wrong size.");
+		for (int i = 0; i < size; i++) {
+			assertEquals(i * 3, vector.get(i), "Wrong value at " + i + " of " + size);
+		}
+		List<Integer> seen = toList(vector);
+		for (int i = 0; i < size; i++) {
+			assertEquals(i * 3, (int) seen.get(i), "forEach gave the wrong value at " + i + " of " + size);
+		}
+		if (size > 0) {
+			assertEquals((size - 1) * 3, vector.last(), "Wrong last value for size " + size);
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.get(size), "Size " + size + " has no more.");
+	}
+
+	private static List<Integer> toList(IntVector vector) {
+		List<Integer> list = new ArrayList<>(vector.size());
+		vector.forEach(list::add);
+		return list;
+	}
+}
@@ -0,0 +1,103 @@
+package controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link InventoryService} class.
+ *
+ * This class tests batched orders: a placed order takes every line's stock
+ * and removes the toys it empties, an order with a line that cannot be filled
+ * takes no stock and puts back the lines before it, and a placed order
+ * reaches the journal as one batch.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class InventoryServiceTest {
+
+	private static final long TIMEOUT_SECONDS = 30; // Longest wait for a flush
+
+	@TempDir
+	Path dir;
+
+	private InventoryService service;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		File data = dir.resolve("toys.txt").toFile();
+		Files.write(data.toPath(), List.of("2000000002;Teddy Bear;Mattel;24.50;10;3;Plush;M",
+				"4000000003;Sudoku;PuzzleMania;9.99;3;8;L", "1000000004;Action Bear;Hasbro;19.99;2;6;A"));
+		// Flush after every change, so a batch split in two would reach the journal in two appends
+		service = new InventoryService(data, dir.resolve("toys.snapshot").toFile(), TimeUnit.HOURS.toMillis(1), 1);
+		service.load();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		service.close();
+	}
+
+	@Test
+	void testPlacedOrderTakesEveryLine() {
+		OrderResult result = service.placeOrder(List.of(new OrderLine("2000000002", 3),
+				new OrderLine("4000000003", 1), new OrderLine("2000000002", 1)));
+		assertTrue(result.isPlaced(), "Every line can be filled.");
+		assertEquals(4 * 2450 + 999, result.getTotalCents(), "The total should cover every unit.");
+		assertEquals(6, stock("2000000002"), "Lines for the same toy should be combined.");
+		assertEquals(2, stock("4000000003"), "The second toy's units should be taken.");
+	}
+
+	@Test
+	void testShortLineTakesNoStock() {
+		OrderResult result = service.placeOrder(List.of(new OrderLine("4000000003", 4)));
+		assertFalse(result.isPlaced(), "Four units of three cannot be ordered.");
+		assertEquals("4000000003", result.getRejectedSn(), "The short line should be reported.");
+		assertEquals(3, stock("4000000003"), "No stock should be taken.");
+	}
+
+	@Test
+	void testRejectedOrderRollsBackEarlierLines() {
+		OrderResult result = service.placeOrder(List.of(new OrderLine("2000000002", 5),
+				new OrderLine("1000000004", 2), new OrderLine("4000000003", 4)));
+		assertFalse(result.isPlaced(), "The last line cannot be filled.");
+		assertEquals("4000000003", result.getRejectedSn(), "The short line should be reported.");
+		assertEquals(10, stock("2000000002"), "The first line's units should be put back.");
+		assertEquals(2, stock("1000000004"), "A line that emptied its toy should be put back too.");
+		assertEquals(3, stock("4000000003"), "The short line should take nothing.");
+
+		result = service.placeOrder(List.of(new OrderLine("2000000002", 1), new OrderLine("9999999999", 1)));
+		assertEquals("9999999999", result.getRejectedSn(), "An unknown toy should be reported.");
+		assertEquals(10, stock("2000000002"), "Units taken before it should be put back.");
+	}
+
+	@Test
+	void testPlacedOrderIsJournaledAsOneBatch() throws Exception {
+		OrderResult result = service.placeOrder(List.of(new OrderLine("1000000004", 2),
+				new OrderLine("2000000002", 4)));
+		assertTrue(result.isPlaced(), "Every line can be filled.");
+		assertNull(service.findBySerialNumber("1000000004"), "The emptied toy should be removed.");
+		service.whenDurable().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		// The emptied toy's removal replaces its stock change in the same flush
+		assertEquals(List.of("S;2000000002;6", "R;1000000004"),
+				Files.readAllLines(dir.resolve("toys.journal"), StandardCharsets.UTF_8),
+				"The order should be written as one batch.");
+	}
+
+	private int stock(String sn) {
+		return service.findBySerialNumber(sn).getStockCount();
+	}
+}
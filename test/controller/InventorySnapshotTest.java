@@ -0,0 +1,96 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import model.Figures;
+import model.Toy;
+import model.ToyType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link InventorySnapshot} class.
+ *
+ * This class tests that snapshots keep their own view of the inventory while
+ * later versions change it, and that a price change published on top of a
+ * snapshot rebuilt in the meantime leaves the toy indexed once.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class InventorySnapshotTest {
+
+	@Test
+	void testOlderSnapshotIsUnchanged() {
+		List<Toy> toys = figures(3);
+		InventorySnapshot first = InventorySnapshot.of(1, toys);
+		Toy added = figure(99, 500);
+		InventorySnapshot second = first.withToy(added).withoutToy(toys.get(0));
+
+		assertEquals(3, first.size(), "The first snapshot should keep its toys.");
+		assertTrue(first.contains(toys.get(0)), "The first snapshot should still list the removed toy.");
+		assertNull(first.find(added.getSerial()), "The first snapshot should not see the added toy.");
+		assertEquals(3, second.size(), "The second snapshot should have one toy in and one out.");
+		assertEquals(List.of(toys.get(1), toys.get(2), added), second.getToys(), "Rows should keep inventory order.");
+		assertEquals(3, second.getVersion(), "Every change should add one to the version.");
+	}
+
+	@Test
+	void testPriceChangeMovesGift() {
+		List<Toy> toys = figures(3);
+		InventorySnapshot snapshot = InventorySnapshot.of(1, toys);
+		Toy moved = toys.get(0);
+		long oldPrice = moved.getPriceCents();
+		moved.setPriceCents(10_000);
+		snapshot = snapshot.withPrice(moved, oldPrice);
+
+		List<Toy> gifts = snapshot.suggestGifts(null, null, ToyType.FIGURE);
+		assertEquals(List.of(toys.get(1), toys.get(2), moved), gifts, "The toy should move to its new price.");
+		assertEquals(2, snapshot.suggestGifts(null, 50.0, null).size(), "It should no longer fit a low budget.");
+	}
+
+	@Test
+	void testPriceChangeAfterRebuild() {
+		// Enough toys that removing just over half of them rebuilds the snapshot
+		List<Toy> toys = figures(2049);
+		InventorySnapshot snapshot = InventorySnapshot.of(1, toys);
+		for (int i = 0; i < 1024; i++) {
+			snapshot = snapshot.withoutToy(toys.get(i));
+		}
+
+		// A price changes; before its snapshot is published, another writer's
+		// removal rebuilds the indexes from the toys' live prices
+		Toy changed = toys.get(2048);
+		long oldPrice = changed.getPriceCents();
+		changed.setPriceCents(1);
+		InventorySnapshot rebuilt = snapshot.withoutToy(toys.get(1024));
+		InventorySnapshot published = rebuilt.withPrice(changed, oldPrice);
+
+		List<Toy> gifts = published.suggestGifts(null, null, null);
+		assertEquals(published.size(), gifts.size(), "Every toy should be suggested exactly once.");
+		assertSame(changed, gifts.get(0), "The toy should be indexed at its new price.");
+		assertEquals(1, gifts.stream().filter(toy -> toy == changed).count(), "The toy should not be indexed twice.");
+		assertEquals(1, published.suggestGifts(null, 0.01, null).size(), "Only the repriced toy costs a cent.");
+	}
+
+	/**
+	 * Creates figures with distinct serial numbers, each a dollar dearer than
+	 * the one before.
+	 */
+	private static List<Toy> figures(int count) {
+		List<Toy> toys = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			toys.add(figure(i, 100 + i * 100));
+		}
+		return toys;
+	}
+
+	private static Toy figure(int number, long priceCents) {
+		Toy toy = new Figures(String.format("1%09d", number), "Figure " + number, "Hasbro", 0, 5, 6, 'A');
+		toy.setPriceCents(priceCents);
+		return toy;
+	}
+}
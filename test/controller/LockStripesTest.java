@@ -0,0 +1,116 @@
+package controller;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link LockStripes} and {@link LockMetrics} classes.
+ *
+ * This class tests that each range of serial numbers maps to one stripe, that
+ * writers on different stripes do not block each other while writers on the
+ * same stripe do, that shared holders do not wait for each other, and that
+ * the contention counters grow only when a lock has to wait.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class LockStripesTest {
+
+	private static final long TIMEOUT_SECONDS = 10; // Generous bound for a thread that should not block
+
+	@Test
+	void testSerialRangeMapsToOneStripe() {
+		LockStripes stripes = new LockStripes(64);
+		long width = 10_000_000_000L / 64;
+
+		assertEquals(0, stripes.stripeOf(0), "The lowest serial should use the first stripe.");
+		assertEquals(0, stripes.stripeOf(width - 1), "The end of the first range should use the first stripe.");
+		assertEquals(1, stripes.stripeOf(width), "The next range should use the next stripe.");
+		assertEquals(63, stripes.stripeOf(9_999_999_999L), "The highest serial should use the last stripe.");
+		assertEquals(0, stripes.stripeOf(-5), "A negative serial should use the first stripe.");
+		for (long serial = 2_000_000_000L; serial < 2_000_000_000L + 1000; serial++) {
+			assertEquals(stripes.stripeOf(2_000_000_000L), stripes.stripeOf(serial),
+					"Neighbouring serials should share a stripe.");
+		}
+
+		assertArrayEquals(new int[] { 0, 1, 63 },
+				stripes.stripesOf(new long[] { 9_999_999_999L, width, 3, 0, width + 1 }),
+				"Stripes should be listed once each, in ascending order.");
+		assertEquals(64, stripes.all().length, "Every stripe should be listed.");
+		assertEquals(64, stripes.size(), "The stripe count should be kept.");
+		assertThrows(IllegalArgumentException.class, () -> new LockStripes(0), "Zero stripes should be rejected.");
+	}
+
+	@Test
+	void testWritersOnDifferentStripesDoNotBlock() throws InterruptedException {
+		LockStripes stripes = new LockStripes(4);
+		long stamp = stripes.writeLock(0);
+
+		CountDownLatch otherStripe = new CountDownLatch(1);
+		Thread writer = new Thread(() -> {
+			stripes.unlockWrite(1, stripes.writeLock(1));
+			otherStripe.countDown();
+		});
+		writer.start();
+		assertTrue(otherStripe.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+				"A writer on another stripe should not wait.");
+
+		CountDownLatch sameStripe = new CountDownLatch(1);
+		Thread blocked = new Thread(() -> {
+			stripes.unlockWrite(0, stripes.writeLock(0));
+			sameStripe.countDown();
+		});
+		blocked.start();
+		assertFalse(sameStripe.await(100, TimeUnit.MILLISECONDS), "A writer on the same stripe should wait.");
+		stripes.unlockWrite(0, stamp);
+		assertTrue(sameStripe.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "The writer should go once the stripe is free.");
+
+		long[] stamps = stripes.readLock(new int[] { 2, 3 });
+		CountDownLatch reader = new CountDownLatch(1);
+		new Thread(() -> {
+			stripes.unlockRead(new int[] { 2, 3 }, stripes.readLock(new int[] { 2, 3 }));
+			reader.countDown();
+		}).start();
+		assertTrue(reader.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Shared holders should not wait for each other.");
+		stripes.unlockRead(new int[] { 2, 3 }, stamps);
+		writer.join();
+		blocked.join();
+	}
+
+	@Test
+	void testContentionCounted() throws InterruptedException {
+		LockStripes stripes = new LockStripes(4);
+		stripes.unlockRead(3, stripes.readLock(3));
+		stripes.unlockWrite(3, stripes.writeLock(3));
+		LockMetrics quiet = stripes.getMetrics();
+		assertEquals(2, quiet.getAcquisitions(3), "Every lock taken should be counted.");
+		assertEquals(0, quiet.getTotalContended(), "Locks taken without waiting should not count as contended.");
+		assertEquals(0, quiet.getContentionRate(), "Nothing should have waited yet.");
+
+		long stamp = stripes.writeLock(2);
+		Thread waiter = new Thread(() -> stripes.unlockWrite(2, stripes.writeLock(2)));
+		waiter.start();
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.sleep(1); // Until the waiter is parked on the lock
+		}
+		Thread.sleep(20);
+		stripes.unlockWrite(2, stamp);
+		waiter.join();
+
+		LockMetrics busy = stripes.getMetrics();
+		assertEquals(4, busy.getStripeCount(), "Every stripe should be reported.");
+		assertEquals(2, busy.getAcquisitions(2), "Both writers should be counted.");
+		assertEquals(1, busy.getContended(2), "The second writer should count as contended.");
+		assertTrue(busy.getWaitNanos(2) >= TimeUnit.MILLISECONDS.toNanos(20), "The time waited should be added.");
+		assertEquals(0, busy.getContended(3), "Other stripes should stay uncontended.");
+		assertEquals(4, busy.getTotalAcquisitions(), "The totals should add up every stripe.");
+		assertEquals(1, busy.getTotalContended(), "The totals should add up every stripe.");
+		assertEquals(busy.getWaitNanos(2), busy.getTotalWaitNanos(), "The totals should add up every stripe.");
+		assertEquals(0.25, busy.getContentionRate(), "One lock in four should have waited.");
+		assertEquals(0, quiet.getContended(2), "An earlier copy should not change.");
+	}
+}
@@ -0,0 +1,187 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link LongHashTrie} class.
+ *
+ * This class tests keys whose hashes agree on every level but the last, so
+ * they share a long chain of sub-nodes, removing keys until the map is empty
+ * again, bulk builds, and random changes against a HashMap. Keys with chosen
+ * hashes are made by running the trie's hash backwards.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class LongHashTrieTest {
+
+	@Test
+	void testDeepCollisions() {
+		// Hashes equal in their low 60 bits only differ at the last level
+		long base = 0x0123456789abcdefL;
+		long[] keys = new long[16];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = keyFor(base & 0x0fffffffffffffffL | (long) i << 60);
+		}
+
+		LongHashTrie<Integer> map = LongHashTrie.empty();
+		for (int i = 0; i < keys.length; i++) {
+			map = map.put(keys[i], i);
+			assertEquals(i + 1, map.size(), "Each colliding key should be added.");
+		}
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i, (int) map.get(keys[i]), "Each colliding key should keep its value.");
+		}
+		assertNull(map.get(keyFor(base & 0x0fffffffffffffffL ^ 1)), "A key one bit away should not be found.");
+
+		LongHashTrie<Integer> full = map;
+		for (int i = 0; i < keys.length; i++) {
+			map = map.remove(keys[i]);
+			assertNull(map.get(keys[i]), "A removed key should be gone.");
+			for (int j = i + 1; j < keys.length; j++) {
+				assertEquals(j, (int) map.get(keys[j]), "The other colliding keys should stay.");
+			}
+		}
+		assertEquals(0, map.size(), "Removing every key should empty the map.");
+		assertEquals(16, full.size(), "The old version should keep its keys.");
+		assertEquals(7, (int) full.get(keys[7]), "The old version should keep its values.");
+
+		LongHashTrie<Integer> bulk = LongHashTrie.of(keys, boxed(keys.length), keys.length);
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i, (int) bulk.get(keys[i]), "A bulk build should place colliding keys.");
+		}
+	}
+
+	@Test
+	void testRemoveToEmptyAndReuse() {
+		LongHashTrie<Integer> map = LongHashTrie.empty();
+		for (long key = 0; key < 5000; key++) {
+			map = map.put(key, (int) key);
+		}
+		assertSame(map, map.remove(-1), "Removing a missing key should give the same map.");
+		for (long key = 4999; key >= 0; key--) {
+			map = map.remove(key);
+		}
+		assertEquals(0, map.size(), "Every key should be removed.");
+		for (long key = 0; key < 5000; key++) {
+			assertNull(map.get(key), "No key should be left.");
+		}
+
+		map = map.put(42, 1).put(42, 2);
+		assertEquals(1, map.size(), "Putting a key again should replace its value.");
+		assertEquals(2, (int) map.get(42), "The last value should win.");
+	}
+
+	@Test
+	void testBulkBuildKeepsLastDuplicate() {
+		long[] keys = { 5, 6, 5, 7, 6 };
+		LongHashTrie<Integer> map = LongHashTrie.of(keys, boxed(keys.length), keys.length);
+		assertEquals(3, map.size(), "Duplicates should be counted once.");
+		assertEquals(2, (int) map.get(5), "A duplicate key should keep its last value.");
+		assertEquals(4, (int) map.get(6), "A duplicate key should keep its last value.");
+		assertEquals(0, LongHashTrie.of(keys, boxed(keys.length), 0).size(), "Taking no entries gives no keys.");
+	}
+
+	@Test
+	void testRandomChangesMatchHashMap() {
+		Random random = new Random(7);
+		// Keys from a few hash families that share 10 to 55 low bits, plus plain keys
+		List<Long> pool = new ArrayList<>();
+		for (int family = 0; family < 20; family++) {
+			long prefix = random.nextLong();
+			int shared = 10 + random.nextInt(46);
+			for (int i = 0; i < 40; i++) {
+				long mask = -1L >>> (64 - shared);
+				pool.add(keyFor(prefix & mask | random.nextLong() & ~mask));
+			}
+		}
+		for (int i = 0; i < 800; i++) {
+			pool.add(random.nextLong() % 100_000);
+		}
+
+		Map<Long, Integer> model = new HashMap<>();
+		LongHashTrie<Integer> map = LongHashTrie.empty();
+		for (int step = 0; step < 50_000; step++) {
+			long key = pool.get(random.nextInt(pool.size()));
+			// Lean towards removal in the second half so the map drains
+			if (random.nextInt(100) < (step < 25_000 ? 60 : 30)) {
+				model.put(key, step);
+				map = map.put(key, step);
+			} else {
+				model.remove(key);
+				map = map.remove(key);
+			}
+			assertEquals(model.size(), map.size(), "The sizes should match at step " + step);
+			if (step % 500 == 0) {
+				assertMatches(model, map, pool);
+			}
+		}
+		assertMatches(model, map, pool);
+
+		for (long key : new ArrayList<>(model.keySet())) {
+			map = map.remove(key);
+		}
+		assertEquals(0, map.size(), "Removing every key should empty the map.");
+		assertMatches(Map.of(), map, pool);
+	}
+
+	private static void assertMatches(Map<Long, Integer> model, LongHashTrie<Integer> map, List<Long> pool) {
+		for (long key : pool) {
+			assertEquals(model.get(key), map.get(key), "Wrong value for key " + key);
+		}
+		long[] keys = new long[model.size()];
+		Integer[] values = new Integer[model.size()];
+		int i = 0;
+		for (Map.Entry<Long, Integer> entry : model.entrySet()) {
+			keys[i] = entry.getKey();
+			values[i++] = entry.getValue();
+		}
+		LongHashTrie<Integer> bulk = LongHashTrie.of(keys, values, keys.length);
+		assertEquals(model.size(), bulk.size(), "A bulk build should hold every key.");
+		for (long key : pool) {
+			assertEquals(model.get(key), bulk.get(key), "A bulk build gave the wrong value for key " + key);
+		}
+	}
+
+	private static Integer[] boxed(int count) {
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = i;
+		}
+		return values;
+	}
+
+	/**
+	 * Finds the key the trie hashes to the given hash, by undoing the steps of
+	 * the MurmurHash3 finaliser in reverse order.
+	 */
+	private static long keyFor(long hash) {
+		long h = hash;
+		h ^= h >>> 33; // Shifting by more than half the bits is its own inverse
+		h *= inverse(0xc4ceb9fe1a85ec53L);
+		h ^= h >>> 33;
+		h *= inverse(0xff51afd7ed558ccdL);
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Finds the multiplicative inverse of an odd number modulo 2^64 by Newton's
+	 * iteration, which doubles the correct bits each step.
+	 */
+	private static long inverse(long odd) {
+		long x = odd; // Correct to 3 bits
+		for (int i = 0; i < 5; i++) {
+			x *= 2 - odd * x;
+		}
+		return x;
+	}
+}
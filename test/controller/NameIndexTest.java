@@ -0,0 +1,97 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Figures;
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link NameIndex} class.
+ *
+ * This class tests trigram and short name searches, ignoring case, skipping
+ * removed toys but not toys with no units available, and random names and
+ * queries against a scan of a plain list.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class NameIndexTest {
+
+	@Test
+	void testSearches() {
+		List<Toy> toys = List.of(figure(0, "Teddy Bear", 5), figure(1, "Polar BEAR", 5), figure(2, "Bearded Dragon", 0),
+				figure(3, "Robot", 5));
+		NameIndex index = NameIndex.of(toys);
+		PersistentVector<Toy> rows = PersistentVector.of(toys);
+
+		assertEquals(List.of(toys.get(0), toys.get(1), toys.get(2)), index.search("bear", rows),
+				"Case should be ignored, and a toy with no stock still found.");
+		assertEquals(List.of(toys.get(3)), index.search("ro", rows), "Short queries should be scanned.");
+		assertEquals(toys, index.search("", rows), "An empty query should match every toy.");
+		assertTrue(index.search("bearx", rows).isEmpty(), "An unknown trigram should match nothing.");
+		assertTrue(index.search("bear bear", rows).isEmpty(), "Every trigram must be in the same name.");
+
+		Toy added = figure(4, "Bear Necessities", 5);
+		NameIndex grown = index.with(added);
+		PersistentVector<Toy> grownRows = rows.append(added).set(0, null);
+		assertEquals(List.of(toys.get(1), toys.get(2), added), grown.search("BEAR", grownRows),
+				"Added toys should be found and removed ones skipped.");
+		assertEquals(List.of(toys.get(0), toys.get(1), toys.get(2)), index.search("bear", rows),
+				"The old index is unchanged.");
+	}
+
+	@Test
+	void testRandomNamesMatchScan() {
+		Random random = new Random(3);
+		List<Toy> toys = new ArrayList<>();
+		for (int row = 0; row < 1500; row++) {
+			toys.add(figure(row, name(random, 4 + random.nextInt(12)), random.nextInt(6) == 0 ? 0 : 2));
+		}
+		NameIndex index = NameIndex.of(toys.subList(0, 1000));
+		PersistentVector<Toy> rows = PersistentVector.of(toys.subList(0, 1000));
+		for (Toy toy : toys.subList(1000, 1500)) {
+			index = index.with(toy);
+			rows = rows.append(toy);
+		}
+		for (int i = 0; i < 100; i++) {
+			rows = rows.set(random.nextInt(rows.size()), null);
+		}
+
+		for (int i = 0; i < 400; i++) {
+			String query = name(random, 1 + random.nextInt(5));
+			if (random.nextBoolean()) {
+				query = query.toUpperCase();
+			}
+			List<Toy> expected = new ArrayList<>();
+			for (int row = 0; row < rows.size(); row++) {
+				Toy toy = rows.get(row);
+				if (toy != null && toy.getName().toLowerCase().contains(query.toLowerCase())) {
+					expected.add(toy);
+				}
+			}
+			assertEquals(expected, index.search(query, rows), "Wrong matches for '" + query + "'");
+		}
+	}
+
+	/**
+	 * Makes a name from a small alphabet, so names share many trigrams.
+	 */
+	private static String name(Random random, int length) {
+		String letters = "abcAB ";
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			name.append(letters.charAt(random.nextInt(letters.length())));
+		}
+		return name.toString();
+	}
+
+	private static Toy figure(int row, String name, int count) {
+		return new Figures(String.format("1%09d", row), name, "Hasbro", 10, count, 6, 'A');
+	}
+}
@@ -0,0 +1,130 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PersistentVector} class.
+ *
+ * This class tests vectors at the sizes where the tail fills (32), the root
+ * fills and the trie grows a level (1024 and 32768 elements in the trie),
+ * whether built in bulk or one element at a time, that older versions keep
+ * their elements, and random changes against a list.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class PersistentVectorTest {
+
+	/** Sizes on both sides of each tail, leaf and level boundary. */
+	static final int[] BOUNDARIES = { 0, 1, 31, 32, 33, 63, 64, 65, 1023, 1024, 1025, 1055, 1056, 1057, 1088, 1089,
+			32767, 32768, 32769, 32799, 32800, 32801, 32832, 32833, 33000 };
+
+	@Test
+	void testAppendAcrossBoundaries() {
+		List<PersistentVector<Integer>> versions = new ArrayList<>();
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		int next = 0;
+		for (int size : BOUNDARIES) {
+			while (vector.size() < size) {
+				vector = vector.append(next++);
+			}
+			versions.add(vector);
+		}
+
+		// Every version should still hold exactly its own elements
+		for (int v = 0; v < versions.size(); v++) {
+			assertElements(BOUNDARIES[v], versions.get(v));
+		}
+	}
+
+	@Test
+	void testBulkBuildAcrossBoundaries() {
+		List<Integer> elements = new ArrayList<>();
+		for (int size : BOUNDARIES) {
+			while (elements.size() < size) {
+				elements.add(elements.size());
+			}
+			PersistentVector<Integer> vector = PersistentVector.of(elements);
+			assertElements(size, vector);
+			assertElements(size + 1, vector.append(size)); // Appending after a bulk build
+		}
+	}
+
+	@Test
+	void testSetKeepsOldVersion() {
+		List<Integer> elements = new ArrayList<>();
+		for (int i = 0; i < 32800; i++) {
+			elements.add(i);
+		}
+		PersistentVector<Integer> original = PersistentVector.of(elements);
+		PersistentVector<Integer> changed = original;
+		int[] indexes = { 0, 31, 32, 1023, 1024, 32767, 32768, 32799 }; // Trie and tail
+		for (int index : indexes) {
+			changed = changed.set(index, -index - 1);
+		}
+		for (int index : indexes) {
+			assertEquals(-index - 1, (int) changed.get(index), "The new version should see the change.");
+			assertEquals(index, (int) original.get(index), "The old version should be unchanged.");
+		}
+		assertEquals(1025, (int) changed.get(1025), "Other elements should be shared.");
+	}
+
+	@Test
+	void testIndexOutOfBounds() {
+		PersistentVector<Integer> vector = PersistentVector.<Integer>empty().append(1);
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.get(1), "Past the end should be rejected.");
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.get(-1), "Negative indexes should be rejected.");
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.set(1, 2), "Setting past the end should fail.");
+		assertThrows(IndexOutOfBoundsException.class, () -> PersistentVector.empty().get(0),
+				"The empty vector has no elements.");
+	}
+
+	@Test
+	void testRandomChangesMatchList() {
+		Random random = new Random(32);
+		List<Integer> model = new ArrayList<>();
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		for (int step = 0; step < 60_000; step++) {
+			if (model.isEmpty() || random.nextInt(3) > 0) {
+				int value = random.nextInt();
+				model.add(value);
+				vector = vector.append(value);
+			} else {
+				int index = random.nextInt(model.size());
+				Integer value = random.nextInt(5) == 0 ? null : random.nextInt();
+				model.set(index, value);
+				vector = vector.set(index, value);
+			}
+			if (step % 1000 == 0) {
+				assertEquals(model, toList(vector), "The vector should match the list at step " + step);
+			}
+		}
+		assertEquals(model, toList(vector), "The vector should match the list.");
+		assertEquals(model, toList(PersistentVector.of(model)), "A bulk build should match the list.");
+	}
+
+	/**
+	 * Checks that a vector holds 0 to size - 1 in order.
+	 */
+	private static void assertElements(int size, PersistentVector<Integer> vector) {
+		assertEquals(size, vector.size(), "Wrong size.");
+		for (int i = 0; i < size; i++) {
+			assertEquals(i, (int) vector.get(i), "Wrong element at " + i + " of " + size);
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.get(size), "Size " + size + " has no more.");
+	}
+
+	private static <T> List<T> toList(PersistentVector<T> vector) {
+		List<T> list = new ArrayList<>(vector.size());
+		for (int i = 0; i < vector.size(); i++) {
+			list.add(vector.get(i));
+		}
+		return list;
+	}
+}
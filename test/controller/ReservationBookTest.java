@@ -0,0 +1,177 @@
+package controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Toy;
+import model.ToyType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ReservationBook} class.
+ *
+ * This class tests holding, confirming, releasing and expiring reservations,
+ * that fully held and unstocked toys stay listed with no units reported
+ * available, and that a confirmation racing the expiry thread ends each reservation exactly once.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ReservationBookTest {
+
+	@TempDir
+	Path dir;
+
+	private InventoryService service;
+	private ReservationBook book;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		File data = dir.resolve("toys.txt").toFile();
+		Files.write(data.toPath(), List.of("2000000002;Teddy Bear;Mattel;24.50;10;3;Plush;M",
+				"2000000003;Polar Bear;Mattel;30.00;500;3;Plush;L"));
+		service = new InventoryService(data, dir.resolve("toys.snapshot").toFile());
+		service.load();
+		book = new ReservationBook(service);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		book.close();
+		service.close();
+	}
+
+	@Test
+	void testConfirmSellsHeldUnits() {
+		Reservation reservation = book.reserve("2000000002", 4, 60_000);
+		Toy teddy = service.findBySerialNumber("2000000002");
+		assertEquals(6, teddy.getAvailableCount(), "Held units should not be available.");
+		assertEquals(10, teddy.getStockCount(), "Held units should stay in stock.");
+
+		assertTrue(book.confirm(reservation.getId()), "An open reservation should be confirmed.");
+		assertEquals(Reservation.State.CONFIRMED, reservation.getState(), "The reservation should be confirmed.");
+		assertEquals(6, teddy.getStockCount(), "The held units should be sold.");
+		assertEquals(0, teddy.getHeldCount(), "Nothing should be held any more.");
+		assertFalse(book.release(reservation.getId()), "A confirmed reservation cannot be released.");
+	}
+
+	@Test
+	void testReleaseReturnsUnits() {
+		Reservation reservation = book.reserve("2000000002", 10, 60_000);
+		assertNull(book.reserve("2000000002", 1, 60_000), "No units should be left to hold.");
+		assertTrue(book.release(reservation.getId()), "An open reservation should be released.");
+		assertEquals(10, service.findBySerialNumber("2000000002").getAvailableCount(), "Units should be back.");
+		assertFalse(book.confirm(reservation.getId()), "A released reservation cannot be confirmed.");
+		assertThrows(IllegalArgumentException.class, () -> book.reserve("2000000002", 0, 60_000),
+				"A zero quantity should be rejected.");
+	}
+
+	@Test
+	void testFullyHeldToyStaysListed() {
+		Reservation reservation = book.reserve("2000000002", 10, 60_000);
+		assertEquals(List.of("Teddy Bear", "Polar Bear"), names(service.searchByName("bear")),
+				"A fully held toy should still be found by name.");
+		assertEquals(List.of("Teddy Bear", "Polar Bear"), names(service.searchByType(ToyType.ANIMAL)),
+				"A fully held toy should still be found by type.");
+		assertEquals(2, service.suggestGifts(null, null, null).size(), "A fully held toy should still be suggested.");
+		assertEquals(0, service.searchByName("teddy").get(0).getAvailableCount(),
+				"Its held units should not be reported as available.");
+
+		book.release(reservation.getId());
+		assertEquals(10, service.searchByName("teddy").get(0).getAvailableCount(), "Released units should be back.");
+	}
+
+	@Test
+	void testZeroStockToyStaysListed() {
+		service.setStock("2000000002", 0);
+		assertEquals(List.of("Teddy Bear", "Polar Bear"), names(service.searchByName("bear")),
+				"A toy with no stock should still be found by name.");
+		assertEquals(List.of("Teddy Bear", "Polar Bear"), names(service.searchByType(ToyType.ANIMAL)),
+				"A toy with no stock should still be found by type.");
+		assertEquals(2, service.suggestGifts(null, null, null).size(), "A toy with no stock should still be suggested.");
+		assertNull(book.reserve("2000000002", 1, 60_000), "No units should be there to hold.");
+	}
+
+	@Test
+	void testExpiryReleasesUnits() throws InterruptedException {
+		Reservation reservation = book.reserve("2000000002", 3, 1);
+		Toy teddy = service.findBySerialNumber("2000000002");
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (teddy.getHeldCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(ReservationBook.TICK_MILLIS);
+		}
+		assertEquals(Reservation.State.EXPIRED, reservation.getState(), "The reservation should expire.");
+		assertEquals(10, teddy.getAvailableCount(), "Expired units should be available again.");
+		assertNull(book.get(reservation.getId()), "An expired reservation is no longer open.");
+		assertFalse(book.confirm(reservation.getId()), "An expired reservation cannot be confirmed.");
+	}
+
+	@Test
+	void testConfirmRacingExpiry() throws Exception {
+		Toy polar = service.findBySerialNumber("2000000003");
+		int count = 200;
+		List<Reservation> reservations = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			// Deadlines spread over a few ticks so some confirmations win and some lose
+			reservations.add(book.reserve("2000000003", 1, 1 + i % 4 * ReservationBook.TICK_MILLIS / 2));
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Boolean>> confirmed = new ArrayList<>();
+			for (Reservation reservation : reservations) {
+				confirmed.add(pool.submit(() -> {
+					start.await();
+					return book.confirm(reservation.getId());
+				}));
+			}
+			start.countDown();
+
+			int sold = 0;
+			for (int i = 0; i < count; i++) {
+				boolean won = confirmed.get(i).get();
+				Reservation.State expected = won ? Reservation.State.CONFIRMED : Reservation.State.EXPIRED;
+				if (won) {
+					sold++;
+				}
+				assertEquals(expected, reservations.get(i).getState(), "Each reservation should end exactly once.");
+			}
+
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (polar.getHeldCount() > 0 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(ReservationBook.TICK_MILLIS);
+			}
+			assertEquals(0, polar.getHeldCount(), "Every unit should be sold or released.");
+			assertEquals(500 - sold, polar.getStockCount(), "Only confirmed units should be sold.");
+			assertEquals(0, book.size(), "No reservation should be left open.");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the names of a list of toys.
+	 */
+	private static List<String> names(List<Toy> toys) {
+		List<String> names = new ArrayList<>();
+		for (Toy toy : toys) {
+			names.add(toy.getName());
+		}
+		return names;
+	}
+}
@@ -0,0 +1,156 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TimingWheel} class.
+ *
+ * This class tests that items expire on the tick they are due, across the
+ * cascades between levels, beyond the wheel's reach and when scheduled
+ * overdue, and compares the wheel against a plain map of deadlines.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class TimingWheelTest {
+
+	private static final long LEVEL_1 = 64; // Ticks covered by one level 0 round
+	private static final long LEVEL_2 = 64 * 64;
+	private static final long LEVEL_3 = 64 * 64 * 64;
+	private static final long MAX_DELAY = 64L * 64 * 64 * 64 - 1;
+
+	@Test
+	void testExpiresOnDeadline() {
+		TimingWheel<String> wheel = new TimingWheel<>(0);
+		wheel.schedule("soon", 5);
+		List<String> expired = new ArrayList<>();
+
+		wheel.advanceTo(4, expired::add);
+		assertTrue(expired.isEmpty(), "Nothing should expire before its deadline.");
+		wheel.advanceTo(5, expired::add);
+		assertEquals(List.of("soon"), expired, "The item should expire on its deadline.");
+		assertEquals(0, wheel.size(), "The wheel should be empty.");
+	}
+
+	@Test
+	void testCascadesThroughEveryLevel() {
+		long start = 37; // Not on a level boundary, so slots wrap mid-round
+		long[] deadlines = { start + LEVEL_1, start + LEVEL_2 - 1, start + LEVEL_2, start + LEVEL_3 + 5,
+				start + MAX_DELAY };
+		for (long deadline : deadlines) {
+			assertEquals(deadline, expiryTick(start, deadline), "Item due at " + deadline + " expired late or early.");
+		}
+	}
+
+	@Test
+	void testLevelWrapsOnBoundary() {
+		// Due on the tick where levels 1, 2 and 3 all wrap at once
+		assertEquals(LEVEL_3 * 64, expiryTick(LEVEL_3 * 64 - 1, LEVEL_3 * 64), "A full wrap should expire on time.");
+		assertEquals(LEVEL_2 * 3, expiryTick(LEVEL_2 * 3 - 2, LEVEL_2 * 3), "A level 2 wrap should expire on time.");
+	}
+
+	@Test
+	void testBeyondMaxDelay() {
+		long start = 1000;
+		long deadline = start + MAX_DELAY + 12345;
+		TimingWheel<String> wheel = new TimingWheel<>(start);
+		wheel.schedule("far", deadline);
+		List<String> expired = new ArrayList<>();
+
+		wheel.advanceTo(deadline - 1, expired::add);
+		assertTrue(expired.isEmpty(), "An item beyond the wheel's reach should not expire early.");
+		wheel.advanceTo(deadline, expired::add);
+		assertEquals(List.of("far"), expired, "It should expire on its deadline.");
+	}
+
+	@Test
+	void testOverdueExpiresOnNextTick() {
+		TimingWheel<String> wheel = new TimingWheel<>(500);
+		wheel.schedule("late", 10);
+		wheel.schedule("now", 500);
+		List<String> expired = new ArrayList<>();
+
+		wheel.advanceTo(500, expired::add);
+		assertEquals(2, expired.size(), "Overdue and current items should expire on the next tick.");
+
+		// Overdue on a tick where level 0 wraps and cascades
+		TimingWheel<String> wrapping = new TimingWheel<>(LEVEL_2);
+		wrapping.schedule("late", 1);
+		expired.clear();
+		wrapping.advanceTo(LEVEL_2, expired::add);
+		assertEquals(List.of("late"), expired, "An overdue item should expire even as the wheel cascades.");
+	}
+
+	@Test
+	void testMatchesModel() {
+		Random random = new Random(42);
+		long start = random.nextInt(100_000);
+		TimingWheel<Integer> wheel = new TimingWheel<>(start);
+		Map<Integer, Long> pending = new HashMap<>();
+		long now = start - 1; // Last tick processed
+		int next = 0;
+
+		for (int round = 0; round < 2_000; round++) {
+			int scheduled = random.nextInt(5);
+			for (int i = 0; i < scheduled; i++) {
+				long deadline;
+				switch (random.nextInt(4)) {
+				case 0:
+					deadline = now - random.nextInt(100); // Overdue
+					break;
+				case 1:
+					deadline = now + 1 + random.nextInt(200);
+					break;
+				case 2:
+					deadline = now + 1 + random.nextInt((int) LEVEL_3);
+					break;
+				default:
+					deadline = now + 1 + (long) (random.nextDouble() * MAX_DELAY * 1.5);
+					break;
+				}
+				pending.put(next, Math.max(deadline, now + 1)); // Overdue items expire on the next tick processed
+				wheel.schedule(next++, deadline);
+			}
+
+			long step = random.nextInt(10) == 0 ? random.nextInt((int) LEVEL_3) : random.nextInt(300);
+			long target = now + step;
+			List<Integer> expired = new ArrayList<>();
+			wheel.advanceTo(target, expired::add);
+			for (int item : expired) {
+				assertTrue(pending.remove(item) <= target, "Item " + item + " expired before its deadline.");
+			}
+			for (long deadline : pending.values()) {
+				assertTrue(deadline > target, "An item due by tick " + target + " was not expired.");
+			}
+			assertEquals(pending.size(), wheel.size(), "The wheel should count its pending items.");
+			now = target;
+		}
+	}
+
+	/**
+	 * Schedules one item and finds the first tick at which it expires, advancing
+	 * one tick at a time around the deadline and in large steps before it.
+	 */
+	private static long expiryTick(long start, long deadline) {
+		TimingWheel<String> wheel = new TimingWheel<>(start);
+		wheel.schedule("item", deadline);
+		List<String> expired = new ArrayList<>();
+		wheel.advanceTo(deadline - 2, expired::add);
+		assertTrue(expired.isEmpty(), "The item expired well before tick " + deadline);
+		for (long tick = deadline - 1; tick <= deadline + 1; tick++) {
+			wheel.advanceTo(tick, expired::add);
+			if (!expired.isEmpty()) {
+				return tick;
+			}
+		}
+		return -1;
+	}
+}
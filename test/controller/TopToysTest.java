@@ -0,0 +1,100 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Figures;
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TopToys} class.
+ *
+ * This class tests that the heap keeps the same best toys, in the same order,
+ * as a full sort of everything offered, for limits smaller and larger than
+ * the number of toys, and that equal scores rank the cheaper toy higher.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class TopToysTest {
+
+	@Test
+	void testMatchesFullSort() {
+		Random random = new Random(24);
+		for (int round = 0; round < 200; round++) {
+			int count = random.nextInt(300);
+			int limit = 1 + random.nextInt(40);
+			List<Offer> offers = new ArrayList<>();
+			TopToys top = new TopToys(limit);
+			for (int i = 0; i < count; i++) {
+				// Few distinct scores, so ties are common; prices differ to break them
+				Offer offer = new Offer(figure(i), random.nextInt(8) / 2.0, 1000 * random.nextInt(5) + i);
+				offers.add(offer);
+				top.offer(offer.toy, offer.score, offer.priceCents);
+			}
+
+			offers.sort(Comparator.<Offer>comparingDouble(offer -> -offer.score)
+					.thenComparingLong(offer -> offer.priceCents));
+			List<Toy> expected = new ArrayList<>();
+			for (Offer offer : offers.subList(0, Math.min(limit, count))) {
+				expected.add(offer.toy);
+			}
+			assertEquals(expected, top.sorted(), "Round " + round + " should keep the best " + limit);
+		}
+	}
+
+	@Test
+	void testLimit() {
+		List<Toy> toys = new ArrayList<>();
+		TopToys top = new TopToys(3);
+		for (int i = 0; i < 10; i++) {
+			toys.add(figure(i));
+			top.offer(toys.get(i), i, 100);
+		}
+		assertEquals(3, top.unordered().size(), "Only the limit should be kept.");
+		assertEquals(List.of(toys.get(9), toys.get(8), toys.get(7)), top.sorted(),
+				"The three highest scores should be kept, best first.");
+		assertTrue(top.sorted().isEmpty(), "Sorting should empty the set.");
+
+		TopToys large = new TopToys(Integer.MAX_VALUE);
+		large.offer(figure(0), 1, 100);
+		assertEquals(1, large.sorted().size(), "A huge limit should keep every toy offered.");
+	}
+
+	@Test
+	void testEqualScoresPreferCheaper() {
+		TopToys top = new TopToys(2);
+		Toy dear = figure(0);
+		Toy cheap = figure(1);
+		Toy cheapest = figure(2);
+		top.offer(dear, 1, 300);
+		top.offer(cheap, 1, 200);
+		top.offer(cheapest, 1, 100);
+		assertEquals(List.of(cheapest, cheap), top.sorted(), "The dearest of equal scores should be dropped.");
+	}
+
+	private static Toy figure(int number) {
+		return new Figures(String.format("1%09d", number), "Figure " + number, "Hasbro", 0, 1, 6, 'A');
+	}
+
+	/**
+	 * A toy offered with its score and price.
+	 */
+	private static final class Offer {
+		private final Toy toy;
+		private final double score;
+		private final long priceCents;
+
+		private Offer(Toy toy, double score, long priceCents) {
+			this.toy = toy;
+			this.score = score;
+			this.priceCents = priceCents;
+		}
+	}
+}
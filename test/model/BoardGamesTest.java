@@ -26,7 +26,7 @@ class BoardGamesTest {
 	 */
 	@BeforeEach
 	void setUp() {
-		boardGame = new BoardGames("1234567890", "Chess", "ClassicGames", 19.99, 15, 8, 2, 4, "John Doe, Jane Smith");
+		boardGame = new BoardGames("7234567890", "Chess", "ClassicGames", 19.99, 15, 8, 2, 4, "John Doe, Jane Smith");
 	}
 
 	@Test
@@ -47,7 +47,7 @@ class BoardGamesTest {
 	@Test
 	void testInvalidPlayerCount() {
 		assertThrows(PlayerCountException.class,
-				() -> new BoardGames("1234567890", "Chess", "ClassicGames", 19.99, 15, 8, 5, 2, "John Doe"),
+				() -> new BoardGames("7234567890", "Chess", "ClassicGames", 19.99, 15, 8, 5, 2, "John Doe"),
 				"Setting min players greater than max players should throw an exception.");
 	}
 }
@@ -0,0 +1,46 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link StringDictionary} class.
+ *
+ * This class tests id assignment, decoding and the sharing of attribute values
+ * between toys.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class StringDictionaryTest {
+
+	@Test
+	void testEncodeAssignsOneIdPerValue() {
+		StringDictionary dictionary = new StringDictionary();
+		int lego = dictionary.encode("Lego");
+		int hasbro = dictionary.encode("Hasbro");
+
+		assertNotEquals(lego, hasbro, "Different values should get different ids.");
+		assertEquals(lego, dictionary.encode(new String("Lego")), "Equal values should share an id.");
+		assertEquals("Hasbro", dictionary.decode(hasbro), "Decoding should return the original value.");
+		assertEquals(2, dictionary.size(), "Only distinct values should be stored.");
+	}
+
+	@Test
+	void testNullAndMissingValues() {
+		StringDictionary dictionary = new StringDictionary();
+		assertEquals(-1, dictionary.encode(null), "Null should encode to -1.");
+		assertNull(dictionary.decode(-1), "-1 should decode to null.");
+		assertEquals(-1, dictionary.lookup("Mattel"), "Lookup should not add a missing value.");
+		assertEquals(0, dictionary.size(), "The dictionary should still be empty.");
+	}
+
+	@Test
+	void testToysShareBrandInstances() {
+		Toy first = new Puzzles("4234567890", "Sudoku", new String("PuzzleMania"), 7.99, 50, 6, 'L');
+		Toy second = new Puzzles("4234567891", "Maze", new String("PuzzleMania"), 5.99, 20, 4, 'M');
+
+		assertEquals(first.getBrandId(), second.getBrandId(), "Equal brands should share an id.");
+		assertSame(first.getBrand(), second.getBrand(), "Equal brands should share one String.");
+	}
+}
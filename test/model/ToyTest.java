@@ -35,6 +35,42 @@ class ToyTest {
 		assertEquals("1234567890", toy.getSn(), "Serial number should match.");
 	}
 
+	@Test
+	void testSerialKeepsLeadingZeros() {
+		Toy figure = new Figures("0000000042", "Robin", "DC", 9.99, 5, 6, 'A');
+		assertEquals(42L, figure.getSerial(), "Numeric serial should match.");
+		assertEquals("0000000042", figure.getSn(), "Serial number should keep its leading zeros.");
+	}
+
+	@Test
+	void testPriceHeldInCents() {
+		assertEquals(1499L, toy.getPriceCents(), "Price should be stored as whole cents.");
+		assertEquals(14.99, toy.getPrice(), "Price should still read back as dollars.");
+		assertEquals(28L, Toy.centsAtMost(0.289), "A price limit should round down to whole cents.");
+	}
+
+	@Test
+	void testTakeStock() {
+		int stock = toy.getAvailableCount();
+		assertEquals(stock - 1, toy.takeStock(1), "Taking a unit should return the remaining stock.");
+		assertEquals(-1, toy.takeStock(stock), "Taking more than is available should fail.");
+		assertEquals(stock - 1, toy.getAvailableCount(), "A failed take should leave the stock unchanged.");
+		toy.returnStock(1);
+		assertEquals(stock, toy.getAvailableCount(), "Returned units should be back in stock.");
+	}
+
+	@Test
+	void testHeldStock() {
+		int stock = toy.getAvailableCount();
+		assertTrue(toy.holdStock(2), "Available units should be held.");
+		assertEquals(stock - 2, toy.getAvailableCount(), "Held units should not be available.");
+		assertEquals(stock, toy.getStockCount(), "Held units should still be in stock.");
+		assertEquals(-1, toy.takeStock(stock - 1), "Held units should not be sold to other buyers.");
+		assertEquals(stock - 1, toy.sellHeldStock(1), "Selling a held unit should leave the rest in stock.");
+		toy.releaseStock(1);
+		assertEquals(stock - 1, toy.getAvailableCount(), "Released units should be available again.");
+	}
+
 	@Test
 	void testGetBrand() {
 		assertEquals("DC", toy.getBrand(), "Brand should match.");
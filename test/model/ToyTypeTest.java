@@ -0,0 +1,38 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ToyType} enum.
+ *
+ * This class tests the mapping from serial number prefixes and labels to toy
+ * types.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ToyTypeTest {
+
+	@Test
+	void testFromSerialPrefix() {
+		assertEquals(ToyType.FIGURE, ToyType.fromSerialPrefix('1'), "Prefix 1 should be a Figure.");
+		assertEquals(ToyType.ANIMAL, ToyType.fromSerialPrefix('2'), "Prefix 2 should be an Animal.");
+		assertEquals(ToyType.PUZZLE, ToyType.fromSerialPrefix('6'), "Prefix 6 should be a Puzzle.");
+		assertEquals(ToyType.BOARD_GAME, ToyType.fromSerialPrefix('7'), "Prefix 7 should be a BoardGame.");
+		assertNull(ToyType.fromSerialPrefix('X'), "A non-digit prefix should have no type.");
+	}
+
+	@Test
+	void testFromLabelIgnoresCase() {
+		assertEquals(ToyType.BOARD_GAME, ToyType.fromLabel("boardgame"), "Label lookup should ignore case.");
+		assertNull(ToyType.fromLabel("Robot"), "An unknown label should have no type.");
+	}
+
+	@Test
+	void testToyReportsItsType() {
+		Toy toy = new Puzzles("4234567890", "Sudoku", "PuzzleMania", 7.99, 50, 6, 'L');
+		assertEquals(ToyType.PUZZLE, toy.getType(), "Type should match the subclass.");
+		assertEquals(toy.getToyType(), toy.getType().getLabel(), "Label should match getToyType().");
+	}
+}
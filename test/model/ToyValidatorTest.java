@@ -0,0 +1,53 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import exceptions.PlayerCountException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ToyValidator} class.
+ *
+ * This class tests the serial number, attribute code and player range rules
+ * shared by the Toy classes.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ToyValidatorTest {
+
+	@Test
+	void testSerialNumberFormat() {
+		assertTrue(ToyValidator.isSerialNumber("1234567890"), "Ten digits should be a valid serial number.");
+		assertFalse(ToyValidator.isSerialNumber("123456789"), "Nine digits should be rejected.");
+		assertFalse(ToyValidator.isSerialNumber("12345678a0"), "Letters should be rejected.");
+		assertFalse(ToyValidator.isDigits(""), "An empty value should not count as digits.");
+	}
+
+	@Test
+	void testSerialNumberPrefix() {
+		assertTrue(ToyValidator.isSerialNumber("2234567890", ToyType.ANIMAL), "Prefix 2 should be an Animal.");
+		assertFalse(ToyValidator.isSerialNumber("4234567890", ToyType.ANIMAL), "Prefix 4 should not be an Animal.");
+		assertThrows(IllegalArgumentException.class,
+				() -> ToyValidator.requireSerialNumber("7234567890", ToyType.FIGURE),
+				"A Board Game prefix should be rejected for a Figure.");
+	}
+
+	@Test
+	void testAttributeCodes() {
+		assertTrue(ToyValidator.isClassification('H'), "'H' should be a valid classification.");
+		assertFalse(ToyValidator.isSize('X'), "'X' should not be a valid size.");
+		assertTrue(ToyValidator.isPuzzleType('R'), "'R' should be a valid puzzle type.");
+		assertThrows(IllegalArgumentException.class, () -> ToyValidator.requirePuzzleType('Q'),
+				"An unknown puzzle type should be rejected.");
+	}
+
+	@Test
+	void testPlayerRange() {
+		assertTrue(ToyValidator.isPlayerRange(2, 2), "Equal minimum and maximum should be valid.");
+		assertFalse(ToyValidator.isPlayerRange(0, 4), "A minimum of zero should be rejected.");
+		assertThrows(PlayerCountException.class, () -> ToyValidator.requirePlayerRange(5, 2),
+				"A minimum above the maximum should be rejected.");
+	}
+}
@@ -0,0 +1,215 @@
+package persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Figures;
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ChangeJournal} class.
+ *
+ * This class tests replaying journaled adds, removals and stock changes over
+ * the data file, including a rotated journal left by an unfinished
+ * compaction and a torn last line, coalescing changes between flushes, rotating and compacting a
+ * large journal into the data file, retrying a failed append without keeping
+ * its torn line, and durability futures after the journal is closed.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ChangeJournalTest {
+
+	private static final long TIMEOUT_SECONDS = 30; // Longest wait for a flush
+
+	@TempDir
+	Path dir;
+
+	private File data;
+	private File journalFile;
+	private File compactingFile;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		data = dir.resolve("toys.txt").toFile();
+		journalFile = dir.resolve("toys.journal").toFile();
+		compactingFile = dir.resolve("toys.journal.compacting").toFile();
+		Files.write(data.toPath(), List.of("2000000002;Teddy Bear;Mattel;24.50;10;3;Plush;M",
+				"4000000003;Sudoku;PuzzleMania;9.99;3;8;L"));
+	}
+
+	@Test
+	void testReplayAppliesEvents() throws Exception {
+		ChangeJournal journal = quietJournal();
+		List<Toy> toys = load();
+		Toy teddy = toys.get(0);
+		teddy.setAvailableCount(7);
+		Toy added = new Figures("1000000001", "Action Bear", "Hasbro", 19.99, 5, 6, 'A');
+		journal.recordStock(teddy);
+		journal.recordAdd(added);
+		journal.recordRemove(toys.get(1).getSerial());
+		journal.whenDurable().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		journal.close();
+
+		List<Toy> replayed = replay(load());
+		assertEquals(List.of("2000000002", "1000000001"), serials(replayed), "The removal and add should replay.");
+		assertEquals(7, replayed.get(0).getAvailableCount(), "The stock change should replay.");
+		assertEquals("Action Bear", replayed.get(1).getName(), "The added toy's record should replay.");
+	}
+
+	@Test
+	void testReplaysRotatedJournalFirst() throws IOException {
+		Files.write(compactingFile.toPath(), List.of("S;2000000002;4", "R;4000000003"), StandardCharsets.UTF_8);
+		Files.write(journalFile.toPath(),
+				List.of("S;2000000002;9", "X;unknown", "A;4000000003;Sudoku;PuzzleMania;12.00;1;8;L"),
+				StandardCharsets.UTF_8);
+		List<Toy> replayed = replay(load());
+
+		assertEquals(List.of("2000000002", "4000000003"), serials(replayed), "A re-added toy should be back.");
+		assertEquals(9, replayed.get(0).getAvailableCount(), "The active journal should replay last.");
+		assertEquals(1200, replayed.get(1).getPriceCents(), "The re-added toy should have its journaled record.");
+	}
+
+	@Test
+	void testReplaySkipsTornLastLine() throws IOException {
+		// "S;2000000002;12" cut short by a crash still parses as a stock of 1
+		Files.write(journalFile.toPath(), "S;2000000002;5\nS;2000000002;1".getBytes(StandardCharsets.UTF_8));
+		List<Toy> replayed = replay(load());
+
+		assertEquals(5, replayed.get(0).getAvailableCount(), "Only whole lines should replay.");
+	}
+
+	@Test
+	void testChangesBetweenFlushesCoalesce() throws Exception {
+		ChangeJournal journal = quietJournal();
+		Toy teddy = load().get(0);
+		for (int count = 9; count >= 5; count--) {
+			teddy.setAvailableCount(count);
+			journal.recordStock(teddy);
+		}
+		journal.recordRemove(4000000003L);
+		journal.recordStock(teddy);
+		journal.whenDurable().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		journal.close();
+
+		assertEquals(List.of("S;2000000002;5", "R;4000000003"), readJournal(),
+				"Each toy should be written once, as it is at flush time.");
+	}
+
+	@Test
+	void testRotationAndCompaction() throws Exception {
+		ChangeJournal journal = quietJournal();
+		List<Toy> toys = load();
+		// Enough added records to grow the journal past the 1 MB compaction floor
+		for (int i = 0; i < 30_000; i++) {
+			Toy toy = new Figures(String.format("1%09d", i), "Figure number " + i, "Hasbro", 10, 5, 6, 'A');
+			toys.add(toy);
+			journal.recordAdd(toy);
+		}
+		journal.whenDurable().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertTrue(journal.needsCompaction(), "A large journal should need compaction.");
+
+		journal.compactIfNeeded(toys);
+		Toy teddy = toys.get(0);
+		teddy.setAvailableCount(1);
+		journal.recordStock(teddy); // Goes to the new journal
+		journal.whenDurable().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		journal.close(); // Waits for the compaction
+
+		assertFalse(compactingFile.exists(), "The rotated journal should be deleted once compacted.");
+		assertEquals(List.of("S;2000000002;1"), readJournal(), "Only later changes should be in the new journal.");
+		List<Toy> compacted = load();
+		assertEquals(30_002, compacted.size(), "The data file should hold the whole inventory.");
+		assertEquals("Figure number 29999", compacted.get(30_001).getName(), "Added toys should be written.");
+
+		List<Toy> replayed = replay(compacted);
+		assertEquals(serials(toys), serials(replayed), "Replaying should give the same inventory.");
+		assertEquals(1, replayed.get(0).getAvailableCount(), "The later change should replay on top.");
+	}
+
+	@Test
+	void testFailedAppendIsRetriedWithoutTornLine() throws Exception {
+		ChangeJournal journal = quietJournal();
+		Toy teddy = load().get(0);
+		Files.createDirectory(journalFile.toPath()); // The journal cannot be opened
+		teddy.setAvailableCount(6);
+		journal.recordStock(teddy);
+		CompletableFuture<Void> failed = journal.whenDurable();
+		ExecutionException error = assertThrows(ExecutionException.class,
+				() -> failed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), "The flush should fail.");
+		assertTrue(error.getCause() instanceof IOException, "The write error should be reported.");
+
+		// Leave the start of a line behind, as a write failing halfway would
+		Files.delete(journalFile.toPath());
+		Files.write(journalFile.toPath(), "S;20000".getBytes(StandardCharsets.UTF_8));
+		journal.whenDurable().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		journal.close();
+
+		assertEquals(List.of("S;2000000002;6"), readJournal(), "The kept change should replace the torn line.");
+	}
+
+	@Test
+	void testWhenDurableAfterClose() throws Exception {
+		ChangeJournal journal = quietJournal();
+		journal.recordRemove(4000000003L);
+		CompletableFuture<Void> pending = journal.whenDurable();
+		journal.close();
+		assertTrue(pending.isDone() && !pending.isCompletedExceptionally(), "Close should write pending changes.");
+		assertTrue(journal.whenDurable().isDone(), "With nothing pending the future should complete at once.");
+
+		journal.recordRemove(2000000002L);
+		CompletableFuture<Void> late = journal.whenDurable();
+		assertTrue(late.isCompletedExceptionally(), "A change recorded after close can never become durable.");
+		assertEquals(List.of("R;4000000003"), readJournal(), "Nothing should be written after close.");
+	}
+
+	/**
+	 * Creates a journal that only flushes when asked to, so tests decide what
+	 * goes into each flush.
+	 */
+	private ChangeJournal quietJournal() {
+		return new ChangeJournal(data, TimeUnit.HOURS.toMillis(1), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Replays the journal as a fresh start would, then closes it.
+	 */
+	private List<Toy> replay(List<Toy> toys) {
+		ChangeJournal journal = new ChangeJournal(data);
+		try {
+			return journal.replay(toys);
+		} finally {
+			journal.close();
+		}
+	}
+
+	private List<Toy> load() throws IOException {
+		return new MappedToyLoader().load(data);
+	}
+
+	private List<String> readJournal() throws IOException {
+		return Files.readAllLines(journalFile.toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static List<String> serials(List<Toy> toys) {
+		List<String> serials = new ArrayList<>();
+		for (Toy toy : toys) {
+			serials.add(toy.getSn());
+		}
+		return serials;
+	}
+}
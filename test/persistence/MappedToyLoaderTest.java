@@ -0,0 +1,239 @@
+package persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Animals;
+import model.BoardGames;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link MappedToyLoader} class.
+ *
+ * This class tests that the loader parses the same toys and reports the same
+ * errors as the original Scanner based parser for random valid and broken
+ * records, that the parallel chunked load gives the same result as a serial
+ * one, that blank lines are skipped, and that errors report the line numbers
+ * of the original file, including lines in later chunks.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class MappedToyLoaderTest {
+
+	private static final String[] PRICES = { "12.50", "7", "0.5", "1e2", "-3.00", "abc", "" };
+	private static final String[] COUNTS = { "5", "0", "12", "-1", "x" };
+	private static final String[] RANGES = { "2-4", "1-8", "4-2", "2", "a-b" };
+
+	@TempDir
+	Path dir;
+
+	private final ByteArrayOutputStream console = new ByteArrayOutputStream();
+	private PrintStream originalOut;
+
+	@BeforeEach
+	void captureConsole() {
+		originalOut = System.out;
+		System.setOut(new PrintStream(console, true, StandardCharsets.UTF_8));
+	}
+
+	@AfterEach
+	void restoreConsole() {
+		System.setOut(originalOut);
+	}
+
+	@Test
+	void testMatchesScannerParser() throws IOException {
+		List<String> lines = randomLines(new Random(1), 3000);
+		File file = write(lines);
+		List<String> expectedErrors = new ArrayList<>();
+		List<Toy> expected = scannerParse(file, expectedErrors);
+
+		List<Toy> loaded = new MappedToyLoader().load(file, false);
+		assertEquals(records(expected), records(loaded), "The same toys should be parsed.");
+		assertFalse(expectedErrors.isEmpty(), "Some random lines should be broken.");
+		assertEquals(expectedErrors, consoleLines(), "The same errors should be reported, with line numbers.");
+	}
+
+	@Test
+	void testParallelMatchesSerial() throws IOException {
+		// Several megabytes, so the parallel load splits the file into many chunks
+		List<String> lines = randomLines(new Random(2), 60_000);
+		File file = write(lines);
+		List<String> expectedErrors = new ArrayList<>();
+		List<Toy> expected = scannerParse(file, expectedErrors);
+		assertTrue(file.length() > 16L * 65536, "The file should span several chunks.");
+
+		List<Toy> serial = new MappedToyLoader().load(file, false);
+		List<String> serialErrors = consoleLines();
+		console.reset();
+		List<Toy> parallel = new MappedToyLoader().load(file, true);
+
+		assertEquals(records(serial), records(parallel), "A parallel load should give the same toys in order.");
+		assertEquals(serialErrors, consoleLines(), "A parallel load should report the same errors.");
+		assertEquals(records(expected), records(parallel), "Both should match the Scanner parser.");
+		assertEquals(expectedErrors, consoleLines(), "Errors in later chunks should keep their file line numbers.");
+	}
+
+	@Test
+	void testBlankLinesSkipped() throws IOException {
+		File file = dir.resolve("toys.txt").toFile();
+		Files.write(file.toPath(), ("1000000001;Batman;DC;14.99;30;7;A\r\n\r\n\n"
+				+ "2000000002;Teddy Bear;Mattel;24.50;10;3;Plush;M\n\nX000000003;Odd;Acme;1.00;1;1;A\n\n")
+						.getBytes(StandardCharsets.UTF_8));
+		for (boolean parallel : new boolean[] { false, true }) {
+			console.reset();
+			List<Toy> toys = new MappedToyLoader().load(file, parallel);
+			assertEquals(List.of("1000000001", "2000000002"), Arrays.asList(toys.get(0).getSn(), toys.get(1).getSn()),
+					"Blank lines should be skipped, with Windows line endings too.");
+			assertEquals(2, toys.size(), "Only the two toys should be loaded.");
+			assertEquals(List.of("Unknown toy type on line 6: X000000003;Odd;Acme;1.00;1;1;A"), consoleLines(),
+					"Blank lines should still be counted in line numbers.");
+		}
+	}
+
+	/**
+	 * Parses a file the way the original Scanner based loader did, collecting
+	 * each error as the mapped loader words it: the same message with the line
+	 * number added.
+	 */
+	private static List<Toy> scannerParse(File file, List<String> errors) throws IOException {
+		List<Toy> toys = new ArrayList<>();
+		try (Scanner inputFile = new Scanner(file)) {
+			int lineNumber = 0;
+			while (inputFile.hasNext()) {
+				String curLine = inputFile.nextLine();
+				lineNumber++;
+				String[] splittedLine = curLine.split(";");
+				String serialNumber = splittedLine[0];
+				try {
+					Toy toy = null;
+					switch (serialNumber.charAt(0)) {
+					case '0':
+					case '1':
+						toy = new Figures(serialNumber, splittedLine[1], splittedLine[2],
+								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
+								Integer.parseInt(splittedLine[5]), splittedLine[6].charAt(0));
+						break;
+					case '2':
+					case '3':
+						toy = new Animals(serialNumber, splittedLine[1], splittedLine[2],
+								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
+								Integer.parseInt(splittedLine[5]), splittedLine[6], splittedLine[7].charAt(0));
+						break;
+					case '4':
+					case '5':
+					case '6':
+						toy = new Puzzles(serialNumber, splittedLine[1], splittedLine[2],
+								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
+								Integer.parseInt(splittedLine[5]), splittedLine[6].charAt(0));
+						break;
+					case '7':
+					case '8':
+					case '9':
+						String[] playerRange = splittedLine[6].split("-");
+						int minPlayers = Integer.parseInt(playerRange[0]);
+						int maxPlayers = Integer.parseInt(playerRange[1]);
+						toy = new BoardGames(serialNumber, splittedLine[1], splittedLine[2],
+								Double.parseDouble(splittedLine[3]), Integer.parseInt(splittedLine[4]),
+								Integer.parseInt(splittedLine[5]), minPlayers, maxPlayers, splittedLine[7]);
+						break;
+					default:
+						errors.add("Unknown toy type on line " + lineNumber + ": " + curLine);
+					}
+					if (toy != null) {
+						toys.add(toy);
+					}
+				} catch (Exception e) {
+					errors.add("Error parsing line " + lineNumber + ": " + curLine + " - " + e.getMessage());
+				}
+			}
+		}
+		return toys;
+	}
+
+	/**
+	 * Makes records of every type, mostly valid, with some broken fields,
+	 * missing fields or unknown serial number prefixes.
+	 */
+	private static List<String> randomLines(Random random, int count) {
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			boolean broken = random.nextInt(20) == 0;
+			int prefix = random.nextInt(10);
+			String sn = (broken && random.nextInt(4) == 0 ? "X" : String.valueOf(prefix))
+					+ String.format("%09d", i);
+			String price = broken ? PRICES[random.nextInt(PRICES.length)] : PRICES[random.nextInt(3)];
+			String stock = broken ? COUNTS[random.nextInt(COUNTS.length)] : COUNTS[random.nextInt(3)];
+			List<String> fields = new ArrayList<>(
+					List.of(sn, "Toy " + i, "Brand " + random.nextInt(5), price, stock, String.valueOf(random.nextInt(13))));
+			if (prefix <= 1) {
+				fields.add("AMD".substring(random.nextInt(3)).substring(0, 1));
+			} else if (prefix <= 3) {
+				fields.add("Plush");
+				fields.add("SML".substring(random.nextInt(3)).substring(0, 1));
+			} else if (prefix <= 6) {
+				fields.add("CLT".substring(random.nextInt(3)).substring(0, 1));
+			} else {
+				fields.add(broken ? RANGES[random.nextInt(RANGES.length)] : RANGES[random.nextInt(2)]);
+				fields.add("Ann, Bob");
+			}
+			if (broken && random.nextInt(4) == 0) {
+				fields = fields.subList(0, 1 + random.nextInt(fields.size() - 1)); // Missing fields
+			}
+			lines.add(String.join(";", fields));
+		}
+		return lines;
+	}
+
+	private File write(List<String> lines) throws IOException {
+		File file = dir.resolve("toys.txt").toFile();
+		Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	/**
+	 * Gets the loader's error lines printed since the last reset, leaving out
+	 * anything printed by background threads of other tests.
+	 */
+	private List<String> consoleLines() {
+		List<String> lines = new ArrayList<>();
+		for (String line : new String(console.toByteArray(), StandardCharsets.UTF_8).split(System.lineSeparator())) {
+			if (line.startsWith("Error parsing line ") || line.startsWith("Unknown toy type on line ")) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Describes each toy by its saved record and exact price, which cover every
+	 * field.
+	 */
+	private static List<String> records(List<Toy> toys) {
+		List<String> records = new ArrayList<>();
+		for (Toy toy : toys) {
+			records.add(toy.toDataString() + " @" + toy.getPriceCents());
+		}
+		return records;
+	}
+}
@@ -0,0 +1,83 @@
+package persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import model.Animals;
+import model.BoardGames;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+import model.ToyType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ToyCodecs} registry and its codecs.
+ *
+ * This class tests that every toy type's codec decodes what it encodes, in
+ * both the text and the binary format, and that serial number prefixes find
+ * the codec of the type {@link ToyType} gives them, with no codec for an
+ * unknown prefix.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ToyCodecsTest {
+
+	private static final List<Toy> TOYS = List.of(new Figures("0000000042", "Robin", "DC", 9.99, 5, 6, 'H'),
+			new Animals("3000000007", "Teddy Bear", "Mattel", 24.5, 0, 3, "Plush", 'L'),
+			new Puzzles("5000000003", "Sudoku", "PuzzleMania", 0.01, 1, 8, 'T'),
+			new BoardGames("8000000009", "Catan", "Kosmos", 1234.56, 12, 10, 3, 4, "Klaus Teuber, Ann"));
+
+	@Test
+	void testTextRoundTrip() {
+		TextRecordWriter writer = new TextRecordWriter();
+		MappedToyLoader parser = new MappedToyLoader();
+		for (Toy toy : TOYS) {
+			String record = writer.format(toy);
+			assertEquals(toy.toDataString(), record, "The record should match toDataString().");
+			assertRoundTrip(toy, parser.parseRecord(record));
+		}
+	}
+
+	@Test
+	void testBinaryRoundTrip() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryRecordWriter writer = new BinaryRecordWriter(new DataOutputStream(bytes));
+		for (Toy toy : TOYS) {
+			ToyCodecs.forType(toy.getType()).encode(toy, writer);
+		}
+
+		BinaryRecordReader reader = new BinaryRecordReader(ByteBuffer.wrap(bytes.toByteArray()));
+		for (Toy toy : TOYS) {
+			assertRoundTrip(toy, ToyCodecs.forType(toy.getType()).decode(reader));
+		}
+	}
+
+	@Test
+	void testPrefixesFollowToyType() {
+		for (char digit = '0'; digit <= '9'; digit++) {
+			ToyType type = ToyType.fromSerialPrefix(digit);
+			assertEquals(type, ToyCodecs.forPrefix(digit).getType(), "Prefix " + digit + " should find its type.");
+			assertTrue(type.getSerialPrefixes().indexOf(digit) >= 0, "The type should list prefix " + digit);
+		}
+		for (ToyType type : ToyType.values()) {
+			assertEquals(type, ToyCodecs.forType(type).getType(), "Each type should have its codec.");
+		}
+		assertNull(ToyCodecs.forPrefix('X'), "An unknown prefix should have no codec.");
+		assertNull(ToyCodecs.forPrefix('/'), "A character just below the digits should have no codec.");
+		assertNull(ToyCodecs.forPrefix(':'), "A character just above the digits should have no codec.");
+	}
+
+	private static void assertRoundTrip(Toy expected, Toy actual) {
+		assertEquals(expected.getType(), actual.getType(), "The type should be kept.");
+		assertEquals(expected.toDataString(), actual.toDataString(), "Every field should be kept.");
+		assertEquals(expected.getPriceCents(), actual.getPriceCents(), "The exact price should be kept.");
+	}
+}
@@ -0,0 +1,127 @@
+package persistence;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Animals;
+import model.BoardGames;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ToySnapshot} class.
+ *
+ * This class tests writing and reading back every field of every toy type,
+ * rejecting files with the wrong magic number or version, and preferring the
+ * text file once it is newer than the snapshot.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ToySnapshotTest {
+
+	private static final int MAGIC = 0x544F5953; // "TOYS"
+
+	@TempDir
+	Path dir;
+
+	private File file;
+	private ToySnapshot snapshot;
+
+	@BeforeEach
+	void setUp() {
+		file = dir.resolve("toys.snapshot").toFile();
+		snapshot = new ToySnapshot(file);
+	}
+
+	@Test
+	void testRoundTripKeepsEveryField() throws IOException {
+		Toy figure = new Figures("0000000042", "Robin", "DC", 9.99, 5, 6, 'H');
+		Toy animal = new Animals("3000000007", "Ours brun été", "Mattel", 24.5, 0, 3, "Plush", 'L');
+		Toy puzzle = new Puzzles("6000000003", "Sudoku", "PuzzleMania", 0.01, 1, 8, 'T');
+		Toy game = new BoardGames("9000000009", "Catan", "Kosmos", 1234.56, 12, 10, 3, 4, "Klaus Teuber, Ann");
+		List<Toy> toys = List.of(figure, animal, puzzle, game);
+		snapshot.write(toys);
+		List<Toy> read = snapshot.read();
+
+		assertEquals(toys.size(), read.size(), "Every toy should be read back.");
+		for (int i = 0; i < toys.size(); i++) {
+			Toy expected = toys.get(i);
+			Toy actual = read.get(i);
+			assertEquals(expected.getClass(), actual.getClass(), "Toy " + i + " should keep its type.");
+			assertEquals(expected.getSn(), actual.getSn(), "Toy " + i + " should keep its serial number.");
+			assertEquals(expected.getName(), actual.getName(), "Toy " + i + " should keep its name.");
+			assertEquals(expected.getBrand(), actual.getBrand(), "Toy " + i + " should keep its brand.");
+			assertEquals(expected.getPrice(), actual.getPrice(), "Toy " + i + " should keep its exact price.");
+			assertEquals(expected.getAvailableCount(), actual.getAvailableCount(), "Toy " + i + " should keep its count.");
+			assertEquals(expected.getAgeAppropriate(), actual.getAgeAppropriate(), "Toy " + i + " should keep its age.");
+			assertEquals(expected.toDataString(), actual.toDataString(), "Toy " + i + " should keep its own fields.");
+		}
+		assertEquals('H', ((Figures) read.get(0)).getClassification(), "The classification should be kept.");
+		assertEquals("Plush", ((Animals) read.get(1)).getMaterial(), "The material should be kept.");
+		assertEquals('L', ((Animals) read.get(1)).getSize(), "The size should be kept.");
+		assertEquals('T', ((Puzzles) read.get(2)).getPuzzleType(), "The puzzle type should be kept.");
+		BoardGames readGame = (BoardGames) read.get(3);
+		assertEquals(3, readGame.getMinPlayers(), "The minimum players should be kept.");
+		assertEquals(4, readGame.getMaxPlayers(), "The maximum players should be kept.");
+		assertEquals(List.of("Klaus Teuber", "Ann"), Arrays.asList(readGame.getDesigners()),
+				"The designers should be kept in order.");
+
+		snapshot.write(List.of());
+		assertTrue(snapshot.read().isEmpty(), "An empty inventory should round trip.");
+	}
+
+	@Test
+	void testRejectsWrongMagicOrVersion() throws IOException {
+		writeHeader(0x12345678, 2);
+		IOException magic = assertThrows(IOException.class, snapshot::read, "A wrong magic should be rejected.");
+		assertTrue(magic.getMessage().startsWith("Not a toy snapshot"), "The file should not be taken for a snapshot.");
+
+		writeHeader(MAGIC, 99);
+		IOException version = assertThrows(IOException.class, snapshot::read, "A wrong version should be rejected.");
+		assertTrue(version.getMessage().startsWith("Unsupported snapshot version 99"), "The version should be named.");
+
+		Files.write(file.toPath(), new byte[] { 'T', 'O' });
+		assertThrows(IOException.class, snapshot::read, "A file shorter than the header should be rejected.");
+	}
+
+	@Test
+	void testTextFileNewerWins() throws IOException {
+		File textFile = dir.resolve("toys.txt").toFile();
+		assertFalse(snapshot.isNewerThan(textFile), "A missing snapshot should never be preferred.");
+
+		snapshot.write(List.of(new Figures("1000000001", "Batman", "DC", 14.99, 30, 7, 'A')));
+		assertTrue(snapshot.isNewerThan(textFile), "A snapshot should be preferred when there is no text file.");
+
+		Files.write(textFile.toPath(), List.of("1000000001;Batman;DC;14.99;30;7;A"));
+		assertTrue(textFile.setLastModified(file.lastModified() - 60_000), "The file time should be set.");
+		assertTrue(snapshot.isNewerThan(textFile), "A snapshot written after the text file should be preferred.");
+
+		assertTrue(textFile.setLastModified(file.lastModified() + 60_000), "The file time should be set.");
+		assertFalse(snapshot.isNewerThan(textFile), "A text file edited after the snapshot should be loaded.");
+	}
+
+	/**
+	 * Writes a header for an empty inventory.
+	 */
+	private void writeHeader(int magic, int version) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			out.writeInt(magic);
+			out.writeInt(version);
+			out.writeInt(0);
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package server;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import controller.InventoryService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link ToyServer} class.
+ *
+ * This class starts the server on a free localhost port over a small
+ * inventory and exercises every route, including the error responses for
+ * unknown resources, wrong methods, conflicts and malformed requests.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 2.0
+ */
+class ToyServerTest {
+
+	private static final String FIGURE = "1000000001;Action Bear;Hasbro;19.99;5;6;A";
+	private static final String ANIMAL = "2000000002;Teddy Bear;Mattel;24.50;20;3;Plush;M";
+	private static final String PUZZLE = "4000000003;Cube;Rubik;9.99;3;8;M";
+	private static final String GAME = "7000000004;Catan;Kosmos;49.00;2;10;3-4;Klaus Teuber";
+
+	@TempDir
+	Path dir;
+
+	private InventoryService service;
+	private ToyServer server;
+	private HttpClient client;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		File data = dir.resolve("toys.txt").toFile();
+		Files.write(data.toPath(), List.of(FIGURE, ANIMAL, PUZZLE, GAME));
+		service = new InventoryService(data, dir.resolve("toys.snapshot").toFile());
+		service.load();
+		server = new ToyServer(service, 0);
+		server.start();
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.stop(0);
+		service.close();
+	}
+
+	@Test
+	void testFindToy() throws Exception {
+		HttpResponse<String> found = send("GET", "/toys/1000000001", null);
+		assertEquals(200, found.statusCode(), "A listed toy should be found.");
+		assertTrue(found.body().contains("\"name\":\"Action Bear\""), "The toy should be returned.");
+
+		assertEquals(404, send("GET", "/toys/1999999999", null).statusCode(), "An unknown serial should be 404.");
+		assertEquals(404, send("GET", "/toys/1000000001/stock", null).statusCode(),
+				"An unknown sub-resource should be 404.");
+		assertEquals(404, send("GET", "/toysx", null).statusCode(), "An unknown resource should be 404.");
+	}
+
+	@Test
+	void testSearchToys() throws Exception {
+		HttpResponse<String> byName = send("GET", "/toys?name=bear", null);
+		assertEquals(200, byName.statusCode(), "A name search should succeed.");
+		assertTrue(byName.body().startsWith("{\"count\":2,"), "Both bears should match.");
+
+		HttpResponse<String> byType = send("GET", "/toys?type=BoardGame", null);
+		assertEquals(200, byType.statusCode(), "A type search should succeed.");
+		assertTrue(byType.body().contains("\"designers\":[\"Klaus Teuber\"]"), "The board game should match.");
+
+		assertEquals(400, send("GET", "/toys?type=Robot", null).statusCode(), "An unknown type should be 400.");
+		assertEquals(400, send("GET", "/toys", null).statusCode(), "A search without criteria should be 400.");
+	}
+
+	@Test
+	void testToysMethodNotAllowed() throws Exception {
+		HttpResponse<String> response = send("PUT", "/toys", "");
+		assertEquals(405, response.statusCode(), "PUT on the collection should be 405.");
+		assertEquals("GET, POST", response.headers().firstValue("Allow").orElse(null),
+				"The allowed methods should be listed.");
+		assertEquals(405, send("POST", "/toys/1000000001", "").statusCode(), "POST on a toy should be 405.");
+		assertEquals(405, send("GET", "/toys/1000000001/purchase", null).statusCode(),
+				"GET on a purchase should be 405.");
+	}
+
+	@Test
+	void testAddAndRemoveToy() throws Exception {
+		String record = "5000000005;Jigsaw;Ravensburger;14.00;4;5;T";
+		assertEquals(201, send("POST", "/toys", record).statusCode(), "A new toy should be created.");
+		assertEquals(409, send("POST", "/toys", record).statusCode(), "A taken serial number should be 409.");
+		assertEquals(400, send("POST", "/toys", "5000000006;Jigsaw;Ravensburger;cheap").statusCode(),
+				"A malformed record should be 400.");
+		assertEquals(200, send("GET", "/toys/5000000005", null).statusCode(), "The added toy should be listed.");
+
+		assertEquals(200, send("DELETE", "/toys/5000000005", null).statusCode(), "The toy should be removed.");
+		assertEquals(404, send("DELETE", "/toys/5000000005", null).statusCode(),
+				"Removing it again should be 404.");
+	}
+
+	@Test
+	void testPurchase() throws Exception {
+		HttpResponse<String> bought = send("POST", "/toys/4000000003/purchase", "");
+		assertEquals(200, bought.statusCode(), "A toy in stock should be sold.");
+		assertEquals("{\"result\":\"PURCHASED\"}", bought.body(), "Stock should remain.");
+		assertEquals(404, send("POST", "/toys/4999999999/purchase", "").statusCode(),
+				"Buying an unknown toy should be 404.");
+
+		// Hold the remaining units so the toy is listed but has nothing to sell
+		assertEquals(201, send("POST", "/reservations", "4000000003;2;60").statusCode(),
+				"The remaining units should be held.");
+		HttpResponse<String> held = send("POST", "/toys/4000000003/purchase", "");
+		assertEquals(409, held.statusCode(), "Buying a fully held toy should be 409.");
+		assertEquals("{\"result\":\"UNAVAILABLE\"}", held.body(), "Nothing should be sold.");
+	}
+
+	@Test
+	void testGifts() throws Exception {
+		HttpResponse<String> gifts = send("GET", "/gifts?age=6&maxPrice=30", null);
+		assertEquals(200, gifts.statusCode(), "Gift suggestions should succeed.");
+		assertTrue(gifts.body().startsWith("{\"count\":2,"), "The figure and puzzle fit the age and price.");
+
+		HttpResponse<String> ranked = send("GET", "/gifts?top=1&brand=Mattel", null);
+		assertEquals(200, ranked.statusCode(), "Ranked suggestions should succeed.");
+		assertTrue(ranked.body().startsWith("{\"count\":1,"), "Only the top suggestion should be returned.");
+
+		assertEquals(400, send("GET", "/gifts?age=six", null).statusCode(), "A malformed age should be 400.");
+		assertEquals(400, send("GET", "/gifts?type=Robot", null).statusCode(), "An unknown type should be 400.");
+		assertEquals(405, send("POST", "/gifts", "").statusCode(), "POST on gifts should be 405.");
+	}
+
+	@Test
+	void testBundles() throws Exception {
+		HttpResponse<String> bundle = send("GET", "/bundles?budget=50&age=6", null);
+		assertEquals(200, bundle.statusCode(), "A bundle should be found.");
+		assertTrue(bundle.body().startsWith("{\"count\":2,\"total\":29.98,"), 
+				"The figure and puzzle fit the budget together.");
+
+		assertEquals(400, send("GET", "/bundles?age=6", null).statusCode(), "A missing budget should be 400.");
+		assertEquals(400, send("GET", "/bundles?budget=lots", null).statusCode(),
+				"A malformed budget should be 400.");
+		assertEquals(405, send("DELETE", "/bundles", null).statusCode(), "DELETE on bundles should be 405.");
+	}
+
+	@Test
+	void testOrders() throws Exception {
+		HttpResponse<String> placed = send("POST", "/orders", "1000000001;2\n2000000002;1\n");
+		assertEquals(200, placed.statusCode(), "An order that can be filled should be placed.");
+		assertEquals("{\"placed\":true,\"total\":64.48}", placed.body(), "The total should be returned.");
+
+		HttpResponse<String> rejected = send("POST", "/orders", "1000000001;1\n7000000004;5");
+		assertEquals(409, rejected.statusCode(), "An order that cannot be filled should be 409.");
+		assertTrue(rejected.body().contains("\"serialNumber\":\"7000000004\""), "The failing line should be named.");
+		assertEquals(3, service.findBySerialNumber("1000000001").getAvailableCount(),
+				"A rejected order should take nothing.");
+
+		assertEquals(400, send("POST", "/orders", "1000000001").statusCode(), "A line without a quantity is 400.");
+		assertEquals(400, send("POST", "/orders", "1000000001;two").statusCode(), "A malformed quantity is 400.");
+		assertEquals(400, send("POST", "/orders", "\n").statusCode(), "An empty order should be 400.");
+		assertEquals(405, send("GET", "/orders", null).statusCode(), "GET on orders should be 405.");
+	}
+
+	@Test
+	void testReservations() throws Exception {
+		HttpResponse<String> created = send("POST", "/reservations", "2000000002;5;60");
+		assertEquals(201, created.statusCode(), "Units in stock should be held.");
+		long id = idOf(created.body());
+		assertEquals(15, service.findBySerialNumber("2000000002").getAvailableCount(),
+				"Held units should not be available.");
+
+		assertEquals(200, send("GET", "/reservations/" + id, null).statusCode(), "The reservation should be open.");
+		assertEquals(200, send("POST", "/reservations/" + id + "/confirm", "").statusCode(),
+				"The reservation should be confirmed.");
+		assertEquals(409, send("POST", "/reservations/" + id + "/confirm", "").statusCode(),
+				"Confirming twice should be 409.");
+		assertEquals(404, send("GET", "/reservations/" + id, null).statusCode(), "It should no longer be open.");
+
+		long released = idOf(send("POST", "/reservations", "2000000002;1;60").body());
+		assertEquals(200, send("DELETE", "/reservations/" + released, null).statusCode(),
+				"An open reservation should be released.");
+		assertEquals(404, send("DELETE", "/reservations/" + released, null).statusCode(),
+				"Releasing twice should be 404.");
+
+		assertEquals(404, send("POST", "/reservations", "2999999999;1;60").statusCode(),
+				"Holding an unknown toy should be 404.");
+		assertEquals(409, send("POST", "/reservations", "2000000002;100;60").statusCode(),
+				"Holding more than is available should be 409.");
+		assertEquals(400, send("POST", "/reservations", "2000000002;1").statusCode(),
+				"A body without a time to live should be 400.");
+		assertEquals(400, send("POST", "/reservations", "2000000002;0;60").statusCode(),
+				"A zero quantity should be 400.");
+		assertEquals(400, send("GET", "/reservations/abc", null).statusCode(), "A malformed id should be 400.");
+		assertEquals(405, send("GET", "/reservations", null).statusCode(), "GET on the collection should be 405.");
+		assertEquals(404, send("GET", "/reservations/1/2/3", null).statusCode(),
+				"An unknown sub-resource should be 404.");
+	}
+
+	@Test
+	void testMetrics() throws Exception {
+		HttpResponse<String> metrics = send("GET", "/metrics", null);
+		assertEquals(200, metrics.statusCode(), "Metrics should be served.");
+		assertTrue(metrics.body().startsWith("{\"stripes\":"), "The lock counters should be returned.");
+		assertEquals(405, send("POST", "/metrics", "").statusCode(), "POST on metrics should be 405.");
+	}
+
+	@Test
+	void testConcurrentPurchasesDoNotOversell() throws Exception {
+		int buyers = 40;
+		ExecutorService pool = Executors.newFixedThreadPool(buyers);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> statuses = new ArrayList<>();
+			for (int i = 0; i < buyers; i++) {
+				statuses.add(pool.submit(() -> {
+					start.await();
+					return send("POST", "/toys/2000000002/purchase", "").statusCode();
+				}));
+			}
+			start.countDown();
+
+			int sold = 0;
+			for (Future<Integer> status : statuses) {
+				int code = status.get();
+				if (code == 200) {
+					sold++;
+				} else {
+					assertTrue(code == 404 || code == 409, "A failed purchase should be 404 or 409, was " + code);
+				}
+			}
+			assertEquals(20, sold, "Exactly the units in stock should be sold.");
+			assertNull(service.findBySerialNumber("2000000002"), "The sold-out toy should be removed.");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Sends a request to the server and reads the whole response.
+	 */
+	private HttpResponse<String> send(String method, String path, String body) throws Exception {
+		HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+				: HttpRequest.BodyPublishers.ofString(body);
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+				.method(method, publisher).build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	/**
+	 * Reads the id of a reservation from its JSON.
+	 */
+	private static long idOf(String json) {
+		Matcher id = Pattern.compile("\"id\":(\\d+)").matcher(json);
+		assertTrue(id.find(), "The reservation should have an id: " + json);
+		return Long.parseLong(id.group(1));
+	}
+}